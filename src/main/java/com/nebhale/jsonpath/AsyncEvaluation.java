@@ -0,0 +1,331 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * An evaluation of a {@link JsonPath} against a JSON payload that arrives in chunks, as it does in an event-loop
+ * server. Chunks are passed to {@link #feed(ByteBuffer)} as they arrive and the end of the payload is signaled with
+ * {@link #end()}. The values that the expression selects are passed to a {@link MatchListener} as soon as they have
+ * been read.
+ * <p />
+ * Neither {@link #feed(ByteBuffer)} nor {@link #end()} ever blocks. The payload is read and evaluated on a thread of an
+ * {@link Executor}, and a chunk is discarded as soon as it has been read. Only the chunks that have been fed but not yet
+ * read are held in memory. Once they reach the high-water mark, {@link #feed(ByteBuffer)} returns {@code false} so that
+ * the caller can stop reading from its source, and the drained callback is run once half of them have been read. Jackson
+ * 2.1 can only read a payload from a blocking stream, so the evaluation occupies its thread from the first chunk until
+ * the payload ends, the evaluation is cancelled or nothing more can be selected.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ *
+ * @see JsonPath#evaluateAsync(Executor, MatchListener, long, Runnable)
+ */
+public final class AsyncEvaluation {
+
+    /**
+     * The number of bytes that can be fed but not yet read before {@link #feed(ByteBuffer)} returns {@code false}, if
+     * no other high-water mark is given
+     */
+    public static final long DEFAULT_HIGH_WATER_MARK = 1024 * 1024;
+
+    private final Object monitor = new Object();
+
+    private final Queue<ByteBuffer> chunks = new ArrayDeque<ByteBuffer>();
+
+    private final JsonPath jsonPath;
+
+    private final Executor executor;
+
+    private final MatchListener listener;
+
+    private final long highWaterMark;
+
+    private final Runnable drained;
+
+    private volatile ByteBuffer chunk;
+
+    private volatile long bufferedBytes = 0;
+
+    private volatile boolean started = false;
+
+    private volatile boolean paused = false;
+
+    private volatile boolean ended = false;
+
+    private volatile boolean cancelled = false;
+
+    private volatile boolean done = false;
+
+    AsyncEvaluation(JsonPath jsonPath, Executor executor, MatchListener listener, long highWaterMark, Runnable drained) {
+        if (highWaterMark < 1) {
+            throw new IllegalArgumentException("highWaterMark must be positive");
+        }
+
+        this.jsonPath = jsonPath;
+        this.executor = executor;
+        this.listener = listener;
+        this.highWaterMark = highWaterMark;
+        this.drained = drained;
+    }
+
+    /**
+     * Feeds the next chunk of the payload to the evaluation. The remaining bytes of {@code chunk} are copied, so the
+     * buffer can be reused as soon as this method returns. Its position is advanced to its limit. The chunk is
+     * discarded if the evaluation has already finished.
+     *
+     * @param chunk The next chunk of the payload
+     *
+     * @return {@code false} if the bytes that have been fed but not yet read have reached the high-water mark and the
+     *         caller should stop feeding chunks until the drained callback is run, otherwise {@code true}
+     *
+     * @throws IllegalStateException if the end of the payload has already been signaled
+     */
+    public boolean feed(ByteBuffer chunk) {
+        boolean start;
+        boolean accepting;
+
+        synchronized (this.monitor) {
+            if (this.ended) {
+                throw new IllegalStateException("The end of the payload has already been signaled");
+            }
+
+            // The finished check and the enqueueing share the lock with the discarding of the chunks when the
+            // evaluation finishes, so no chunk is enqueued once they have been discarded
+            if (!chunk.hasRemaining() || this.cancelled || this.done) {
+                chunk.position(chunk.limit());
+                return true;
+            }
+
+            ByteBuffer copy = ByteBuffer.allocate(chunk.remaining());
+            copy.put(chunk);
+            copy.flip();
+
+            this.chunks.offer(copy);
+            this.bufferedBytes += copy.remaining();
+            if (this.bufferedBytes >= this.highWaterMark) {
+                this.paused = true;
+            }
+            this.monitor.notifyAll();
+
+            accepting = !this.paused;
+            start = startOnce();
+        }
+
+        if (start) {
+            this.executor.execute(new Evaluation());
+        }
+        return accepting;
+    }
+
+    /**
+     * Signals the end of the payload
+     */
+    public void end() {
+        boolean start;
+
+        synchronized (this.monitor) {
+            if (this.ended) {
+                return;
+            }
+
+            this.ended = true;
+            this.monitor.notifyAll();
+            start = startOnce();
+        }
+
+        if (start) {
+            this.executor.execute(new Evaluation());
+        }
+    }
+
+    /**
+     * Cancels the evaluation. No further methods of the {@link MatchListener} are called once this method returns,
+     * apart from a call that is already in progress.
+     */
+    public void cancel() {
+        synchronized (this.monitor) {
+            this.cancelled = true;
+            discardChunks();
+            this.monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Returns the number of bytes that have been fed but not yet read
+     *
+     * @return the number of bytes that have been fed but not yet read
+     */
+    public long getBufferedBytes() {
+        return this.bufferedBytes;
+    }
+
+    /**
+     * Returns whether the evaluation has finished, either because it is complete, because it has failed or because it
+     * has been cancelled
+     *
+     * @return {@code true} if the evaluation has finished, otherwise {@code false}
+     */
+    public boolean isDone() {
+        return this.done || this.cancelled;
+    }
+
+    private boolean startOnce() {
+        boolean start = !this.started;
+        this.started = true;
+        return start;
+    }
+
+    private void discardChunks() {
+        this.chunks.clear();
+        this.chunk = null;
+        this.bufferedBytes = 0;
+    }
+
+    private boolean resume() {
+        if (this.paused && (this.bufferedBytes <= this.highWaterMark / 2)) {
+            this.paused = false;
+            return this.drained != null;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncEvaluation [jsonPath=" + this.jsonPath + ", bufferedBytes=" + this.bufferedBytes + ", highWaterMark="
+            + this.highWaterMark + ", ended=" + this.ended + ", cancelled=" + this.cancelled + ", done=" + this.done + "]";
+    }
+
+    private final class Evaluation implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                AsyncEvaluation.this.jsonPath.forEach(new ChunkInputStream(), JsonNode.class, new CancellableMatchCallback());
+                if (!AsyncEvaluation.this.cancelled) {
+                    AsyncEvaluation.this.listener.onComplete();
+                }
+            } catch (RuntimeException e) {
+                if (!AsyncEvaluation.this.cancelled) {
+                    AsyncEvaluation.this.listener.onError(e);
+                }
+            } finally {
+                finish();
+            }
+        }
+
+        private void finish() {
+            boolean resume;
+
+            synchronized (AsyncEvaluation.this.monitor) {
+                AsyncEvaluation.this.done = true;
+                discardChunks();
+                resume = resume();
+            }
+
+            // A caller that is waiting to feed more chunks is released, and any that it feeds are discarded
+            if (resume) {
+                AsyncEvaluation.this.drained.run();
+            }
+        }
+    }
+
+    private final class CancellableMatchCallback implements MatchCallback<JsonNode> {
+
+        @Override
+        public void onMatch(JsonNode value) {
+            if (!AsyncEvaluation.this.cancelled) {
+                AsyncEvaluation.this.listener.onMatch(value);
+            }
+        }
+    }
+
+    private final class ChunkInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            int count;
+            boolean resume;
+
+            synchronized (AsyncEvaluation.this.monitor) {
+                ByteBuffer current = nextChunk();
+                if (current == null) {
+                    return -1;
+                }
+
+                count = Math.min(len, current.remaining());
+                current.get(b, off, count);
+                AsyncEvaluation.this.bufferedBytes -= count;
+                resume = resume();
+            }
+
+            if (resume) {
+                AsyncEvaluation.this.drained.run();
+            }
+            return count;
+        }
+
+        private ByteBuffer nextChunk() throws IOException {
+            ByteBuffer current = AsyncEvaluation.this.chunk;
+            while ((current == null) || !current.hasRemaining()) {
+                if (AsyncEvaluation.this.cancelled) {
+                    throw new IOException("Evaluation cancelled");
+                }
+
+                current = AsyncEvaluation.this.chunks.poll();
+                if ((current == null) && AsyncEvaluation.this.ended) {
+                    return null;
+                } else if (current == null) {
+                    awaitChunk();
+                }
+            }
+
+            AsyncEvaluation.this.chunk = current;
+            return current;
+        }
+
+        private void awaitChunk() throws IOException {
+            try {
+                AsyncEvaluation.this.monitor.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the payload");
+            }
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+/**
+ * The ways in which the buffers that parsers read JSON payloads into are reused from one read to the next
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ *
+ * @see JsonPath#setBufferRecycling(BufferRecycling)
+ */
+public enum BufferRecycling {
+
+    /**
+     * Buffers are reused by the thread that reads a payload, through the per-thread recycler that Jackson provides.
+     * This suits a fixed set of threads, but a thread that reads only one payload, such as a virtual thread started for
+     * each task, allocates new buffers for every read.
+     */
+    THREAD_LOCAL,
+
+    /**
+     * Buffers are reused through a shared pool of parser contexts that is not tied to any thread. A read takes a
+     * context from the pool for its duration and returns it when the parser is closed, so buffers are reused across
+     * reads whichever thread runs them. This mode should be used with virtual threads or with executors that start a
+     * new thread for each task.
+     */
+    POOLED
+
+}
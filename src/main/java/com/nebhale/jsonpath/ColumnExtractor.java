@@ -0,0 +1,459 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebhale.jsonpath.internal.component.PathComponent;
+import com.nebhale.jsonpath.internal.component.ScalarFanOut;
+import com.nebhale.jsonpath.internal.component.ScalarMatchHandler;
+
+/**
+ * Extracts values from many JSON payloads into columns of primitives. Each column is defined by a name, a
+ * {@link JsonPath} and a type, and each payload that is added becomes a row with a value in every column. A value is
+ * taken from the first value that the column's expression selects, converted as by {@link JsonPath#readLong(JsonNode)},
+ * {@link JsonPath#readDouble(JsonNode)} or {@link JsonPath#readString(JsonNode)}, and stored without being boxed.
+ * Strings are dictionary-encoded, so each distinct string is stored once and a row holds its code. A row in which the
+ * expression selects nothing or selects null is marked as null in the column.
+ * <p />
+ * A payload that is added as a {@code String} or a {@code byte[]} is read once for all of the columns and is not read
+ * into a {@link JsonNode}. The child names that the expressions start with are followed as the payload is read, and
+ * the rest of each expression is applied to the value that they lead to. Only a value that the expressions of several
+ * columns read beyond those names is read into a {@link JsonNode}.
+ * <p />
+ * The columns grow as rows are added, and {@link #clear()} removes the rows while keeping the space that they used, so
+ * an instance can be reused for each batch of payloads. A column that is added after rows have been added is null in
+ * those rows.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Not thread-safe
+ */
+public final class ColumnExtractor {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<String, Column> columns = new LinkedHashMap<String, Column>();
+
+    private volatile int capacity = INITIAL_CAPACITY;
+
+    private volatile int rowCount = 0;
+
+    private volatile ScalarFanOut fanOut;
+
+    /**
+     * Adds a column of {@code long} values
+     *
+     * @param name The name of the column
+     * @param jsonPath The {@link JsonPath} that selects the value of the column from each payload
+     *
+     * @return this instance
+     *
+     * @throws IllegalArgumentException if there is already a column named {@code name}
+     */
+    public ColumnExtractor longColumn(String name, JsonPath jsonPath) {
+        return addColumn(new LongColumn(name, jsonPath));
+    }
+
+    /**
+     * Adds a column of {@code double} values
+     *
+     * @param name The name of the column
+     * @param jsonPath The {@link JsonPath} that selects the value of the column from each payload
+     *
+     * @return this instance
+     *
+     * @throws IllegalArgumentException if there is already a column named {@code name}
+     */
+    public ColumnExtractor doubleColumn(String name, JsonPath jsonPath) {
+        return addColumn(new DoubleColumn(name, jsonPath));
+    }
+
+    /**
+     * Adds a column of dictionary-encoded strings
+     *
+     * @param name The name of the column
+     * @param jsonPath The {@link JsonPath} that selects the value of the column from each payload
+     *
+     * @return this instance
+     *
+     * @throws IllegalArgumentException if there is already a column named {@code name}
+     */
+    public ColumnExtractor stringColumn(String name, JsonPath jsonPath) {
+        return addColumn(new StringColumn(name, jsonPath));
+    }
+
+    /**
+     * Adds a row with the values extracted from a JSON payload
+     *
+     * @param json The JSON payload to extract values from
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     * @throws IllegalArgumentException if a value cannot be converted to the type of its column. No row is added.
+     */
+    public void add(String json) {
+        ScalarMatchHandler[] handlers = createHandlers();
+        JsonPath.matchValue(json, getFanOut().createMatchHandler(handlers, false));
+        add(handlers);
+    }
+
+    /**
+     * Adds a row with the values extracted from a JSON payload. The payload may be encoded in UTF-8, UTF-16 or UTF-32,
+     * and may be compressed with gzip or zlib.
+     *
+     * @param json The JSON payload to extract values from
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     * @throws IllegalArgumentException if a value cannot be converted to the type of its column. No row is added.
+     */
+    public void add(byte[] json) {
+        ScalarMatchHandler[] handlers = createHandlers();
+        JsonPath.matchValue(json, getFanOut().createMatchHandler(handlers, JsonPath.isInMemory(json)));
+        add(handlers);
+    }
+
+    /**
+     * Adds a row with the values extracted from a JSON payload
+     *
+     * @param json The JSON payload to extract values from
+     *
+     * @throws IllegalArgumentException if a value cannot be converted to the type of its column. No row is added.
+     */
+    public void add(JsonNode json) {
+        ScalarMatchHandler[] handlers = createHandlers();
+        getFanOut().createMatchHandler(handlers, false).match(json);
+        add(handlers);
+    }
+
+    private void add(ScalarMatchHandler[] handlers) {
+        int row = this.rowCount;
+        if (row == this.capacity) {
+            this.capacity = this.capacity * 2;
+            for (Column column : this.columns.values()) {
+                column.grow(this.capacity);
+            }
+        }
+
+        try {
+            int i = 0;
+            for (Column column : this.columns.values()) {
+                column.extract(row, handlers[i++]);
+            }
+        } catch (RuntimeException e) {
+            for (Column column : this.columns.values()) {
+                column.discard(row);
+            }
+            throw e;
+        }
+
+        for (Column column : this.columns.values()) {
+            column.commit();
+        }
+        this.rowCount = row + 1;
+    }
+
+    /**
+     * Returns the number of rows that have been added
+     *
+     * @return the number of rows that have been added
+     */
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Returns the values of a column of {@code long} values. The value of a null row is {@code 0}.
+     *
+     * @param name The name of the column
+     *
+     * @return the values of the column, one for each row
+     *
+     * @throws IllegalArgumentException if there is no column of {@code long} values named {@code name}
+     */
+    public long[] getLongs(String name) {
+        return Arrays.copyOf(getColumn(name, LongColumn.class).values, this.rowCount);
+    }
+
+    /**
+     * Returns the values of a column of {@code double} values. The value of a null row is {@code 0}.
+     *
+     * @param name The name of the column
+     *
+     * @return the values of the column, one for each row
+     *
+     * @throws IllegalArgumentException if there is no column of {@code double} values named {@code name}
+     */
+    public double[] getDoubles(String name) {
+        return Arrays.copyOf(getColumn(name, DoubleColumn.class).values, this.rowCount);
+    }
+
+    /**
+     * Returns the codes of a column of strings. Each code is the position of the row's string in the column's
+     * dictionary. The code of a null row is {@code -1}.
+     *
+     * @param name The name of the column
+     *
+     * @return the codes of the column, one for each row
+     *
+     * @throws IllegalArgumentException if there is no column of strings named {@code name}
+     *
+     * @see #getDictionary(String)
+     */
+    public int[] getCodes(String name) {
+        return Arrays.copyOf(getColumn(name, StringColumn.class).codes, this.rowCount);
+    }
+
+    /**
+     * Returns the dictionary of a column of strings. Each distinct string in the column appears once, in the order in
+     * which it was first added.
+     *
+     * @param name The name of the column
+     *
+     * @return the dictionary of the column
+     *
+     * @throws IllegalArgumentException if there is no column of strings named {@code name}
+     *
+     * @see #getCodes(String)
+     */
+    public List<String> getDictionary(String name) {
+        return Collections.unmodifiableList(new ArrayList<String>(getColumn(name, StringColumn.class).dictionary));
+    }
+
+    /**
+     * Returns the rows of a column that are null
+     *
+     * @param name The name of the column
+     *
+     * @return a {@link BitSet} in which the bit of each null row is set
+     *
+     * @throws IllegalArgumentException if there is no column named {@code name}
+     */
+    public BitSet getNulls(String name) {
+        return (BitSet) getColumn(name, Column.class).nulls.clone();
+    }
+
+    /**
+     * Removes every row. The columns and their dictionaries are kept, as is the space that the rows used.
+     */
+    public void clear() {
+        for (Column column : this.columns.values()) {
+            column.nulls.clear();
+        }
+        this.rowCount = 0;
+    }
+
+    private ColumnExtractor addColumn(Column column) {
+        if (this.columns.containsKey(column.name)) {
+            throw new IllegalArgumentException(String.format("There is already a column named '%s'", column.name));
+        }
+
+        column.grow(this.capacity);
+        for (int row = 0; row < this.rowCount; row++) {
+            column.nulls.set(row);
+            column.setNull(row);
+        }
+
+        this.columns.put(column.name, column);
+        this.fanOut = null;
+        return this;
+    }
+
+    private ScalarMatchHandler[] createHandlers() {
+        ScalarMatchHandler[] handlers = new ScalarMatchHandler[this.columns.size()];
+        for (int i = 0; i < handlers.length; i++) {
+            handlers[i] = new ScalarMatchHandler();
+        }
+        return handlers;
+    }
+
+    private ScalarFanOut getFanOut() {
+        if (this.fanOut == null) {
+            List<PathComponent> pathComponents = new ArrayList<PathComponent>();
+            for (Column column : this.columns.values()) {
+                pathComponents.add(column.jsonPath.getPathComponent());
+            }
+            this.fanOut = new ScalarFanOut(pathComponents);
+        }
+        return this.fanOut;
+    }
+
+    private <T extends Column> T getColumn(String name, Class<T> type) {
+        Column column = this.columns.get(name);
+        if (!type.isInstance(column)) {
+            throw new IllegalArgumentException(String.format("There is no column of the requested type named '%s'", name));
+        }
+        return type.cast(column);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnExtractor [columns=" + this.columns.values() + ", rowCount=" + this.rowCount + "]";
+    }
+
+    private abstract static class Column {
+
+        protected final String name;
+
+        protected final JsonPath jsonPath;
+
+        protected final BitSet nulls = new BitSet();
+
+        protected Column(String name, JsonPath jsonPath) {
+            this.name = name;
+            this.jsonPath = jsonPath;
+        }
+
+        protected final void extract(int row, ScalarMatchHandler handler) {
+            if (JsonPath.isMissing(handler)) {
+                this.nulls.set(row);
+                setNull(row);
+            } else {
+                set(row, handler);
+            }
+        }
+
+        protected void discard(int row) {
+            this.nulls.clear(row);
+        }
+
+        protected void commit() {
+        }
+
+        protected abstract void grow(int capacity);
+
+        protected abstract void set(int row, ScalarMatchHandler handler);
+
+        protected abstract void setNull(int row);
+
+        @Override
+        public final String toString() {
+            return this.name + "=" + this.jsonPath;
+        }
+    }
+
+    private static final class LongColumn extends Column {
+
+        private volatile long[] values = new long[0];
+
+        private LongColumn(String name, JsonPath jsonPath) {
+            super(name, jsonPath);
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+
+        @Override
+        protected void set(int row, ScalarMatchHandler handler) {
+            this.values[row] = this.jsonPath.asLong(handler);
+        }
+
+        @Override
+        protected void setNull(int row) {
+            this.values[row] = 0;
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+
+        private volatile double[] values = new double[0];
+
+        private DoubleColumn(String name, JsonPath jsonPath) {
+            super(name, jsonPath);
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+
+        @Override
+        protected void set(int row, ScalarMatchHandler handler) {
+            this.values[row] = this.jsonPath.asDouble(handler);
+        }
+
+        @Override
+        protected void setNull(int row) {
+            this.values[row] = 0;
+        }
+    }
+
+    private static final class StringColumn extends Column {
+
+        private final Map<String, Integer> codesByString = new HashMap<String, Integer>();
+
+        private final List<String> dictionary = new ArrayList<String>();
+
+        private volatile int[] codes = new int[0];
+
+        private volatile int committedSize = 0;
+
+        private StringColumn(String name, JsonPath jsonPath) {
+            super(name, jsonPath);
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            this.codes = Arrays.copyOf(this.codes, capacity);
+        }
+
+        @Override
+        protected void set(int row, ScalarMatchHandler handler) {
+            String value = this.jsonPath.asString(handler);
+
+            Integer code = this.codesByString.get(value);
+            if (code == null) {
+                code = this.dictionary.size();
+                this.codesByString.put(value, code);
+                this.dictionary.add(value);
+            }
+
+            this.codes[row] = code;
+        }
+
+        @Override
+        protected void setNull(int row) {
+            this.codes[row] = -1;
+        }
+
+        @Override
+        protected void discard(int row) {
+            super.discard(row);
+
+            // A string that was first seen in a row that was not added is not in any row
+            while (this.dictionary.size() > this.committedSize) {
+                this.codesByString.remove(this.dictionary.remove(this.dictionary.size() - 1));
+            }
+        }
+
+        @Override
+        protected void commit() {
+            this.committedSize = this.dictionary.size();
+        }
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebhale.jsonpath.internal.component.ElementIndex;
+import com.nebhale.jsonpath.internal.expression.Predicate;
+import com.nebhale.jsonpath.internal.index.ArrayIndex;
+import com.nebhale.jsonpath.internal.index.FieldIndex;
+import com.nebhale.jsonpath.internal.index.HashFieldIndex;
+import com.nebhale.jsonpath.internal.index.SortedFieldIndex;
+
+/**
+ * A JSON document together with secondary indexes over the fields of the elements of some of its arrays. Reading from
+ * an instance of this class with {@link JsonPath#read(JsonDocumentIndex, Class)} returns the same content as reading
+ * from the document itself, but a filter such as {@code $.products[?(@.sku == 'X')]} that is applied to an indexed
+ * array and compares an indexed field to a literal finds its candidates with the index instead of testing every
+ * element.
+ * <p />
+ * A hash index answers {@code ==} comparisons and a sorted index answers {@code ==}, {@code <}, {@code <=}, {@code >}
+ * and {@code >=} comparisons. When a filter combines comparisons with {@code &&}, the comparison with the fewest
+ * candidates is used and the whole filter is then tested against each candidate.
+ * <p />
+ * The indexes are built when they are added. If an indexed array changes size, the indexes are rebuilt the next time
+ * they are used. Any other change to the document must be followed by a call to {@link #invalidate()}. An index whose
+ * expression no longer selects an array when it is rebuilt is ignored until the expression selects an array again.
+ * Filters that cannot use an index test every element, so an index never changes the content that is read.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class JsonDocumentIndex {
+
+    private final JsonNode document;
+
+    private final ElementIndex elementIndex = new DocumentElementIndex();
+
+    private final Object monitor = new Object();
+
+    private volatile Map<JsonNode, ArrayIndex> arrayIndexes = Collections.emptyMap();
+
+    private volatile List<Definition> definitions = Collections.emptyList();
+
+    /**
+     * Creates a new instance with no indexes
+     *
+     * @param document The JSON document to index
+     */
+    public JsonDocumentIndex(JsonNode document) {
+        this.document = document;
+    }
+
+    /**
+     * Adds a hash index over a field of the elements of an array
+     *
+     * @param arrayExpression A JSONPath expression that selects the array
+     * @param field The name of the field to index
+     *
+     * @return This instance
+     *
+     * @throws InvalidJsonPathExpressionException if the {@code arrayExpression} argument is not a legal JSONPath
+     *             expression
+     * @throws IllegalArgumentException if the {@code arrayExpression} argument does not select an array
+     */
+    public JsonDocumentIndex hashIndex(String arrayExpression, String field) {
+        return add(new Definition(JsonPath.compile(arrayExpression), field, false));
+    }
+
+    /**
+     * Adds a sorted index over a field of the elements of an array
+     *
+     * @param arrayExpression A JSONPath expression that selects the array
+     * @param field The name of the field to index
+     *
+     * @return This instance
+     *
+     * @throws InvalidJsonPathExpressionException if the {@code arrayExpression} argument is not a legal JSONPath
+     *             expression
+     * @throws IllegalArgumentException if the {@code arrayExpression} argument does not select an array
+     */
+    public JsonDocumentIndex sortedIndex(String arrayExpression, String field) {
+        return add(new Definition(JsonPath.compile(arrayExpression), field, true));
+    }
+
+    /**
+     * Returns the indexed JSON document
+     *
+     * @return the indexed JSON document
+     */
+    public JsonNode getDocument() {
+        return this.document;
+    }
+
+    /**
+     * Rebuilds all of the indexes from the current content of the document. Must be called after the document is
+     * changed.
+     */
+    public void invalidate() {
+        synchronized (this.monitor) {
+            this.arrayIndexes = build(this.definitions);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JsonDocumentIndex [definitions=" + this.definitions + "]";
+    }
+
+    ElementIndex getElementIndex() {
+        return this.elementIndex;
+    }
+
+    private JsonDocumentIndex add(Definition definition) {
+        if (definition.getArray(this.document) == null) {
+            throw new IllegalArgumentException("'" + definition.jsonPath + "' does not select an array");
+        }
+
+        synchronized (this.monitor) {
+            List<Definition> definitions = new ArrayList<Definition>(this.definitions);
+            definitions.add(definition);
+
+            this.arrayIndexes = build(definitions);
+            this.definitions = Collections.unmodifiableList(definitions);
+        }
+        return this;
+    }
+
+    private Map<JsonNode, ArrayIndex> build(List<Definition> definitions) {
+        Map<JsonNode, ArrayIndex> arrayIndexes = new IdentityHashMap<JsonNode, ArrayIndex>();
+
+        for (Definition definition : definitions) {
+            JsonNode array = definition.getArray(this.document);
+            if (array == null) {
+                continue;
+            }
+
+            ArrayIndex arrayIndex = arrayIndexes.get(array);
+            if (arrayIndex == null) {
+                arrayIndex = new ArrayIndex(array);
+                arrayIndexes.put(array, arrayIndex);
+            }
+
+            FieldIndex fieldIndex = definition.sorted ? new SortedFieldIndex(array, definition.field) : new HashFieldIndex(array,
+                definition.field);
+            arrayIndex.add(definition.field, fieldIndex);
+        }
+
+        return Collections.unmodifiableMap(arrayIndexes);
+    }
+
+    private static final class Definition {
+
+        private final String field;
+
+        private final JsonPath jsonPath;
+
+        private final boolean sorted;
+
+        private Definition(JsonPath jsonPath, String field, boolean sorted) {
+            this.field = field;
+            this.jsonPath = jsonPath;
+            this.sorted = sorted;
+        }
+
+        private JsonNode getArray(JsonNode document) {
+            JsonNode array = this.jsonPath.read(document, JsonNode.class);
+            return (array != null) && array.isArray() ? array : null;
+        }
+
+        @Override
+        public String toString() {
+            return "Definition [field=" + this.field + ", jsonPath=" + this.jsonPath + ", sorted=" + this.sorted + "]";
+        }
+
+    }
+
+    private final class DocumentElementIndex implements ElementIndex {
+
+        @Override
+        public int[] find(JsonNode array, Predicate predicate) {
+            ArrayIndex arrayIndex = JsonDocumentIndex.this.arrayIndexes.get(array);
+            if (arrayIndex == null) {
+                return null;
+            }
+
+            if (arrayIndex.isStale()) {
+                synchronized (JsonDocumentIndex.this.monitor) {
+                    if (JsonDocumentIndex.this.arrayIndexes.get(array) == arrayIndex) {
+                        invalidate();
+                    }
+                    arrayIndex = JsonDocumentIndex.this.arrayIndexes.get(array);
+                }
+            }
+
+            return arrayIndex == null ? null : arrayIndex.find(predicate);
+        }
+
+        @Override
+        public String toString() {
+            return "DocumentElementIndex []";
+        }
+
+    }
+
+}
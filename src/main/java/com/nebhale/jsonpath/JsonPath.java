@@ -16,18 +16,50 @@
 
 package com.nebhale.jsonpath;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.nebhale.jsonpath.internal.component.BindingMatchHandler;
+import com.nebhale.jsonpath.internal.component.CollectingMatchHandler;
+import com.nebhale.jsonpath.internal.component.CountingMatchHandler;
+import com.nebhale.jsonpath.internal.component.ElementIndex;
+import com.nebhale.jsonpath.internal.component.MatchHandler;
 import com.nebhale.jsonpath.internal.component.PathComponent;
+import com.nebhale.jsonpath.internal.component.RootPathComponent;
+import com.nebhale.jsonpath.internal.component.ScalarMatchHandler;
+import com.nebhale.jsonpath.internal.component.SelectionCompleteException;
 import com.nebhale.jsonpath.internal.parser.ExpressionProblem;
 import com.nebhale.jsonpath.internal.parser.ParserResult;
 import com.nebhale.jsonpath.internal.parser.RecoveringPathParser;
+import com.nebhale.jsonpath.internal.util.ArraySplitter;
+import com.nebhale.jsonpath.internal.util.InputStreams;
+import com.nebhale.jsonpath.internal.util.JsonFactoryPool;
 
 /**
  * A compiled representation of a <a href="http://goessner.net/articles/JsonPath/">JSONPath expression</a>. JSONPath is
@@ -48,15 +80,69 @@ public final class JsonPath implements Serializable {
 
     private static final long serialVersionUID = 3988258888065355714L;
 
+    // An ObjectMapper is thread-safe once configured, and sharing one keeps its serializer and deserializer caches warm
+    // across reads. Its factory recycles parser buffers per thread, which only helps threads that read more than once.
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // The factories used when buffers are pooled recycle their own buffers, so buffers are reused whichever thread reads
+    private static final JsonFactoryPool FACTORY_POOL = new JsonFactoryPool(OBJECT_MAPPER, Math.max(16, 4 * Runtime.getRuntime()
+        .availableProcessors()));
+
+    private static volatile BufferRecycling bufferRecycling = BufferRecycling.THREAD_LOCAL;
+
+    // Matched values are bound straight from the parser by an ObjectReader for the target type. A reader is immutable,
+    // so one is created for each type and shared.
+    private static final ConcurrentMap<JavaType, ObjectReader> READERS = new ConcurrentHashMap<JavaType, ObjectReader>();
+
+    private static final int MINIMUM_SLICE_SIZE = 1024 * 1024;
+
+    private static final int SLICES_PER_PROCESSOR = 4;
+
+    private static final int MINIMUM_FORK_SIZE = 256;
+
+    private static final byte[] OPEN_BRACKET = { '[' };
+
+    private static final byte[] CLOSE_BRACKET = { ']' };
+
     private final String expression;
 
+    private final RegexMode regexMode;
+
+    private final int limit;
+
     private transient final PathComponent pathComponent;
 
-    private JsonPath(String expression, PathComponent pathComponent) {
+    private JsonPath(String expression, RegexMode regexMode, int limit, PathComponent pathComponent) {
         this.expression = expression;
+        this.regexMode = regexMode;
+        this.limit = limit;
         this.pathComponent = pathComponent;
     }
 
+    /**
+     * Returns the way in which parser buffers are reused from one read to the next
+     *
+     * @return the way in which parser buffers are reused from one read to the next
+     */
+    public static BufferRecycling getBufferRecycling() {
+        return bufferRecycling;
+    }
+
+    /**
+     * Sets the way in which parser buffers are reused from one read to the next. The default is
+     * {@link BufferRecycling#THREAD_LOCAL}, and {@link BufferRecycling#POOLED} should be used when payloads are read on
+     * virtual threads or on executors that start a new thread for each task. The setting applies to every
+     * {@link JsonPath} and takes effect for reads that start after it is changed.
+     *
+     * @param bufferRecycling The way in which parser buffers are reused
+     */
+    public static void setBufferRecycling(BufferRecycling bufferRecycling) {
+        if (bufferRecycling == null) {
+            throw new IllegalArgumentException("bufferRecycling must not be null");
+        }
+        JsonPath.bufferRecycling = bufferRecycling;
+    }
+
     /**
      * Compiles the given JSONPath expression into a {@link JsonPath}
      *
@@ -67,15 +153,50 @@ public final class JsonPath implements Serializable {
      * @throws InvalidJsonPathExpressionException if the {@code expression} argument is not a legal JSONPath expression
      */
     public static JsonPath compile(String expression) {
-        ParserResult parserResult = new RecoveringPathParser().parse(expression);
+        return compile(expression, RegexMode.STANDARD);
+    }
+
+    /**
+     * Compiles the given JSONPath expression into a {@link JsonPath}, evaluating any regular expressions in its filter
+     * expressions in the given mode
+     *
+     * @param expression The expression to compile
+     * @param regexMode The mode to evaluate regular expressions in
+     *
+     * @return A {@link JsonPath} that can be used to read content from JSON payloads
+     *
+     * @throws InvalidJsonPathExpressionException if the {@code expression} argument is not a legal JSONPath expression
+     *         or contains a regular expression that cannot be evaluated in the given mode
+     */
+    public static JsonPath compile(String expression, RegexMode regexMode) {
+        ParserResult parserResult = new RecoveringPathParser(regexMode == RegexMode.LINEAR_TIME).parse(expression);
 
         if (parserResult.getProblems().isEmpty()) {
-            return new JsonPath(expression, parserResult.getPathComponent());
+            return new JsonPath(expression, regexMode, Integer.MAX_VALUE, parserResult.getPathComponent());
         }
 
         throw new InvalidJsonPathExpressionException(getMessage(parserResult.getProblems()));
     }
 
+    /**
+     * Returns a {@link JsonPath} for the same expression that selects at most {@code limit} values. Evaluation stops as
+     * soon as {@code limit} values have been selected, and no further input is read. An expression that selects a
+     * single value is not affected.
+     *
+     * @param limit The maximum number of values to select
+     *
+     * @return A {@link JsonPath} that selects at most {@code limit} values
+     *
+     * @throws IllegalArgumentException if {@code limit} is less than one
+     */
+    public JsonPath limit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException(String.format("Limit must be at least one but was %d", limit));
+        }
+
+        return new JsonPath(this.expression, this.regexMode, limit, this.pathComponent);
+    }
+
     /**
      * A short-cut that encapsulates the {@link #compile(String) compilation} of a JSONPath expression and then the read
      * of data from a JSON payload. <b>Note</b> that this is simply an encapsulation of a call to
@@ -191,13 +312,7 @@ public final class JsonPath implements Serializable {
      * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
      */
     public <T> T read(String json, Class<T> expectedReturnType) {
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode tree = objectMapper.readTree(json);
-            return read(tree, expectedReturnType);
-        } catch (IOException e) {
-            throw new InvalidJsonException(e);
-        }
+        return bind(json, OBJECT_MAPPER.constructType(expectedReturnType));
     }
 
     /**
@@ -211,13 +326,7 @@ public final class JsonPath implements Serializable {
      * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
      */
     public <T> T read(String json, TypeReference<?> expectedReturnType) {
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode tree = objectMapper.readTree(json);
-            return read(tree, expectedReturnType);
-        } catch (IOException e) {
-            throw new InvalidJsonException(e);
-        }
+        return bind(json, OBJECT_MAPPER.getTypeFactory().constructType(expectedReturnType));
     }
 
     /**
@@ -231,13 +340,232 @@ public final class JsonPath implements Serializable {
      * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
      */
     public <T> T read(String json, JavaType expectedReturnType) {
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode tree = objectMapper.readTree(json);
-            return read(tree, expectedReturnType);
-        } catch (IOException e) {
-            throw new InvalidJsonException(e);
-        }
+        return bind(json, expectedReturnType);
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance. The payload may be encoded
+     * in UTF-8, UTF-16 or UTF-32. The field names of a UTF-8 payload are compared with the expression without being
+     * decoded where possible. A payload compressed with gzip or zlib is detected from its first bytes and decompressed
+     * as it is read.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     */
+    public <T> T read(byte[] json, Class<T> expectedReturnType) {
+        return bind(json, OBJECT_MAPPER.constructType(expectedReturnType));
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance. The payload may be encoded
+     * in UTF-8, UTF-16 or UTF-32. The field names of a UTF-8 payload are compared with the expression without being
+     * decoded where possible. A payload compressed with gzip or zlib is detected from its first bytes and decompressed
+     * as it is read.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     */
+    public <T> T read(byte[] json, TypeReference<?> expectedReturnType) {
+        return bind(json, OBJECT_MAPPER.getTypeFactory().constructType(expectedReturnType));
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance. The payload may be encoded
+     * in UTF-8, UTF-16 or UTF-32. The field names of a UTF-8 payload are compared with the expression without being
+     * decoded where possible. A payload compressed with gzip or zlib is detected from its first bytes and decompressed
+     * as it is read.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     */
+    public <T> T read(byte[] json, JavaType expectedReturnType) {
+        return bind(json, expectedReturnType);
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance, evaluating parts of the
+     * payload in parallel. When the payload is a UTF-8 array and the expression starts with a wildcard or a filter
+     * over its elements, as in {@code $[*].id} or {@code $[?(@.type == 'click')]}, the payload is split between
+     * elements into slices that are evaluated on {@code executor}. Otherwise the payload is read as by
+     * {@link #read(byte[], Class)}. The content read is always the same as that read by {@link #read(byte[], Class)}.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     * @param executor The {@link ExecutorService}, for example a {@code ForkJoinPool}, to evaluate the slices on
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     */
+    public <T> T readParallel(byte[] json, Class<T> expectedReturnType, ExecutorService executor) {
+        JsonNode result = selectParallel(json, executor, getSliceCount(json));
+        return OBJECT_MAPPER.convertValue(result, expectedReturnType);
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance, evaluating parts of the
+     * payload in parallel. When the payload is a UTF-8 array and the expression starts with a wildcard or a filter
+     * over its elements, as in {@code $[*].id} or {@code $[?(@.type == 'click')]}, the payload is split between
+     * elements into slices that are evaluated on {@code executor}. Otherwise the payload is read as by
+     * {@link #read(byte[], Class)}. The content read is always the same as that read by {@link #read(byte[], Class)}.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     * @param executor The {@link ExecutorService}, for example a {@code ForkJoinPool}, to evaluate the slices on
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     */
+    public <T> T readParallel(byte[] json, TypeReference<?> expectedReturnType, ExecutorService executor) {
+        JsonNode result = selectParallel(json, executor, getSliceCount(json));
+        return OBJECT_MAPPER.convertValue(result, expectedReturnType);
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance, evaluating parts of the
+     * payload in parallel. When the payload is a UTF-8 array and the expression starts with a wildcard or a filter
+     * over its elements, as in {@code $[*].id} or {@code $[?(@.type == 'click')]}, the payload is split between
+     * elements into slices that are evaluated on {@code executor}. Otherwise the payload is read as by
+     * {@link #read(byte[], Class)}. The content read is always the same as that read by {@link #read(byte[], Class)}.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     * @param executor The {@link ExecutorService}, for example a {@code ForkJoinPool}, to evaluate the slices on
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     */
+    public <T> T readParallel(byte[] json, JavaType expectedReturnType, ExecutorService executor) {
+        JsonNode result = selectParallel(json, executor, getSliceCount(json));
+        return OBJECT_MAPPER.convertValue(result, expectedReturnType);
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance, evaluating parts of the
+     * payload in parallel. When the payload is an array with at least 256 elements and the expression starts with a
+     * wildcard or a filter over them, as in {@code $[*].id}, the elements are split by index into slices that are
+     * evaluated on {@code executor}. When the expression starts with a deep wildcard, as in {@code $..price}, each
+     * array or object in the payload that has at least 256 values is split into parts that are walked on
+     * {@code executor}, while smaller ones are walked on the calling thread. Otherwise the payload is read as by
+     * {@link #read(JsonNode, Class)}. The content read is always the same as that read by
+     * {@link #read(JsonNode, Class)}.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     * @param executor The {@link ExecutorService}, for example a {@code ForkJoinPool}, to walk the parts on
+     *
+     * @return The content read from the JSON payload
+     */
+    public <T> T readParallel(JsonNode json, Class<T> expectedReturnType, ExecutorService executor) {
+        JsonNode result = selectParallel(json, executor, MINIMUM_FORK_SIZE, getSliceCount());
+        return OBJECT_MAPPER.convertValue(result, expectedReturnType);
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance, evaluating parts of the
+     * payload in parallel. When the payload is an array with at least 256 elements and the expression starts with a
+     * wildcard or a filter over them, as in {@code $[*].id}, the elements are split by index into slices that are
+     * evaluated on {@code executor}. When the expression starts with a deep wildcard, as in {@code $..price}, each
+     * array or object in the payload that has at least 256 values is split into parts that are walked on
+     * {@code executor}, while smaller ones are walked on the calling thread. Otherwise the payload is read as by
+     * {@link #read(JsonNode, Class)}. The content read is always the same as that read by
+     * {@link #read(JsonNode, Class)}.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     * @param executor The {@link ExecutorService}, for example a {@code ForkJoinPool}, to walk the parts on
+     *
+     * @return The content read from the JSON payload
+     */
+    public <T> T readParallel(JsonNode json, TypeReference<?> expectedReturnType, ExecutorService executor) {
+        JsonNode result = selectParallel(json, executor, MINIMUM_FORK_SIZE, getSliceCount());
+        return OBJECT_MAPPER.convertValue(result, expectedReturnType);
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance, evaluating parts of the
+     * payload in parallel. When the payload is an array with at least 256 elements and the expression starts with a
+     * wildcard or a filter over them, as in {@code $[*].id}, the elements are split by index into slices that are
+     * evaluated on {@code executor}. When the expression starts with a deep wildcard, as in {@code $..price}, each
+     * array or object in the payload that has at least 256 values is split into parts that are walked on
+     * {@code executor}, while smaller ones are walked on the calling thread. Otherwise the payload is read as by
+     * {@link #read(JsonNode, Class)}. The content read is always the same as that read by
+     * {@link #read(JsonNode, Class)}.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     * @param executor The {@link ExecutorService}, for example a {@code ForkJoinPool}, to walk the parts on
+     *
+     * @return The content read from the JSON payload
+     */
+    public <T> T readParallel(JsonNode json, JavaType expectedReturnType, ExecutorService executor) {
+        JsonNode result = selectParallel(json, executor, MINIMUM_FORK_SIZE, getSliceCount());
+        return OBJECT_MAPPER.convertValue(result, expectedReturnType);
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance. The payload is read as a
+     * stream, so only the content selected is held in memory. A compressed payload is detected from its first bytes and
+     * decompressed as it is read.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib, to
+     *        retrieve data from. The stream is closed once the content has been read.
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload or cannot be read
+     */
+    public <T> T read(InputStream json, Class<T> expectedReturnType) {
+        return bind(json, OBJECT_MAPPER.constructType(expectedReturnType));
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance. The payload is read as a
+     * stream, so only the content selected is held in memory. A compressed payload is detected from its first bytes and
+     * decompressed as it is read.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib, to
+     *        retrieve data from. The stream is closed once the content has been read.
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload or cannot be read
+     */
+    public <T> T read(InputStream json, TypeReference<?> expectedReturnType) {
+        return bind(json, OBJECT_MAPPER.getTypeFactory().constructType(expectedReturnType));
+    }
+
+    /**
+     * Reads content from a JSON payload based on the expression compiled into this instance. The payload is read as a
+     * stream, so only the content selected is held in memory. A compressed payload is detected from its first bytes and
+     * decompressed as it is read.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib, to
+     *        retrieve data from. The stream is closed once the content has been read.
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload or cannot be read
+     */
+    public <T> T read(InputStream json, JavaType expectedReturnType) {
+        return bind(json, expectedReturnType);
     }
 
     /**
@@ -249,9 +577,7 @@ public final class JsonPath implements Serializable {
      * @return The content read from the JSON payload
      */
     public <T> T read(JsonNode json, Class<T> expectedReturnType) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode result = this.pathComponent.get(json);
-        return objectMapper.convertValue(result, expectedReturnType);
+        return bind(json, OBJECT_MAPPER.constructType(expectedReturnType));
     }
 
     /**
@@ -263,9 +589,7 @@ public final class JsonPath implements Serializable {
      * @return The content read from the JSON payload
      */
     public <T> T read(JsonNode json, TypeReference<?> expectedReturnType) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode result = this.pathComponent.get(json);
-        return objectMapper.convertValue(result, expectedReturnType);
+        return bind(json, OBJECT_MAPPER.getTypeFactory().constructType(expectedReturnType));
     }
 
     /**
@@ -277,40 +601,1579 @@ public final class JsonPath implements Serializable {
      * @return The content read from the JSON payload
      */
     public <T> T read(JsonNode json, JavaType expectedReturnType) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        JsonNode result = this.pathComponent.get(json);
-        return objectMapper.convertValue(result, expectedReturnType);
+        return bind(json, expectedReturnType);
     }
 
-    @Override
-    public String toString() {
-        return "JsonPath [expression=" + this.expression + "]";
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload. This is the
+     * value itself if the expression selects a single value and the first value of the set if it selects a set of
+     * values. Evaluation stops at the first value selected, and no further input is read.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The first value read from the JSON payload or {@code null} if nothing was selected
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     */
+    public <T> T readFirst(String json, Class<T> expectedReturnType) {
+        return bindFirst(json, OBJECT_MAPPER.constructType(expectedReturnType));
     }
 
-    private static String getMessage(List<ExpressionProblem> problems) {
-        StringBuilder sb = new StringBuilder();
-        for (ExpressionProblem expressionProblem : problems) {
-            sb.append(expressionProblem.toString());
-        }
-        return sb.toString();
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload. This is the
+     * value itself if the expression selects a single value and the first value of the set if it selects a set of
+     * values. Evaluation stops at the first value selected, and no further input is read.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The first value read from the JSON payload or {@code null} if nothing was selected
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     */
+    public <T> T readFirst(String json, TypeReference<?> expectedReturnType) {
+        return bindFirst(json, OBJECT_MAPPER.getTypeFactory().constructType(expectedReturnType));
     }
 
-    private Object writeReplace() {
-        return new SerializationProxy(this.expression);
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload. This is the
+     * value itself if the expression selects a single value and the first value of the set if it selects a set of
+     * values. Evaluation stops at the first value selected, and no further input is read.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The first value read from the JSON payload or {@code null} if nothing was selected
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     */
+    public <T> T readFirst(String json, JavaType expectedReturnType) {
+        return bindFirst(json, expectedReturnType);
     }
 
-    private static final class SerializationProxy implements Serializable {
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload. This is the
+     * value itself if the expression selects a single value and the first value of the set if it selects a set of
+     * values. Evaluation stops at the first value selected.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The first value read from the JSON payload or {@code null} if nothing was selected
+     */
+    public <T> T readFirst(JsonNode json, Class<T> expectedReturnType) {
+        return bindFirst(json, OBJECT_MAPPER.constructType(expectedReturnType));
+    }
 
-        private static final long serialVersionUID = 9010269726175180293L;
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload. This is the
+     * value itself if the expression selects a single value and the first value of the set if it selects a set of
+     * values. Evaluation stops at the first value selected.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The first value read from the JSON payload or {@code null} if nothing was selected
+     */
+    public <T> T readFirst(JsonNode json, TypeReference<?> expectedReturnType) {
+        return bindFirst(json, OBJECT_MAPPER.getTypeFactory().constructType(expectedReturnType));
+    }
 
-        private volatile String expression;
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload. This is the
+     * value itself if the expression selects a single value and the first value of the set if it selects a set of
+     * values. Evaluation stops at the first value selected.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The first value read from the JSON payload or {@code null} if nothing was selected
+     */
+    public <T> T readFirst(JsonNode json, JavaType expectedReturnType) {
+        return bindFirst(json, expectedReturnType);
+    }
+
+    /**
+     * Reads content from an indexed JSON document based on the expression compiled into this instance. Filters use the
+     * indexes of the document where they apply.
+     *
+     * @param document The indexed JSON document to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The content read from the JSON document
+     */
+    public <T> T read(JsonDocumentIndex document, Class<T> expectedReturnType) {
+        JsonNode result = select(document);
+        return OBJECT_MAPPER.convertValue(result, expectedReturnType);
+    }
+
+    /**
+     * Reads content from an indexed JSON document based on the expression compiled into this instance. Filters use the
+     * indexes of the document where they apply.
+     *
+     * @param document The indexed JSON document to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The content read from the JSON document
+     */
+    public <T> T read(JsonDocumentIndex document, TypeReference<?> expectedReturnType) {
+        JsonNode result = select(document);
+        return OBJECT_MAPPER.convertValue(result, expectedReturnType);
+    }
+
+    /**
+     * Reads content from an indexed JSON document based on the expression compiled into this instance. Filters use the
+     * indexes of the document where they apply.
+     *
+     * @param document The indexed JSON document to retrieve data from
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The content read from the JSON document
+     */
+    public <T> T read(JsonDocumentIndex document, JavaType expectedReturnType) {
+        JsonNode result = select(document);
+        return OBJECT_MAPPER.convertValue(result, expectedReturnType);
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * an {@code int}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The value read from the JSON payload
+     *
+     * @throws IllegalArgumentException if nothing is selected, the value selected is {@code null} or the value is not
+     *             a number that fits in an {@code int}
+     */
+    public int readInt(String json) {
+        return asInt(selectScalar(json));
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * an {@code int}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param defaultValue The value to return if nothing is selected or the value selected is {@code null}
+     *
+     * @return The value read from the JSON payload or {@code defaultValue} if there is none
+     *
+     * @throws IllegalArgumentException if the value selected is not a number that fits in an {@code int}
+     */
+    public int readInt(String json, int defaultValue) {
+        ScalarMatchHandler handler = selectScalar(json);
+        return isMissing(handler) ? defaultValue : asInt(handler);
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * an {@code int}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The value read from the JSON payload
+     *
+     * @throws IllegalArgumentException if nothing is selected, the value selected is {@code null} or the value is not
+     *             a number that fits in an {@code int}
+     */
+    public int readInt(JsonNode json) {
+        return asInt(selectScalar(json));
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * an {@code int}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param defaultValue The value to return if nothing is selected or the value selected is {@code null}
+     *
+     * @return The value read from the JSON payload or {@code defaultValue} if there is none
+     *
+     * @throws IllegalArgumentException if the value selected is not a number that fits in an {@code int}
+     */
+    public int readInt(JsonNode json, int defaultValue) {
+        ScalarMatchHandler handler = selectScalar(json);
+        return isMissing(handler) ? defaultValue : asInt(handler);
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code long}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The value read from the JSON payload
+     *
+     * @throws IllegalArgumentException if nothing is selected, the value selected is {@code null} or the value is not
+     *             a number that fits in a {@code long}
+     */
+    public long readLong(String json) {
+        return asLong(selectScalar(json));
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code long}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param defaultValue The value to return if nothing is selected or the value selected is {@code null}
+     *
+     * @return The value read from the JSON payload or {@code defaultValue} if there is none
+     *
+     * @throws IllegalArgumentException if the value selected is not a number that fits in a {@code long}
+     */
+    public long readLong(String json, long defaultValue) {
+        ScalarMatchHandler handler = selectScalar(json);
+        return isMissing(handler) ? defaultValue : asLong(handler);
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code long}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The value read from the JSON payload
+     *
+     * @throws IllegalArgumentException if nothing is selected, the value selected is {@code null} or the value is not
+     *             a number that fits in a {@code long}
+     */
+    public long readLong(JsonNode json) {
+        return asLong(selectScalar(json));
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code long}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param defaultValue The value to return if nothing is selected or the value selected is {@code null}
+     *
+     * @return The value read from the JSON payload or {@code defaultValue} if there is none
+     *
+     * @throws IllegalArgumentException if the value selected is not a number that fits in a {@code long}
+     */
+    public long readLong(JsonNode json, long defaultValue) {
+        ScalarMatchHandler handler = selectScalar(json);
+        return isMissing(handler) ? defaultValue : asLong(handler);
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code double}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The value read from the JSON payload
+     *
+     * @throws IllegalArgumentException if nothing is selected, the value selected is {@code null} or the value is not
+     *             a number
+     */
+    public double readDouble(String json) {
+        return asDouble(selectScalar(json));
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code double}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param defaultValue The value to return if nothing is selected or the value selected is {@code null}
+     *
+     * @return The value read from the JSON payload or {@code defaultValue} if there is none
+     *
+     * @throws IllegalArgumentException if the value selected is not a number
+     */
+    public double readDouble(String json, double defaultValue) {
+        ScalarMatchHandler handler = selectScalar(json);
+        return isMissing(handler) ? defaultValue : asDouble(handler);
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code double}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The value read from the JSON payload
+     *
+     * @throws IllegalArgumentException if nothing is selected, the value selected is {@code null} or the value is not
+     *             a number
+     */
+    public double readDouble(JsonNode json) {
+        return asDouble(selectScalar(json));
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code double}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param defaultValue The value to return if nothing is selected or the value selected is {@code null}
+     *
+     * @return The value read from the JSON payload or {@code defaultValue} if there is none
+     *
+     * @throws IllegalArgumentException if the value selected is not a number
+     */
+    public double readDouble(JsonNode json, double defaultValue) {
+        ScalarMatchHandler handler = selectScalar(json);
+        return isMissing(handler) ? defaultValue : asDouble(handler);
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code boolean}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The value read from the JSON payload
+     *
+     * @throws IllegalArgumentException if nothing is selected, the value selected is {@code null} or the value is not
+     *             a boolean
+     */
+    public boolean readBoolean(String json) {
+        return asBoolean(selectScalar(json));
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code boolean}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param defaultValue The value to return if nothing is selected or the value selected is {@code null}
+     *
+     * @return The value read from the JSON payload or {@code defaultValue} if there is none
+     *
+     * @throws IllegalArgumentException if the value selected is not a boolean
+     */
+    public boolean readBoolean(String json, boolean defaultValue) {
+        ScalarMatchHandler handler = selectScalar(json);
+        return isMissing(handler) ? defaultValue : asBoolean(handler);
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code boolean}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The value read from the JSON payload
+     *
+     * @throws IllegalArgumentException if nothing is selected, the value selected is {@code null} or the value is not
+     *             a boolean
+     */
+    public boolean readBoolean(JsonNode json) {
+        return asBoolean(selectScalar(json));
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code boolean}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param defaultValue The value to return if nothing is selected or the value selected is {@code null}
+     *
+     * @return The value read from the JSON payload or {@code defaultValue} if there is none
+     *
+     * @throws IllegalArgumentException if the value selected is not a boolean
+     */
+    public boolean readBoolean(JsonNode json, boolean defaultValue) {
+        ScalarMatchHandler handler = selectScalar(json);
+        return isMissing(handler) ? defaultValue : asBoolean(handler);
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code String}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The value read from the JSON payload
+     *
+     * @throws IllegalArgumentException if nothing is selected, the value selected is {@code null} or the value is not
+     *             a string, a number or a boolean
+     */
+    public String readString(String json) {
+        return asString(selectScalar(json));
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code String}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param defaultValue The value to return if nothing is selected or the value selected is {@code null}
+     *
+     * @return The value read from the JSON payload or {@code defaultValue} if there is none
+     *
+     * @throws IllegalArgumentException if the value selected is not a string, a number or a boolean
+     */
+    public String readString(String json, String defaultValue) {
+        ScalarMatchHandler handler = selectScalar(json);
+        return isMissing(handler) ? defaultValue : asString(handler);
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code String}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The value read from the JSON payload
+     *
+     * @throws IllegalArgumentException if nothing is selected, the value selected is {@code null} or the value is not
+     *             a string, a number or a boolean
+     */
+    public String readString(JsonNode json) {
+        return asString(selectScalar(json));
+    }
+
+    /**
+     * Reads the first value that the expression compiled into this instance selects from a JSON payload as
+     * a {@code String}. The value is read without being converted to a {@link JsonNode} or boxed.
+     *
+     * @param json The JSON payload to retrieve data from
+     * @param defaultValue The value to return if nothing is selected or the value selected is {@code null}
+     *
+     * @return The value read from the JSON payload or {@code defaultValue} if there is none
+     *
+     * @throws IllegalArgumentException if the value selected is not a string, a number or a boolean
+     */
+    public String readString(JsonNode json, String defaultValue) {
+        ScalarMatchHandler handler = selectScalar(json);
+        return isMissing(handler) ? defaultValue : asString(handler);
+    }
+
+    /**
+     * Returns whether the expression compiled into this instance selects anything from a JSON payload. Evaluation stops
+     * at the first value selected, and no further input is read.
+     *
+     * @param json The JSON payload to test
+     *
+     * @return {@code true} if the expression selects anything from the JSON payload, otherwise {@code false}
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     */
+    public boolean exists(String json) {
+        CountingMatchHandler handler = new CountingMatchHandler(1);
+        match(json, handler);
+        return handler.getCount() != 0;
+    }
+
+    /**
+     * Returns whether the expression compiled into this instance selects anything from a JSON payload. Evaluation stops
+     * at the first value selected.
+     *
+     * @param json The JSON payload to test
+     *
+     * @return {@code true} if the expression selects anything from the JSON payload, otherwise {@code false}
+     */
+    public boolean exists(JsonNode json) {
+        CountingMatchHandler handler = new CountingMatchHandler(1);
+        match(json, handler);
+        return handler.getCount() != 0;
+    }
+
+    /**
+     * Returns the number of values that the expression compiled into this instance selects from a JSON payload. An
+     * expression that selects a single value counts as one. The selected values are counted without being kept.
+     *
+     * @param json The JSON payload to count values in
+     *
+     * @return the number of values selected from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     */
+    public int count(String json) {
+        CountingMatchHandler handler = new CountingMatchHandler(this.limit);
+        match(json, handler);
+        return handler.getCount();
+    }
+
+    /**
+     * Returns the number of values that the expression compiled into this instance selects from a JSON payload. An
+     * expression that selects a single value counts as one. The selected values are counted without being kept.
+     *
+     * @param json The JSON payload to count values in
+     *
+     * @return the number of values selected from the JSON payload
+     */
+    public int count(JsonNode json) {
+        CountingMatchHandler handler = new CountingMatchHandler(this.limit);
+        match(json, handler);
+        return handler.getCount();
+    }
+
+    /**
+     * Reads the values that the expression compiled into this instance selects from a JSON payload and passes each one
+     * to {@code callback} as soon as it has been read. Only the value currently being read is held in memory, so the
+     * memory used does not depend on the number of values selected.
+     *
+     * @param json The JSON payload to read values from
+     * @param expectedType The type that each value is expected to be
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     */
+    public <T> void forEach(String json, Class<T> expectedType, MatchCallback<? super T> callback) {
+        JavaType type = OBJECT_MAPPER.constructType(expectedType);
+        forEach(json, type, getReader(type), callback);
+    }
+
+    /**
+     * Reads the values that the expression compiled into this instance selects from a JSON payload and passes each one
+     * to {@code callback} as soon as it has been read. Only the value currently being read is held in memory, so the
+     * memory used does not depend on the number of values selected.
+     *
+     * @param json The JSON payload to read values from
+     * @param expectedType The type that each value is expected to be
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     */
+    public <T> void forEach(String json, TypeReference<?> expectedType, MatchCallback<T> callback) {
+        JavaType type = OBJECT_MAPPER.getTypeFactory().constructType(expectedType);
+        forEach(json, type, getReader(type), callback);
+    }
+
+    /**
+     * Reads the values that the expression compiled into this instance selects from a JSON payload and passes each one
+     * to {@code callback} as soon as it has been read. Only the value currently being read is held in memory, so the
+     * memory used does not depend on the number of values selected.
+     *
+     * @param json The JSON payload to read values from
+     * @param expectedType The type that each value is expected to be
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     */
+    public <T> void forEach(String json, JavaType expectedType, MatchCallback<T> callback) {
+        forEach(json, expectedType, getReader(expectedType), callback);
+    }
+
+    /**
+     * Reads the values that the expression compiled into this instance selects from a JSON payload and passes each one
+     * to {@code callback} as soon as it has been read. Only the value currently being read is held in memory, so the
+     * memory used does not depend on the number of values selected.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib, to
+     *        read values from
+     * @param expectedType The type that each value is expected to be
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     */
+    public <T> void forEach(byte[] json, Class<T> expectedType, MatchCallback<? super T> callback) {
+        JavaType type = OBJECT_MAPPER.constructType(expectedType);
+        forEach(json, type, getReader(type), callback);
+    }
+
+    /**
+     * Reads the values that the expression compiled into this instance selects from a JSON payload and passes each one
+     * to {@code callback} as soon as it has been read. Only the value currently being read is held in memory, so the
+     * memory used does not depend on the number of values selected.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib, to
+     *        read values from
+     * @param expectedType The type that each value is expected to be
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     */
+    public <T> void forEach(byte[] json, TypeReference<?> expectedType, MatchCallback<T> callback) {
+        JavaType type = OBJECT_MAPPER.getTypeFactory().constructType(expectedType);
+        forEach(json, type, getReader(type), callback);
+    }
+
+    /**
+     * Reads the values that the expression compiled into this instance selects from a JSON payload and passes each one
+     * to {@code callback} as soon as it has been read. Only the value currently being read is held in memory, so the
+     * memory used does not depend on the number of values selected.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib, to
+     *        read values from
+     * @param expectedType The type that each value is expected to be
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     */
+    public <T> void forEach(byte[] json, JavaType expectedType, MatchCallback<T> callback) {
+        forEach(json, expectedType, getReader(expectedType), callback);
+    }
+
+    /**
+     * Reads the values that the expression compiled into this instance selects from a JSON payload and passes each one
+     * to {@code callback} as soon as it has been read. Only the value currently being read is held in memory, so the
+     * memory used does not depend on the number of values selected.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib,
+     *        to read values from. The stream is closed once the values have been read.
+     * @param expectedType The type that each value is expected to be
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload or cannot be read
+     */
+    public <T> void forEach(InputStream json, Class<T> expectedType, MatchCallback<? super T> callback) {
+        JavaType type = OBJECT_MAPPER.constructType(expectedType);
+        forEach(json, type, getReader(type), callback);
+    }
+
+    /**
+     * Reads the values that the expression compiled into this instance selects from a JSON payload and passes each one
+     * to {@code callback} as soon as it has been read. Only the value currently being read is held in memory, so the
+     * memory used does not depend on the number of values selected.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib,
+     *        to read values from. The stream is closed once the values have been read.
+     * @param expectedType The type that each value is expected to be
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload or cannot be read
+     */
+    public <T> void forEach(InputStream json, TypeReference<?> expectedType, MatchCallback<T> callback) {
+        JavaType type = OBJECT_MAPPER.getTypeFactory().constructType(expectedType);
+        forEach(json, type, getReader(type), callback);
+    }
+
+    /**
+     * Reads the values that the expression compiled into this instance selects from a JSON payload and passes each one
+     * to {@code callback} as soon as it has been read. Only the value currently being read is held in memory, so the
+     * memory used does not depend on the number of values selected.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib,
+     *        to read values from. The stream is closed once the values have been read.
+     * @param expectedType The type that each value is expected to be
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload or cannot be read
+     */
+    public <T> void forEach(InputStream json, JavaType expectedType, MatchCallback<T> callback) {
+        forEach(json, expectedType, getReader(expectedType), callback);
+    }
+
+    /**
+     * Starts an evaluation of the expression compiled into this instance against a JSON payload that is fed to it in
+     * chunks. The values selected are passed to {@code listener} as soon as they have been read. The payload is read
+     * and evaluated on a thread of {@code executor}, starting when the first chunk is fed, so feeding the evaluation
+     * never blocks the caller. The high-water mark is {@link AsyncEvaluation#DEFAULT_HIGH_WATER_MARK}.
+     *
+     * @param executor The {@link Executor} to read and evaluate the payload on
+     * @param listener The {@link MatchListener} to pass the values selected to
+     *
+     * @return The {@link AsyncEvaluation} to feed the payload to
+     */
+    public AsyncEvaluation evaluateAsync(Executor executor, MatchListener listener) {
+        return evaluateAsync(executor, listener, AsyncEvaluation.DEFAULT_HIGH_WATER_MARK, null);
+    }
+
+    /**
+     * Starts an evaluation of the expression compiled into this instance against a JSON payload that is fed to it in
+     * chunks. The values selected are passed to {@code listener} as soon as they have been read. The payload is read
+     * and evaluated on a thread of {@code executor}, starting when the first chunk is fed, so feeding the evaluation
+     * never blocks the caller. Once the bytes that have been fed but not yet read reach {@code highWaterMark},
+     * {@link AsyncEvaluation#feed(java.nio.ByteBuffer)} returns {@code false}, and {@code drained} is run once half of
+     * them have been read or the evaluation finishes.
+     *
+     * @param executor The {@link Executor} to read and evaluate the payload on
+     * @param listener The {@link MatchListener} to pass the values selected to
+     * @param highWaterMark The number of bytes that can be fed but not yet read before the caller is asked to stop
+     * @param drained The callback to run, on a thread of {@code executor}, when the caller can feed chunks again or
+     *        {@code null} if there is none
+     *
+     * @return The {@link AsyncEvaluation} to feed the payload to
+     *
+     * @throws IllegalArgumentException if {@code highWaterMark} is not positive
+     */
+    public AsyncEvaluation evaluateAsync(Executor executor, MatchListener listener, long highWaterMark, Runnable drained) {
+        return new AsyncEvaluation(this, executor, listener, highWaterMark, drained);
+    }
+
+    /**
+     * Reads content from each of a batch of JSON payloads based on the expression compiled into this instance. The
+     * payloads are read on {@code executor}, at most {@code parallelism} at once, and one that cannot be read does not
+     * stop the rest of the batch from being read. Any {@link Executor} can be used, including one that starts a new
+     * virtual thread for each task.
+     *
+     * @param json The JSON payloads to retrieve data from. Each payload is a {@link String}, a {@code byte[]}, an
+     *        {@link InputStream} or a {@link JsonNode}.
+     * @param expectedReturnType The type that each return value is expected to be
+     * @param executor The {@link Executor} to read the payloads on
+     * @param parallelism The maximum number of payloads to read at once
+     *
+     * @return The result of reading each payload, in the order of {@code json}
+     *
+     * @throws IllegalArgumentException if {@code parallelism} is less than one
+     *
+     * @see JsonPathReader#readAll(Collection, Executor, int)
+     */
+    public <T> List<ReadResult<T>> readAll(Collection<?> json, Class<T> expectedReturnType, Executor executor, int parallelism) {
+        JsonPathReader<T> reader = reader(expectedReturnType);
+        return reader.readAll(json, executor, parallelism);
+    }
+
+    /**
+     * Reads content from each of a batch of JSON payloads based on the expression compiled into this instance. The
+     * payloads are read on {@code executor}, at most {@code parallelism} at once, and one that cannot be read does not
+     * stop the rest of the batch from being read. Any {@link Executor} can be used, including one that starts a new
+     * virtual thread for each task.
+     *
+     * @param json The JSON payloads to retrieve data from. Each payload is a {@link String}, a {@code byte[]}, an
+     *        {@link InputStream} or a {@link JsonNode}.
+     * @param expectedReturnType The type that each return value is expected to be
+     * @param executor The {@link Executor} to read the payloads on
+     * @param parallelism The maximum number of payloads to read at once
+     *
+     * @return The result of reading each payload, in the order of {@code json}
+     *
+     * @throws IllegalArgumentException if {@code parallelism} is less than one
+     *
+     * @see JsonPathReader#readAll(Collection, Executor, int)
+     */
+    public <T> List<ReadResult<T>> readAll(Collection<?> json, TypeReference<?> expectedReturnType, Executor executor, int parallelism) {
+        JsonPathReader<T> reader = reader(expectedReturnType);
+        return reader.readAll(json, executor, parallelism);
+    }
+
+    /**
+     * Reads content from each of a batch of JSON payloads based on the expression compiled into this instance. The
+     * payloads are read on {@code executor}, at most {@code parallelism} at once, and one that cannot be read does not
+     * stop the rest of the batch from being read. Any {@link Executor} can be used, including one that starts a new
+     * virtual thread for each task.
+     *
+     * @param json The JSON payloads to retrieve data from. Each payload is a {@link String}, a {@code byte[]}, an
+     *        {@link InputStream} or a {@link JsonNode}.
+     * @param expectedReturnType The type that each return value is expected to be
+     * @param executor The {@link Executor} to read the payloads on
+     * @param parallelism The maximum number of payloads to read at once
+     *
+     * @return The result of reading each payload, in the order of {@code json}
+     *
+     * @throws IllegalArgumentException if {@code parallelism} is less than one
+     *
+     * @see JsonPathReader#readAll(Collection, Executor, int)
+     */
+    public <T> List<ReadResult<T>> readAll(Collection<?> json, JavaType expectedReturnType, Executor executor, int parallelism) {
+        JsonPathReader<T> reader = reader(expectedReturnType);
+        return reader.readAll(json, executor, parallelism);
+    }
+
+    /**
+     * Creates a {@link JsonPathReader} that reads content as {@code expectedReturnType} based on the expression
+     * compiled into this instance. The type and the deserializer for it are resolved once, when the reader is created,
+     * rather than on each read. A reader is immutable and can be shared between threads.
+     *
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The {@link JsonPathReader}
+     */
+    public <T> JsonPathReader<T> reader(Class<T> expectedReturnType) {
+        JavaType type = OBJECT_MAPPER.constructType(expectedReturnType);
+        return new JsonPathReader<T>(this, type, getReader(type));
+    }
+
+    /**
+     * Creates a {@link JsonPathReader} that reads content as {@code expectedReturnType} based on the expression
+     * compiled into this instance. The type and the deserializer for it are resolved once, when the reader is created,
+     * rather than on each read. A reader is immutable and can be shared between threads.
+     *
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The {@link JsonPathReader}
+     */
+    public <T> JsonPathReader<T> reader(TypeReference<?> expectedReturnType) {
+        JavaType type = OBJECT_MAPPER.getTypeFactory().constructType(expectedReturnType);
+        return new JsonPathReader<T>(this, type, getReader(type));
+    }
+
+    /**
+     * Creates a {@link JsonPathReader} that reads content as {@code expectedReturnType} based on the expression
+     * compiled into this instance. The type and the deserializer for it are resolved once, when the reader is created,
+     * rather than on each read. A reader is immutable and can be shared between threads.
+     *
+     * @param expectedReturnType The type that the return value is expected to be
+     *
+     * @return The {@link JsonPathReader}
+     */
+    public <T> JsonPathReader<T> reader(JavaType expectedReturnType) {
+        return new JsonPathReader<T>(this, expectedReturnType, getReader(expectedReturnType));
+    }
+
+    /**
+     * Creates a {@link MatchPublisher} of the values that the expression compiled into this instance selects from a
+     * JSON payload. The payload is read on a thread of {@code executor} once a subscriber subscribes, and only as fast
+     * as the subscriber requests values.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib,
+     *        to read values from. The stream is closed once the values have been read.
+     * @param expectedType The type that each value is expected to be
+     * @param executor The {@link Executor} to read and evaluate the payload on
+     *
+     * @return The {@link MatchPublisher} of the values selected
+     */
+    public <T> MatchPublisher<T> publish(InputStream json, Class<T> expectedType, Executor executor) {
+        JavaType type = OBJECT_MAPPER.constructType(expectedType);
+        return new MatchPublisher<T>(this, json, type, executor);
+    }
+
+    /**
+     * Creates a {@link MatchPublisher} of the values that the expression compiled into this instance selects from a
+     * JSON payload. The payload is read on a thread of {@code executor} once a subscriber subscribes, and only as fast
+     * as the subscriber requests values.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib,
+     *        to read values from. The stream is closed once the values have been read.
+     * @param expectedType The type that each value is expected to be
+     * @param executor The {@link Executor} to read and evaluate the payload on
+     *
+     * @return The {@link MatchPublisher} of the values selected
+     */
+    public <T> MatchPublisher<T> publish(InputStream json, TypeReference<?> expectedType, Executor executor) {
+        JavaType type = OBJECT_MAPPER.getTypeFactory().constructType(expectedType);
+        return new MatchPublisher<T>(this, json, type, executor);
+    }
+
+    /**
+     * Creates a {@link MatchPublisher} of the values that the expression compiled into this instance selects from a
+     * JSON payload. The payload is read on a thread of {@code executor} once a subscriber subscribes, and only as fast
+     * as the subscriber requests values.
+     *
+     * @param json The JSON payload, encoded in UTF-8, UTF-16 or UTF-32 and optionally compressed with gzip or zlib,
+     *        to read values from. The stream is closed once the values have been read.
+     * @param expectedType The type that each value is expected to be
+     * @param executor The {@link Executor} to read and evaluate the payload on
+     *
+     * @return The {@link MatchPublisher} of the values selected
+     */
+    public <T> MatchPublisher<T> publish(InputStream json, JavaType expectedType, Executor executor) {
+        return new MatchPublisher<T>(this, json, expectedType, executor);
+    }
+
+    @Override
+    public String toString() {
+        return "JsonPath [expression=" + this.expression + "]";
+    }
+
+    boolean dependsOn(List<String> location) {
+        return this.pathComponent.dependsOn(location, 0);
+    }
+
+    PathComponent getPathComponent() {
+        return this.pathComponent;
+    }
+
+    private JsonNode select(JsonNode json) {
+        if (this.limit == Integer.MAX_VALUE) {
+            return this.pathComponent.get(json);
+        }
+
+        CollectingMatchHandler handler = new CollectingMatchHandler(this.limit);
+        match(json, handler);
+        return handler.getResult();
+    }
+
+    private JsonNode select(JsonDocumentIndex document) {
+        CollectingMatchHandler handler = new CollectingMatchHandler(this.limit);
+        match(document.getDocument(), document.getElementIndex(), handler);
+        return handler.getResult();
+    }
+
+    private JsonNode select(String json) {
+        CollectingMatchHandler handler = new CollectingMatchHandler(this.limit);
+        match(json, handler);
+        return handler.getResult();
+    }
+
+    private JsonNode select(byte[] json) {
+        CollectingMatchHandler handler = new CollectingMatchHandler(this.limit);
+        match(json, handler);
+        return handler.getResult();
+    }
+
+    private JsonNode select(InputStream json) {
+        CollectingMatchHandler handler = new CollectingMatchHandler(this.limit);
+        match(json, handler);
+        return handler.getResult();
+    }
+
+    private <T> T bind(String json, JavaType type) {
+        return bind(json, type, getReader(type));
+    }
+
+    private <T> T bind(byte[] json, JavaType type) {
+        return bind(json, type, getReader(type));
+    }
+
+    private <T> T bind(InputStream json, JavaType type) {
+        return bind(json, type, getReader(type));
+    }
+
+    private <T> T bind(JsonNode json, JavaType type) {
+        return bind(json, type, getReader(type));
+    }
+
+    private <T> T bindFirst(String json, JavaType type) {
+        return bindFirst(json, type, getReader(type));
+    }
+
+    private <T> T bindFirst(JsonNode json, JavaType type) {
+        return bindFirst(json, type, getReader(type));
+    }
+
+    <T> T bind(String json, JavaType type, ObjectReader reader) {
+        if (isTree(type)) {
+            return OBJECT_MAPPER.convertValue(select(json), type);
+        }
+
+        BindingMatchHandler handler = new BindingMatchHandler(reader, type, this.limit);
+        match(json, handler);
+        return cast(handler.getResult());
+    }
+
+    <T> T bind(byte[] json, JavaType type, ObjectReader reader) {
+        if (isTree(type)) {
+            return OBJECT_MAPPER.convertValue(select(json), type);
+        }
+
+        BindingMatchHandler handler = new BindingMatchHandler(reader, type, this.limit);
+        match(json, handler);
+        return cast(handler.getResult());
+    }
+
+    <T> T bind(InputStream json, JavaType type, ObjectReader reader) {
+        if (isTree(type)) {
+            return OBJECT_MAPPER.convertValue(select(json), type);
+        }
+
+        BindingMatchHandler handler = new BindingMatchHandler(reader, type, this.limit);
+        match(json, handler);
+        return cast(handler.getResult());
+    }
+
+    <T> T bind(JsonNode json, JavaType type, ObjectReader reader) {
+        if (isTree(type)) {
+            return OBJECT_MAPPER.convertValue(select(json), type);
+        }
+
+        BindingMatchHandler handler = new BindingMatchHandler(reader, type, this.limit);
+        match(json, handler);
+        return cast(handler.getResult());
+    }
+
+    <T> T bindFirst(String json, JavaType type, ObjectReader reader) {
+        FirstMatchCallback<T> callback = new FirstMatchCallback<T>();
+        match(json, new CallbackMatchHandler<T>(type, reader, callback, 1));
+        return callback.value;
+    }
+
+    <T> T bindFirst(JsonNode json, JavaType type, ObjectReader reader) {
+        FirstMatchCallback<T> callback = new FirstMatchCallback<T>();
+        match(json, new CallbackMatchHandler<T>(type, reader, callback, 1));
+        return callback.value;
+    }
+
+    <T> void forEach(String json, JavaType type, ObjectReader reader, MatchCallback<? super T> callback) {
+        match(json, new CallbackMatchHandler<T>(type, reader, callback, this.limit));
+    }
+
+    <T> void forEach(byte[] json, JavaType type, ObjectReader reader, MatchCallback<? super T> callback) {
+        match(json, new CallbackMatchHandler<T>(type, reader, callback, this.limit));
+    }
+
+    <T> void forEach(InputStream json, JavaType type, ObjectReader reader, MatchCallback<? super T> callback) {
+        match(json, new CallbackMatchHandler<T>(type, reader, callback, this.limit));
+    }
+
+    private ScalarMatchHandler selectScalar(String json) {
+        ScalarMatchHandler handler = new ScalarMatchHandler();
+        match(json, handler);
+        return handler;
+    }
+
+    private ScalarMatchHandler selectScalar(JsonNode json) {
+        ScalarMatchHandler handler = new ScalarMatchHandler();
+        match(json, handler);
+        return handler;
+    }
+
+    static JsonNode readTree(String json) {
+        JsonFactory factory = acquireFactory();
+        try {
+            return readTree(factory.createParser(json));
+        } catch (IOException e) {
+            throw new InvalidJsonException(e);
+        } finally {
+            releaseFactory(factory);
+        }
+    }
+
+    static JsonNode readTree(byte[] json) {
+        JsonFactory factory = acquireFactory();
+        try {
+            if (InputStreams.isCompressed(json)) {
+                return readTree(factory.createParser(InputStreams.decompressing(new ByteArrayInputStream(json))));
+            }
+            return readTree(factory.createParser(json));
+        } catch (IOException e) {
+            throw new InvalidJsonException(e);
+        } finally {
+            releaseFactory(factory);
+        }
+    }
+
+    private static JsonNode readTree(JsonParser parser) throws IOException {
+        try {
+            return getTree(OBJECT_MAPPER.<JsonNode> readTree(parser));
+        } finally {
+            closeQuietly(parser);
+        }
+    }
+
+    private static JsonFactory acquireFactory() {
+        return bufferRecycling == BufferRecycling.POOLED ? FACTORY_POOL.acquire() : OBJECT_MAPPER.getFactory();
+    }
+
+    private static void releaseFactory(JsonFactory factory) {
+        if (factory != OBJECT_MAPPER.getFactory()) {
+            FACTORY_POOL.release(factory);
+        }
+    }
+
+    JsonNode selectParallel(byte[] json, ExecutorService executor, int slices) {
+        if ((slices < 2) || !((RootPathComponent) this.pathComponent).isElementWise() || InputStreams.isCompressed(json)) {
+            return select(json);
+        }
+
+        try {
+            int[] commas = ArraySplitter.split(json, slices, executor);
+            if ((commas == null) || (commas.length == 0)) {
+                return select(json);
+            }
+
+            List<Future<JsonNode>> futures = new ArrayList<Future<JsonNode>>();
+            for (int i = 0; i <= commas.length; i++) {
+                int from = i == 0 ? 0 : commas[i - 1] + 1;
+                int to = i == commas.length ? json.length : commas[i];
+                futures.add(executor.submit(new Slice(json, from, to, i != 0, i != commas.length)));
+            }
+
+            return join(futures);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading in parallel", e);
+        }
+    }
+
+    JsonNode selectParallel(JsonNode json, ExecutorService executor, int forkSize, int slices) {
+        RootPathComponent root = (RootPathComponent) this.pathComponent;
+        if (slices < 2) {
+            return select(json);
+        }
+
+        try {
+            if (root.isDeepElementWise()) {
+                return truncate((ArrayNode) root.get(json, executor, forkSize, slices));
+            }
+
+            if (!root.isElementWise() || !json.isArray() || (json.size() < forkSize)) {
+                return select(json);
+            }
+
+            int sliceSize = (json.size() + slices - 1) / slices;
+            List<Future<JsonNode>> futures = new ArrayList<Future<JsonNode>>();
+            for (int from = 0; from < json.size(); from += sliceSize) {
+                futures.add(executor.submit(new ElementSlice((ArrayNode) json, from, Math.min(from + sliceSize, json.size()))));
+            }
+
+            return join(futures);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading in parallel", e);
+        }
+    }
+
+    private void match(JsonNode json, MatchHandler handler) {
+        match(json, null, handler);
+    }
+
+    private void match(JsonNode json, ElementIndex elementIndex, MatchHandler handler) {
+        try {
+            this.pathComponent.createMatchHandler(handler, elementIndex).match(json);
+        } catch (SelectionCompleteException e) {
+            // Nothing more to select
+        }
+    }
+
+    private void match(String json, MatchHandler handler) {
+        matchValue(json, this.pathComponent.createMatchHandler(handler));
+    }
+
+    private void match(byte[] json, MatchHandler handler) {
+        matchValue(json, this.pathComponent.createMatchHandler(handler, null, isInMemory(json)));
+    }
+
+    private void match(InputStream json, MatchHandler handler) {
+        matchValue(json, this.pathComponent.createMatchHandler(handler));
+    }
+
+    /**
+     * Passes the value of a JSON payload to a {@link MatchHandler} before it has been read
+     *
+     * @param json The JSON payload
+     * @param handler The {@link MatchHandler} to pass the value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     */
+    static void matchValue(String json, MatchHandler handler) {
+        JsonFactory factory = acquireFactory();
+        try {
+            matchValue(factory.createParser(json), handler);
+        } catch (IOException e) {
+            throw new InvalidJsonException(e);
+        } finally {
+            releaseFactory(factory);
+        }
+    }
+
+    /**
+     * Passes the value of a JSON payload to a {@link MatchHandler} before it has been read. The payload may be encoded
+     * in UTF-8, UTF-16 or UTF-32, and may be compressed with gzip or zlib.
+     *
+     * @param json The JSON payload
+     * @param handler The {@link MatchHandler} to pass the value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     */
+    static void matchValue(byte[] json, MatchHandler handler) {
+        if (InputStreams.isCompressed(json)) {
+            matchValue(new ByteArrayInputStream(json), handler);
+            return;
+        }
+
+        JsonFactory factory = acquireFactory();
+        try {
+            // Jackson 2.1 can read past the end of a payload that ends with the colon after a field name
+            if ((json.length != 0) && (json[json.length - 1] == ':')) {
+                throw new EOFException("Unexpected end-of-input after ':'");
+            }
+
+            matchValue(factory.createParser(json), handler);
+        } catch (IOException e) {
+            throw new InvalidJsonException(e);
+        } finally {
+            releaseFactory(factory);
+        }
+    }
+
+    /**
+     * Returns whether a JSON payload is read from memory as it is, rather than through a decompressing stream, so that
+     * the whole of the parser's input is in memory
+     *
+     * @param json The JSON payload
+     *
+     * @return {@code true} if the whole of the parser's input is in memory, otherwise {@code false}
+     */
+    static boolean isInMemory(byte[] json) {
+        return !InputStreams.isCompressed(json);
+    }
+
+    private static void matchValue(InputStream json, MatchHandler handler) {
+        JsonFactory factory = acquireFactory();
+        try {
+            matchValue(factory.createParser(InputStreams.decompressing(json)), handler);
+        } catch (IOException e) {
+            closeQuietly(json);
+            throw new InvalidJsonException(e);
+        } finally {
+            releaseFactory(factory);
+        }
+    }
+
+    private static void matchValue(JsonParser parser, MatchHandler handler) throws IOException {
+        try {
+            if (parser.nextToken() == null) {
+                throw new EOFException("No content to map due to end-of-input");
+            }
+
+            handler.match(parser);
+        } catch (SelectionCompleteException e) {
+            // Nothing more to select
+        } finally {
+            closeQuietly(parser);
+        }
+    }
+
+    private static void closeQuietly(JsonParser parser) {
+        if (parser != null) {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                // Nothing to do
+            }
+        }
+    }
+
+    static boolean isMissing(ScalarMatchHandler handler) {
+        return (handler.getToken() == null) || (handler.getToken() == JsonToken.VALUE_NULL);
+    }
+
+    private int asInt(ScalarMatchHandler handler) {
+        return (int) asIntegral(handler, Integer.MIN_VALUE, Integer.MAX_VALUE, "an int");
+    }
+
+    long asLong(ScalarMatchHandler handler) {
+        return asIntegral(handler, Long.MIN_VALUE, Long.MAX_VALUE, "a long");
+    }
+
+    private long asIntegral(ScalarMatchHandler handler, long min, long max, String type) {
+        JsonToken token = getPresentToken(handler);
+        if ((token == JsonToken.VALUE_NUMBER_INT) && (handler.getBigIntegerValue() == null)) {
+            long value = handler.getLongValue();
+            if ((value >= min) && (value <= max)) {
+                return value;
+            }
+            throw doesNotFit(Long.toString(value), type);
+        } else if (token == JsonToken.VALUE_NUMBER_INT) {
+            throw doesNotFit(handler.getBigIntegerValue().toString(), type);
+        } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            double value = handler.getDoubleValue();
+            if (isIntegral(value, min, max)) {
+                return (long) value;
+            }
+            throw doesNotFit(Double.toString(value), type);
+        } else if (token == JsonToken.VALUE_STRING) {
+            try {
+                long value = Long.parseLong(handler.getText().trim());
+                if ((value >= min) && (value <= max)) {
+                    return value;
+                }
+            } catch (NumberFormatException e) {
+                double value = parseDouble(handler);
+                if (isIntegral(value, min, max)) {
+                    return (long) value;
+                }
+            }
+            throw doesNotFit("'" + handler.getText() + "'", type);
+        }
+        throw new IllegalArgumentException("'" + this.expression + "' does not select a number");
+    }
+
+    private static boolean isIntegral(double value, long min, long max) {
+        // (double) max + 1 is the power of two above max, which a cast to long would saturate to rather than reject
+        return (value >= min) && (value < (double) max + 1) && (value == Math.floor(value));
+    }
+
+    private IllegalArgumentException doesNotFit(String value, String type) {
+        return new IllegalArgumentException("'" + this.expression + "' selects " + value + ", which does not fit in " + type);
+    }
+
+    double asDouble(ScalarMatchHandler handler) {
+        JsonToken token = getPresentToken(handler);
+        if ((token == JsonToken.VALUE_NUMBER_INT) || (token == JsonToken.VALUE_NUMBER_FLOAT)) {
+            return handler.getDoubleValue();
+        } else if (token == JsonToken.VALUE_STRING) {
+            return parseDouble(handler);
+        }
+        throw new IllegalArgumentException("'" + this.expression + "' does not select a number");
+    }
+
+    private double parseDouble(ScalarMatchHandler handler) {
+        try {
+            return Double.parseDouble(handler.getText().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + this.expression + "' selects '" + handler.getText() + "', which is not a number", e);
+        }
+    }
+
+    private boolean asBoolean(ScalarMatchHandler handler) {
+        JsonToken token = getPresentToken(handler);
+        if ((token == JsonToken.VALUE_TRUE) || (token == JsonToken.VALUE_FALSE)) {
+            return token == JsonToken.VALUE_TRUE;
+        } else if (token == JsonToken.VALUE_NUMBER_INT) {
+            return (handler.getBigIntegerValue() != null) || (handler.getLongValue() != 0);
+        } else if ((token == JsonToken.VALUE_STRING) && ("true".equals(handler.getText()) || "false".equals(handler.getText()))) {
+            return "true".equals(handler.getText());
+        }
+        throw new IllegalArgumentException("'" + this.expression + "' does not select a boolean");
+    }
+
+    String asString(ScalarMatchHandler handler) {
+        JsonToken token = getPresentToken(handler);
+        if (token == JsonToken.VALUE_STRING) {
+            return handler.getText();
+        } else if ((token == JsonToken.VALUE_NUMBER_INT) && (handler.getBigIntegerValue() != null)) {
+            return handler.getBigIntegerValue().toString();
+        } else if (token == JsonToken.VALUE_NUMBER_INT) {
+            return Long.toString(handler.getLongValue());
+        } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return Double.toString(handler.getDoubleValue());
+        } else if ((token == JsonToken.VALUE_TRUE) || (token == JsonToken.VALUE_FALSE)) {
+            return Boolean.toString(token == JsonToken.VALUE_TRUE);
+        }
+        throw new IllegalArgumentException("'" + this.expression + "' does not select a string");
+    }
+
+    private JsonToken getPresentToken(ScalarMatchHandler handler) {
+        if (handler.getToken() == null) {
+            throw new IllegalArgumentException("'" + this.expression + "' does not select anything");
+        } else if (handler.getToken() == JsonToken.VALUE_NULL) {
+            throw new IllegalArgumentException("'" + this.expression + "' selects null");
+        }
+        return handler.getToken();
+    }
+
+    private static JsonNode getTree(JsonNode tree) throws EOFException {
+        if (tree == null) {
+            throw new EOFException("No content to map due to end-of-input");
+        }
+        return tree;
+    }
+
+    private static boolean isTree(JavaType type) {
+        return JsonNode.class.isAssignableFrom(type.getRawClass());
+    }
+
+    private static ObjectReader getReader(JavaType type) {
+        ObjectReader reader = READERS.get(type);
+
+        if (reader == null) {
+            reader = OBJECT_MAPPER.reader(type);
+            ObjectReader existing = READERS.putIfAbsent(type, reader);
+            if (existing != null) {
+                reader = existing;
+            }
+        }
+
+        return reader;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private static int getSliceCount(byte[] json) {
+        return Math.min(getSliceCount(), json.length / MINIMUM_SLICE_SIZE);
+    }
+
+    private static int getSliceCount() {
+        return Runtime.getRuntime().availableProcessors() * SLICES_PER_PROCESSOR;
+    }
+
+    private JsonNode join(List<Future<JsonNode>> futures) throws InterruptedException {
+        ArrayNode result = JsonNodeFactory.instance.arrayNode();
+        for (Future<JsonNode> future : futures) {
+            JsonNode slice = getSlice(future);
+            if (slice instanceof ArrayNode) {
+                result.addAll((ArrayNode) slice);
+            } else if (slice != null) {
+                result.add(slice);
+            }
+        }
+
+        return truncate(result);
+    }
+
+    private ArrayNode truncate(ArrayNode result) {
+        while (result.size() > this.limit) {
+            result.remove(result.size() - 1);
+        }
+        return result;
+    }
+
+    private static JsonNode getSlice(Future<JsonNode> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            // Nothing to do
+        }
+    }
+
+    private static String getMessage(List<ExpressionProblem> problems) {
+        StringBuilder sb = new StringBuilder();
+        for (ExpressionProblem expressionProblem : problems) {
+            sb.append(expressionProblem.toString());
+        }
+        return sb.toString();
+    }
+
+    private Object writeReplace() {
+        return new SerializationProxy(this.expression, this.regexMode, this.limit);
+    }
+
+    private static final class CallbackMatchHandler<T> implements MatchHandler {
+
+        private final ObjectReader reader;
+
+        private final Class<?> rawClass;
+
+        private final boolean tree;
+
+        private final MatchCallback<? super T> callback;
+
+        private final int limit;
+
+        private volatile int count = 0;
+
+        private CallbackMatchHandler(JavaType type, ObjectReader reader, MatchCallback<? super T> callback, int limit) {
+            this.reader = reader;
+            this.rawClass = type.getRawClass();
+            this.tree = isTree(type);
+            this.callback = callback;
+            this.limit = limit;
+        }
+
+        @Override
+        public void startSet() {
+        }
+
+        @Override
+        public void match(JsonNode value) {
+            if (this.tree && this.rawClass.isInstance(value)) {
+                onMatch(value);
+            } else {
+                try {
+                    onMatch(this.reader.readValue(value));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException(e.getMessage(), e);
+                }
+            }
+        }
+
+        @Override
+        public void match(JsonParser parser) throws IOException {
+            if (this.tree) {
+                JsonNode value = parser.readValueAsTree();
+                match(value);
+            } else {
+                try {
+                    onMatch(this.reader.readValue(parser));
+                } catch (JsonMappingException e) {
+                    throw new IllegalArgumentException(e.getMessage(), e);
+                }
+            }
+        }
+
+        @Override
+        public void endSet() {
+        }
+
+        private void onMatch(Object value) {
+            T bound = cast(value);
+            this.callback.onMatch(bound);
+            if (++this.count >= this.limit) {
+                throw new SelectionCompleteException();
+            }
+        }
+
+    }
+
+    private static final class FirstMatchCallback<T> implements MatchCallback<T> {
+
+        private volatile T value;
+
+        @Override
+        public void onMatch(T value) {
+            this.value = value;
+        }
+
+    }
+
+    private final class Slice implements Callable<JsonNode> {
+
+        private final byte[] json;
+
+        private final int from;
+
+        private final int to;
+
+        private final boolean opened;
+
+        private final boolean closed;
+
+        private Slice(byte[] json, int from, int to, boolean opened, boolean closed) {
+            this.json = json;
+            this.from = from;
+            this.to = to;
+            this.opened = opened;
+            this.closed = closed;
+        }
+
+        @Override
+        public JsonNode call() {
+            List<InputStream> parts = new ArrayList<InputStream>();
+            if (this.opened) {
+                parts.add(new ByteArrayInputStream(OPEN_BRACKET));
+            }
+            parts.add(new ByteArrayInputStream(this.json, this.from, this.to - this.from));
+            if (this.closed) {
+                parts.add(new ByteArrayInputStream(CLOSE_BRACKET));
+            }
+
+            CollectingMatchHandler handler = new CollectingMatchHandler(JsonPath.this.limit);
+            match(new SequenceInputStream(Collections.enumeration(parts)), handler);
+            return handler.getResult();
+        }
+    }
+
+    private final class ElementSlice implements Callable<JsonNode> {
+
+        private final ArrayNode json;
+
+        private final int from;
+
+        private final int to;
+
+        private ElementSlice(ArrayNode json, int from, int to) {
+            this.json = json;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public JsonNode call() {
+            ArrayNode elements = JsonNodeFactory.instance.arrayNode();
+            for (int i = this.from; i < this.to; i++) {
+                elements.add(this.json.get(i));
+            }
+
+            CollectingMatchHandler handler = new CollectingMatchHandler(JsonPath.this.limit);
+            match(elements, handler);
+            return handler.getResult();
+        }
+    }
+
+    private static final class SerializationProxy implements Serializable {
+
+        private static final long serialVersionUID = 9010269726175180293L;
+
+        private volatile String expression;
+
+        private volatile RegexMode regexMode;
+
+        private volatile int limit;
 
-        private SerializationProxy(String expression) {
+        private SerializationProxy(String expression, RegexMode regexMode, int limit) {
             this.expression = expression;
+            this.regexMode = regexMode;
+            this.limit = limit;
         }
 
         private Object readResolve() {
-            return JsonPath.compile(this.expression);
+            JsonPath jsonPath = JsonPath.compile(this.expression, this.regexMode == null ? RegexMode.STANDARD : this.regexMode);
+            return this.limit == 0 ? jsonPath : jsonPath.limit(this.limit);
         }
 
     }
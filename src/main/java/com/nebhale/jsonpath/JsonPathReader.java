@@ -0,0 +1,297 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * A reader of the content that a {@link JsonPath} selects from JSON payloads, bound to the type that the content is
+ * read as. The type and the deserializer for it are resolved once, when the reader is created, so each read starts
+ * evaluating the expression straight away. The result of each read is the same as that of the corresponding method on
+ * {@link JsonPath} called with the type.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ *
+ * @param <T> The type that content is read as
+ *
+ * @see JsonPath#reader(Class)
+ */
+public final class JsonPathReader<T> {
+
+    private final JsonPath jsonPath;
+
+    private final JavaType type;
+
+    private final ObjectReader reader;
+
+    JsonPathReader(JsonPath jsonPath, JavaType type, ObjectReader reader) {
+        this.jsonPath = jsonPath;
+        this.type = type;
+        this.reader = reader;
+    }
+
+    /**
+     * Reads content from a JSON payload
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     *
+     * @see JsonPath#read(String, JavaType)
+     */
+    public T read(String json) {
+        return this.jsonPath.bind(json, this.type, this.reader);
+    }
+
+    /**
+     * Reads content from a JSON payload. The payload may be encoded in UTF-8, UTF-16 or UTF-32, and may be compressed
+     * with gzip or zlib.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     *
+     * @see JsonPath#read(byte[], JavaType)
+     */
+    public T read(byte[] json) {
+        return this.jsonPath.bind(json, this.type, this.reader);
+    }
+
+    /**
+     * Reads content from a JSON payload. The payload may be encoded in UTF-8, UTF-16 or UTF-32, and may be compressed
+     * with gzip or zlib.
+     *
+     * @param json The JSON payload to retrieve data from. The stream is closed once the content has been read.
+     *
+     * @return The content read from the JSON payload
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     *
+     * @see JsonPath#read(InputStream, JavaType)
+     */
+    public T read(InputStream json) {
+        return this.jsonPath.bind(json, this.type, this.reader);
+    }
+
+    /**
+     * Reads content from a JSON payload
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The content read from the JSON payload
+     *
+     * @see JsonPath#read(JsonNode, JavaType)
+     */
+    public T read(JsonNode json) {
+        return this.jsonPath.bind(json, this.type, this.reader);
+    }
+
+    /**
+     * Reads the first value selected from a JSON payload. Evaluation stops at the first value selected, and no further
+     * input is read.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The first value read from the JSON payload or {@code null} if nothing was selected
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     *
+     * @see JsonPath#readFirst(String, JavaType)
+     */
+    public T readFirst(String json) {
+        return this.jsonPath.bindFirst(json, this.type, this.reader);
+    }
+
+    /**
+     * Reads the first value selected from a JSON payload. Evaluation stops at the first value selected.
+     *
+     * @param json The JSON payload to retrieve data from
+     *
+     * @return The first value read from the JSON payload or {@code null} if nothing was selected
+     *
+     * @see JsonPath#readFirst(JsonNode, JavaType)
+     */
+    public T readFirst(JsonNode json) {
+        return this.jsonPath.bindFirst(json, this.type, this.reader);
+    }
+
+    /**
+     * Reads the values selected from a JSON payload and passes each one to {@code callback} as soon as it has been read
+     *
+     * @param json The JSON payload to read values from
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON string
+     *
+     * @see JsonPath#forEach(String, JavaType, MatchCallback)
+     */
+    public void forEach(String json, MatchCallback<? super T> callback) {
+        this.jsonPath.forEach(json, this.type, this.reader, callback);
+    }
+
+    /**
+     * Reads the values selected from a JSON payload and passes each one to {@code callback} as soon as it has been read
+     *
+     * @param json The JSON payload to read values from
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     *
+     * @see JsonPath#forEach(byte[], JavaType, MatchCallback)
+     */
+    public void forEach(byte[] json, MatchCallback<? super T> callback) {
+        this.jsonPath.forEach(json, this.type, this.reader, callback);
+    }
+
+    /**
+     * Reads the values selected from a JSON payload and passes each one to {@code callback} as soon as it has been read
+     *
+     * @param json The JSON payload to read values from. The stream is closed once the values have been read.
+     * @param callback The {@link MatchCallback} to pass each value to
+     *
+     * @throws InvalidJsonException if the {@code json} argument is not a legal JSON payload
+     *
+     * @see JsonPath#forEach(InputStream, JavaType, MatchCallback)
+     */
+    public void forEach(InputStream json, MatchCallback<? super T> callback) {
+        this.jsonPath.forEach(json, this.type, this.reader, callback);
+    }
+
+    /**
+     * Reads content from each of a batch of JSON payloads on {@code executor}. At most {@code parallelism} payloads are
+     * read at once. Each of up to {@code parallelism} tasks reads one payload after another until the batch is done,
+     * so the buffers that a thread reuses between reads are reused across the batch, including when {@code executor}
+     * starts a new thread, for example a virtual thread, for each task. A payload that cannot be read is reported in
+     * its {@link ReadResult} and does not stop the rest of the batch from being read. This method returns once every
+     * payload has been read.
+     *
+     * @param json The JSON payloads to retrieve data from. Each payload is a {@link String}, a {@code byte[]}, an
+     *        {@link InputStream} or a {@link JsonNode}, read as by the {@code read} method for that type.
+     * @param executor The {@link Executor} to read the payloads on
+     * @param parallelism The maximum number of payloads to read at once
+     *
+     * @return The result of reading each payload, in the order of {@code json}
+     *
+     * @throws IllegalArgumentException if {@code parallelism} is less than one
+     */
+    public List<ReadResult<T>> readAll(Collection<?> json, Executor executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(String.format("Parallelism must be at least one but was %d", parallelism));
+        }
+
+        Batch batch = new Batch(new ArrayList<Object>(json), Math.min(parallelism, json.size()));
+        for (int i = 0; i < batch.workers; i++) {
+            try {
+                executor.execute(batch);
+            } catch (RejectedExecutionException e) {
+                batch.run();
+            }
+        }
+
+        return batch.await();
+    }
+
+    private ReadResult<T> readOne(Object json) {
+        try {
+            if (json instanceof String) {
+                return ReadResult.success(read((String) json));
+            } else if (json instanceof byte[]) {
+                return ReadResult.success(read((byte[]) json));
+            } else if (json instanceof InputStream) {
+                return ReadResult.success(read((InputStream) json));
+            } else if (json instanceof JsonNode) {
+                return ReadResult.success(read((JsonNode) json));
+            } else {
+                return ReadResult.failure(new IllegalArgumentException("A payload of type "
+                    + (json == null ? null : json.getClass().getName()) + " cannot be read"));
+            }
+        } catch (RuntimeException e) {
+            return ReadResult.failure(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JsonPathReader [jsonPath=" + this.jsonPath + ", type=" + this.type + "]";
+    }
+
+    private final class Batch implements Runnable {
+
+        private final List<Object> json;
+
+        private final int workers;
+
+        private final AtomicReferenceArray<ReadResult<T>> results;
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        private final CountDownLatch done;
+
+        private Batch(List<Object> json, int workers) {
+            this.json = json;
+            this.workers = workers;
+            this.results = new AtomicReferenceArray<ReadResult<T>>(json.size());
+            this.done = new CountDownLatch(workers);
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = this.next.getAndIncrement(); i < this.json.size(); i = this.next.getAndIncrement()) {
+                    this.results.set(i, readOne(this.json.get(i)));
+                }
+            } finally {
+                this.done.countDown();
+            }
+        }
+
+        private List<ReadResult<T>> await() {
+            try {
+                this.done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reading in parallel", e);
+            }
+
+            List<ReadResult<T>> results = new ArrayList<ReadResult<T>>(this.results.length());
+            for (int i = 0; i < this.results.length(); i++) {
+                results.add(this.results.get(i));
+            }
+            return results;
+        }
+    }
+
+}
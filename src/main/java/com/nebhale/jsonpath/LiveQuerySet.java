@@ -0,0 +1,362 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * A mutable JSON document together with the cached results of a set of {@link JsonPath}s against it. The document is
+ * changed by applying RFC 6902 JSON Patch operations with {@link #apply(JsonNode)}, which re-evaluates only the
+ * expressions that could read one of the changed locations and reports those whose results changed.
+ * <p />
+ * Whether an expression could read a location is decided from its definite prefix. Child names, indexes and wildcards
+ * are compared with the tokens of the location's JSON Pointer, and an expression is re-evaluated as soon as it reaches
+ * a deep wildcard, a filter, a script expression or an aggregate function that the location could lie beneath. Adding
+ * or removing an element of an array moves the elements that follow it, so these operations are treated as changes to
+ * the whole array. Expressions that cannot read any changed location keep their cached results without being
+ * evaluated.
+ * <p />
+ * The document must only be changed through {@link #apply(JsonNode)}. Results are copied when they are cached, so
+ * they are not changed by later operations.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class LiveQuerySet {
+
+    private final Object monitor = new Object();
+
+    private final Map<JsonPath, JsonNode> results = new LinkedHashMap<JsonPath, JsonNode>();
+
+    private volatile JsonNode document;
+
+    /**
+     * Creates a new instance with no expressions
+     *
+     * @param document The JSON document to evaluate expressions against
+     */
+    public LiveQuerySet(JsonNode document) {
+        this.document = document;
+    }
+
+    /**
+     * Adds an expression to the set and caches its result against the current content of the document
+     *
+     * @param jsonPath The expression to add
+     *
+     * @return This instance
+     */
+    public LiveQuerySet add(JsonPath jsonPath) {
+        synchronized (this.monitor) {
+            this.results.put(jsonPath, evaluate(jsonPath));
+        }
+        return this;
+    }
+
+    /**
+     * Returns the cached result of an expression
+     *
+     * @param jsonPath The expression to return the result of
+     *
+     * @return the cached result of the expression or {@code null} if it selects nothing
+     *
+     * @throws IllegalArgumentException if the expression has not been added to the set
+     */
+    public JsonNode getResult(JsonPath jsonPath) {
+        synchronized (this.monitor) {
+            if (!this.results.containsKey(jsonPath)) {
+                throw new IllegalArgumentException("'" + jsonPath + "' has not been added");
+            }
+            return this.results.get(jsonPath);
+        }
+    }
+
+    /**
+     * Returns the JSON document. The root of the document is replaced by an operation whose path is the empty pointer.
+     *
+     * @return the JSON document
+     */
+    public JsonNode getDocument() {
+        return this.document;
+    }
+
+    /**
+     * Applies the operations of an RFC 6902 JSON Patch to the document and re-evaluates the expressions that could read
+     * one of the changed locations. If an operation fails, the operations before it remain applied and the cached
+     * results reflect them.
+     *
+     * @param patch The JSON Patch, an array of operations
+     *
+     * @return The expressions whose results changed, in the order that they were added
+     *
+     * @throws IllegalArgumentException if the patch is malformed, a location that it references does not exist or one
+     *             of its {@code test} operations fails
+     */
+    public List<JsonPath> apply(JsonNode patch) {
+        if (!patch.isArray()) {
+            throw new IllegalArgumentException("A JSON Patch must be an array of operations");
+        }
+
+        synchronized (this.monitor) {
+            List<List<String>> changed = new ArrayList<List<String>>();
+            List<JsonPath> updated;
+
+            try {
+                for (JsonNode operation : patch) {
+                    apply(operation, changed);
+                }
+            } finally {
+                updated = refresh(changed);
+            }
+
+            return updated;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (this.monitor) {
+            return "LiveQuerySet [jsonPaths=" + this.results.keySet() + "]";
+        }
+    }
+
+    private void apply(JsonNode operation, List<List<String>> changed) {
+        String op = getText(operation, "op");
+        List<String> path = parsePointer(getText(operation, "path"));
+
+        if ("add".equals(op)) {
+            add(path, getValue(operation).deepCopy());
+            changed.add(getChangedLocation(path));
+        } else if ("remove".equals(op)) {
+            changed.add(getChangedLocation(path));
+            remove(path);
+        } else if ("replace".equals(op)) {
+            replace(path, getValue(operation).deepCopy());
+            changed.add(path);
+        } else if ("move".equals(op)) {
+            List<String> from = parsePointer(getText(operation, "from"));
+            if ((from.size() < path.size()) && from.equals(path.subList(0, from.size()))) {
+                throw new IllegalArgumentException("'" + toPointer(from) + "' cannot be moved into one of its children");
+            }
+
+            changed.add(getChangedLocation(from));
+            JsonNode value = remove(from);
+            add(path, value);
+            changed.add(getChangedLocation(path));
+        } else if ("copy".equals(op)) {
+            List<String> from = parsePointer(getText(operation, "from"));
+            add(path, resolve(from).deepCopy());
+            changed.add(getChangedLocation(path));
+        } else if ("test".equals(op)) {
+            if (!resolve(path).equals(getValue(operation))) {
+                throw new IllegalArgumentException("The value at '" + toPointer(path) + "' is not " + getValue(operation));
+            }
+        } else {
+            throw new IllegalArgumentException("'" + op + "' is not a JSON Patch operation");
+        }
+    }
+
+    private void add(List<String> path, JsonNode value) {
+        if (path.isEmpty()) {
+            this.document = value;
+            return;
+        }
+
+        JsonNode parent = resolve(getParent(path));
+        String token = path.get(path.size() - 1);
+
+        if (parent.isObject()) {
+            ((ObjectNode) parent).put(token, value);
+        } else if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            if ("-".equals(token)) {
+                array.add(value);
+            } else {
+                array.insert(parseIndex(path, token, array.size()), value);
+            }
+        } else {
+            throw new IllegalArgumentException("'" + toPointer(getParent(path)) + "' is not an object or an array");
+        }
+    }
+
+    private JsonNode remove(List<String> path) {
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("The root of the document cannot be removed");
+        }
+
+        JsonNode parent = resolve(getParent(path));
+        String token = path.get(path.size() - 1);
+
+        if (parent.isObject() && parent.has(token)) {
+            return ((ObjectNode) parent).remove(token);
+        } else if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            return array.remove(parseIndex(path, token, array.size() - 1));
+        }
+
+        throw new IllegalArgumentException("'" + toPointer(path) + "' does not exist");
+    }
+
+    private void replace(List<String> path, JsonNode value) {
+        if (path.isEmpty()) {
+            this.document = value;
+            return;
+        }
+
+        JsonNode parent = resolve(getParent(path));
+        String token = path.get(path.size() - 1);
+
+        if (parent.isObject() && parent.has(token)) {
+            ((ObjectNode) parent).put(token, value);
+        } else if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            array.set(parseIndex(path, token, array.size() - 1), value);
+        } else {
+            throw new IllegalArgumentException("'" + toPointer(path) + "' does not exist");
+        }
+    }
+
+    private JsonNode resolve(List<String> path) {
+        JsonNode node = this.document;
+
+        for (int i = 0; (node != null) && (i < path.size()); i++) {
+            String token = path.get(i);
+            if (node.isObject()) {
+                node = node.get(token);
+            } else if (node.isArray()) {
+                node = node.get(parseIndex(path.subList(0, i + 1), token, node.size() - 1));
+            } else {
+                node = null;
+            }
+        }
+
+        if (node == null) {
+            throw new IllegalArgumentException("'" + toPointer(path) + "' does not exist");
+        }
+
+        return node;
+    }
+
+    private List<String> getChangedLocation(List<String> path) {
+        if (path.isEmpty()) {
+            return path;
+        }
+
+        List<String> parent = getParent(path);
+        return resolve(parent).isArray() ? parent : path;
+    }
+
+    private List<JsonPath> refresh(List<List<String>> changed) {
+        List<JsonPath> updated = new ArrayList<JsonPath>();
+
+        for (Map.Entry<JsonPath, JsonNode> entry : this.results.entrySet()) {
+            if (dependsOn(entry.getKey(), changed)) {
+                JsonNode result = evaluate(entry.getKey());
+                if ((result == null) ? (entry.getValue() != null) : !result.equals(entry.getValue())) {
+                    entry.setValue(result);
+                    updated.add(entry.getKey());
+                }
+            }
+        }
+
+        return updated;
+    }
+
+    private JsonNode evaluate(JsonPath jsonPath) {
+        JsonNode result = jsonPath.read(this.document, JsonNode.class);
+        if (result == null) {
+            return null;
+        }
+        return result.deepCopy();
+    }
+
+    private static boolean dependsOn(JsonPath jsonPath, List<List<String>> changed) {
+        for (List<String> location : changed) {
+            if (jsonPath.dependsOn(location)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getText(JsonNode operation, String field) {
+        JsonNode value = operation.get(field);
+        if ((value == null) || !value.isTextual()) {
+            throw new IllegalArgumentException("'" + operation + "' does not have a '" + field + "' string");
+        }
+        return value.textValue();
+    }
+
+    private static JsonNode getValue(JsonNode operation) {
+        JsonNode value = operation.get("value");
+        if (value == null) {
+            throw new IllegalArgumentException("'" + operation + "' does not have a 'value'");
+        }
+        return value;
+    }
+
+    private static List<String> getParent(List<String> path) {
+        return path.subList(0, path.size() - 1);
+    }
+
+    private static int parseIndex(List<String> path, String token, int max) {
+        boolean legal = (token.length() > 0) && (token.length() < 10) && ((token.length() == 1) || (token.charAt(0) != '0'));
+        for (int i = 0; legal && (i < token.length()); i++) {
+            legal = Character.isDigit(token.charAt(i));
+        }
+
+        if (!legal || (Integer.parseInt(token) > max)) {
+            throw new IllegalArgumentException("'" + toPointer(path) + "' does not identify an element of an array");
+        }
+
+        return Integer.parseInt(token);
+    }
+
+    private static List<String> parsePointer(String pointer) {
+        if (pointer.length() == 0) {
+            return new ArrayList<String>();
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("'" + pointer + "' is not a JSON Pointer");
+        }
+
+        List<String> tokens = new ArrayList<String>(Arrays.asList(pointer.substring(1).split("/", -1)));
+        for (int i = 0; i < tokens.size(); i++) {
+            tokens.set(i, tokens.get(i).replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static String toPointer(List<String> path) {
+        StringBuilder sb = new StringBuilder();
+        for (String token : path) {
+            sb.append('/').append(token.replace("~", "~0").replace("/", "~1"));
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+/**
+ * Receives the values selected by a JSONPath expression one at a time, as soon as each has been read. If the
+ * expression selects a single value, that value is passed to {@link #onMatch(Object)}. If it selects a set of values,
+ * each value in the set is passed to {@link #onMatch(Object)} in turn.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Implementations need not be thread-safe
+ *
+ * @param <T> The type that each value is converted to
+ *
+ * @see JsonPath#forEach(String, Class, MatchCallback)
+ */
+public interface MatchCallback<T> {
+
+    /**
+     * Called with each value selected
+     *
+     * @param value The value selected
+     */
+    void onMatch(T value);
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Receives the values selected by an {@link AsyncEvaluation} as they are selected, as a {@link MatchCallback} does.
+ * Either {@link #onComplete()} or {@link #onError(RuntimeException)} is called once after the last value, unless the
+ * evaluation is cancelled.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * The methods of a listener are called on a thread of the {@link java.util.concurrent.Executor} that runs the
+ * evaluation, one at a time, so implementations need not be thread-safe
+ *
+ * @see JsonPath#evaluateAsync(java.util.concurrent.Executor, MatchListener)
+ */
+public interface MatchListener extends MatchCallback<JsonNode> {
+
+    /**
+     * Called once every value has been selected
+     */
+    void onComplete();
+
+    /**
+     * Called if the evaluation fails. This is an {@link InvalidJsonException} if the input is not a legal JSON payload
+     * or an exception thrown by {@link #onMatch(Object)}.
+     *
+     * @param exception The exception that the evaluation failed with
+     */
+    void onError(RuntimeException exception);
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.nebhale.jsonpath.internal.component.SelectionCompleteException;
+
+/**
+ * A publisher of the values that a {@link JsonPath} selects from a JSON payload, which passes values to its
+ * {@link MatchSubscriber} only as fast as the subscriber requests them. This has the same contract as a Reactive
+ * Streams {@code Publisher}, so adapting it to a reactive library takes only a thin wrapper.
+ * <p />
+ * The payload is read and evaluated on a thread of an {@link Executor} once a subscriber subscribes. When a value is
+ * selected and the subscriber has no outstanding demand, the reading of the payload pauses until more values are
+ * requested. At most one value that has been selected but not yet requested is held in memory, however slow the
+ * subscriber is. The evaluation occupies its thread until the payload has been read, the subscription is cancelled or
+ * nothing more can be selected. As the payload can only be read once, a publisher accepts only one subscriber.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ *
+ * @param <T> The type of the values published
+ *
+ * @see JsonPath#publish(InputStream, Class, Executor)
+ */
+public final class MatchPublisher<T> {
+
+    private final Object monitor = new Object();
+
+    private final JsonPath jsonPath;
+
+    private final InputStream json;
+
+    private final JavaType expectedType;
+
+    private final Executor executor;
+
+    private volatile boolean subscribed = false;
+
+    MatchPublisher(JsonPath jsonPath, InputStream json, JavaType expectedType, Executor executor) {
+        this.jsonPath = jsonPath;
+        this.json = json;
+        this.expectedType = expectedType;
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes to the values selected. {@link MatchSubscriber#onSubscribe(MatchSubscription)} is called before this
+     * method returns, and the reading of the payload starts on a thread of the {@link Executor}. A second subscriber
+     * is immediately passed an {@link IllegalStateException}.
+     *
+     * @param subscriber The {@link MatchSubscriber} to pass the values selected to
+     */
+    public void subscribe(MatchSubscriber<? super T> subscriber) {
+        boolean first;
+        synchronized (this.monitor) {
+            first = !this.subscribed;
+            this.subscribed = true;
+        }
+
+        if (first) {
+            Subscription subscription = new Subscription(subscriber);
+            subscriber.onSubscribe(subscription);
+            this.executor.execute(subscription);
+        } else {
+            subscriber.onSubscribe(new Subscription(subscriber));
+            subscriber.onError(new IllegalStateException("The publisher already has a subscriber"));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MatchPublisher [jsonPath=" + this.jsonPath + ", expectedType=" + this.expectedType + ", subscribed=" + this.subscribed + "]";
+    }
+
+    private final class Subscription implements MatchSubscription, MatchCallback<T>, Runnable {
+
+        private final MatchSubscriber<? super T> subscriber;
+
+        private volatile long demand = 0;
+
+        private volatile boolean cancelled = false;
+
+        private volatile RuntimeException failure;
+
+        private Subscription(MatchSubscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public synchronized void request(long n) {
+            if (n < 1) {
+                this.failure = new IllegalArgumentException("At least one value must be requested, but " + n + " was");
+            } else if (Long.MAX_VALUE - this.demand < n) {
+                this.demand = Long.MAX_VALUE;
+            } else {
+                this.demand += n;
+            }
+
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void cancel() {
+            this.cancelled = true;
+            notifyAll();
+        }
+
+        @Override
+        public void onMatch(T value) {
+            awaitDemand();
+            this.subscriber.onNext(value);
+        }
+
+        @Override
+        public void run() {
+            try {
+                MatchPublisher.this.jsonPath.forEach(MatchPublisher.this.json, MatchPublisher.this.expectedType, this);
+                if (this.failure != null) {
+                    this.subscriber.onError(this.failure);
+                } else if (!this.cancelled) {
+                    this.subscriber.onComplete();
+                }
+            } catch (RuntimeException e) {
+                if (!this.cancelled) {
+                    this.subscriber.onError(e);
+                }
+            }
+        }
+
+        private synchronized void awaitDemand() {
+            while ((this.demand == 0) && !this.cancelled && (this.failure == null)) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for values to be requested");
+                }
+            }
+
+            if (this.failure != null) {
+                throw this.failure;
+            }
+
+            if (this.cancelled) {
+                throw new SelectionCompleteException();
+            }
+
+            this.demand--;
+        }
+    }
+
+}
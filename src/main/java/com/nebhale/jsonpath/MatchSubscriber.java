@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+/**
+ * Receives the values published by a {@link MatchPublisher}. This has the same contract as a Reactive Streams
+ * {@code Subscriber}: {@link #onSubscribe(MatchSubscription)} is called first, {@link #onNext(Object)} is called no
+ * more often than values have been requested, and either {@link #onComplete()} or {@link #onError(RuntimeException)} is
+ * called last, unless the subscription is cancelled.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * The methods of a subscriber are called one at a time, so implementations need not be thread-safe
+ *
+ * @param <T> The type of the values published
+ */
+public interface MatchSubscriber<T> {
+
+    /**
+     * Called once, before any other method, with the {@link MatchSubscription} to request values through
+     *
+     * @param subscription The {@link MatchSubscription} to request values through
+     */
+    void onSubscribe(MatchSubscription subscription);
+
+    /**
+     * Called with each value selected, once it has been requested
+     *
+     * @param value The value selected
+     */
+    void onNext(T value);
+
+    /**
+     * Called if the publication fails. This is an {@link InvalidJsonException} if the payload is not a legal JSON
+     * payload, an {@link IllegalArgumentException} if fewer than one value is requested, an
+     * {@link IllegalStateException} if the publisher already has a subscriber or an exception thrown by
+     * {@link #onNext(Object)}.
+     *
+     * @param exception The exception that the publication failed with
+     */
+    void onError(RuntimeException exception);
+
+    /**
+     * Called once every value has been passed to {@link #onNext(Object)}
+     */
+    void onComplete();
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+/**
+ * The link between a {@link MatchPublisher} and its {@link MatchSubscriber}, through which the subscriber signals how
+ * many values it is ready to receive. This has the same contract as a Reactive Streams {@code Subscription}.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public interface MatchSubscription {
+
+    /**
+     * Requests that {@code n} more values are passed to the {@link MatchSubscriber}. Demand accumulates across calls.
+     * A request for fewer than one value fails the subscription with an {@link IllegalArgumentException}.
+     *
+     * @param n The number of additional values to pass to the {@link MatchSubscriber}
+     */
+    void request(long n);
+
+    /**
+     * Cancels the subscription. The payload is read no further than the next value selected, and nothing more is
+     * passed to the {@link MatchSubscriber} once this method returns, apart from a call that is already in progress.
+     */
+    void cancel();
+}
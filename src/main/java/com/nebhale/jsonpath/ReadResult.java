@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import java.util.Collection;
+import java.util.concurrent.Executor;
+
+/**
+ * The result of reading one JSON payload of a batch. A read either succeeds with a value or fails with the exception
+ * that it threw, so one payload that cannot be read does not stop the others from being read.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ *
+ * @param <T> The type of the value read
+ *
+ * @see JsonPath#readAll(Collection, Class, Executor, int)
+ */
+public final class ReadResult<T> {
+
+    private final T value;
+
+    private final RuntimeException failure;
+
+    private ReadResult(T value, RuntimeException failure) {
+        this.value = value;
+        this.failure = failure;
+    }
+
+    static <T> ReadResult<T> success(T value) {
+        return new ReadResult<T>(value, null);
+    }
+
+    static <T> ReadResult<T> failure(RuntimeException failure) {
+        return new ReadResult<T>(null, failure);
+    }
+
+    /**
+     * Returns whether the payload was read
+     *
+     * @return {@code true} if the payload was read, otherwise {@code false}
+     */
+    public boolean isSuccessful() {
+        return this.failure == null;
+    }
+
+    /**
+     * Returns the value read from the payload
+     *
+     * @return the value read from the payload
+     *
+     * @throws RuntimeException the exception that the read failed with, if it failed
+     */
+    public T getValue() {
+        if (this.failure != null) {
+            throw this.failure;
+        }
+        return this.value;
+    }
+
+    /**
+     * Returns the exception that the read failed with
+     *
+     * @return the exception that the read failed with or {@code null} if the payload was read
+     */
+    public RuntimeException getFailure() {
+        return this.failure;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadResult [value=" + this.value + ", failure=" + this.failure + "]";
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+/**
+ * The ways in which regular expressions in filter expressions, as in {@code [?(@.name =~ /^acct-\d+$/)]}, can be
+ * evaluated
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ *
+ * @see JsonPath#compile(String, RegexMode)
+ */
+public enum RegexMode {
+
+    /**
+     * Regular expressions are evaluated by {@link java.util.regex.Pattern}. The full syntax of {@code Pattern} is
+     * supported, but some regular expressions take time exponential in the length of their input.
+     */
+    STANDARD,
+
+    /**
+     * Regular expressions are evaluated in time linear in the length of their input. Back references, look-around,
+     * possessive quantifiers, inline flags and other syntax that cannot be evaluated in linear time are rejected when
+     * the JSONPath expression is compiled. This mode should be used when regular expressions come from untrusted
+     * sources.
+     */
+    LINEAR_TIME
+
+}
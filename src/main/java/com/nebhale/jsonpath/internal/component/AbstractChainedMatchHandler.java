@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * The base class for the {@link MatchHandler}s that apply a {@link PathComponent} to the values passed to them and pass
+ * the results on to the next {@link MatchHandler}. Subclasses implement the handling of a single value and may also
+ * implement the handling of each value in a set. By default, the values in a set are collected into an array and that
+ * array is handled as a single value.
+ * <p />
+ * A handler that is passed a single value is passed nothing else during a selection. Once a single value that has not
+ * yet been read has been handled, the handler throws a {@link SelectionCompleteException} so that the values enclosing
+ * it are not read either. The handling of a single value that has not yet been read may therefore return as soon as
+ * every value that can be selected from it has been passed on, without reading the rest of it.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Not thread-safe
+ */
+abstract class AbstractChainedMatchHandler implements MatchHandler {
+
+    protected final MatchHandler next;
+
+    private volatile ArrayNode items;
+
+    private volatile boolean set = false;
+
+    protected AbstractChainedMatchHandler(MatchHandler next) {
+        this.next = next;
+    }
+
+    @Override
+    public final void startSet() {
+        this.set = true;
+        startItems();
+    }
+
+    @Override
+    public final void match(JsonNode value) {
+        if (this.set) {
+            item(value);
+        } else {
+            single(value);
+        }
+    }
+
+    @Override
+    public final void match(JsonParser parser) throws IOException {
+        if (this.set) {
+            item(parser);
+        } else {
+            single(parser);
+            throw new SelectionCompleteException();
+        }
+    }
+
+    @Override
+    public final void endSet() {
+        this.set = false;
+        endItems();
+    }
+
+    protected abstract void single(JsonNode value);
+
+    protected void single(JsonParser parser) throws IOException {
+        JsonNode value = parser.readValueAsTree();
+        single(value);
+    }
+
+    protected void startItems() {
+        this.items = JsonNodeFactory.instance.arrayNode();
+    }
+
+    protected void item(JsonNode value) {
+        this.items.add(value);
+    }
+
+    protected void item(JsonParser parser) throws IOException {
+        JsonNode value = parser.readValueAsTree();
+        item(value);
+    }
+
+    protected void endItems() {
+        ArrayNode value = this.items;
+        this.items = null;
+        single(value);
+    }
+
+    protected final void items(JsonParser parser) throws IOException {
+        startItems();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            item(parser);
+        }
+        endItems();
+    }
+
+    protected static final void skipFields(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+}
@@ -16,6 +16,8 @@
 
 package com.nebhale.jsonpath.internal.component;
 
+import java.util.List;
+
 import com.fasterxml.jackson.databind.JsonNode;
 
 abstract class AbstractChainedPathComponent implements PathComponent {
@@ -35,5 +37,70 @@ abstract class AbstractChainedPathComponent implements PathComponent {
         return selected;
     }
 
+    @Override
+    public final MatchHandler createMatchHandler(MatchHandler handler) {
+        return createMatchHandler(handler, null);
+    }
+
+    @Override
+    public final MatchHandler createMatchHandler(MatchHandler handler, ElementIndex elementIndex) {
+        return createMatchHandler(handler, elementIndex, false);
+    }
+
+    @Override
+    public final MatchHandler createMatchHandler(MatchHandler handler, ElementIndex elementIndex, boolean inMemory) {
+        MatchHandler next = this.delegate == null ? handler : this.delegate.createMatchHandler(handler, elementIndex, inMemory);
+        return createChainedMatchHandler(next, elementIndex, inMemory);
+    }
+
+    @Override
+    public final boolean dependsOn(List<String> location, int depth) {
+        return (depth >= location.size()) || dependsOnChild(location, depth);
+    }
+
     protected abstract JsonNode select(JsonNode jsonNode);
+
+    protected abstract MatchHandler createChainedMatchHandler(MatchHandler next);
+
+    protected MatchHandler createChainedMatchHandler(MatchHandler next, ElementIndex elementIndex) {
+        return createChainedMatchHandler(next);
+    }
+
+    protected MatchHandler createChainedMatchHandler(MatchHandler next, ElementIndex elementIndex, boolean inMemory) {
+        return createChainedMatchHandler(next, elementIndex);
+    }
+
+    /**
+     * Returns whether a change below the input, at the child named by {@code location.get(depth)}, could change the
+     * result of the selection. Components that read the whole of their input keep this default.
+     */
+    protected boolean dependsOnChild(List<String> location, int depth) {
+        return true;
+    }
+
+    /**
+     * Returns whether a change below the input, at the child named by {@code location.get(depth)}, could change the
+     * result of the selection when the input is a set produced by a preceding component rather than a value in the
+     * document. The positions in a set do not follow the tokens of {@code location}, so components keep this default
+     * unless they apply to each value of a set on its own.
+     */
+    protected boolean dependsOnSetChild(List<String> location, int depth) {
+        return true;
+    }
+
+    protected final boolean dependsOnSet(List<String> location, int depth) {
+        return (depth >= location.size()) || dependsOnSetChild(location, depth);
+    }
+
+    protected final PathComponent getDelegate() {
+        return this.delegate;
+    }
+
+    protected final boolean delegateDependsOn(List<String> location, int depth) {
+        return (this.delegate == null) || this.delegate.dependsOn(location, depth);
+    }
+
+    protected final boolean delegateDependsOnSet(List<String> location, int depth) {
+        return (this.delegate == null) || ((AbstractChainedPathComponent) this.delegate).dependsOnSet(location, depth);
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+/**
+ * The aggregate functions that can end a JSONPath expression, as in {@code $..price.sum()}. Each function folds the
+ * values selected by the rest of the expression into a single number. When the rest of the expression selects an
+ * array, the function folds its elements. Values that are not numbers are counted by {@link #LENGTH} and ignored by
+ * the other functions.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public enum AggregateFunction {
+
+    /**
+     * The mean of the numbers, or nothing if there are none
+     */
+    AVG("avg"), //
+
+    /**
+     * The number of values
+     */
+    LENGTH("length"), //
+
+    /**
+     * The largest of the numbers, or nothing if there are none
+     */
+    MAX("max"), //
+
+    /**
+     * The smallest of the numbers, or nothing if there are none
+     */
+    MIN("min"), //
+
+    /**
+     * The total of the numbers
+     */
+    SUM("sum");
+
+    private final String name;
+
+    private AggregateFunction(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the function with a given name
+     *
+     * @param name The name of the function, as it appears in a JSONPath expression
+     *
+     * @return The function with the given name or {@code null} if there is no such function
+     */
+    public static AggregateFunction forName(String name) {
+        for (AggregateFunction function : values()) {
+            if (function.name.equals(name)) {
+                return function;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+}
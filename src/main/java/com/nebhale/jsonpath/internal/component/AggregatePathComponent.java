@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link PathComponent} that handles aggregate functions, as in {@code $..price.sum()}. The values are folded as they
+ * are selected, so neither the values nor a collection of them are materialized.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ *
+ * @see AggregateFunction
+ */
+public final class AggregatePathComponent extends AbstractChainedPathComponent {
+
+    private final AggregateFunction function;
+
+    public AggregatePathComponent(PathComponent delegate, AggregateFunction function) {
+        super(delegate);
+        this.function = function;
+    }
+
+    @Override
+    protected JsonNode select(JsonNode input) {
+        Aggregator aggregator = new Aggregator();
+
+        if (input.isArray()) {
+            for (Iterator<JsonNode> i = input.elements(); i.hasNext();) {
+                aggregator.add(i.next());
+            }
+        } else {
+            aggregator.add(input);
+        }
+
+        return aggregator.getResult(this.function);
+    }
+
+    @Override
+    protected MatchHandler createChainedMatchHandler(MatchHandler next) {
+        return new AggregateMatchHandler(next, this.function);
+    }
+
+    @Override
+    public String toString() {
+        return "AggregatePathComponent [function=" + this.function + "]";
+    }
+
+    private static final class AggregateMatchHandler extends AbstractChainedMatchHandler {
+
+        private final AggregateFunction function;
+
+        private volatile Aggregator aggregator;
+
+        private AggregateMatchHandler(MatchHandler next, AggregateFunction function) {
+            super(next);
+            this.function = function;
+        }
+
+        @Override
+        protected void single(JsonNode value) {
+            startItems();
+            if (value.isArray()) {
+                for (Iterator<JsonNode> i = value.elements(); i.hasNext();) {
+                    item(i.next());
+                }
+            } else {
+                item(value);
+            }
+            endItems();
+        }
+
+        @Override
+        protected void single(JsonParser parser) throws IOException {
+            if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                items(parser);
+            } else {
+                startItems();
+                item(parser);
+                endItems();
+            }
+        }
+
+        @Override
+        protected void startItems() {
+            this.aggregator = new Aggregator();
+        }
+
+        @Override
+        protected void item(JsonNode value) {
+            this.aggregator.add(value);
+        }
+
+        @Override
+        protected void item(JsonParser parser) throws IOException {
+            this.aggregator.add(parser);
+        }
+
+        @Override
+        protected void endItems() {
+            JsonNode result = this.aggregator.getResult(this.function);
+            this.aggregator = null;
+            if (result != null) {
+                this.next.match(result);
+            }
+        }
+
+    }
+}
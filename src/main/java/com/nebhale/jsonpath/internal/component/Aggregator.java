@@ -0,0 +1,155 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * Folds values into the running state of an {@link AggregateFunction}. Numbers are accumulated as primitives, so values
+ * read from a {@link JsonParser} are never materialized. Integral numbers are accumulated exactly for as long as they
+ * fit in a {@code long}, and integral results are returned as the same type of node that parsing them would produce.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Not thread-safe
+ */
+final class Aggregator {
+
+    private long count = 0;
+
+    private long numbers = 0;
+
+    private boolean integral = true;
+
+    private long longSum = 0;
+
+    private long longMin = Long.MAX_VALUE;
+
+    private long longMax = Long.MIN_VALUE;
+
+    private double doubleSum = 0;
+
+    private double doubleMin = Double.POSITIVE_INFINITY;
+
+    private double doubleMax = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Folds a value
+     *
+     * @param value The value to fold
+     */
+    void add(JsonNode value) {
+        if (value.isIntegralNumber() && value.canConvertToLong()) {
+            add(value.longValue());
+        } else if (value.isNumber()) {
+            add(value.doubleValue());
+        } else {
+            this.count++;
+        }
+    }
+
+    /**
+     * Folds a value that has not yet been read. The {@code parser} is positioned at the first token of the value and is
+     * left positioned at the last token of the value.
+     *
+     * @param parser The parser to read the value from
+     *
+     * @throws IOException if the value cannot be read
+     */
+    void add(JsonParser parser) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if ((token == JsonToken.VALUE_NUMBER_INT) && (parser.getNumberType() != NumberType.BIG_INTEGER)) {
+            add(parser.getLongValue());
+        } else if (token.isNumeric()) {
+            add(parser.getDoubleValue());
+        } else {
+            this.count++;
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Returns the result of an {@link AggregateFunction} over the values folded so far
+     *
+     * @param function The function to return the result of
+     *
+     * @return The result of the function or {@code null} if the function has no result
+     */
+    JsonNode getResult(AggregateFunction function) {
+        if (function == AggregateFunction.LENGTH) {
+            return numberNode(this.count);
+        } else if (function == AggregateFunction.SUM) {
+            return this.integral ? numberNode(this.longSum) : JsonNodeFactory.instance.numberNode(this.doubleSum);
+        } else if (this.numbers == 0) {
+            return null;
+        } else if (function == AggregateFunction.MIN) {
+            return this.integral ? numberNode(this.longMin) : JsonNodeFactory.instance.numberNode(this.doubleMin);
+        } else if (function == AggregateFunction.MAX) {
+            return this.integral ? numberNode(this.longMax) : JsonNodeFactory.instance.numberNode(this.doubleMax);
+        }
+        return JsonNodeFactory.instance.numberNode((this.integral ? (double) this.longSum : this.doubleSum) / this.numbers);
+    }
+
+    @Override
+    public String toString() {
+        return "Aggregator [count=" + this.count + ", numbers=" + this.numbers + ", integral=" + this.integral + ", longSum=" + this.longSum
+            + ", longMin=" + this.longMin + ", longMax=" + this.longMax + ", doubleSum=" + this.doubleSum + ", doubleMin=" + this.doubleMin
+            + ", doubleMax=" + this.doubleMax + "]";
+    }
+
+    private static JsonNode numberNode(long value) {
+        if ((value >= Integer.MIN_VALUE) && (value <= Integer.MAX_VALUE)) {
+            return JsonNodeFactory.instance.numberNode((int) value);
+        }
+        return JsonNodeFactory.instance.numberNode(value);
+    }
+
+    private void add(long value) {
+        if (this.integral) {
+            long sum = this.longSum + value;
+            if (((this.longSum ^ sum) & (value ^ sum)) < 0) {
+                this.integral = false;
+            } else {
+                this.longSum = sum;
+                this.longMin = Math.min(this.longMin, value);
+                this.longMax = Math.max(this.longMax, value);
+            }
+        }
+        addDouble(value);
+    }
+
+    private void add(double value) {
+        this.integral = false;
+        addDouble(value);
+    }
+
+    private void addDouble(double value) {
+        this.count++;
+        this.numbers++;
+        this.doubleSum += value;
+        this.doubleMin = Math.min(this.doubleMin, value);
+        this.doubleMax = Math.max(this.doubleMax, value);
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * A {@link MatchHandler} that binds the results of a JSONPath selection to a type as they are read. A value that has
+ * not yet been read is bound from the parser, so no {@link JsonNode} is created for it. The result is the same as
+ * converting the {@link JsonNode} that {@link CollectingMatchHandler} collects to the type. When the selection is a set
+ * and the type is an array, a {@link List} or {@link Object}, each value in the set is bound to the element type as it
+ * is read. Otherwise the values of the set are collected and the set is bound to the type once it is complete. A limit
+ * can be placed on the number of values collected into a set. Once the limit is reached, the handler throws a
+ * {@link SelectionCompleteException} to stop the selection.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Not thread-safe
+ */
+public final class BindingMatchHandler implements MatchHandler {
+
+    private final ObjectReader reader;
+
+    private final JavaType type;
+
+    private final int limit;
+
+    private volatile Object result;
+
+    private volatile ObjectReader elementReader;
+
+    private volatile List<Object> elements;
+
+    private volatile ArrayNode set;
+
+    /**
+     * Creates a new instance
+     *
+     * @param reader The {@link ObjectReader} to bind values with. Its value type must be {@code type}.
+     * @param type The type to bind the results of the JSONPath selection to
+     * @param limit The number of values to collect into a set before stopping the selection
+     */
+    public BindingMatchHandler(ObjectReader reader, JavaType type, int limit) {
+        this.reader = reader;
+        this.type = type;
+        this.limit = limit;
+    }
+
+    @Override
+    public void startSet() {
+        this.result = null;
+
+        if (this.type.getRawClass() == Object.class) {
+            this.elementReader = this.reader;
+            this.elements = new ArrayList<Object>();
+        } else if (this.type.isArrayType() || isList(this.type)) {
+            this.elementReader = this.reader.withType(this.type.getContentType());
+            this.elements = new ArrayList<Object>();
+        } else {
+            this.set = JsonNodeFactory.instance.arrayNode();
+        }
+    }
+
+    @Override
+    public void match(JsonNode value) {
+        if (this.elements != null) {
+            add(bind(this.elementReader, value));
+        } else if (this.set != null) {
+            this.set.add(value);
+            checkLimit(this.set.size());
+        } else {
+            this.result = bind(this.reader, value);
+        }
+    }
+
+    @Override
+    public void match(JsonParser parser) throws IOException {
+        if (this.elements != null) {
+            add(bind(this.elementReader, parser));
+        } else if (this.set != null) {
+            JsonNode value = parser.readValueAsTree();
+            match(value);
+        } else {
+            this.result = bind(this.reader, parser);
+        }
+    }
+
+    @Override
+    public void endSet() {
+        this.result = getSetResult();
+        this.elementReader = null;
+        this.elements = null;
+        this.set = null;
+    }
+
+    /**
+     * Returns the result of the JSONPath selection, bound to the type
+     *
+     * @return the result of the JSONPath selection or {@code null} if nothing was selected
+     */
+    public Object getResult() {
+        Object setResult = getSetResult();
+        return setResult != null ? setResult : this.result;
+    }
+
+    private void add(Object value) {
+        this.elements.add(value);
+        checkLimit(this.elements.size());
+    }
+
+    private void checkLimit(int size) {
+        if (size >= this.limit) {
+            throw new SelectionCompleteException();
+        }
+    }
+
+    private Object getSetResult() {
+        if (this.elements != null) {
+            return this.type.isArrayType() ? toArray(this.elements, this.type.getContentType().getRawClass()) : this.elements;
+        } else if (this.set != null) {
+            return bind(this.reader, this.set);
+        } else {
+            return null;
+        }
+    }
+
+    private static boolean isList(JavaType type) {
+        return type.isCollectionLikeType() && type.getRawClass().isAssignableFrom(ArrayList.class);
+    }
+
+    private static Object toArray(List<Object> elements, Class<?> componentType) {
+        Object array = Array.newInstance(componentType, elements.size());
+
+        for (int i = 0; i < elements.size(); i++) {
+            Object element = elements.get(i);
+            if ((element != null) || !componentType.isPrimitive()) {
+                Array.set(array, i, element);
+            }
+        }
+
+        return array;
+    }
+
+    private static Object bind(ObjectReader reader, JsonNode value) {
+        try {
+            return reader.readValue(value);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private static Object bind(ObjectReader reader, JsonParser parser) throws IOException {
+        try {
+            return reader.readValue(parser);
+        } catch (JsonMappingException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BindingMatchHandler [type=" + this.type + ", limit=" + this.limit + "]";
+    }
+
+}
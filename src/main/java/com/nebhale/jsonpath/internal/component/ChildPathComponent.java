@@ -16,11 +16,18 @@
 
 package com.nebhale.jsonpath.internal.component;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.nebhale.jsonpath.internal.util.ArrayUtils;
 
 /**
@@ -35,9 +42,12 @@ public final class ChildPathComponent extends AbstractChainedPathComponent {
 
     private final String[] names;
 
+    private final SerializableString name;
+
     public ChildPathComponent(PathComponent delegate, String names) {
         super(delegate);
         this.names = ArrayUtils.parseAsStringArray(names);
+        this.name = this.names.length == 1 ? new SerializedString(this.names[0]) : null;
     }
 
     @Override
@@ -72,9 +82,254 @@ public final class ChildPathComponent extends AbstractChainedPathComponent {
         }
     }
 
+    @Override
+    protected boolean dependsOnChild(List<String> location, int depth) {
+        String token = location.get(depth);
+        for (String name : this.names) {
+            if (name.equals(token)) {
+                return this.names.length == 1 ? delegateDependsOn(location, depth + 1) : delegateDependsOnSet(location, depth + 1);
+            }
+        }
+
+        // An array input has the names selected from each of its elements
+        return isIndex(token) && dependsOnSet(location, depth + 1);
+    }
+
+    @Override
+    protected boolean dependsOnSetChild(List<String> location, int depth) {
+        // The values selected from each value of a set are flattened into a new set, so the rest of the selection is
+        // treated as reading all of them
+        String token = location.get(depth);
+        for (String name : this.names) {
+            if (name.equals(token)) {
+                return true;
+            }
+        }
+        return isIndex(token);
+    }
+
+    private static boolean isIndex(String token) {
+        if (token.length() == 0) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected MatchHandler createChainedMatchHandler(MatchHandler next) {
+        return new ChildMatchHandler(next, this.names, this.name, false);
+    }
+
+    @Override
+    protected MatchHandler createChainedMatchHandler(MatchHandler next, ElementIndex elementIndex, boolean inMemory) {
+        return new ChildMatchHandler(next, this.names, this.name, inMemory);
+    }
+
+    /**
+     * Returns the name that this component selects if it selects only one
+     *
+     * @return the name that this component selects or {@code null} if it selects more than one
+     */
+    String getSingleName() {
+        return this.names.length == 1 ? this.names[0] : null;
+    }
+
     @Override
     public String toString() {
         return "ChildPathComponent [names=" + Arrays.toString(this.names) + "]";
     }
 
+    static final class ChildMatchHandler extends AbstractChainedMatchHandler {
+
+        private final String[] names;
+
+        private final SerializableString name;
+
+        private final JsonNode[] selected;
+
+        private final boolean inMemory;
+
+        private ChildMatchHandler(MatchHandler next, String[] names, SerializableString name, boolean inMemory) {
+            super(next);
+            this.names = names;
+            this.name = name;
+            this.selected = new JsonNode[names.length];
+            this.inMemory = inMemory;
+        }
+
+        /**
+         * Returns the name that this handler selects if it selects only one
+         *
+         * @return the name that this handler selects or {@code null} if it selects more than one
+         */
+        String getSingleName() {
+            return this.names.length == 1 ? this.names[0] : null;
+        }
+
+        @Override
+        protected void single(JsonNode value) {
+            if (value.isArray()) {
+                startItems();
+                for (JsonNode node : value) {
+                    item(node);
+                }
+                endItems();
+            } else if (this.names.length == 1) {
+                JsonNode selected = value.get(this.names[0]);
+                if (selected != null) {
+                    this.next.match(selected);
+                }
+            } else {
+                this.next.startSet();
+                matchNames(value);
+                this.next.endSet();
+            }
+        }
+
+        @Override
+        protected void single(JsonParser parser) throws IOException {
+            if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                items(parser);
+            } else if (this.names.length == 1) {
+                matchFirstName(parser);
+            } else {
+                this.next.startSet();
+                matchNames(parser, true);
+                this.next.endSet();
+            }
+        }
+
+        @Override
+        protected void startItems() {
+            this.next.startSet();
+        }
+
+        @Override
+        protected void item(JsonNode value) {
+            if (this.names.length == 1) {
+                JsonNode selected = value.get(this.names[0]);
+                if ((selected != null) && selected.isArray()) {
+                    for (JsonNode node : selected) {
+                        this.next.match(node);
+                    }
+                } else if (selected != null) {
+                    this.next.match(selected);
+                }
+            } else {
+                matchNames(value);
+            }
+        }
+
+        @Override
+        protected void item(JsonParser parser) throws IOException {
+            if (this.names.length == 1) {
+                matchName(parser);
+            } else {
+                matchNames(parser, false);
+            }
+        }
+
+        @Override
+        protected void endItems() {
+            this.next.endSet();
+        }
+
+        private void matchName(JsonParser parser) throws IOException {
+            if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return;
+            }
+
+            if (findName(parser)) {
+                if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        this.next.match(parser);
+                    }
+                } else {
+                    this.next.match(parser);
+                }
+                skipFields(parser);
+            }
+        }
+
+        private void matchFirstName(JsonParser parser) throws IOException {
+            if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return;
+            }
+
+            if (findName(parser)) {
+                this.next.match(parser);
+            }
+        }
+
+        private boolean findName(JsonParser parser) throws IOException {
+            // Jackson 2.1 can read past the end of its buffer when nextFieldName(SerializableString) matches a name
+            // whose colon is the last byte in the buffer, so the raw comparison is only used when the whole input is in
+            // memory
+            while (!(this.inMemory ? parser.nextFieldName(this.name) : nextFieldName(parser))) {
+                if (parser.getCurrentToken() != JsonToken.FIELD_NAME) {
+                    return false;
+                }
+                parser.nextToken();
+                parser.skipChildren();
+            }
+
+            parser.nextToken();
+            return true;
+        }
+
+        private boolean nextFieldName(JsonParser parser) throws IOException {
+            return (parser.nextToken() == JsonToken.FIELD_NAME) && this.names[0].equals(parser.getCurrentName());
+        }
+
+        private void matchNames(JsonNode value) {
+            for (String name : this.names) {
+                JsonNode selected = value.get(name);
+                this.next.match(selected == null ? NullNode.getInstance() : selected);
+            }
+        }
+
+        private void matchNames(JsonParser parser, boolean single) throws IOException {
+            // The handler belongs to a single selection, so the same array is reused for every object it reads
+            JsonNode[] selected = this.selected;
+            int remaining = this.names.length;
+
+            if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                while (!(single && (remaining == 0)) && (parser.nextToken() == JsonToken.FIELD_NAME)) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+
+                    JsonNode value = null;
+                    for (int i = 0; i < this.names.length; i++) {
+                        if ((selected[i] == null) && this.names[i].equals(name)) {
+                            if (value == null) {
+                                value = parser.readValueAsTree();
+                            }
+                            selected[i] = value;
+                            remaining--;
+                        }
+                    }
+
+                    if (value == null) {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+
+            for (int i = 0; i < selected.length; i++) {
+                JsonNode node = selected[i];
+                selected[i] = null;
+                this.next.match(node == null ? NullNode.getInstance() : node);
+            }
+        }
+
+    }
 }
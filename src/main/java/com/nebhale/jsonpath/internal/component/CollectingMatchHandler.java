@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * A {@link MatchHandler} that collects the results of a JSONPath selection into the same {@link JsonNode} that
+ * {@link PathComponent#get(JsonNode)} would return. A limit can be placed on the number of values collected into a set.
+ * Once the limit is reached, the handler throws a {@link SelectionCompleteException} to stop the selection.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Not thread-safe
+ */
+public final class CollectingMatchHandler implements MatchHandler {
+
+    private final int limit;
+
+    private volatile JsonNode result;
+
+    private volatile JsonNode first;
+
+    private volatile ArrayNode set;
+
+    /**
+     * Creates a new instance that collects every value
+     */
+    public CollectingMatchHandler() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new instance that stops the selection once it has collected {@code limit} values into a set
+     *
+     * @param limit The number of values to collect before stopping the selection
+     */
+    public CollectingMatchHandler(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public void startSet() {
+        this.set = JsonNodeFactory.instance.arrayNode();
+        this.result = this.set;
+    }
+
+    @Override
+    public void match(JsonNode value) {
+        if (this.first == null) {
+            this.first = value;
+        }
+
+        if (this.set != null) {
+            this.set.add(value);
+            if (this.set.size() >= this.limit) {
+                throw new SelectionCompleteException();
+            }
+        } else {
+            this.result = value;
+        }
+    }
+
+    @Override
+    public void match(JsonParser parser) throws IOException {
+        JsonNode value = parser.readValueAsTree();
+        match(value);
+    }
+
+    @Override
+    public void endSet() {
+        this.set = null;
+    }
+
+    /**
+     * Returns the result of the JSONPath selection
+     *
+     * @return the result of the JSONPath selection or {@code null} if nothing was selected
+     */
+    public JsonNode getResult() {
+        return this.result;
+    }
+
+    /**
+     * Returns the first value in the result of the JSONPath selection. This is the value itself if a single value was
+     * selected and the first value of the set if a set of values was selected.
+     *
+     * @return the first value in the result of the JSONPath selection or {@code null} if nothing was selected
+     */
+    public JsonNode getFirst() {
+        return this.first;
+    }
+
+    @Override
+    public String toString() {
+        return "CollectingMatchHandler [limit=" + this.limit + ", result=" + this.result + "]";
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link MatchHandler} that counts the values in the results of a JSONPath selection without keeping them. Values
+ * that have not yet been read are skipped rather than materialized. Once the count reaches its limit, the handler
+ * throws a {@link SelectionCompleteException} to stop the selection.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Not thread-safe
+ */
+public final class CountingMatchHandler implements MatchHandler {
+
+    private final int limit;
+
+    private volatile int count = 0;
+
+    /**
+     * Creates a new instance that counts every value
+     */
+    public CountingMatchHandler() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new instance that stops the selection once it has counted {@code limit} values
+     *
+     * @param limit The number of values to count before stopping the selection
+     */
+    public CountingMatchHandler(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public void startSet() {
+    }
+
+    @Override
+    public void match(JsonNode value) {
+        increment();
+    }
+
+    @Override
+    public void match(JsonParser parser) throws IOException {
+        increment();
+        parser.skipChildren();
+    }
+
+    @Override
+    public void endSet() {
+    }
+
+    /**
+     * Returns the number of values in the results of the JSONPath selection
+     *
+     * @return the number of values in the results of the JSONPath selection
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    private void increment() {
+        this.count++;
+        if (this.count >= this.limit) {
+            throw new SelectionCompleteException();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CountingMatchHandler [limit=" + this.limit + ", count=" + this.count + "]";
+    }
+
+}
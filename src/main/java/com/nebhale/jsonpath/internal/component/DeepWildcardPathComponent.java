@@ -16,8 +16,18 @@
 
 package com.nebhale.jsonpath.internal.component;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -58,9 +68,281 @@ public final class DeepWildcardPathComponent extends AbstractChainedPathComponen
         return nodes;
     }
 
+    /**
+     * Applies this component, and those that follow it, to an input, walking the arrays and objects in it that have at
+     * least {@code forkSize} values on {@code executor}. The values of such an array or object are split into
+     * {@code slices} parts that are walked separately, and the values selected from each part are joined in document
+     * order. The parts of a walk never wait for one another, so any {@link ExecutorService} can be used. Each component
+     * that follows this one must apply to the values in a set one at a time.
+     *
+     * @param input The input to apply this component to
+     * @param executor The {@link ExecutorService} to walk large arrays and objects on
+     * @param forkSize The number of values an array or object must have to be walked on {@code executor}
+     * @param slices The number of parts to split a large array or object into
+     *
+     * @return the values selected from the input
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting for a part of the walk
+     */
+    JsonNode get(JsonNode input, ExecutorService executor, int forkSize, int slices) throws InterruptedException {
+        List<Object> parts = new Walk(Collections.singletonList(input), executor, forkSize, slices).call();
+
+        ArrayNode result = JsonNodeFactory.instance.arrayNode();
+        join(parts, result);
+        return result;
+    }
+
+    @Override
+    protected MatchHandler createChainedMatchHandler(MatchHandler next) {
+        return new DeepWildcardMatchHandler(next);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void join(List<Object> parts, ArrayNode result) throws InterruptedException {
+        for (Object part : parts) {
+            if (part instanceof Future) {
+                join(getPart((Future<List<Object>>) part), result);
+            } else if (part instanceof ArrayNode) {
+                result.addAll((ArrayNode) part);
+            } else if (part != null) {
+                result.add((JsonNode) part);
+            }
+        }
+    }
+
+    private static List<Object> getPart(Future<List<Object>> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     @Override
     public String toString() {
         return "DeepWildcardPathComponent []";
     }
 
+    private static final class DeepWildcardMatchHandler extends AbstractChainedMatchHandler {
+
+        private final String name;
+
+        private final MatchHandler named;
+
+        private final List<JsonNode> deferred = new ArrayList<JsonNode>();
+
+        private DeepWildcardMatchHandler(MatchHandler next) {
+            super(next);
+            if (next instanceof ChildPathComponent.ChildMatchHandler) {
+                this.name = ((ChildPathComponent.ChildMatchHandler) next).getSingleName();
+                this.named = ((ChildPathComponent.ChildMatchHandler) next).next;
+            } else {
+                this.name = null;
+                this.named = null;
+            }
+        }
+
+        /**
+         * Walks a value that has not yet been read. For the common {@code $..name} form, the values of the fields with
+         * that name are passed on to the handler that follows the child as the parser reaches them, so a selection that
+         * completes early stops reading the input. Otherwise the value is read into a tree and walked.
+         * <p />
+         * Each object's own field precedes the values selected from below its other fields, so the values found below
+         * the fields that come before it are deferred until the field is found or the object ends. A deferred value is
+         * read into a node, as is a selected array or object so that its descendants can still be walked.
+         */
+        @Override
+        protected void single(JsonParser parser) throws IOException {
+            if (this.name == null) {
+                super.single(parser);
+                return;
+            }
+
+            this.named.startSet();
+            walk(parser, false);
+            this.named.endSet();
+        }
+
+        @Override
+        protected void single(JsonNode value) {
+            this.next.startSet();
+            matchAll(value);
+            this.next.endSet();
+        }
+
+        private void matchAll(JsonNode value) {
+            this.next.match(value);
+            for (Iterator<JsonNode> i = value.elements(); i.hasNext();) {
+                matchAll(i.next());
+            }
+        }
+
+        private void walk(JsonParser parser, boolean deferring) throws IOException {
+            if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    walk(parser, deferring);
+                }
+            } else if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                int mark = this.deferred.size();
+                boolean found = false;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    boolean selected = !found && this.name.equals(parser.getCurrentName());
+                    parser.nextToken();
+
+                    if (selected) {
+                        found = true;
+                        select(parser, deferring, mark);
+                    } else {
+                        walk(parser, deferring || !found);
+                    }
+                }
+
+                if (!found && !deferring) {
+                    flush();
+                }
+            }
+        }
+
+        private void select(JsonParser parser, boolean deferring, int mark) throws IOException {
+            if (!deferring && parser.getCurrentToken().isScalarValue()) {
+                this.named.match(parser);
+                flush();
+                return;
+            }
+
+            JsonNode value = parser.readValueAsTree();
+            if (deferring) {
+                List<JsonNode> values = new ArrayList<JsonNode>();
+                select(value, values);
+                this.deferred.addAll(mark, values);
+            } else {
+                select(value, null);
+                flush();
+            }
+
+            walk(value, deferring);
+        }
+
+        private void walk(JsonNode value, boolean deferring) {
+            JsonNode selected = value.isObject() ? value.get(this.name) : null;
+            if (selected != null) {
+                select(selected, deferring ? this.deferred : null);
+            }
+
+            for (Iterator<JsonNode> i = value.elements(); i.hasNext();) {
+                walk(i.next(), deferring);
+            }
+        }
+
+        private void select(JsonNode value, List<JsonNode> values) {
+            // An array selected by a child is flattened into the set
+            if (value.isArray()) {
+                for (JsonNode node : value) {
+                    pass(node, values);
+                }
+            } else {
+                pass(value, values);
+            }
+        }
+
+        private void pass(JsonNode value, List<JsonNode> values) {
+            if (values != null) {
+                values.add(value);
+            } else {
+                this.named.match(value);
+            }
+        }
+
+        private void flush() {
+            for (JsonNode value : this.deferred) {
+                this.named.match(value);
+            }
+            this.deferred.clear();
+        }
+
+    }
+
+    private final class Walk implements Callable<List<Object>> {
+
+        private final List<JsonNode> values;
+
+        private final ExecutorService executor;
+
+        private final int forkSize;
+
+        private final int slices;
+
+        private final List<Object> parts = new ArrayList<Object>();
+
+        private volatile CollectingMatchHandler collector;
+
+        private volatile MatchHandler handler;
+
+        private Walk(List<JsonNode> values, ExecutorService executor, int forkSize, int slices) {
+            this.values = values;
+            this.executor = executor;
+            this.forkSize = forkSize;
+            this.slices = slices;
+        }
+
+        @Override
+        public List<Object> call() {
+            for (JsonNode value : this.values) {
+                walk(value);
+            }
+            endPart();
+            return this.parts;
+        }
+
+        private void walk(JsonNode value) {
+            match(value);
+
+            if (value.size() >= this.forkSize) {
+                endPart();
+                fork(value);
+            } else {
+                for (Iterator<JsonNode> i = value.elements(); i.hasNext();) {
+                    walk(i.next());
+                }
+            }
+        }
+
+        private void match(JsonNode value) {
+            if (this.handler == null) {
+                this.collector = new CollectingMatchHandler();
+                this.handler = getDelegate() == null ? this.collector : getDelegate().createMatchHandler(this.collector);
+                this.handler.startSet();
+            }
+
+            this.handler.match(value);
+        }
+
+        private void endPart() {
+            if (this.handler != null) {
+                this.handler.endSet();
+                this.parts.add(this.collector.getResult());
+                this.collector = null;
+                this.handler = null;
+            }
+        }
+
+        private void fork(JsonNode value) {
+            List<JsonNode> elements = new ArrayList<JsonNode>(value.size());
+            for (Iterator<JsonNode> i = value.elements(); i.hasNext();) {
+                elements.add(i.next());
+            }
+
+            int sliceSize = (elements.size() + this.slices - 1) / this.slices;
+            for (int from = 0; from < elements.size(); from += sliceSize) {
+                List<JsonNode> slice = elements.subList(from, Math.min(from + sliceSize, elements.size()));
+                this.parts.add(this.executor.submit(new Walk(slice, this.executor, this.forkSize, this.slices)));
+            }
+        }
+
+    }
+
 }
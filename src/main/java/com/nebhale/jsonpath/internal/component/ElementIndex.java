@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebhale.jsonpath.internal.expression.Predicate;
+
+/**
+ * An index over the elements of the arrays in a document that a filter can use to find the elements that might satisfy
+ * its {@link Predicate} instead of testing every element
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Implementations must be thread-safe
+ */
+public interface ElementIndex {
+
+    /**
+     * Finds the elements of an array that might satisfy a {@link Predicate}. The result may include elements that do
+     * not satisfy the {@link Predicate}, but never omits one that does.
+     *
+     * @param array The array
+     * @param predicate The {@link Predicate}
+     *
+     * @return The positions of the elements in ascending order or {@code null} if the array is not indexed in a way
+     *         that applies to the {@link Predicate}
+     */
+    int[] find(JsonNode array, Predicate predicate);
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebhale.jsonpath.internal.expression.NumericExpression;
+import com.nebhale.jsonpath.internal.expression.Operand;
+
+/**
+ * A {@link PathComponent} that handles script expressions such as {@code [(@.length - 1)]}. The expression is
+ * compiled once and evaluated against the input on each selection. A numeric result selects an index and a string
+ * result selects a child by name. Numeric expressions are evaluated with primitive arithmetic so that a computed
+ * index costs about as much as a literal one.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class ExpressionPathComponent extends AbstractChainedPathComponent {
+
+    private final NumericExpression numericExpression;
+
+    private final Operand operand;
+
+    public ExpressionPathComponent(PathComponent delegate, NumericExpression numericExpression) {
+        super(delegate);
+        this.numericExpression = numericExpression;
+        this.operand = null;
+    }
+
+    public ExpressionPathComponent(PathComponent delegate, Operand operand) {
+        super(delegate);
+        this.numericExpression = null;
+        this.operand = operand;
+    }
+
+    @Override
+    protected JsonNode select(JsonNode input) {
+        if (this.numericExpression != null) {
+            return selectIndex(input, this.numericExpression.evaluate(input));
+        }
+
+        JsonNode value = this.operand.evaluate(input);
+        if (value == null) {
+            return null;
+        } else if (value.isTextual()) {
+            return input.get(value.textValue());
+        } else if (value.isNumber()) {
+            return selectIndex(input, value.doubleValue());
+        }
+
+        return null;
+    }
+
+    private JsonNode selectIndex(JsonNode input, double value) {
+        int index = (int) value;
+        return index == value ? input.get(index) : null;
+    }
+
+    @Override
+    protected MatchHandler createChainedMatchHandler(MatchHandler next) {
+        return new ExpressionMatchHandler(next, this);
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionPathComponent [expression=" + (this.numericExpression != null ? this.numericExpression : this.operand) + "]";
+    }
+
+    private static final class ExpressionMatchHandler extends AbstractChainedMatchHandler {
+
+        private final ExpressionPathComponent pathComponent;
+
+        private ExpressionMatchHandler(MatchHandler next, ExpressionPathComponent pathComponent) {
+            super(next);
+            this.pathComponent = pathComponent;
+        }
+
+        @Override
+        protected void single(JsonNode value) {
+            JsonNode selected = this.pathComponent.select(value);
+            if (selected != null) {
+                this.next.match(selected);
+            }
+        }
+
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.nebhale.jsonpath.internal.expression.Predicate;
+
+/**
+ * A {@link PathComponent} that handles filter expressions. Each child of the input is tested against a compiled
+ * {@link Predicate} in place and only the children that satisfy it are collected.
+ * <p />
+ * When reading from a token stream, an object is tested as soon as every field that the {@link Predicate} references
+ * has been read. Only those fields are materialized. The tokens read before the test are buffered and, if the object
+ * fails the test, the rest of it is skipped without being materialized. An object that passes is passed on as the
+ * buffered tokens followed by the rest of the token stream, so values after the referenced fields that are not selected
+ * further on are skipped without being decoded.
+ * <p />
+ * When an {@link ElementIndex} is available and has indexed the input array, only the candidates that it finds are
+ * tested.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class FilterPathComponent extends AbstractChainedPathComponent {
+
+    private final String[] fields;
+
+    private final Predicate predicate;
+
+    public FilterPathComponent(PathComponent delegate, Predicate predicate) {
+        this(delegate, predicate, null);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param delegate The {@link PathComponent} to pass the results of this {@link PathComponent} to
+     * @param predicate The {@link Predicate} to test each child against
+     * @param fields The names of the fields of each child that the {@link Predicate} references or {@code null} if it
+     *        references each child as a whole
+     */
+    public FilterPathComponent(PathComponent delegate, Predicate predicate, String[] fields) {
+        super(delegate);
+        this.fields = fields;
+        this.predicate = predicate;
+    }
+
+    @Override
+    protected JsonNode select(JsonNode input) {
+        ArrayNode result = JsonNodeFactory.instance.arrayNode();
+
+        for (Iterator<JsonNode> i = input.elements(); i.hasNext();) {
+            JsonNode node = i.next();
+            if (this.predicate.test(node)) {
+                result.add(node);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    protected MatchHandler createChainedMatchHandler(MatchHandler next) {
+        return createChainedMatchHandler(next, null);
+    }
+
+    @Override
+    protected MatchHandler createChainedMatchHandler(MatchHandler next, ElementIndex elementIndex) {
+        return new FilterMatchHandler(next, elementIndex, this.fields, this.predicate);
+    }
+
+    @Override
+    public String toString() {
+        return "FilterPathComponent [fields=" + Arrays.toString(this.fields) + ", predicate=" + this.predicate + "]";
+    }
+
+    private static final class FilterMatchHandler extends AbstractChainedMatchHandler {
+
+        private final ElementIndex elementIndex;
+
+        private final String[] fields;
+
+        private final Predicate predicate;
+
+        private FilterMatchHandler(MatchHandler next, ElementIndex elementIndex, String[] fields, Predicate predicate) {
+            super(next);
+            this.elementIndex = elementIndex;
+            this.fields = fields;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected void single(JsonNode value) {
+            int[] candidates = (this.elementIndex != null) && value.isArray() ? this.elementIndex.find(value, this.predicate) : null;
+
+            startItems();
+            if (candidates != null) {
+                for (int candidate : candidates) {
+                    item(value.get(candidate));
+                }
+            } else {
+                for (Iterator<JsonNode> i = value.elements(); i.hasNext();) {
+                    item(i.next());
+                }
+            }
+            endItems();
+        }
+
+        @Override
+        protected void single(JsonParser parser) throws IOException {
+            startItems();
+            if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    item(parser);
+                }
+            } else if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    parser.nextToken();
+                    item(parser);
+                }
+            }
+            endItems();
+        }
+
+        @Override
+        protected void startItems() {
+            this.next.startSet();
+        }
+
+        @Override
+        protected void item(JsonNode value) {
+            if (this.predicate.test(value)) {
+                this.next.match(value);
+            }
+        }
+
+        @Override
+        protected void item(JsonParser parser) throws IOException {
+            if ((this.fields == null) || (parser.getCurrentToken() != JsonToken.START_OBJECT)) {
+                JsonNode value = parser.readValueAsTree();
+                item(value);
+            } else if (this.fields.length == 0) {
+                if (this.predicate.test(JsonNodeFactory.instance.objectNode())) {
+                    this.next.match(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            } else {
+                itemFields(parser);
+            }
+        }
+
+        @Override
+        protected void endItems() {
+            this.next.endSet();
+        }
+
+        private void itemFields(JsonParser parser) throws IOException {
+            ObjectNode referenced = JsonNodeFactory.instance.objectNode();
+            TokenBuffer buffer = new TokenBuffer(parser.getCodec());
+            buffer.writeStartObject();
+
+            int remaining = this.fields.length;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                buffer.writeFieldName(name);
+
+                if ((remaining > 0) && isReferenced(name) && !referenced.has(name)) {
+                    JsonNode value = parser.readValueAsTree();
+                    referenced.put(name, value);
+                    copy(value, buffer);
+
+                    if (--remaining == 0) {
+                        if (this.predicate.test(referenced)) {
+                            replay(new PrefixedJsonParser(buffer.asParser(parser.getCodec()), parser));
+                        } else {
+                            skipFields(parser);
+                        }
+                        return;
+                    }
+                } else {
+                    buffer.copyCurrentStructure(parser);
+                }
+            }
+
+            if ((remaining > 0) && !this.predicate.test(referenced)) {
+                return;
+            }
+
+            buffer.writeEndObject();
+            replay(buffer.asParser(parser.getCodec()));
+        }
+
+        private void replay(JsonParser parser) throws IOException {
+            try {
+                parser.nextToken();
+                this.next.match(parser);
+            } finally {
+                parser.close();
+            }
+        }
+
+        private void copy(JsonNode value, TokenBuffer buffer) throws IOException {
+            JsonParser parser = value.traverse();
+            parser.nextToken();
+            buffer.copyCurrentStructure(parser);
+        }
+
+        private boolean isReferenced(String name) {
+            for (String field : this.fields) {
+                if (field.equals(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
@@ -16,11 +16,16 @@
 
 package com.nebhale.jsonpath.internal.component;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.nebhale.jsonpath.internal.util.ArrayUtils;
 
 /**
@@ -53,9 +58,147 @@ public final class IndexPathComponent extends AbstractChainedPathComponent {
         }
     }
 
+    @Override
+    protected boolean dependsOnChild(List<String> location, int depth) {
+        String token = location.get(depth);
+        for (int index : this.indexes) {
+            if (Integer.toString(index).equals(token)) {
+                return this.indexes.length == 1 ? delegateDependsOn(location, depth + 1) : delegateDependsOnSet(location, depth + 1);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected MatchHandler createChainedMatchHandler(MatchHandler next) {
+        return new IndexMatchHandler(next, this.indexes);
+    }
+
     @Override
     public String toString() {
         return "IndexPathComponent [indexes=" + Arrays.toString(this.indexes) + "]";
     }
 
+    private static final class IndexMatchHandler extends AbstractChainedMatchHandler {
+
+        private final int[] indexes;
+
+        private final int lastIndex;
+
+        private volatile int position;
+
+        private volatile JsonNode[] selected;
+
+        private IndexMatchHandler(MatchHandler next, int[] indexes) {
+            super(next);
+            this.indexes = indexes;
+            this.lastIndex = max(indexes);
+        }
+
+        @Override
+        protected void single(JsonNode value) {
+            if (this.indexes.length == 1) {
+                JsonNode selected = value.get(this.indexes[0]);
+                if (selected != null) {
+                    this.next.match(selected);
+                }
+            } else {
+                this.next.startSet();
+                for (int index : this.indexes) {
+                    JsonNode selected = value.get(index);
+                    this.next.match(selected == null ? NullNode.getInstance() : selected);
+                }
+                this.next.endSet();
+            }
+        }
+
+        @Override
+        protected void single(JsonParser parser) throws IOException {
+            if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                startItems();
+                while ((this.position <= this.lastIndex) && (parser.nextToken() != JsonToken.END_ARRAY)) {
+                    item(parser);
+                }
+                endItems();
+            } else {
+                parser.skipChildren();
+                if (this.indexes.length != 1) {
+                    startItems();
+                    endItems();
+                }
+            }
+        }
+
+        @Override
+        protected void startItems() {
+            this.position = 0;
+            this.selected = this.indexes.length == 1 ? null : new JsonNode[this.indexes.length];
+        }
+
+        @Override
+        protected void item(JsonNode value) {
+            int position = this.position++;
+            if (this.selected == null) {
+                if (position == this.indexes[0]) {
+                    this.next.match(value);
+                }
+            } else {
+                select(position, value);
+            }
+        }
+
+        @Override
+        protected void item(JsonParser parser) throws IOException {
+            int position = this.position++;
+            if (this.selected == null) {
+                if (position == this.indexes[0]) {
+                    this.next.match(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            } else if (isSelected(position)) {
+                JsonNode value = parser.readValueAsTree();
+                select(position, value);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        @Override
+        protected void endItems() {
+            if (this.selected != null) {
+                this.next.startSet();
+                for (JsonNode node : this.selected) {
+                    this.next.match(node == null ? NullNode.getInstance() : node);
+                }
+                this.next.endSet();
+            }
+        }
+
+        private static int max(int[] indexes) {
+            int max = -1;
+            for (int index : indexes) {
+                max = Math.max(max, index);
+            }
+            return max;
+        }
+
+        private boolean isSelected(int position) {
+            for (int index : this.indexes) {
+                if (index == position) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void select(int position, JsonNode value) {
+            for (int i = 0; i < this.indexes.length; i++) {
+                if (this.indexes[i] == position) {
+                    this.selected[i] = value;
+                }
+            }
+        }
+
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Receives the results of a JSONPath selection as they are produced. A result is either a single value, passed to one
+ * of the {@code match} methods on its own, or a set of values, passed to the {@code match} methods between a call to
+ * {@link #startSet()} and a call to {@link #endSet()}. A result can be passed either as a {@link JsonNode} or as a
+ * {@link JsonParser} positioned at the first token of the value, which allows a value to be consumed without being
+ * materialized.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Implementations need not be thread-safe
+ */
+public interface MatchHandler {
+
+    /**
+     * Signals the start of a set of values
+     */
+    void startSet();
+
+    /**
+     * Passes a value that has already been materialized
+     *
+     * @param value The value
+     */
+    void match(JsonNode value);
+
+    /**
+     * Passes a value that has not yet been read. The {@code parser} is positioned at the first token of the value and
+     * must be left positioned at the last token of the value.
+     *
+     * @param parser The parser to read the value from
+     *
+     * @throws IOException if the value cannot be read
+     */
+    void match(JsonParser parser) throws IOException;
+
+    /**
+     * Signals the end of a set of values
+     */
+    void endSet();
+}
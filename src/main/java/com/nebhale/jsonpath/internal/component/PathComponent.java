@@ -16,6 +16,8 @@
 
 package com.nebhale.jsonpath.internal.component;
 
+import java.util.List;
+
 import com.fasterxml.jackson.databind.JsonNode;
 
 /**
@@ -37,4 +39,58 @@ public interface PathComponent {
      * @return the current state of a JSONPath selection after this {@link PathComponent} is finished with it
      */
     JsonNode get(JsonNode input);
+
+    /**
+     * Creates a {@link MatchHandler} that applies this {@link PathComponent}, and those that follow it, to the values
+     * passed to it and passes the final results on to {@code handler}. The returned {@link MatchHandler} holds the
+     * state of a single selection and must not be reused.
+     *
+     * @param handler The {@link MatchHandler} to pass the final results on to
+     *
+     * @return a {@link MatchHandler} that applies this {@link PathComponent} to the values passed to it
+     */
+    MatchHandler createMatchHandler(MatchHandler handler);
+
+    /**
+     * Creates a {@link MatchHandler} that applies this {@link PathComponent}, and those that follow it, to the values
+     * passed to it and passes the final results on to {@code handler}. Filters use {@code elementIndex} to find their
+     * candidates in indexed arrays. The returned {@link MatchHandler} holds the state of a single selection and must
+     * not be reused.
+     *
+     * @param handler The {@link MatchHandler} to pass the final results on to
+     * @param elementIndex The {@link ElementIndex} to find the candidates for filters with or {@code null} if there is
+     *        none
+     *
+     * @return a {@link MatchHandler} that applies this {@link PathComponent} to the values passed to it
+     */
+    MatchHandler createMatchHandler(MatchHandler handler, ElementIndex elementIndex);
+
+    /**
+     * Creates a {@link MatchHandler} that applies this {@link PathComponent}, and those that follow it, to the values
+     * passed to it and passes the final results on to {@code handler}. Filters use {@code elementIndex} to find their
+     * candidates in indexed arrays. When {@code inMemory} is {@code true}, the values that have not yet been read are
+     * read from a parser whose whole input is in memory as bytes, and child names are compared with the raw bytes of
+     * the input. The returned {@link MatchHandler} holds the state of a single selection and must not be reused.
+     *
+     * @param handler The {@link MatchHandler} to pass the final results on to
+     * @param elementIndex The {@link ElementIndex} to find the candidates for filters with or {@code null} if there is
+     *        none
+     * @param inMemory Whether the whole input of the parser that values are read from is in memory as bytes
+     *
+     * @return a {@link MatchHandler} that applies this {@link PathComponent} to the values passed to it
+     */
+    MatchHandler createMatchHandler(MatchHandler handler, ElementIndex elementIndex, boolean inMemory);
+
+    /**
+     * Returns whether a change to a value could change the result of applying this {@link PathComponent}, and those
+     * that follow it, to an input. The answer errs on the side of {@code true}: {@code false} is only returned when the
+     * value cannot be read by the selection.
+     *
+     * @param location The reference tokens of a JSON Pointer to the changed value, relative to the input
+     * @param depth The number of leading tokens of {@code location} that have already been consumed by the
+     *        {@link PathComponent}s that precede this one
+     *
+     * @return {@code true} if a change to the value could change the result of the selection, otherwise {@code false}
+     */
+    boolean dependsOn(List<String> location, int depth);
 }
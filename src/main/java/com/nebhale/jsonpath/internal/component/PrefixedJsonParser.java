@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+
+/**
+ * A {@link JsonParser} that returns the tokens of a buffered prefix and then continues with the tokens of the parser
+ * that the prefix was read from. This allows the start of a value to be read ahead while the rest of it is left in the
+ * input, to be skipped or read as needed. Closing this parser closes the prefix but not the parser that it continues
+ * with.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Not thread-safe
+ */
+final class PrefixedJsonParser extends JsonParserDelegate {
+
+    private final JsonParser prefix;
+
+    private final JsonParser rest;
+
+    PrefixedJsonParser(JsonParser prefix, JsonParser rest) {
+        super(prefix);
+        this.prefix = prefix;
+        this.rest = rest;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        if (this.delegate == this.prefix) {
+            JsonToken token = this.prefix.nextToken();
+            if (token != null) {
+                return token;
+            }
+            this.delegate = this.rest;
+        }
+        return this.rest.nextToken();
+    }
+
+    @Override
+    public JsonToken nextValue() throws IOException {
+        JsonToken token = nextToken();
+        if (token == JsonToken.FIELD_NAME) {
+            token = nextToken();
+        }
+        return token;
+    }
+
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        if (this.delegate == this.rest) {
+            this.rest.skipChildren();
+            return this;
+        }
+
+        JsonToken token = getCurrentToken();
+        if ((token != JsonToken.START_OBJECT) && (token != JsonToken.START_ARRAY)) {
+            return this;
+        }
+
+        int depth = 1;
+        while (depth > 0) {
+            token = nextToken();
+            if (token == null) {
+                return this;
+            } else if ((token == JsonToken.START_OBJECT) || (token == JsonToken.START_ARRAY)) {
+                depth++;
+            } else if ((token == JsonToken.END_OBJECT) || (token == JsonToken.END_ARRAY)) {
+                depth--;
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.prefix.close();
+    }
+
+    @Override
+    public String toString() {
+        return "PrefixedJsonParser [prefix=" + this.prefix + ", rest=" + this.rest + "]";
+    }
+
+}
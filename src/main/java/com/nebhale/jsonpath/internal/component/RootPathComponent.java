@@ -16,6 +16,11 @@
 
 package com.nebhale.jsonpath.internal.component;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 
 /**
@@ -37,9 +42,118 @@ public final class RootPathComponent extends AbstractChainedPathComponent {
         return input;
     }
 
+    /**
+     * Returns whether applying the expression to an array selects the concatenation of the values that it selects from
+     * each of the array's elements, so that the elements can be evaluated separately. This is the case when the first
+     * segment of the expression is a wildcard or a filter and each segment that follows it applies to the values in a
+     * set one at a time.
+     *
+     * @return {@code true} if the elements of an array can be evaluated separately, otherwise {@code false}
+     */
+    public boolean isElementWise() {
+        PathComponent first = getDelegate();
+        if (!(first instanceof WildcardPathComponent) && !(first instanceof FilterPathComponent)) {
+            return false;
+        }
+
+        return isElementWise(((AbstractChainedPathComponent) first).getDelegate());
+    }
+
+    /**
+     * Returns whether the expression starts with a deep wildcard and each segment that follows it applies to the values
+     * in a set one at a time. The values that such an expression selects are the concatenation, in document order, of
+     * the values selected from each value in the tree, so that the tree can be walked in parts.
+     *
+     * @return {@code true} if the expression starts with a deep wildcard that can be walked in parts, otherwise
+     *         {@code false}
+     */
+    public boolean isDeepElementWise() {
+        PathComponent first = getDelegate();
+        if (!(first instanceof DeepWildcardPathComponent)) {
+            return false;
+        }
+
+        return isElementWise(((AbstractChainedPathComponent) first).getDelegate());
+    }
+
+    /**
+     * Applies the expression to an input, walking the arrays and objects in it that have at least {@code forkSize}
+     * values on {@code executor}. Only an expression for which {@link #isDeepElementWise()} returns {@code true} can be
+     * applied this way.
+     *
+     * @param input The input to apply the expression to
+     * @param executor The {@link ExecutorService} to walk large arrays and objects on
+     * @param forkSize The number of values an array or object must have to be walked on {@code executor}
+     * @param slices The number of parts to split a large array or object into
+     *
+     * @return the values that the expression selects from the input
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting for a part of the walk
+     */
+    public JsonNode get(JsonNode input, ExecutorService executor, int forkSize, int slices) throws InterruptedException {
+        return ((DeepWildcardPathComponent) getDelegate()).get(input, executor, forkSize, slices);
+    }
+
+    @Override
+    protected boolean dependsOnChild(List<String> location, int depth) {
+        return delegateDependsOn(location, depth);
+    }
+
+    @Override
+    protected MatchHandler createChainedMatchHandler(MatchHandler next) {
+        return new RootMatchHandler(next);
+    }
+
+    private static boolean isElementWise(PathComponent components) {
+        for (PathComponent component = components; component != null; component = ((AbstractChainedPathComponent) component).getDelegate()) {
+            if (!(component instanceof ChildPathComponent) && !(component instanceof WildcardPathComponent)
+                && !(component instanceof FilterPathComponent)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public String toString() {
         return "RootPathComponent []";
     }
 
+    private static final class RootMatchHandler extends AbstractChainedMatchHandler {
+
+        private RootMatchHandler(MatchHandler next) {
+            super(next);
+        }
+
+        @Override
+        protected void single(JsonNode value) {
+            this.next.match(value);
+        }
+
+        @Override
+        protected void single(JsonParser parser) throws IOException {
+            this.next.match(parser);
+        }
+
+        @Override
+        protected void startItems() {
+            this.next.startSet();
+        }
+
+        @Override
+        protected void item(JsonNode value) {
+            this.next.match(value);
+        }
+
+        @Override
+        protected void item(JsonParser parser) throws IOException {
+            this.next.match(parser);
+        }
+
+        @Override
+        protected void endItems() {
+            this.next.endSet();
+        }
+
+    }
 }
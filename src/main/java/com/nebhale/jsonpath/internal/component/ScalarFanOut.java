@@ -0,0 +1,244 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Applies several JSONPath selections to a value at once, keeping the first value that each selects in a
+ * {@link ScalarMatchHandler} of its own. The selections are arranged in a tree of the child names that they start with,
+ * so a value that has not yet been read is read only once, and only the children that the selections start with are
+ * walked. The rest of a selection is applied to the value that its names lead to as that value is read. When more than
+ * one selection reads that value, or a selection looks for a child name in an array, the value is read into a
+ * {@link JsonNode} that each of those selections is applied to.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class ScalarFanOut {
+
+    private final List<PathComponent[]> selections = new ArrayList<PathComponent[]>();
+
+    private final Node root;
+
+    private final int nodeCount;
+
+    /**
+     * Creates a new instance
+     *
+     * @param pathComponents The {@link PathComponent}s of the selections, each starting with the root of its expression
+     */
+    public ScalarFanOut(List<PathComponent> pathComponents) {
+        List<Node> nodes = new ArrayList<Node>();
+        this.root = new Node(nodes, 0);
+
+        for (PathComponent pathComponent : pathComponents) {
+            add(nodes, pathComponent);
+        }
+
+        this.nodeCount = nodes.size();
+    }
+
+    /**
+     * Creates a {@link MatchHandler} that applies the selections to the single value passed to it. The first value that
+     * each selection selects is kept in the {@link ScalarMatchHandler} at the same position in {@code handlers}. The
+     * returned {@link MatchHandler} holds the state of a single value and must not be reused.
+     *
+     * @param handlers The {@link ScalarMatchHandler}s to keep the values in, one for each selection
+     * @param inMemory Whether the whole input of the parser that values are read from is in memory as bytes
+     *
+     * @return a {@link MatchHandler} that applies the selections to the value passed to it
+     *
+     * @see PathComponent#createMatchHandler(MatchHandler, ElementIndex, boolean)
+     */
+    public MatchHandler createMatchHandler(ScalarMatchHandler[] handlers, boolean inMemory) {
+        return new FanOutMatchHandler(handlers, inMemory);
+    }
+
+    private void add(List<Node> nodes, PathComponent pathComponent) {
+        int selection = this.selections.size();
+
+        // The component at each position applies to the value that the child names before it lead to
+        List<PathComponent> rests = new ArrayList<PathComponent>();
+        rests.add(pathComponent);
+
+        Node node = this.root;
+        node.selections.add(selection);
+
+        PathComponent component = ((AbstractChainedPathComponent) pathComponent).getDelegate();
+        while ((component instanceof ChildPathComponent) && (((ChildPathComponent) component).getSingleName() != null)) {
+            node = node.getChild(nodes, ((ChildPathComponent) component).getSingleName());
+            node.selections.add(selection);
+
+            component = ((ChildPathComponent) component).getDelegate();
+            rests.add(component);
+        }
+
+        node.consumers.add(selection);
+        this.selections.add(rests.toArray(new PathComponent[rests.size()]));
+    }
+
+    @Override
+    public String toString() {
+        return "ScalarFanOut [selections=" + this.selections.size() + ", nodes=" + this.nodeCount + "]";
+    }
+
+    private static final class Node {
+
+        private final int id;
+
+        private final int depth;
+
+        private final Map<String, Node> children = new HashMap<String, Node>();
+
+        private final List<Integer> selections = new ArrayList<Integer>();
+
+        private final List<Integer> consumers = new ArrayList<Integer>();
+
+        private Node(List<Node> nodes, int depth) {
+            this.id = nodes.size();
+            this.depth = depth;
+            nodes.add(this);
+        }
+
+        private Node getChild(List<Node> nodes, String name) {
+            Node child = this.children.get(name);
+            if (child == null) {
+                child = new Node(nodes, this.depth + 1);
+                this.children.put(name, child);
+            }
+            return child;
+        }
+    }
+
+    private final class FanOutMatchHandler implements MatchHandler {
+
+        private final ScalarMatchHandler[] handlers;
+
+        private final boolean[] visited = new boolean[ScalarFanOut.this.nodeCount];
+
+        private final boolean inMemory;
+
+        private volatile int remaining = ScalarFanOut.this.selections.size();
+
+        private FanOutMatchHandler(ScalarMatchHandler[] handlers, boolean inMemory) {
+            this.handlers = handlers;
+            this.inMemory = inMemory;
+        }
+
+        @Override
+        public void startSet() {
+        }
+
+        @Override
+        public void match(JsonNode value) {
+            for (int selection = 0; selection < this.handlers.length; selection++) {
+                apply(selection, 0, value);
+            }
+        }
+
+        @Override
+        public void match(JsonParser parser) throws IOException {
+            walk(parser, ScalarFanOut.this.root);
+        }
+
+        @Override
+        public void endSet() {
+        }
+
+        private void walk(JsonParser parser, Node node) throws IOException {
+            this.visited[node.id] = true;
+            JsonToken token = parser.getCurrentToken();
+
+            if (node.consumers.isEmpty() && (token == JsonToken.START_OBJECT)) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    Node child = node.children.get(parser.getCurrentName());
+                    parser.nextToken();
+
+                    // Only the first of the fields with the same name is read, as it is by a single selection
+                    if ((child == null) || this.visited[child.id]) {
+                        parser.skipChildren();
+                    } else {
+                        walk(parser, child);
+                    }
+                }
+            } else if (node.consumers.isEmpty() && (token != JsonToken.START_ARRAY)) {
+                // A child name selects nothing from a value that is neither an object nor an array
+                parser.skipChildren();
+            } else if ((node.consumers.size() == 1) && node.children.isEmpty()) {
+                stream(parser, node.consumers.get(0), node.depth);
+                complete(1);
+            } else {
+                JsonNode value = parser.readValueAsTree();
+                for (int selection : node.selections) {
+                    apply(selection, node.depth, value);
+                }
+                complete(node.selections.size());
+            }
+        }
+
+        private void stream(JsonParser parser, int selection, int depth) throws IOException {
+            JsonToken token = parser.getCurrentToken();
+            JsonStreamContext context = parser.getParsingContext();
+            JsonStreamContext end = (token == JsonToken.START_OBJECT) || (token == JsonToken.START_ARRAY) ? context.getParent() : context;
+
+            try {
+                createMatchHandler(selection, depth).match(parser);
+            } catch (SelectionCompleteException e) {
+                // The selection stopped inside the value, so the rest of it is skipped for the selections that follow
+                while (parser.getParsingContext() != end) {
+                    if (parser.nextToken() == null) {
+                        throw new EOFException("Unexpected end-of-input");
+                    }
+                }
+            }
+        }
+
+        private void apply(int selection, int depth, JsonNode value) {
+            try {
+                createMatchHandler(selection, depth).match(value);
+            } catch (SelectionCompleteException e) {
+                // The selection has kept its value
+            }
+        }
+
+        private MatchHandler createMatchHandler(int selection, int depth) {
+            PathComponent rest = ScalarFanOut.this.selections.get(selection)[depth];
+            return rest == null ? this.handlers[selection] : rest.createMatchHandler(this.handlers[selection], null, this.inMemory);
+        }
+
+        private void complete(int selections) {
+            this.remaining -= selections;
+            if (this.remaining == 0) {
+                throw new SelectionCompleteException();
+            }
+        }
+    }
+
+}
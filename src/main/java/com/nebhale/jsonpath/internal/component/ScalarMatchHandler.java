@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link MatchHandler} that keeps the first value in the results of a JSONPath selection as a primitive. A value
+ * that has not yet been read is taken from the parser's current token, so no {@link JsonNode} is created for it. Once
+ * the first value has been kept, the handler throws a {@link SelectionCompleteException} to stop the selection.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Not thread-safe
+ */
+public final class ScalarMatchHandler implements MatchHandler {
+
+    private volatile JsonToken token;
+
+    private volatile long longValue;
+
+    private volatile BigInteger bigIntegerValue;
+
+    private volatile double doubleValue;
+
+    private volatile String text;
+
+    @Override
+    public void startSet() {
+    }
+
+    @Override
+    public void match(JsonNode value) {
+        if (value.isIntegralNumber()) {
+            this.token = JsonToken.VALUE_NUMBER_INT;
+            this.longValue = value.longValue();
+            this.bigIntegerValue = value.canConvertToLong() ? null : value.bigIntegerValue();
+            this.doubleValue = value.doubleValue();
+        } else if (value.isNumber()) {
+            this.token = JsonToken.VALUE_NUMBER_FLOAT;
+            this.doubleValue = value.doubleValue();
+        } else if (value.isTextual()) {
+            this.token = JsonToken.VALUE_STRING;
+            this.text = value.textValue();
+        } else if (value.isBoolean()) {
+            this.token = value.booleanValue() ? JsonToken.VALUE_TRUE : JsonToken.VALUE_FALSE;
+        } else if (value.isArray()) {
+            this.token = JsonToken.START_ARRAY;
+        } else if (value.isObject()) {
+            this.token = JsonToken.START_OBJECT;
+        } else {
+            this.token = JsonToken.VALUE_NULL;
+        }
+
+        throw new SelectionCompleteException();
+    }
+
+    @Override
+    public void match(JsonParser parser) throws IOException {
+        JsonToken current = parser.getCurrentToken();
+
+        if (current == JsonToken.VALUE_NUMBER_INT) {
+            if (parser.getNumberType() == NumberType.BIG_INTEGER) {
+                this.bigIntegerValue = parser.getBigIntegerValue();
+                this.longValue = this.bigIntegerValue.longValue();
+            } else {
+                this.longValue = parser.getLongValue();
+            }
+            this.doubleValue = parser.getDoubleValue();
+        } else if (current == JsonToken.VALUE_NUMBER_FLOAT) {
+            this.doubleValue = parser.getDoubleValue();
+        } else if (current == JsonToken.VALUE_STRING) {
+            this.text = parser.getText();
+        }
+
+        this.token = current;
+        throw new SelectionCompleteException();
+    }
+
+    @Override
+    public void endSet() {
+    }
+
+    /**
+     * Returns the token of the first value in the results of the JSONPath selection. The token of an array or an object
+     * is the token that starts it.
+     *
+     * @return the token of the first value in the results of the JSONPath selection or {@code null} if nothing was
+     *         selected
+     */
+    public JsonToken getToken() {
+        return this.token;
+    }
+
+    /**
+     * Returns the first value as a {@code long} if it is an integer. An integer that does not fit in a {@code long} keeps
+     * only its low-order bits.
+     *
+     * @return the first value as a {@code long}
+     */
+    public long getLongValue() {
+        return this.longValue;
+    }
+
+    /**
+     * Returns the first value if it is an integer that does not fit in a {@code long}
+     *
+     * @return the first value if it is an integer that does not fit in a {@code long}, otherwise {@code null}
+     */
+    public BigInteger getBigIntegerValue() {
+        return this.bigIntegerValue;
+    }
+
+    /**
+     * Returns the first value as a {@code double} if it is a number
+     *
+     * @return the first value as a {@code double}
+     */
+    public double getDoubleValue() {
+        return this.doubleValue;
+    }
+
+    /**
+     * Returns the first value if it is a string
+     *
+     * @return the first value if it is a string, otherwise {@code null}
+     */
+    public String getText() {
+        return this.text;
+    }
+
+    @Override
+    public String toString() {
+        return "ScalarMatchHandler [token=" + this.token + "]";
+    }
+
+}
@@ -16,8 +16,12 @@
 
 package com.nebhale.jsonpath.internal.component;
 
+import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -51,9 +55,71 @@ public final class WildcardPathComponent extends AbstractChainedPathComponent {
         }
     }
 
+    @Override
+    protected boolean dependsOnChild(List<String> location, int depth) {
+        return delegateDependsOnSet(location, depth + 1);
+    }
+
+    @Override
+    protected MatchHandler createChainedMatchHandler(MatchHandler next) {
+        return new WildcardMatchHandler(next);
+    }
+
     @Override
     public String toString() {
         return "WildcardPathComponent []";
     }
 
+    private static final class WildcardMatchHandler extends AbstractChainedMatchHandler {
+
+        private WildcardMatchHandler(MatchHandler next) {
+            super(next);
+        }
+
+        @Override
+        protected void single(JsonNode value) {
+            this.next.startSet();
+            for (Iterator<JsonNode> i = value.elements(); i.hasNext();) {
+                this.next.match(i.next());
+            }
+            this.next.endSet();
+        }
+
+        @Override
+        protected void single(JsonParser parser) throws IOException {
+            this.next.startSet();
+            if (parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    this.next.match(parser);
+                }
+            } else if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    parser.nextToken();
+                    this.next.match(parser);
+                }
+            }
+            this.next.endSet();
+        }
+
+        @Override
+        protected void startItems() {
+            this.next.startSet();
+        }
+
+        @Override
+        protected void item(JsonNode value) {
+            this.next.match(value);
+        }
+
+        @Override
+        protected void item(JsonParser parser) throws IOException {
+            this.next.match(parser);
+        }
+
+        @Override
+        protected void endItems() {
+            this.next.endSet();
+        }
+
+    }
 }
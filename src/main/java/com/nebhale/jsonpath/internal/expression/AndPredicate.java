@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link Predicate} that is {@code true} when two other {@link Predicate}s are both {@code true}. The right
+ * {@link Predicate} is only evaluated when the left one is {@code true}.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class AndPredicate implements Predicate {
+
+    private final Predicate left;
+
+    private final Predicate right;
+
+    /**
+     * Creates a new instance
+     *
+     * @param left The left operand
+     * @param right The right operand
+     */
+    public AndPredicate(Predicate left, Predicate right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public boolean test(JsonNode context) {
+        return this.left.test(context) && this.right.test(context);
+    }
+
+    Predicate getLeft() {
+        return this.left;
+    }
+
+    Predicate getRight() {
+        return this.right;
+    }
+
+    @Override
+    public String toString() {
+        return "AndPredicate [left=" + this.left + ", right=" + this.right + "]";
+    }
+
+}
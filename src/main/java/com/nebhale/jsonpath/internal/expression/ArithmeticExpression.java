@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link NumericExpression} that applies an {@link ArithmeticOperator} to two other {@link NumericExpression}s
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class ArithmeticExpression implements NumericExpression {
+
+    private final NumericExpression left;
+
+    private final ArithmeticOperator operator;
+
+    private final NumericExpression right;
+
+    /**
+     * Creates a new instance
+     *
+     * @param left The left operand
+     * @param operator The operator to apply
+     * @param right The right operand
+     */
+    public ArithmeticExpression(NumericExpression left, ArithmeticOperator operator, NumericExpression right) {
+        this.left = left;
+        this.operator = operator;
+        this.right = right;
+    }
+
+    @Override
+    public double evaluate(JsonNode context) {
+        return this.operator.apply(this.left.evaluate(context), this.right.evaluate(context));
+    }
+
+    @Override
+    public boolean exists(JsonNode context) {
+        return this.left.exists(context) && this.right.exists(context);
+    }
+
+    @Override
+    public String toString() {
+        return "ArithmeticExpression [left=" + this.left + ", operator=" + this.operator + ", right=" + this.right + "]";
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+/**
+ * The arithmetic operators available in expressions
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public enum ArithmeticOperator {
+
+    ADD("+"), //
+    SUBTRACT("-"), //
+    MULTIPLY("*"), //
+    DIVIDE("/"), //
+    REMAINDER("%");
+
+    private final String symbol;
+
+    private ArithmeticOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Applies this operator to two {@code double} values
+     *
+     * @param left The left operand
+     * @param right The right operand
+     *
+     * @return The result of applying this operator
+     */
+    public double apply(double left, double right) {
+        if (this == ADD) {
+            return left + right;
+        } else if (this == SUBTRACT) {
+            return left - right;
+        } else if (this == MULTIPLY) {
+            return left * right;
+        } else if (this == DIVIDE) {
+            return left / right;
+        } else {
+            return left % right;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.symbol;
+    }
+
+}
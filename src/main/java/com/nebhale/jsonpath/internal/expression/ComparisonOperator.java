@@ -0,0 +1,155 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The comparison operators available in filter expressions. A comparison involving a value that does not exist is
+ * always {@code false}. Values of different types are never equal to one another and cannot be ordered.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public enum ComparisonOperator {
+
+    EQUAL("=="), //
+    NOT_EQUAL("!="), //
+    LESS_THAN("<"), //
+    LESS_THAN_OR_EQUAL("<="), //
+    GREATER_THAN(">"), //
+    GREATER_THAN_OR_EQUAL(">=");
+
+    private final String symbol;
+
+    private ComparisonOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Returns the operator that yields the same result when its operands are swapped
+     *
+     * @return The operator that yields the same result when its operands are swapped
+     */
+    public ComparisonOperator reverse() {
+        if (this == LESS_THAN) {
+            return GREATER_THAN;
+        } else if (this == LESS_THAN_OR_EQUAL) {
+            return GREATER_THAN_OR_EQUAL;
+        } else if (this == GREATER_THAN) {
+            return LESS_THAN;
+        } else if (this == GREATER_THAN_OR_EQUAL) {
+            return LESS_THAN_OR_EQUAL;
+        }
+        return this;
+    }
+
+    /**
+     * Applies this operator to the result of a {@link Comparable#compareTo(Object)} invocation
+     *
+     * @param comparison The result of the comparison
+     *
+     * @return The result of applying this operator
+     */
+    public boolean apply(int comparison) {
+        if (this == EQUAL) {
+            return comparison == 0;
+        } else if (this == NOT_EQUAL) {
+            return comparison != 0;
+        } else if (this == LESS_THAN) {
+            return comparison < 0;
+        } else if (this == LESS_THAN_OR_EQUAL) {
+            return comparison <= 0;
+        } else if (this == GREATER_THAN) {
+            return comparison > 0;
+        } else {
+            return comparison >= 0;
+        }
+    }
+
+    /**
+     * Applies this operator to two {@code long} values
+     *
+     * @param left The left operand
+     * @param right The right operand
+     *
+     * @return The result of applying this operator
+     */
+    public boolean apply(long left, long right) {
+        return apply(left < right ? -1 : (left == right ? 0 : 1));
+    }
+
+    /**
+     * Applies this operator to two {@code double} values. If either value is {@link Double#NaN} the result is
+     * {@code false}.
+     *
+     * @param left The left operand
+     * @param right The right operand
+     *
+     * @return The result of applying this operator
+     */
+    public boolean apply(double left, double right) {
+        if (Double.isNaN(left) || Double.isNaN(right)) {
+            return false;
+        }
+        return apply(left < right ? -1 : (left == right ? 0 : 1));
+    }
+
+    /**
+     * Applies this operator to two values of different types. Such values are never equal and cannot be ordered.
+     *
+     * @return {@code true} if this operator is {@link #NOT_EQUAL}, otherwise {@code false}
+     */
+    public boolean applyMismatched() {
+        return this == NOT_EQUAL;
+    }
+
+    /**
+     * Applies this operator to two {@link JsonNode}s of arbitrary type
+     *
+     * @param left The left operand or {@code null} if it does not exist
+     * @param right The right operand or {@code null} if it does not exist
+     *
+     * @return The result of applying this operator
+     */
+    public boolean apply(JsonNode left, JsonNode right) {
+        if ((left == null) || (right == null)) {
+            return false;
+        } else if (left.isNumber() && right.isNumber()) {
+            if (left.isIntegralNumber() && right.isIntegralNumber()) {
+                if (left.canConvertToLong() && right.canConvertToLong()) {
+                    return apply(left.longValue(), right.longValue());
+                }
+                return apply(left.bigIntegerValue().compareTo(right.bigIntegerValue()));
+            }
+            return apply(left.doubleValue(), right.doubleValue());
+        } else if (left.isTextual() && right.isTextual()) {
+            return apply(left.textValue().compareTo(right.textValue()));
+        } else if ((this == EQUAL) || (this == NOT_EQUAL)) {
+            return left.equals(right) == (this == EQUAL);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return this.symbol;
+    }
+
+}
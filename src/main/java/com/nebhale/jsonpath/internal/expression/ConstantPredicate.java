@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link Predicate} whose value is known at compile time, either because it was written as a literal or because it
+ * was folded from constant operands
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class ConstantPredicate implements Predicate {
+
+    /**
+     * A {@link Predicate} that is always {@code true}
+     */
+    public static final ConstantPredicate TRUE = new ConstantPredicate(true);
+
+    /**
+     * A {@link Predicate} that is always {@code false}
+     */
+    public static final ConstantPredicate FALSE = new ConstantPredicate(false);
+
+    private final boolean value;
+
+    private ConstantPredicate(boolean value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the {@link ConstantPredicate} for a value
+     *
+     * @param value The value
+     *
+     * @return {@link #TRUE} if {@code value} is {@code true}, otherwise {@link #FALSE}
+     */
+    public static ConstantPredicate valueOf(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    @Override
+    public boolean test(JsonNode context) {
+        return this.value;
+    }
+
+    @Override
+    public String toString() {
+        return "ConstantPredicate [value=" + this.value + "]";
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link Predicate} that compares two {@link NumericExpression}s as primitive {@code double}s. A comparison involving
+ * a value that does not exist is always {@code false} and a value that exists but is not a number is compared as a value
+ * of a different type.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class DoubleComparisonPredicate implements Predicate {
+
+    private final NumericExpression left;
+
+    private final ComparisonOperator operator;
+
+    private final NumericExpression right;
+
+    /**
+     * Creates a new instance
+     *
+     * @param left The left operand
+     * @param operator The operator to compare with
+     * @param right The right operand
+     */
+    public DoubleComparisonPredicate(NumericExpression left, ComparisonOperator operator, NumericExpression right) {
+        this.left = left;
+        this.operator = operator;
+        this.right = right;
+    }
+
+    @Override
+    public boolean test(JsonNode context) {
+        double leftValue = this.left.evaluate(context);
+        double rightValue = this.right.evaluate(context);
+
+        if (Double.isNaN(leftValue) || Double.isNaN(rightValue)) {
+            return this.left.exists(context) && this.right.exists(context) && this.operator.applyMismatched();
+        }
+        return this.operator.apply(leftValue, rightValue);
+    }
+
+    NumericExpression getLeft() {
+        return this.left;
+    }
+
+    ComparisonOperator getOperator() {
+        return this.operator;
+    }
+
+    NumericExpression getRight() {
+        return this.right;
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleComparisonPredicate [left=" + this.left + ", operator=" + this.operator + ", right=" + this.right + "]";
+    }
+
+}
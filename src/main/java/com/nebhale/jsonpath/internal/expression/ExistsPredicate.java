@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link Predicate} that is {@code true} when the value of an {@link Operand} exists, as in {@code [?(@.isbn)]}. A
+ * value of {@code null} or {@code false} is treated as not existing.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class ExistsPredicate implements Predicate {
+
+    private final Operand operand;
+
+    /**
+     * Creates a new instance
+     *
+     * @param operand The operand whose existence is tested
+     */
+    public ExistsPredicate(Operand operand) {
+        this.operand = operand;
+    }
+
+    @Override
+    public boolean test(JsonNode context) {
+        JsonNode node = this.operand.evaluate(context);
+        return (node != null) && !node.isNull() && (!node.isBoolean() || node.booleanValue());
+    }
+
+    @Override
+    public String toString() {
+        return "ExistsPredicate [operand=" + this.operand + "]";
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebhale.jsonpath.internal.regex.Regex;
+
+/**
+ * Factory methods for compiled expressions. Each method chooses the most specialized implementation for its operands
+ * and folds operands whose values are known at compile time into constants.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class Expressions {
+
+    private Expressions() {
+    }
+
+    /**
+     * Creates a {@link Predicate} that is the conjunction of two {@link Predicate}s
+     *
+     * @param left The left operand
+     * @param right The right operand
+     *
+     * @return The conjunction of the two operands
+     */
+    public static Predicate and(Predicate left, Predicate right) {
+        if ((left == ConstantPredicate.FALSE) || (right == ConstantPredicate.FALSE)) {
+            return ConstantPredicate.FALSE;
+        } else if (left == ConstantPredicate.TRUE) {
+            return right;
+        } else if (right == ConstantPredicate.TRUE) {
+            return left;
+        }
+        return new AndPredicate(left, right);
+    }
+
+    /**
+     * Creates a {@link Predicate} that is the disjunction of two {@link Predicate}s
+     *
+     * @param left The left operand
+     * @param right The right operand
+     *
+     * @return The disjunction of the two operands
+     */
+    public static Predicate or(Predicate left, Predicate right) {
+        if ((left == ConstantPredicate.TRUE) || (right == ConstantPredicate.TRUE)) {
+            return ConstantPredicate.TRUE;
+        } else if (left == ConstantPredicate.FALSE) {
+            return right;
+        } else if (right == ConstantPredicate.FALSE) {
+            return left;
+        }
+        return new OrPredicate(left, right);
+    }
+
+    /**
+     * Creates a {@link Predicate} that is the negation of a {@link Predicate}
+     *
+     * @param predicate The {@link Predicate} to negate
+     *
+     * @return The negation of the {@link Predicate}
+     */
+    public static Predicate not(Predicate predicate) {
+        if (predicate instanceof ConstantPredicate) {
+            return ConstantPredicate.valueOf(!predicate.test(null));
+        } else if (predicate instanceof NotPredicate) {
+            return ((NotPredicate) predicate).getPredicate();
+        }
+        return new NotPredicate(predicate);
+    }
+
+    /**
+     * Creates a {@link NumericExpression} that applies an {@link ArithmeticOperator} to two {@link NumericExpression}s
+     *
+     * @param left The left operand
+     * @param operator The operator to apply
+     * @param right The right operand
+     *
+     * @return The result of applying the operator
+     */
+    public static NumericExpression arithmetic(NumericExpression left, ArithmeticOperator operator, NumericExpression right) {
+        if ((left instanceof NumericLiteral) && (right instanceof NumericLiteral)) {
+            return fold((NumericLiteral) left, operator, (NumericLiteral) right);
+        }
+        return new ArithmeticExpression(left, operator, right);
+    }
+
+    /**
+     * Creates a {@link NumericExpression} that negates a {@link NumericExpression}
+     *
+     * @param expression The {@link NumericExpression} to negate
+     *
+     * @return The negation of the {@link NumericExpression}
+     */
+    public static NumericExpression negate(NumericExpression expression) {
+        return arithmetic(new NumericLiteral(0), ArithmeticOperator.SUBTRACT, expression);
+    }
+
+    /**
+     * Creates a {@link Predicate} that compares two values. Each value must either be an {@link Operand} or a
+     * {@link NumericExpression}.
+     *
+     * @param left The left operand
+     * @param operator The operator to compare with
+     * @param right The right operand
+     *
+     * @return A {@link Predicate} that compares the two values
+     */
+    public static Predicate compare(Object left, ComparisonOperator operator, Object right) {
+        if (isConstant(left) && isConstant(right)) {
+            return ConstantPredicate.valueOf(operator.apply(getConstant(left), getConstant(right)));
+        } else if (isConstant(left)) {
+            return compare(right, operator.reverse(), left);
+        } else if (left instanceof Operand) {
+            return compareOperand((Operand) left, operator, right);
+        }
+
+        NumericExpression numericRight = toNumeric(right);
+        if ((numericRight == null) && (right instanceof LiteralOperand)) {
+            // A literal that is not a number is compared as a value of a different type
+            numericRight = new NumericLiteral(Double.NaN);
+        } else if (numericRight == null) {
+            return ConstantPredicate.FALSE;
+        }
+        return new DoubleComparisonPredicate((NumericExpression) left, operator, numericRight);
+    }
+
+    /**
+     * Creates a {@link Predicate} that matches the value of an {@link Operand} against a regular expression
+     *
+     * @param operand The operand whose value is matched
+     * @param regex The regular expression to match the value against
+     *
+     * @return A {@link Predicate} that matches the value against the regular expression
+     */
+    public static Predicate matches(Operand operand, Regex regex) {
+        Predicate predicate = new RegexPredicate(operand, regex);
+        if (operand instanceof LiteralOperand) {
+            return ConstantPredicate.valueOf(predicate.test(null));
+        }
+        return predicate;
+    }
+
+    /**
+     * Converts a value to a {@link Predicate}. A {@link Predicate} is returned unchanged and an {@link Operand} is
+     * tested for existence.
+     *
+     * @param value The value to convert
+     *
+     * @return The value as a {@link Predicate} or {@code null} if the value cannot be treated as a boolean
+     */
+    public static Predicate toPredicate(Object value) {
+        if (value instanceof Predicate) {
+            return (Predicate) value;
+        } else if (value instanceof LiteralOperand) {
+            return ConstantPredicate.valueOf(new ExistsPredicate((Operand) value).test(null));
+        } else if (value instanceof Operand) {
+            return new ExistsPredicate((Operand) value);
+        }
+        return null;
+    }
+
+    /**
+     * Converts a value to a {@link NumericExpression}. A {@link NumericExpression} is returned unchanged and the value of
+     * a non-literal {@link Operand} is read as a number.
+     *
+     * @param value The value to convert
+     *
+     * @return The value as a {@link NumericExpression} or {@code null} if the value cannot be treated as a number
+     */
+    public static NumericExpression toNumeric(Object value) {
+        if (value instanceof NumericExpression) {
+            return (NumericExpression) value;
+        } else if ((value instanceof Operand) && !(value instanceof LiteralOperand)) {
+            return new NumericPathExpression((Operand) value);
+        }
+        return null;
+    }
+
+    private static Predicate compareOperand(Operand left, ComparisonOperator operator, Object right) {
+        if (right instanceof NumericLiteral) {
+            NumericLiteral literal = (NumericLiteral) right;
+            if (literal.isIntegral()) {
+                return new LongComparisonPredicate(left, operator, literal.getLongValue());
+            }
+            return new DoubleComparisonPredicate(new NumericPathExpression(left), operator, literal);
+        } else if ((right instanceof LiteralOperand) && ((LiteralOperand) right).getValue().isTextual()) {
+            return new StringComparisonPredicate(left, operator, ((LiteralOperand) right).getValue().textValue());
+        } else if (right instanceof Operand) {
+            return new NodeComparisonPredicate(left, operator, (Operand) right);
+        }
+        return new DoubleComparisonPredicate(new NumericPathExpression(left), operator, (NumericExpression) right);
+    }
+
+    private static NumericLiteral fold(NumericLiteral left, ArithmeticOperator operator, NumericLiteral right) {
+        if (left.isIntegral() && right.isIntegral()) {
+            long l = left.getLongValue();
+            long r = right.getLongValue();
+
+            if (operator == ArithmeticOperator.ADD) {
+                return new NumericLiteral(l + r);
+            } else if (operator == ArithmeticOperator.SUBTRACT) {
+                return new NumericLiteral(l - r);
+            } else if (operator == ArithmeticOperator.MULTIPLY) {
+                return new NumericLiteral(l * r);
+            } else if ((operator == ArithmeticOperator.REMAINDER) && (r != 0)) {
+                return new NumericLiteral(l % r);
+            }
+        }
+
+        return new NumericLiteral(operator.apply(left.getDoubleValue(), right.getDoubleValue()));
+    }
+
+    private static boolean isConstant(Object value) {
+        return (value instanceof NumericLiteral) || (value instanceof LiteralOperand);
+    }
+
+    private static JsonNode getConstant(Object value) {
+        if (value instanceof NumericLiteral) {
+            return ((NumericLiteral) value).toJsonNode();
+        }
+        return ((LiteralOperand) value).getValue();
+    }
+
+}
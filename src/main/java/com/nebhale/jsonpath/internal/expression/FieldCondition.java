@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * A condition of the form {@code @.name <operator> <literal>} that must hold for a {@link Predicate} to be satisfied.
+ * Conditions are extracted from the comparisons in a {@link Predicate} and from both sides of its conjunctions, so an
+ * index over the named field can find every value that might satisfy the {@link Predicate} without testing them all.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class FieldCondition {
+
+    private final String field;
+
+    private final ComparisonOperator operator;
+
+    private final JsonNode value;
+
+    FieldCondition(String field, ComparisonOperator operator, JsonNode value) {
+        this.field = field;
+        this.operator = operator;
+        this.value = value;
+    }
+
+    /**
+     * Extracts the conditions that must hold for a {@link Predicate} to be satisfied
+     *
+     * @param predicate The {@link Predicate} to extract conditions from
+     *
+     * @return The conditions, which may be empty
+     */
+    public static List<FieldCondition> extract(Predicate predicate) {
+        List<FieldCondition> conditions = new ArrayList<FieldCondition>();
+        extract(predicate, conditions);
+        return conditions;
+    }
+
+    /**
+     * Returns the name of the field that the condition applies to
+     *
+     * @return the name of the field that the condition applies to
+     */
+    public String getField() {
+        return this.field;
+    }
+
+    /**
+     * Returns the operator that the value of the field is compared with
+     *
+     * @return the operator that the value of the field is compared with
+     */
+    public ComparisonOperator getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * Returns the literal that the value of the field is compared to
+     *
+     * @return the literal that the value of the field is compared to
+     */
+    public JsonNode getValue() {
+        return this.value;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldCondition [field=" + this.field + ", operator=" + this.operator + ", value=" + this.value + "]";
+    }
+
+    private static void extract(Predicate predicate, List<FieldCondition> conditions) {
+        if (predicate instanceof AndPredicate) {
+            extract(((AndPredicate) predicate).getLeft(), conditions);
+            extract(((AndPredicate) predicate).getRight(), conditions);
+        } else if (predicate instanceof LongComparisonPredicate) {
+            LongComparisonPredicate comparison = (LongComparisonPredicate) predicate;
+            add(comparison.getLeft(), comparison.getOperator(), JsonNodeFactory.instance.numberNode(comparison.getRight()), conditions);
+        } else if (predicate instanceof StringComparisonPredicate) {
+            StringComparisonPredicate comparison = (StringComparisonPredicate) predicate;
+            add(comparison.getLeft(), comparison.getOperator(), JsonNodeFactory.instance.textNode(comparison.getRight()), conditions);
+        } else if (predicate instanceof DoubleComparisonPredicate) {
+            DoubleComparisonPredicate comparison = (DoubleComparisonPredicate) predicate;
+            if ((comparison.getLeft() instanceof NumericPathExpression) && (comparison.getRight() instanceof NumericLiteral)) {
+                add(((NumericPathExpression) comparison.getLeft()).getOperand(), comparison.getOperator(),
+                    ((NumericLiteral) comparison.getRight()).toJsonNode(), conditions);
+            }
+        } else if (predicate instanceof NodeComparisonPredicate) {
+            NodeComparisonPredicate comparison = (NodeComparisonPredicate) predicate;
+            if (comparison.getRight() instanceof LiteralOperand) {
+                add(comparison.getLeft(), comparison.getOperator(), ((LiteralOperand) comparison.getRight()).getValue(), conditions);
+            }
+        }
+    }
+
+    private static void add(Operand operand, ComparisonOperator operator, JsonNode value, List<FieldCondition> conditions) {
+        if (operand instanceof PathOperand) {
+            String[] names = ((PathOperand) operand).getNames();
+            if ((names.length == 1) && (names[0] != null)) {
+                conditions.add(new FieldCondition(names[0], operator, value));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link NumericExpression} whose value is the length of a node, as in {@code @.length} or {@code @.size()}. The
+ * length of an array or object is its number of children and the length of a string is its number of characters.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class LengthExpression implements NumericExpression {
+
+    private final Operand operand;
+
+    /**
+     * Creates a new instance
+     *
+     * @param operand The operand that selects the node whose length is computed
+     */
+    public LengthExpression(Operand operand) {
+        this.operand = operand;
+    }
+
+    @Override
+    public double evaluate(JsonNode context) {
+        JsonNode node = this.operand.evaluate(context);
+        if (node == null) {
+            return Double.NaN;
+        } else if (node.isContainerNode()) {
+            return node.size();
+        } else if (node.isTextual()) {
+            return node.textValue().length();
+        }
+        return Double.NaN;
+    }
+
+    @Override
+    public boolean exists(JsonNode context) {
+        return this.operand.evaluate(context) != null;
+    }
+
+    @Override
+    public String toString() {
+        return "LengthExpression [operand=" + this.operand + "]";
+    }
+
+}
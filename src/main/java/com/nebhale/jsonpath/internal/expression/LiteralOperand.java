@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * An {@link Operand} whose value is a constant
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class LiteralOperand implements Operand {
+
+    private final JsonNode value;
+
+    /**
+     * Creates a new instance
+     *
+     * @param value The value of the literal
+     */
+    public LiteralOperand(JsonNode value) {
+        this.value = value;
+    }
+
+    @Override
+    public JsonNode evaluate(JsonNode context) {
+        return this.value;
+    }
+
+    JsonNode getValue() {
+        return this.value;
+    }
+
+    @Override
+    public String toString() {
+        return "LiteralOperand [value=" + this.value + "]";
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link Predicate} that compares the values of two {@link Operand}s whose types are not known until evaluation
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ *
+ * @see ComparisonOperator#apply(JsonNode, JsonNode)
+ */
+public final class NodeComparisonPredicate implements Predicate {
+
+    private final Operand left;
+
+    private final ComparisonOperator operator;
+
+    private final Operand right;
+
+    /**
+     * Creates a new instance
+     *
+     * @param left The left operand
+     * @param operator The operator to compare with
+     * @param right The right operand
+     */
+    public NodeComparisonPredicate(Operand left, ComparisonOperator operator, Operand right) {
+        this.left = left;
+        this.operator = operator;
+        this.right = right;
+    }
+
+    @Override
+    public boolean test(JsonNode context) {
+        return this.operator.apply(this.left.evaluate(context), this.right.evaluate(context));
+    }
+
+    Operand getLeft() {
+        return this.left;
+    }
+
+    ComparisonOperator getOperator() {
+        return this.operator;
+    }
+
+    Operand getRight() {
+        return this.right;
+    }
+
+    @Override
+    public String toString() {
+        return "NodeComparisonPredicate [left=" + this.left + ", operator=" + this.operator + ", right=" + this.right + "]";
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link Predicate} that negates another {@link Predicate}
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class NotPredicate implements Predicate {
+
+    private final Predicate predicate;
+
+    /**
+     * Creates a new instance
+     *
+     * @param predicate The {@link Predicate} to negate
+     */
+    public NotPredicate(Predicate predicate) {
+        this.predicate = predicate;
+    }
+
+    @Override
+    public boolean test(JsonNode context) {
+        return !this.predicate.test(context);
+    }
+
+    Predicate getPredicate() {
+        return this.predicate;
+    }
+
+    @Override
+    public String toString() {
+        return "NotPredicate [predicate=" + this.predicate + "]";
+    }
+
+}
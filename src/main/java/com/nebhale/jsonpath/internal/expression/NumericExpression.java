@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A compiled expression whose value is a number. Values are computed as primitive {@code double}s so that arithmetic
+ * and comparisons never box. A value that cannot be computed (for example because a path does not exist or does not
+ * refer to a number) is represented as {@link Double#NaN}.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Implementations must be thread-safe
+ */
+public interface NumericExpression {
+
+    /**
+     * Evaluates this expression against a context node
+     *
+     * @param context The node that {@code @} refers to
+     *
+     * @return The value of this expression or {@link Double#NaN} if the value cannot be computed
+     */
+    double evaluate(JsonNode context);
+
+    /**
+     * Returns whether the values that this expression is computed from exist. An expression whose values exist but do not
+     * all refer to numbers evaluates to {@link Double#NaN} but is compared as a value of a different type.
+     *
+     * @param context The node that {@code @} refers to
+     *
+     * @return {@code true} if the values that this expression is computed from exist, otherwise {@code false}
+     */
+    boolean exists(JsonNode context);
+
+}
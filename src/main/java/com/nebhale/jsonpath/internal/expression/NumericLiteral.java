@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+
+/**
+ * A {@link NumericExpression} whose value is a constant. Integral literals retain their exact {@code long} value so
+ * that comparisons against large integral values do not lose precision.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class NumericLiteral implements NumericExpression {
+
+    private final boolean integral;
+
+    private final long longValue;
+
+    private final double doubleValue;
+
+    /**
+     * Creates a new integral instance
+     *
+     * @param value The value of the literal
+     */
+    public NumericLiteral(long value) {
+        this.integral = true;
+        this.longValue = value;
+        this.doubleValue = value;
+    }
+
+    /**
+     * Creates a new floating-point instance
+     *
+     * @param value The value of the literal
+     */
+    public NumericLiteral(double value) {
+        this.integral = false;
+        this.longValue = (long) value;
+        this.doubleValue = value;
+    }
+
+    @Override
+    public double evaluate(JsonNode context) {
+        return this.doubleValue;
+    }
+
+    @Override
+    public boolean exists(JsonNode context) {
+        return true;
+    }
+
+    boolean isIntegral() {
+        return this.integral;
+    }
+
+    long getLongValue() {
+        return this.longValue;
+    }
+
+    double getDoubleValue() {
+        return this.doubleValue;
+    }
+
+    JsonNode toJsonNode() {
+        return this.integral ? LongNode.valueOf(this.longValue) : DoubleNode.valueOf(this.doubleValue);
+    }
+
+    @Override
+    public String toString() {
+        return "NumericLiteral [value=" + (this.integral ? String.valueOf(this.longValue) : String.valueOf(this.doubleValue)) + "]";
+    }
+
+}
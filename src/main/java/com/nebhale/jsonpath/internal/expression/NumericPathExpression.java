@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link NumericExpression} whose value is read from a numeric node selected by an {@link Operand}
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class NumericPathExpression implements NumericExpression {
+
+    private final Operand operand;
+
+    /**
+     * Creates a new instance
+     *
+     * @param operand The operand that selects the numeric node
+     */
+    public NumericPathExpression(Operand operand) {
+        this.operand = operand;
+    }
+
+    @Override
+    public double evaluate(JsonNode context) {
+        JsonNode node = this.operand.evaluate(context);
+        if ((node != null) && node.isNumber()) {
+            return node.doubleValue();
+        }
+        return Double.NaN;
+    }
+
+    @Override
+    public boolean exists(JsonNode context) {
+        return this.operand.evaluate(context) != null;
+    }
+
+    Operand getOperand() {
+        return this.operand;
+    }
+
+    @Override
+    public String toString() {
+        return "NumericPathExpression [operand=" + this.operand + "]";
+    }
+
+}
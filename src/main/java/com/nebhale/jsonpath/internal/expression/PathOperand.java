@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import java.util.Arrays;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * An {@link Operand} that navigates from the context node ({@code @}) through a sequence of child names and indexes,
+ * such as {@code @.author.name} or {@code @['tags'][0]}. Navigation never allocates; if any segment does not exist
+ * the operand's value does not exist.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class PathOperand implements Operand {
+
+    private final String[] names;
+
+    private final int[] indexes;
+
+    /**
+     * Creates a new instance
+     *
+     * @param names The name of each segment, or {@code null} if the segment is an index
+     * @param indexes The index of each segment, ignored if the segment is a name
+     */
+    public PathOperand(String[] names, int[] indexes) {
+        this.names = names;
+        this.indexes = indexes;
+    }
+
+    @Override
+    public JsonNode evaluate(JsonNode context) {
+        JsonNode node = context;
+        for (int i = 0; (i < this.names.length) && (node != null); i++) {
+            if (this.names[i] != null) {
+                node = node.get(this.names[i]);
+            } else {
+                node = node.get(this.indexes[i]);
+            }
+        }
+        return node;
+    }
+
+    String[] getNames() {
+        return this.names;
+    }
+
+    @Override
+    public String toString() {
+        return "PathOperand [names=" + Arrays.toString(this.names) + ", indexes=" + Arrays.toString(this.indexes) + "]";
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebhale.jsonpath.internal.regex.Regex;
+
+/**
+ * A {@link Predicate} that is {@code true} when the value of an {@link Operand} is a string that matches a regular
+ * expression, as in {@code [?(@.name =~ /^acct-\d+$/)]}
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class RegexPredicate implements Predicate {
+
+    private final Operand operand;
+
+    private final Regex regex;
+
+    /**
+     * Creates a new instance
+     *
+     * @param operand The operand whose value is matched
+     * @param regex The regular expression to match the value against
+     */
+    public RegexPredicate(Operand operand, Regex regex) {
+        this.operand = operand;
+        this.regex = regex;
+    }
+
+    @Override
+    public boolean test(JsonNode context) {
+        JsonNode node = this.operand.evaluate(context);
+        return (node != null) && node.isTextual() && this.regex.find(node.textValue());
+    }
+
+    @Override
+    public String toString() {
+        return "RegexPredicate [operand=" + this.operand + ", regex=" + this.regex + "]";
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A {@link Predicate} that compares the value of an {@link Operand} to a constant {@link String}
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class StringComparisonPredicate implements Predicate {
+
+    private final Operand left;
+
+    private final ComparisonOperator operator;
+
+    private final String right;
+
+    /**
+     * Creates a new instance
+     *
+     * @param left The left operand
+     * @param operator The operator to compare with
+     * @param right The right operand
+     */
+    public StringComparisonPredicate(Operand left, ComparisonOperator operator, String right) {
+        this.left = left;
+        this.operator = operator;
+        this.right = right;
+    }
+
+    @Override
+    public boolean test(JsonNode context) {
+        JsonNode node = this.left.evaluate(context);
+        if (node == null) {
+            return false;
+        } else if (node.isTextual()) {
+            return this.operator.apply(node.textValue().compareTo(this.right));
+        }
+        return this.operator.applyMismatched();
+    }
+
+    Operand getLeft() {
+        return this.left;
+    }
+
+    ComparisonOperator getOperator() {
+        return this.operator;
+    }
+
+    String getRight() {
+        return this.right;
+    }
+
+    @Override
+    public String toString() {
+        return "StringComparisonPredicate [left=" + this.left + ", operator=" + this.operator + ", right=" + this.right + "]";
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebhale.jsonpath.internal.expression.FieldCondition;
+import com.nebhale.jsonpath.internal.expression.Predicate;
+
+/**
+ * The {@link FieldIndex}es built over the elements of a single array. A {@link Predicate} is answered with the
+ * smallest set of candidates that any of its {@link FieldCondition}s can be found with.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe once built
+ */
+public final class ArrayIndex {
+
+    private final JsonNode array;
+
+    private final Map<String, List<FieldIndex>> fieldIndexes = new HashMap<String, List<FieldIndex>>();
+
+    private final int size;
+
+    /**
+     * Creates a new instance
+     *
+     * @param array The array whose elements are indexed
+     */
+    public ArrayIndex(JsonNode array) {
+        this.array = array;
+        this.size = array.size();
+    }
+
+    /**
+     * Adds a {@link FieldIndex} over a field of the elements of the array. Must not be called once the instance is
+     * visible to other threads.
+     *
+     * @param field The name of the field
+     * @param fieldIndex The {@link FieldIndex}
+     */
+    public void add(String field, FieldIndex fieldIndex) {
+        List<FieldIndex> fieldIndexes = this.fieldIndexes.get(field);
+        if (fieldIndexes == null) {
+            fieldIndexes = new ArrayList<FieldIndex>();
+            this.fieldIndexes.put(field, fieldIndexes);
+        }
+        fieldIndexes.add(fieldIndex);
+    }
+
+    /**
+     * Returns whether the array has changed size since it was indexed and the index can no longer be trusted
+     *
+     * @return whether the array has changed size since it was indexed
+     */
+    public boolean isStale() {
+        return this.array.size() != this.size;
+    }
+
+    /**
+     * Finds the elements of the array that might satisfy a {@link Predicate}
+     *
+     * @param predicate The {@link Predicate}
+     *
+     * @return The positions of the elements in ascending order or {@code null} if no {@link FieldIndex} applies
+     */
+    public int[] find(Predicate predicate) {
+        int[] candidates = null;
+
+        for (FieldCondition condition : FieldCondition.extract(predicate)) {
+            List<FieldIndex> fieldIndexes = this.fieldIndexes.get(condition.getField());
+            if (fieldIndexes != null) {
+                for (FieldIndex fieldIndex : fieldIndexes) {
+                    int[] positions = fieldIndex.find(condition.getOperator(), condition.getValue());
+                    if ((positions != null) && ((candidates == null) || (positions.length < candidates.length))) {
+                        candidates = positions;
+                    }
+                }
+            }
+        }
+
+        return candidates;
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayIndex [fieldIndexes=" + this.fieldIndexes + ", size=" + this.size + "]";
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.index;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebhale.jsonpath.internal.expression.ComparisonOperator;
+
+/**
+ * An index over the values of a single field of the elements of an array
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Implementations must be thread-safe
+ */
+public interface FieldIndex {
+
+    /**
+     * Finds the elements whose value for the field might satisfy a comparison with a literal. The result may include
+     * elements that do not satisfy the comparison, but never omits one that does.
+     *
+     * @param operator The operator that the value of the field is compared with
+     * @param value The literal that the value of the field is compared to
+     *
+     * @return The positions of the elements in ascending order or {@code null} if this index cannot answer the
+     *         comparison
+     */
+    int[] find(ComparisonOperator operator, JsonNode value);
+}
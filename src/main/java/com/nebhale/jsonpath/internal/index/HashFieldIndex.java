@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebhale.jsonpath.internal.expression.ComparisonOperator;
+
+/**
+ * A {@link FieldIndex} that answers equality comparisons with a hash lookup. Numbers are keyed by their {@code double}
+ * value and strings by their text so that a key matches every value that the comparison would consider equal.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class HashFieldIndex implements FieldIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final String field;
+
+    private final Map<Object, int[]> positions = new HashMap<Object, int[]>();
+
+    /**
+     * Creates a new instance, indexing the current values of the field
+     *
+     * @param array The array whose elements are indexed
+     * @param field The name of the field to index
+     */
+    public HashFieldIndex(JsonNode array, String field) {
+        this.field = field;
+
+        Map<Object, List<Integer>> keys = new HashMap<Object, List<Integer>>();
+        for (int i = 0; i < array.size(); i++) {
+            JsonNode value = array.get(i).get(field);
+            if (value != null) {
+                Object key = getKey(value);
+                List<Integer> positions = keys.get(key);
+                if (positions == null) {
+                    positions = new ArrayList<Integer>();
+                    keys.put(key, positions);
+                }
+                positions.add(i);
+            }
+        }
+
+        for (Map.Entry<Object, List<Integer>> entry : keys.entrySet()) {
+            List<Integer> positions = entry.getValue();
+            int[] positionArray = new int[positions.size()];
+            for (int i = 0; i < positionArray.length; i++) {
+                positionArray[i] = positions.get(i);
+            }
+            this.positions.put(entry.getKey(), positionArray);
+        }
+    }
+
+    @Override
+    public int[] find(ComparisonOperator operator, JsonNode value) {
+        if (operator != ComparisonOperator.EQUAL) {
+            return null;
+        }
+
+        int[] positions = this.positions.get(getKey(value));
+        return positions == null ? NONE : positions;
+    }
+
+    @Override
+    public String toString() {
+        return "HashFieldIndex [field=" + this.field + ", keys=" + this.positions.size() + "]";
+    }
+
+    private static Object getKey(JsonNode value) {
+        if (value.isNumber()) {
+            double doubleValue = value.doubleValue();
+            return doubleValue == 0 ? 0.0 : doubleValue;
+        } else if (value.isTextual()) {
+            return value.textValue();
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nebhale.jsonpath.internal.expression.ComparisonOperator;
+
+/**
+ * A {@link FieldIndex} that answers equality and range comparisons with a binary search. Numbers and strings are kept
+ * in separate sorted runs since a comparison between a number and a string is never satisfied. Range bounds are
+ * always treated as inclusive, so that rounding a {@code long} to a {@code double} can never exclude a value.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class SortedFieldIndex implements FieldIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final String field;
+
+    private final double[] numbers;
+
+    private final int[] numberPositions;
+
+    private final String[] strings;
+
+    private final int[] stringPositions;
+
+    /**
+     * Creates a new instance, indexing the current values of the field
+     *
+     * @param array The array whose elements are indexed
+     * @param field The name of the field to index
+     */
+    public SortedFieldIndex(JsonNode array, String field) {
+        this.field = field;
+
+        List<NumberEntry> numberEntries = new ArrayList<NumberEntry>();
+        List<StringEntry> stringEntries = new ArrayList<StringEntry>();
+        for (int i = 0; i < array.size(); i++) {
+            JsonNode value = array.get(i).get(field);
+            if ((value != null) && value.isNumber() && !Double.isNaN(value.doubleValue())) {
+                numberEntries.add(new NumberEntry(normalize(value.doubleValue()), i));
+            } else if ((value != null) && value.isTextual()) {
+                stringEntries.add(new StringEntry(value.textValue(), i));
+            }
+        }
+
+        Collections.sort(numberEntries);
+        this.numbers = new double[numberEntries.size()];
+        this.numberPositions = new int[numberEntries.size()];
+        for (int i = 0; i < this.numbers.length; i++) {
+            this.numbers[i] = numberEntries.get(i).value;
+            this.numberPositions[i] = numberEntries.get(i).position;
+        }
+
+        Collections.sort(stringEntries);
+        this.strings = new String[stringEntries.size()];
+        this.stringPositions = new int[stringEntries.size()];
+        for (int i = 0; i < this.strings.length; i++) {
+            this.strings[i] = stringEntries.get(i).value;
+            this.stringPositions[i] = stringEntries.get(i).position;
+        }
+    }
+
+    @Override
+    public int[] find(ComparisonOperator operator, JsonNode value) {
+        if (operator == ComparisonOperator.NOT_EQUAL) {
+            return null;
+        } else if (value.isNumber()) {
+            return findNumbers(operator, normalize(value.doubleValue()));
+        } else if (value.isTextual()) {
+            return findStrings(operator, value.textValue());
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "SortedFieldIndex [field=" + this.field + ", numbers=" + this.numbers.length + ", strings=" + this.strings.length + "]";
+    }
+
+    private int[] findNumbers(ComparisonOperator operator, double value) {
+        if (Double.isNaN(value)) {
+            return NONE;
+        }
+
+        int start = isLowerBounded(operator) ? lowerBound(value) : 0;
+        int end = isUpperBounded(operator) ? upperBound(value) : this.numbers.length;
+        return getPositions(this.numberPositions, start, end);
+    }
+
+    private int[] findStrings(ComparisonOperator operator, String value) {
+        int start = 0;
+        if (isLowerBounded(operator)) {
+            int low = 0;
+            int high = this.strings.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (this.strings[middle].compareTo(value) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            start = low;
+        }
+
+        int end = this.strings.length;
+        if (isUpperBounded(operator)) {
+            int low = start;
+            int high = this.strings.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (this.strings[middle].compareTo(value) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            end = low;
+        }
+
+        return getPositions(this.stringPositions, start, end);
+    }
+
+    private int lowerBound(double value) {
+        int low = 0;
+        int high = this.numbers.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.numbers[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(double value) {
+        int low = 0;
+        int high = this.numbers.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.numbers[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isLowerBounded(ComparisonOperator operator) {
+        return (operator == ComparisonOperator.EQUAL) || (operator == ComparisonOperator.GREATER_THAN)
+            || (operator == ComparisonOperator.GREATER_THAN_OR_EQUAL);
+    }
+
+    private static boolean isUpperBounded(ComparisonOperator operator) {
+        return (operator == ComparisonOperator.EQUAL) || (operator == ComparisonOperator.LESS_THAN)
+            || (operator == ComparisonOperator.LESS_THAN_OR_EQUAL);
+    }
+
+    private static int[] getPositions(int[] positions, int start, int end) {
+        if (start >= end) {
+            return NONE;
+        }
+
+        int[] result = Arrays.copyOfRange(positions, start, end);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static double normalize(double value) {
+        return value == 0 ? 0.0 : value;
+    }
+
+    private static final class NumberEntry implements Comparable<NumberEntry> {
+
+        private final double value;
+
+        private final int position;
+
+        private NumberEntry(double value, int position) {
+            this.value = value;
+            this.position = position;
+        }
+
+        @Override
+        public int compareTo(NumberEntry other) {
+            return Double.compare(this.value, other.value);
+        }
+
+    }
+
+    private static final class StringEntry implements Comparable<StringEntry> {
+
+        private final String value;
+
+        private final int position;
+
+        private StringEntry(String value, int position) {
+            this.value = value;
+            this.position = position;
+        }
+
+        @Override
+        public int compareTo(StringEntry other) {
+            return this.value.compareTo(other.value);
+        }
+
+    }
+
+}
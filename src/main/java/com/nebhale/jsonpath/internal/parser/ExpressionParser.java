@@ -0,0 +1,596 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.parser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.PatternSyntaxException;
+
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.nebhale.jsonpath.internal.expression.ArithmeticOperator;
+import com.nebhale.jsonpath.internal.expression.ComparisonOperator;
+import com.nebhale.jsonpath.internal.expression.Expressions;
+import com.nebhale.jsonpath.internal.expression.LengthExpression;
+import com.nebhale.jsonpath.internal.expression.LiteralOperand;
+import com.nebhale.jsonpath.internal.expression.NumericExpression;
+import com.nebhale.jsonpath.internal.expression.NumericLiteral;
+import com.nebhale.jsonpath.internal.expression.Operand;
+import com.nebhale.jsonpath.internal.expression.PathOperand;
+import com.nebhale.jsonpath.internal.expression.Predicate;
+import com.nebhale.jsonpath.internal.regex.Regex;
+
+/**
+ * A recursive-descent parser that compiles the contents of filter and script expressions. Filter expressions are
+ * compiled into a {@link Predicate} and script expressions into either a {@link NumericExpression} or an
+ * {@link Operand}. Expressions are parsed according to the following grammar, from lowest to highest precedence:
+ * <p />
+ *
+ * <pre>
+ * OR:              AND ( '||' AND )*
+ * AND:             COMPARISON ( '&amp;&amp;' COMPARISON )*
+ * COMPARISON:      ADDITIVE ( ( '==' | '!=' | '&lt;' | '&lt;=' | '&gt;' | '&gt;=' ) ADDITIVE | '=~' REGEX )?
+ * ADDITIVE:        MULTIPLICATIVE ( ( '+' | '-' ) MULTIPLICATIVE )*
+ * MULTIPLICATIVE:  UNARY ( ( '*' | '/' | '%' ) UNARY )*
+ * UNARY:           ( '!' | '-' ) UNARY | PRIMARY
+ * PRIMARY:         '(' OR ')' | PATH | NUMBER | STRING | 'true' | 'false' | 'null'
+ * PATH:            '@' ( '.' NAME | '[' ( NUMBER | STRING ) ']' )* ( '.length' | '.size()' )?
+ * REGEX:           '/' ( any character, with '/' escaped as '\/' )* '/' ( 'i' | 'm' | 's' )*
+ * </pre>
+ *
+ * Regular expressions use the syntax of {@link java.util.regex.Pattern} and are compiled along with the rest of the
+ * expression. When the parser is created for linear-time regular expressions, only regular expressions that can be
+ * evaluated in time linear in the length of their input are accepted.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ *
+ * @see Expressions
+ */
+final class ExpressionParser {
+
+    private static final char CURRENT = '@';
+
+    private static final char ESCAPE = '\\';
+
+    private static final String LENGTH = "length";
+
+    private static final char REGEX_DELIMITER = '/';
+
+    private static final String SIZE = "size";
+
+    private final boolean linearTimeRegex;
+
+    /**
+     * Creates a new instance that accepts any regular expression
+     */
+    ExpressionParser() {
+        this(false);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param linearTimeRegex Whether regular expressions must be evaluated in time linear in the length of their input
+     */
+    ExpressionParser(boolean linearTimeRegex) {
+        this.linearTimeRegex = linearTimeRegex;
+    }
+
+    /**
+     * Parses the contents of a filter expression into a {@link Predicate}
+     *
+     * @param expression The complete JSONPath expression, used when reporting problems
+     * @param token The token containing the filter expression
+     * @param fields The collection to add the names of the fields of the current node that the filter expression
+     *        references to. {@code null} is added if the filter expression references the current node as a whole.
+     * @param problems The collection to add any problems to
+     *
+     * @return The compiled {@link Predicate} or {@code null} if the filter expression could not be parsed
+     */
+    Predicate parsePredicate(String expression, Token token, Collection<String> fields, List<ExpressionProblem> problems) {
+        ParserContext context = new ParserContext(expression, token);
+
+        try {
+            int start = context.skipWhitespace();
+            Predicate predicate = Expressions.toPredicate(parse(context));
+            if (predicate == null) {
+                throw new ExpressionSyntaxException(start, "Expression must evaluate to a boolean value");
+            }
+            fields.addAll(context.fields);
+            return predicate;
+        } catch (ExpressionSyntaxException e) {
+            problems.add(new ExpressionProblem(expression, token.getStartPosition() + e.position, e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Parses the contents of a script expression, as in {@code [(@.length - 1)]}, into either a
+     * {@link NumericExpression} that computes an index or an {@link Operand} that computes a name or index
+     *
+     * @param expression The complete JSONPath expression, used when reporting problems
+     * @param token The token containing the script expression
+     * @param problems The collection to add any problems to
+     *
+     * @return The compiled {@link NumericExpression} or {@link Operand}, or {@code null} if the script expression
+     *         could not be parsed
+     */
+    Object parseScript(String expression, Token token, List<ExpressionProblem> problems) {
+        ParserContext context = new ParserContext(expression, token);
+
+        try {
+            int start = context.skipWhitespace();
+            Object value = parse(context);
+            if ((value instanceof NumericExpression) || ((value instanceof Operand) && !isNonTextualLiteral(value))) {
+                return value;
+            }
+            throw new ExpressionSyntaxException(start, "Expression must evaluate to a string or numeric value");
+        } catch (ExpressionSyntaxException e) {
+            problems.add(new ExpressionProblem(expression, token.getStartPosition() + e.position, e.getMessage()));
+            return null;
+        }
+    }
+
+    private Object parse(ParserContext context) {
+        Object value = or(context);
+        expectEnd(context);
+        return value;
+    }
+
+    private boolean isNonTextualLiteral(Object value) {
+        return (value instanceof LiteralOperand) && !((LiteralOperand) value).evaluate(null).isTextual();
+    }
+
+    private Object or(ParserContext context) {
+        Object left = and(context);
+
+        int position = context.skipWhitespace();
+        while (context.consume("||")) {
+            Object right = and(context);
+            left = Expressions.or(toPredicate(left, position), toPredicate(right, position));
+            position = context.skipWhitespace();
+        }
+
+        return left;
+    }
+
+    private Object and(ParserContext context) {
+        Object left = comparison(context);
+
+        int position = context.skipWhitespace();
+        while (context.consume("&&")) {
+            Object right = comparison(context);
+            left = Expressions.and(toPredicate(left, position), toPredicate(right, position));
+            position = context.skipWhitespace();
+        }
+
+        return left;
+    }
+
+    private Object comparison(ParserContext context) {
+        Object left = additive(context);
+
+        int position = context.skipWhitespace();
+        if (context.consume("=~")) {
+            return Expressions.matches(toOperand(left, position), regex(context));
+        }
+
+        ComparisonOperator operator = comparisonOperator(context);
+        if (operator != null) {
+            Object right = additive(context);
+            return Expressions.compare(toValue(left, position), operator, toValue(right, position));
+        }
+
+        return left;
+    }
+
+    private Regex regex(ParserContext context) {
+        int start = context.skipWhitespace();
+        context.expect(REGEX_DELIMITER);
+
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            if (context.position >= context.text.length()) {
+                throw new ExpressionSyntaxException(start, "Unterminated regular expression");
+            }
+
+            char c = context.text.charAt(context.position++);
+            if (c == REGEX_DELIMITER) {
+                break;
+            } else if ((c == ESCAPE) && (context.position < context.text.length())) {
+                char escaped = context.text.charAt(context.position++);
+                if (escaped != REGEX_DELIMITER) {
+                    sb.append(c);
+                }
+                sb.append(escaped);
+            } else {
+                sb.append(c);
+            }
+        }
+
+        try {
+            return Regex.compile(sb.toString(), name(context), this.linearTimeRegex);
+        } catch (PatternSyntaxException e) {
+            throw new ExpressionSyntaxException(start, "Illegal regular expression '%s': %s", sb, e.getDescription());
+        }
+    }
+
+    private ComparisonOperator comparisonOperator(ParserContext context) {
+        if (context.consume("==")) {
+            return ComparisonOperator.EQUAL;
+        } else if (context.consume("!=")) {
+            return ComparisonOperator.NOT_EQUAL;
+        } else if (context.consume("<=")) {
+            return ComparisonOperator.LESS_THAN_OR_EQUAL;
+        } else if (context.consume(">=")) {
+            return ComparisonOperator.GREATER_THAN_OR_EQUAL;
+        } else if (context.consume("<")) {
+            return ComparisonOperator.LESS_THAN;
+        } else if (context.consume(">")) {
+            return ComparisonOperator.GREATER_THAN;
+        }
+        return null;
+    }
+
+    private Object additive(ParserContext context) {
+        Object left = multiplicative(context);
+
+        int position = context.skipWhitespace();
+        ArithmeticOperator operator;
+        while ((operator = additiveOperator(context)) != null) {
+            Object right = multiplicative(context);
+            left = Expressions.arithmetic(toNumeric(left, position), operator, toNumeric(right, position));
+            position = context.skipWhitespace();
+        }
+
+        return left;
+    }
+
+    private ArithmeticOperator additiveOperator(ParserContext context) {
+        if (context.consume("+")) {
+            return ArithmeticOperator.ADD;
+        } else if (context.consume("-")) {
+            return ArithmeticOperator.SUBTRACT;
+        }
+        return null;
+    }
+
+    private Object multiplicative(ParserContext context) {
+        Object left = unary(context);
+
+        int position = context.skipWhitespace();
+        ArithmeticOperator operator;
+        while ((operator = multiplicativeOperator(context)) != null) {
+            Object right = unary(context);
+            left = Expressions.arithmetic(toNumeric(left, position), operator, toNumeric(right, position));
+            position = context.skipWhitespace();
+        }
+
+        return left;
+    }
+
+    private ArithmeticOperator multiplicativeOperator(ParserContext context) {
+        if (context.consume("*")) {
+            return ArithmeticOperator.MULTIPLY;
+        } else if (context.consume("/")) {
+            return ArithmeticOperator.DIVIDE;
+        } else if (context.consume("%")) {
+            return ArithmeticOperator.REMAINDER;
+        }
+        return null;
+    }
+
+    private Object unary(ParserContext context) {
+        int position = context.skipWhitespace();
+
+        if (context.consume("!")) {
+            return Expressions.not(toPredicate(unary(context), position));
+        } else if (context.consume("-")) {
+            return Expressions.negate(toNumeric(unary(context), position));
+        }
+
+        return primary(context);
+    }
+
+    private Object primary(ParserContext context) {
+        int position = context.skipWhitespace();
+        char c = context.peek();
+
+        if (context.consume("(")) {
+            Object value = or(context);
+            context.skipWhitespace();
+            context.expect(')');
+            return value;
+        } else if (c == CURRENT) {
+            context.position++;
+            return path(context);
+        } else if ((c == '\'') || (c == '"')) {
+            return new LiteralOperand(new TextNode(string(context)));
+        } else if (Character.isDigit(c) || (c == '.')) {
+            return number(context);
+        } else if (Character.isLetter(c)) {
+            String word = name(context);
+            if ("true".equals(word)) {
+                return new LiteralOperand(BooleanNode.TRUE);
+            } else if ("false".equals(word)) {
+                return new LiteralOperand(BooleanNode.FALSE);
+            } else if ("null".equals(word)) {
+                return new LiteralOperand(NullNode.getInstance());
+            }
+            throw new ExpressionSyntaxException(position, "Unknown identifier '%s'", word);
+        }
+
+        throw context.unexpected();
+    }
+
+    private Object path(ParserContext context) {
+        List<String> names = new ArrayList<String>();
+        List<Integer> indexes = new ArrayList<Integer>();
+
+        while (true) {
+            if (context.consume(".")) {
+                int position = context.position;
+                String name = name(context);
+                if (name.length() == 0) {
+                    throw new ExpressionSyntaxException(position, "Expected a name");
+                }
+
+                if (SIZE.equals(name) && context.consume("()")) {
+                    return new LengthExpression(createPathOperand(context, names, indexes));
+                } else if (LENGTH.equals(name) && !isPathContinuation(context)) {
+                    return new LengthExpression(createPathOperand(context, names, indexes));
+                }
+
+                names.add(name);
+                indexes.add(0);
+            } else if (context.consume("[")) {
+                context.skipWhitespace();
+                char c = context.peek();
+                if ((c == '\'') || (c == '"')) {
+                    names.add(string(context));
+                    indexes.add(0);
+                } else if (Character.isDigit(c)) {
+                    names.add(null);
+                    indexes.add(integer(context));
+                } else {
+                    throw context.unexpected();
+                }
+                context.skipWhitespace();
+                context.expect(']');
+            } else {
+                return createPathOperand(context, names, indexes);
+            }
+        }
+    }
+
+    private boolean isPathContinuation(ParserContext context) {
+        char c = context.peek();
+        return (c == '.') || (c == '[');
+    }
+
+    private PathOperand createPathOperand(ParserContext context, List<String> names, List<Integer> indexes) {
+        context.fields.add(names.isEmpty() ? null : names.get(0));
+
+        int[] indexArray = new int[indexes.size()];
+        for (int i = 0; i < indexArray.length; i++) {
+            indexArray[i] = indexes.get(i);
+        }
+        return new PathOperand(names.toArray(new String[names.size()]), indexArray);
+    }
+
+    private String name(ParserContext context) {
+        int start = context.position;
+        while (context.position < context.text.length()) {
+            char c = context.text.charAt(context.position);
+            if (!Character.isLetterOrDigit(c) && (c != '_')) {
+                break;
+            }
+            context.position++;
+        }
+        return context.text.substring(start, context.position);
+    }
+
+    private int integer(ParserContext context) {
+        int start = context.position;
+        while (Character.isDigit(context.peek())) {
+            context.position++;
+        }
+
+        try {
+            return Integer.parseInt(context.text.substring(start, context.position));
+        } catch (NumberFormatException e) {
+            throw new ExpressionSyntaxException(start, "Illegal index '%s'", context.text.substring(start, context.position));
+        }
+    }
+
+    private NumericLiteral number(ParserContext context) {
+        int start = context.position;
+        boolean integral = true;
+
+        while (Character.isDigit(context.peek())) {
+            context.position++;
+        }
+        if (context.peek() == '.') {
+            integral = false;
+            context.position++;
+            while (Character.isDigit(context.peek())) {
+                context.position++;
+            }
+        }
+        if ((context.peek() == 'e') || (context.peek() == 'E')) {
+            integral = false;
+            context.position++;
+            if ((context.peek() == '+') || (context.peek() == '-')) {
+                context.position++;
+            }
+            while (Character.isDigit(context.peek())) {
+                context.position++;
+            }
+        }
+
+        String value = context.text.substring(start, context.position);
+        try {
+            if (integral) {
+                try {
+                    return new NumericLiteral(Long.parseLong(value));
+                } catch (NumberFormatException e) {
+                    return new NumericLiteral(Double.parseDouble(value));
+                }
+            }
+            return new NumericLiteral(Double.parseDouble(value));
+        } catch (NumberFormatException e) {
+            throw new ExpressionSyntaxException(start, "Illegal number '%s'", value);
+        }
+    }
+
+    private String string(ParserContext context) {
+        int start = context.position;
+        char quote = context.text.charAt(context.position++);
+
+        StringBuilder sb = new StringBuilder();
+        while (context.position < context.text.length()) {
+            char c = context.text.charAt(context.position++);
+            if (c == quote) {
+                return sb.toString();
+            } else if ((c == ESCAPE) && (context.position < context.text.length())) {
+                sb.append(context.text.charAt(context.position++));
+            } else {
+                sb.append(c);
+            }
+        }
+
+        throw new ExpressionSyntaxException(start, "Unterminated string");
+    }
+
+    private void expectEnd(ParserContext context) {
+        context.skipWhitespace();
+        if (context.position < context.text.length()) {
+            throw context.unexpected();
+        }
+    }
+
+    private Predicate toPredicate(Object value, int position) {
+        Predicate predicate = Expressions.toPredicate(value);
+        if (predicate == null) {
+            throw new ExpressionSyntaxException(position, "Expected a boolean expression");
+        }
+        return predicate;
+    }
+
+    private NumericExpression toNumeric(Object value, int position) {
+        NumericExpression numeric = Expressions.toNumeric(value);
+        if (numeric == null) {
+            throw new ExpressionSyntaxException(position, "Expected a numeric expression");
+        }
+        return numeric;
+    }
+
+    private Operand toOperand(Object value, int position) {
+        if (!(value instanceof Operand)) {
+            throw new ExpressionSyntaxException(position, "Expected a string expression");
+        }
+        return (Operand) value;
+    }
+
+    private Object toValue(Object value, int position) {
+        if (value instanceof Predicate) {
+            throw new ExpressionSyntaxException(position, "A boolean expression cannot be compared");
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionParser [linearTimeRegex=" + this.linearTimeRegex + "]";
+    }
+
+    private static final class ParserContext {
+
+        private final String expression;
+
+        private final Set<String> fields = new LinkedHashSet<String>();
+
+        private final String text;
+
+        private volatile int position = 0;
+
+        private ParserContext(String expression, Token token) {
+            this.expression = expression;
+            this.text = token.getValue();
+        }
+
+        private char peek() {
+            return this.position < this.text.length() ? this.text.charAt(this.position) : '\0';
+        }
+
+        private int skipWhitespace() {
+            while (Character.isWhitespace(peek())) {
+                this.position++;
+            }
+            return this.position;
+        }
+
+        private boolean consume(String value) {
+            if (this.text.startsWith(value, this.position)) {
+                this.position += value.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw unexpected();
+            }
+            this.position++;
+        }
+
+        private ExpressionSyntaxException unexpected() {
+            if (this.position < this.text.length()) {
+                return new ExpressionSyntaxException(this.position, "Illegal character '%s'", peek());
+            }
+            return new ExpressionSyntaxException(this.position, "Unexpected end of expression");
+        }
+
+        @Override
+        public String toString() {
+            return "ParserContext [expression=" + this.expression + ", text=" + this.text + ", position=" + this.position + "]";
+        }
+
+    }
+
+    private static final class ExpressionSyntaxException extends RuntimeException {
+
+        private static final long serialVersionUID = -2415003236474532262L;
+
+        private final int position;
+
+        private ExpressionSyntaxException(int position, String messageFormat, Object... args) {
+            super(String.format(messageFormat, args));
+            this.position = position;
+        }
+
+    }
+
+}
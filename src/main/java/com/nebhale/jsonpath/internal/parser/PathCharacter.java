@@ -53,9 +53,12 @@ final class PathCharacter {
         DOT, //
         DOUBLE_QUOTE, //
         END, //
+        FILTER, //
         HYPHEN, //
         INDEX_CHARACTER, //
         LETTER, //
+        PAREN_CLOSE, //
+        PAREN_OPEN, //
         QUOTE, //
         ROOT, //
         SIMPLE_NAME_CHARACTER, //
@@ -30,10 +30,14 @@ import com.nebhale.jsonpath.internal.parser.Token.TokenType;
  * ROOT:            ROOT
  * CHILD:           DOT_CHILD | ARRAY_CHILD
  * INDEX:           ARRAY_OPEN ( INDEX_CHARACTER* | WILDCARD ) ARRAY_CLOSE
+ * FILTER:          ARRAY_OPEN FILTER PAREN_OPEN EXPRESSION PAREN_CLOSE ARRAY_CLOSE
+ * SCRIPT:          ARRAY_OPEN PAREN_OPEN EXPRESSION PAREN_CLOSE ARRAY_CLOSE
+ * FUNCTION:        DOT SIMPLE_NAME_CHARACTER+ PAREN_OPEN PAREN_CLOSE
  * DOT_CHILD:       DOT SIMPLE_NAME
  * ARRAY_CHILD:     ARRAY_OPEN ( QUOTE COMPLEX_NAME QUOTE | DOUBLE_QUOTE COMPLEX_NAME DOUBLE_QUOTE ) ARRAY_CLOSE
  * SIMPLE_NAME:     SIMPLE_NAME_CHARACTER* | WILDCARD
  * COMPLEX_NAME:    COMPLEX_NAME_CHARACTER* | WILDCARD
+ * EXPRESSION:      ( any character, with PAREN_OPEN and PAREN_CLOSE balanced outside of quotes and regular expressions )*
  * </pre>
  *
  * <strong>Concurrent Semantics</strong><br />
@@ -44,6 +48,14 @@ import com.nebhale.jsonpath.internal.parser.Token.TokenType;
  */
 final class RecoveringPathLexer implements PathLexer {
 
+    private static final char ESCAPE = '\\';
+
+    private static final char NO_QUOTE = '\0';
+
+    private static final char REGEX_DELIMITER = '/';
+
+    private static final char REGEX_OPERATOR = '~';
+
     @Override
     public LexerResult lex(String expression) {
         LexerContext context = new LexerContext(expression);
@@ -70,6 +82,12 @@ final class RecoveringPathLexer implements PathLexer {
                 index(context, c);
             } else if (context.parsingState == ParsingState.QUOTE_CLOSE) {
                 arrayChildClose(context, c, CharacterType.QUOTE);
+            } else if (context.parsingState == ParsingState.FILTER_OPEN) {
+                filterOpen(context, c);
+            } else if (context.parsingState == ParsingState.EXPRESSION) {
+                expression(context, c);
+            } else if (context.parsingState == ParsingState.FUNCTION_CLOSE) {
+                functionClose(context, c);
             }
         }
 
@@ -125,6 +143,12 @@ final class RecoveringPathLexer implements PathLexer {
             context.parsingState = ParsingState.INDEX;
         } else if (c.isType(CharacterType.WILDCARD)) {
             context.parsingState = ParsingState.INDEX;
+        } else if (c.isType(CharacterType.FILTER)) {
+            context.scanner.consume();
+            context.parsingState = ParsingState.FILTER_OPEN;
+        } else if (c.isType(CharacterType.PAREN_OPEN)) {
+            context.scanner.consume();
+            startExpression(context, TokenType.SCRIPT);
         } else {
             emitIllegalCharacter(context, c);
             context.scanner.consume();
@@ -157,12 +181,91 @@ final class RecoveringPathLexer implements PathLexer {
             Token token = new Token(TokenType.DEEP_WILDCARD, c.getPosition());
             context.tokenStream.add(token);
             context.scanner.consume();
+        } else if (!context.value.isEmpty() && c.isType(CharacterType.PAREN_OPEN)) {
+            context.scanner.consume();
+            context.parsingState = ParsingState.FUNCTION_CLOSE;
         } else {
             context.tokenStream.add(createToken(TokenType.CHILD, context));
             context.parsingState = ParsingState.BASE;
         }
     }
 
+    private void functionClose(LexerContext context, PathCharacter c) {
+        if (c.isType(CharacterType.PAREN_CLOSE)) {
+            context.tokenStream.add(createToken(TokenType.FUNCTION, context));
+            context.parsingState = ParsingState.BASE;
+        } else {
+            emitIllegalCharacter(context, c);
+        }
+        context.scanner.consume();
+    }
+
+    private void expression(LexerContext context, PathCharacter c) {
+        char value = c.getValue();
+
+        if (c.isType(CharacterType.END)) {
+            context.problems.add(new ExpressionProblem(context.expression, c.getPosition(), "Unterminated expression"));
+        } else if (context.expressionQuote != NO_QUOTE) {
+            if (context.expressionEscape) {
+                context.expressionEscape = false;
+            } else if (value == ESCAPE) {
+                context.expressionEscape = true;
+            } else if (value == context.expressionQuote) {
+                context.expressionQuote = NO_QUOTE;
+            }
+            context.value.add(c);
+        } else if (c.isType(CharacterType.QUOTE) || c.isType(CharacterType.DOUBLE_QUOTE)
+            || ((value == REGEX_DELIMITER) && isRegexStart(context))) {
+            context.expressionQuote = value;
+            context.value.add(c);
+        } else if (c.isType(CharacterType.PAREN_OPEN)) {
+            context.expressionDepth++;
+            context.value.add(c);
+        } else if (c.isType(CharacterType.PAREN_CLOSE) && (context.expressionDepth > 0)) {
+            context.expressionDepth--;
+            context.value.add(c);
+        } else if (c.isType(CharacterType.PAREN_CLOSE)) {
+            if (context.value.isEmpty()) {
+                context.problems.add(new ExpressionProblem(context.expression, c.getPosition(), "Empty expression"));
+            } else {
+                context.tokenStream.add(createToken(context.expressionType, context));
+            }
+            context.parsingState = ParsingState.ARRAY_CLOSE;
+        } else {
+            context.value.add(c);
+        }
+
+        context.scanner.consume();
+    }
+
+    private boolean isRegexStart(LexerContext context) {
+        for (int i = context.value.size() - 1; i >= 0; i--) {
+            char value = context.value.get(i).getValue();
+            if (!Character.isWhitespace(value)) {
+                return value == REGEX_OPERATOR;
+            }
+        }
+        return false;
+    }
+
+    private void filterOpen(LexerContext context, PathCharacter c) {
+        if (c.isType(CharacterType.PAREN_OPEN)) {
+            startExpression(context, TokenType.FILTER);
+        } else {
+            emitIllegalCharacter(context, c);
+            context.parsingState = ParsingState.ARRAY_CLOSE;
+        }
+        context.scanner.consume();
+    }
+
+    private void startExpression(LexerContext context, TokenType type) {
+        context.expressionDepth = 0;
+        context.expressionEscape = false;
+        context.expressionQuote = NO_QUOTE;
+        context.expressionType = type;
+        context.parsingState = ParsingState.EXPRESSION;
+    }
+
     private void index(LexerContext context, PathCharacter c) {
         if (c.isType(CharacterType.INDEX_CHARACTER)) {
             context.value.add(c);
@@ -222,6 +325,9 @@ final class RecoveringPathLexer implements PathLexer {
         DOT_CHILD, //
         DOUBLE_QUOTE_CHILD, //
         DOUBLE_QUOTE_CLOSE, //
+        EXPRESSION, //
+        FILTER_OPEN, //
+        FUNCTION_CLOSE, //
         INDEX, //
         QUOTE_CHILD, //
         QUOTE_CLOSE
@@ -236,6 +342,14 @@ final class RecoveringPathLexer implements PathLexer {
 
         private final String expression;
 
+        private volatile int expressionDepth = 0;
+
+        private volatile boolean expressionEscape = false;
+
+        private volatile char expressionQuote = NO_QUOTE;
+
+        private volatile TokenType expressionType;
+
         private volatile ParsingState parsingState = ParsingState.BASE;
 
         private final List<ExpressionProblem> problems = new ArrayList<ExpressionProblem>();
@@ -253,8 +367,10 @@ final class RecoveringPathLexer implements PathLexer {
 
         @Override
         public String toString() {
-            return "LexerContext [expression=" + this.expression + ", parsingState=" + this.parsingState + ", problems=" + this.problems
-                + ", scanner=" + this.scanner + ", tokenStream=" + this.tokenStream + ", value=" + this.value + "]";
+            return "LexerContext [expression=" + this.expression + ", expressionDepth=" + this.expressionDepth + ", expressionEscape="
+                + this.expressionEscape + ", expressionQuote=" + this.expressionQuote + ", expressionType=" + this.expressionType + ", parsingState="
+                + this.parsingState + ", problems=" + this.problems + ", scanner=" + this.scanner + ", tokenStream=" + this.tokenStream + ", value="
+                + this.value + "]";
         }
 
     }
@@ -17,14 +17,23 @@
 package com.nebhale.jsonpath.internal.parser;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+import com.nebhale.jsonpath.internal.component.AggregateFunction;
+import com.nebhale.jsonpath.internal.component.AggregatePathComponent;
 import com.nebhale.jsonpath.internal.component.ChildPathComponent;
 import com.nebhale.jsonpath.internal.component.DeepWildcardPathComponent;
+import com.nebhale.jsonpath.internal.component.ExpressionPathComponent;
+import com.nebhale.jsonpath.internal.component.FilterPathComponent;
 import com.nebhale.jsonpath.internal.component.IndexPathComponent;
 import com.nebhale.jsonpath.internal.component.PathComponent;
 import com.nebhale.jsonpath.internal.component.RootPathComponent;
 import com.nebhale.jsonpath.internal.component.WildcardPathComponent;
+import com.nebhale.jsonpath.internal.expression.NumericExpression;
+import com.nebhale.jsonpath.internal.expression.Operand;
+import com.nebhale.jsonpath.internal.expression.Predicate;
 import com.nebhale.jsonpath.internal.parser.Token.TokenType;
 
 /**
@@ -32,7 +41,7 @@ import com.nebhale.jsonpath.internal.parser.Token.TokenType;
  * <p />
  *
  * <pre>
- * JSON_PATH:   ROOT ( CHILD | INDEX )*
+ * JSON_PATH:   ROOT ( CHILD | INDEX | FILTER | SCRIPT )* FUNCTION?
  * </pre>
  *
  * <strong>Concurrent Semantics</strong><br />
@@ -43,6 +52,28 @@ import com.nebhale.jsonpath.internal.parser.Token.TokenType;
  */
 public final class RecoveringPathParser implements PathParser {
 
+    private final ExpressionParser expressionParser;
+
+    private final boolean linearTimeRegex;
+
+    /**
+     * Creates a new instance that accepts any regular expression in filter expressions
+     */
+    public RecoveringPathParser() {
+        this(false);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param linearTimeRegex Whether regular expressions in filter expressions must be evaluated in time linear in the
+     *        length of their input
+     */
+    public RecoveringPathParser(boolean linearTimeRegex) {
+        this.expressionParser = new ExpressionParser(linearTimeRegex);
+        this.linearTimeRegex = linearTimeRegex;
+    }
+
     @Override
     public ParserResult parse(String expression) {
         LexerResult lexerResult = new RecoveringPathLexer().lex(expression);
@@ -88,6 +119,16 @@ public final class RecoveringPathParser implements PathParser {
                 pathComponent = new DeepWildcardPathComponent(createPathComponent(expression, tokenStream, problems));
             } else if (token.getType() == TokenType.INDEX) {
                 pathComponent = new IndexPathComponent(createPathComponent(expression, tokenStream, problems), token.getValue());
+            } else if (token.getType() == TokenType.FILTER) {
+                PathComponent delegate = createPathComponent(expression, tokenStream, problems);
+                Set<String> fields = new LinkedHashSet<String>();
+                Predicate predicate = this.expressionParser.parsePredicate(expression, token, fields, problems);
+                pathComponent = new FilterPathComponent(delegate, predicate, fields.contains(null) ? null : fields.toArray(new String[fields.size()]));
+            } else if (token.getType() == TokenType.SCRIPT) {
+                PathComponent delegate = createPathComponent(expression, tokenStream, problems);
+                pathComponent = createExpressionPathComponent(delegate, this.expressionParser.parseScript(expression, token, problems));
+            } else if (token.getType() == TokenType.FUNCTION) {
+                pathComponent = createAggregatePathComponent(expression, token, tokenStream, problems);
             } else if (token.getType() == TokenType.WILDCARD) {
                 pathComponent = new WildcardPathComponent(createPathComponent(expression, tokenStream, problems));
             } else {
@@ -98,9 +139,29 @@ public final class RecoveringPathParser implements PathParser {
         return pathComponent;
     }
 
+    private PathComponent createAggregatePathComponent(String expression, Token token, TokenStream tokenStream, List<ExpressionProblem> problems) {
+        AggregateFunction function = AggregateFunction.forName(token.getValue());
+        if (function == null) {
+            problems.add(new ExpressionProblem(expression, token.getStartPosition(), token.getEndPosition(), "Unknown function '%s'", token.getValue()));
+        } else if (tokenStream.hasToken()) {
+            problems.add(new ExpressionProblem(expression, token.getStartPosition(), token.getEndPosition(),
+                "Function '%s' must be the last component of an expression", token.getValue()));
+        }
+        return new AggregatePathComponent(createPathComponent(expression, tokenStream, problems), function);
+    }
+
+    private PathComponent createExpressionPathComponent(PathComponent delegate, Object script) {
+        if (script instanceof NumericExpression) {
+            return new ExpressionPathComponent(delegate, (NumericExpression) script);
+        } else if (script instanceof Operand) {
+            return new ExpressionPathComponent(delegate, (Operand) script);
+        }
+        return null;
+    }
+
     @Override
     public String toString() {
-        return "RecoveringPathParser []";
+        return "RecoveringPathParser [linearTimeRegex=" + this.linearTimeRegex + "]";
     }
 
 }
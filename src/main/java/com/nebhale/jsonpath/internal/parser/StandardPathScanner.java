@@ -40,7 +40,10 @@ import com.nebhale.jsonpath.internal.util.Sets;
  * COMMA:           ,
  * DOT:             .
  * DOUBLE_QUOTE:    "
+ * FILTER:          ?
  * HYPHEN:          -
+ * PAREN_CLOSE:     )
+ * PAREN_OPEN:      (
  * QUOTE:           '
  * ROOT:            $
  * SPACE:          ' '
@@ -64,8 +67,14 @@ final class StandardPathScanner implements PathScanner {
 
     private static final char DOUBLE_QUOTE = '"';
 
+    private static final char FILTER = '?';
+
     private static final char HYPHEN = '-';
 
+    private static final char PAREN_CLOSE = ')';
+
+    private static final char PAREN_OPEN = '(';
+
     private static final char QUOTE = '\'';
 
     private static final char ROOT = '$';
@@ -97,10 +106,16 @@ final class StandardPathScanner implements PathScanner {
                 characterTypes.add(CharacterType.DOT);
             } else if (c == DOUBLE_QUOTE) {
                 characterTypes.add(CharacterType.DOUBLE_QUOTE);
+            } else if (c == FILTER) {
+                characterTypes.add(CharacterType.FILTER);
             } else if (c == HYPHEN) {
                 characterTypes.add(CharacterType.HYPHEN);
             } else if (Character.isLetter(c)) {
                 characterTypes.add(CharacterType.LETTER);
+            } else if (c == PAREN_CLOSE) {
+                characterTypes.add(CharacterType.PAREN_CLOSE);
+            } else if (c == PAREN_OPEN) {
+                characterTypes.add(CharacterType.PAREN_OPEN);
             } else if (c == QUOTE) {
                 characterTypes.add(CharacterType.QUOTE);
             } else if (c == ROOT) {
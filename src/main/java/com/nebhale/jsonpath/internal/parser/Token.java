@@ -57,8 +57,11 @@ final class Token {
 
         CHILD, //
         DEEP_WILDCARD, //
+        FILTER, //
+        FUNCTION, //
         INDEX, //
         ROOT, //
+        SCRIPT, //
         WILDCARD
 
     }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.regex;
+
+import java.util.Arrays;
+
+/**
+ * A set of code points that a single step of a regular expression can match. Case-insensitive sets follow the
+ * semantics of {@link java.util.regex.Pattern#CASE_INSENSITIVE}, folding only the case of US-ASCII characters.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+final class CharSet {
+
+    static final int[] DIGIT = { '0', '9' };
+
+    static final int[] SPACE = { '\t', '\r', ' ', ' ' };
+
+    static final int[] WORD = { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' };
+
+    private static final int[] LINE_TERMINATORS = { '\n', '\n', '\r', '\r', '\u0085', '\u0085', '\u2028', '\u2029' };
+
+    private final int[] ranges;
+
+    private final boolean negated;
+
+    private final boolean caseInsensitive;
+
+    /**
+     * Creates a new instance
+     *
+     * @param ranges The inclusive ranges of code points in the set, as pairs of lower and upper bounds
+     * @param negated Whether the set matches the code points that are not in the ranges
+     * @param caseInsensitive Whether the ranges are matched without regard to the case of US-ASCII characters
+     */
+    CharSet(int[] ranges, boolean negated, boolean caseInsensitive) {
+        this.ranges = ranges;
+        this.negated = negated;
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * Creates a set that matches any code point, other than line terminators if {@code dotAll} is {@code false}
+     *
+     * @param dotAll Whether line terminators are matched
+     *
+     * @return The set
+     */
+    static CharSet dot(boolean dotAll) {
+        return dotAll ? new CharSet(new int[] { 0, Character.MAX_CODE_POINT }, false, false) : new CharSet(LINE_TERMINATORS, true, false);
+    }
+
+    /**
+     * Returns the complement of sorted, non-overlapping ranges
+     *
+     * @param ranges The ranges to complement
+     *
+     * @return The complement of the ranges
+     */
+    static int[] complement(int[] ranges) {
+        int[] result = new int[ranges.length + 2];
+        int size = 0;
+        int next = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                result[size++] = next;
+                result[size++] = ranges[i] - 1;
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= Character.MAX_CODE_POINT) {
+            result[size++] = next;
+            result[size++] = Character.MAX_CODE_POINT;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Returns whether a code point is matched by this set
+     *
+     * @param codePoint The code point to test
+     *
+     * @return {@code true} if the code point is matched, otherwise {@code false}
+     */
+    boolean matches(int codePoint) {
+        boolean contained = contains(codePoint);
+        if (!contained && this.caseInsensitive && (codePoint < 0x80)) {
+            contained = contains(toLowerCase(codePoint)) || contains(toUpperCase(codePoint));
+        }
+        return contained != this.negated;
+    }
+
+    /**
+     * Returns the only code point matched by this set
+     *
+     * @return The only code point matched by this set or {@code -1} if the set matches more than one code point
+     */
+    int getSingle() {
+        if (!this.negated && !this.caseInsensitive && (this.ranges.length == 2) && (this.ranges[0] == this.ranges[1])) {
+            return this.ranges[0];
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "CharSet [ranges=" + Arrays.toString(this.ranges) + ", negated=" + this.negated + ", caseInsensitive=" + this.caseInsensitive + "]";
+    }
+
+    private boolean contains(int codePoint) {
+        for (int i = 0; i < this.ranges.length; i += 2) {
+            if ((codePoint >= this.ranges[i]) && (codePoint <= this.ranges[i + 1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int toLowerCase(int codePoint) {
+        return (codePoint >= 'A') && (codePoint <= 'Z') ? codePoint + ('a' - 'A') : codePoint;
+    }
+
+    private static int toUpperCase(int codePoint) {
+        return (codePoint >= 'a') && (codePoint <= 'z') ? codePoint - ('a' - 'A') : codePoint;
+    }
+
+}
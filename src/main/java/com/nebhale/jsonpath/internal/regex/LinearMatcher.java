@@ -0,0 +1,332 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.regex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import com.nebhale.jsonpath.internal.regex.RegexNode.Alternation;
+import com.nebhale.jsonpath.internal.regex.RegexNode.Anchor;
+import com.nebhale.jsonpath.internal.regex.RegexNode.Chars;
+import com.nebhale.jsonpath.internal.regex.RegexNode.Concatenation;
+import com.nebhale.jsonpath.internal.regex.RegexNode.Repetition;
+
+/**
+ * A matcher that compiles a regular expression into a non-deterministic automaton and simulates all of its states in
+ * lock-step over the input. Each code point of the input is examined once for each state of the automaton, so the time
+ * taken to match is linear in the length of the input regardless of the regular expression.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+final class LinearMatcher {
+
+    static final int MAX_INSTRUCTIONS = 10000;
+
+    private static final int CHAR = 0;
+
+    private static final int SPLIT = 1;
+
+    private static final int JUMP = 2;
+
+    private static final int BEGIN = 3;
+
+    private static final int BEGIN_LINE = 4;
+
+    private static final int END = 5;
+
+    private static final int END_LINE = 6;
+
+    private static final int MATCH = 7;
+
+    private final boolean anchored;
+
+    private final int[] operations;
+
+    private final int[] targets;
+
+    private final int[] alternates;
+
+    private final CharSet[] charSets;
+
+    /**
+     * Creates a new instance
+     *
+     * @param pattern The regular expression, used when reporting problems
+     * @param node The syntax tree of the regular expression
+     *
+     * @throws PatternSyntaxException if the regular expression compiles to more than {@link #MAX_INSTRUCTIONS}
+     *         instructions
+     */
+    LinearMatcher(String pattern, RegexNode node) {
+        Compiler compiler = new Compiler(pattern);
+        compiler.compile(node);
+        compiler.emit(MATCH, null);
+
+        this.anchored = isAnchored(node);
+        this.operations = Arrays.copyOf(compiler.operations, compiler.size);
+        this.targets = Arrays.copyOf(compiler.targets, compiler.size);
+        this.alternates = Arrays.copyOf(compiler.alternates, compiler.size);
+        this.charSets = Arrays.copyOf(compiler.charSets, compiler.size);
+    }
+
+    /**
+     * Returns whether the regular expression matches anywhere in the input
+     *
+     * @param input The input to search
+     *
+     * @return {@code true} if the regular expression matches, otherwise {@code false}
+     */
+    boolean find(String input) {
+        StateSet current = new StateSet(this.operations.length);
+        StateSet next = new StateSet(this.operations.length);
+        int[] stack = new int[this.operations.length];
+
+        int position = 0;
+        while (true) {
+            if (((position == 0) || !this.anchored) && add(current, stack, 0, input, position)) {
+                return true;
+            } else if ((position >= input.length()) || (this.anchored && (current.size == 0))) {
+                return false;
+            }
+
+            int codePoint = input.codePointAt(position);
+            position += Character.charCount(codePoint);
+
+            next.size = 0;
+            for (int i = 0; i < current.size; i++) {
+                int state = current.dense[i];
+                if ((this.operations[state] == CHAR) && this.charSets[state].matches(codePoint) && add(next, stack, state + 1, input, position)) {
+                    return true;
+                }
+            }
+
+            StateSet swap = current;
+            current = next;
+            next = swap;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LinearMatcher [anchored=" + this.anchored + ", instructions=" + this.operations.length + "]";
+    }
+
+    private boolean add(StateSet states, int[] stack, int initial, String input, int position) {
+        if (!states.add(initial)) {
+            return false;
+        }
+
+        int top = 0;
+        stack[top++] = initial;
+        while (top > 0) {
+            int state = stack[--top];
+            int operation = this.operations[state];
+
+            if (operation == MATCH) {
+                return true;
+            } else if (operation == JUMP) {
+                top = push(states, stack, top, this.targets[state]);
+            } else if (operation == SPLIT) {
+                top = push(states, stack, top, this.alternates[state]);
+                top = push(states, stack, top, this.targets[state]);
+            } else if ((operation != CHAR) && isAnchorMatch(operation, input, position)) {
+                top = push(states, stack, top, state + 1);
+            }
+        }
+
+        return false;
+    }
+
+    private static int push(StateSet states, int[] stack, int top, int state) {
+        if (states.add(state)) {
+            stack[top++] = state;
+        }
+        return top;
+    }
+
+    private static boolean isAnchorMatch(int operation, String input, int position) {
+        int length = input.length();
+
+        if (operation == BEGIN) {
+            return position == 0;
+        } else if (operation == BEGIN_LINE) {
+            if (position == length) {
+                return false;
+            }
+            return (position == 0) || (isLineTerminator(input.charAt(position - 1)) && !isCrLf(input, position - 1));
+        } else if ((operation == END) && (position < (length - 2))) {
+            return false;
+        } else if ((operation == END) && (position == (length - 2))) {
+            return isCrLf(input, position);
+        } else if (position < length) {
+            return isLineTerminator(input.charAt(position)) && ((position == 0) || !isCrLf(input, position - 1));
+        }
+        return true;
+    }
+
+    private static boolean isCrLf(String input, int position) {
+        return (input.charAt(position) == '\r') && ((position + 1) < input.length()) && (input.charAt(position + 1) == '\n');
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return (c == '\n') || (c == '\r') || (c == '\u0085') || ((c | 1) == '\u2029');
+    }
+
+    private static boolean isAnchored(RegexNode node) {
+        if (node instanceof Concatenation) {
+            List<RegexNode> nodes = ((Concatenation) node).getNodes();
+            return !nodes.isEmpty() && isAnchored(nodes.get(0));
+        }
+        return (node instanceof Anchor) && ((Anchor) node).isBegin() && !((Anchor) node).isMultiline();
+    }
+
+    private static final class Compiler {
+
+        private final String pattern;
+
+        private volatile int[] operations = new int[16];
+
+        private volatile int[] targets = new int[16];
+
+        private volatile int[] alternates = new int[16];
+
+        private volatile CharSet[] charSets = new CharSet[16];
+
+        private volatile int size = 0;
+
+        private Compiler(String pattern) {
+            this.pattern = pattern;
+        }
+
+        private void compile(RegexNode node) {
+            if (node instanceof Chars) {
+                emit(CHAR, ((Chars) node).getCharSet());
+            } else if (node instanceof Concatenation) {
+                for (RegexNode child : ((Concatenation) node).getNodes()) {
+                    compile(child);
+                }
+            } else if (node instanceof Alternation) {
+                compileAlternation(((Alternation) node).getNodes());
+            } else if (node instanceof Repetition) {
+                compileRepetition((Repetition) node);
+            } else {
+                Anchor anchor = (Anchor) node;
+                if (anchor.isBegin()) {
+                    emit(anchor.isMultiline() ? BEGIN_LINE : BEGIN, null);
+                } else {
+                    emit(anchor.isMultiline() ? END_LINE : END, null);
+                }
+            }
+        }
+
+        private void compileAlternation(List<RegexNode> nodes) {
+            int[] jumps = new int[nodes.size() - 1];
+            for (int i = 0; i < jumps.length; i++) {
+                int split = emit(SPLIT, null);
+                this.targets[split] = this.size;
+                compile(nodes.get(i));
+                jumps[i] = emit(JUMP, null);
+                this.alternates[split] = this.size;
+            }
+            compile(nodes.get(jumps.length));
+
+            for (int jump : jumps) {
+                this.targets[jump] = this.size;
+            }
+        }
+
+        private void compileRepetition(Repetition repetition) {
+            for (int i = 0; i < repetition.getMin(); i++) {
+                compile(repetition.getNode());
+            }
+
+            if (repetition.getMax() == Repetition.UNBOUNDED) {
+                int split = emit(SPLIT, null);
+                this.targets[split] = this.size;
+                compile(repetition.getNode());
+                this.targets[emit(JUMP, null)] = split;
+                this.alternates[split] = this.size;
+            } else {
+                int[] splits = new int[repetition.getMax() - repetition.getMin()];
+                for (int i = 0; i < splits.length; i++) {
+                    splits[i] = emit(SPLIT, null);
+                    this.targets[splits[i]] = this.size;
+                    compile(repetition.getNode());
+                }
+                for (int split : splits) {
+                    this.alternates[split] = this.size;
+                }
+            }
+        }
+
+        private int emit(int operation, CharSet charSet) {
+            if (this.size >= MAX_INSTRUCTIONS) {
+                throw new PatternSyntaxException("Regular expression is too large to be matched in linear time", this.pattern, -1);
+            } else if (this.size == this.operations.length) {
+                this.operations = Arrays.copyOf(this.operations, this.size * 2);
+                this.targets = Arrays.copyOf(this.targets, this.size * 2);
+                this.alternates = Arrays.copyOf(this.alternates, this.size * 2);
+                this.charSets = Arrays.copyOf(this.charSets, this.size * 2);
+            }
+
+            this.operations[this.size] = operation;
+            this.charSets[this.size] = charSet;
+            return this.size++;
+        }
+
+        @Override
+        public String toString() {
+            return "Compiler [pattern=" + this.pattern + ", size=" + this.size + "]";
+        }
+
+    }
+
+    private static final class StateSet {
+
+        private final int[] dense;
+
+        private final int[] sparse;
+
+        private volatile int size = 0;
+
+        private StateSet(int capacity) {
+            this.dense = new int[capacity];
+            this.sparse = new int[capacity];
+        }
+
+        private boolean add(int state) {
+            int index = this.sparse[state];
+            if ((index < this.size) && (this.dense[index] == state)) {
+                return false;
+            }
+            this.sparse[state] = this.size;
+            this.dense[this.size++] = state;
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "StateSet [size=" + this.size + "]";
+        }
+
+    }
+
+}
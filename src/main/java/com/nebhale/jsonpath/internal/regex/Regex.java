@@ -0,0 +1,193 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.regex;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.nebhale.jsonpath.internal.regex.RegexNode.Anchor;
+import com.nebhale.jsonpath.internal.regex.RegexNode.Chars;
+import com.nebhale.jsonpath.internal.regex.RegexNode.Concatenation;
+
+/**
+ * A compiled regular expression, as used by the {@code =~} operator in filter expressions. The regular expression is
+ * compiled once and then used to search any number of inputs.
+ * <p />
+ * Before the regular expression is evaluated, the input is checked for the literal text that any match must contain.
+ * When the regular expression begins with {@code ^} followed by literal text, the input must start with that text.
+ * Otherwise the input must contain the longest run of literal text in the regular expression. Inputs that fail this
+ * check are rejected without evaluating the regular expression.
+ * <p />
+ * By default, the regular expression is evaluated by {@link Pattern}, which supports its full syntax but may take time
+ * exponential in the length of the input for some regular expressions. In linear-time mode, the regular expression is
+ * instead evaluated by an automaton that takes time linear in the length of the input. Only the syntax that such an
+ * automaton can evaluate is accepted in linear-time mode.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class Regex {
+
+    private final String source;
+
+    private final String flags;
+
+    private final Pattern pattern;
+
+    private final LinearMatcher linearMatcher;
+
+    private final String prefix;
+
+    private final String literal;
+
+    private Regex(String source, String flags, Pattern pattern, LinearMatcher linearMatcher, String prefix, String literal) {
+        this.source = source;
+        this.flags = flags;
+        this.pattern = pattern;
+        this.linearMatcher = linearMatcher;
+        this.prefix = prefix;
+        this.literal = literal;
+    }
+
+    /**
+     * Compiles a regular expression
+     *
+     * @param source The regular expression, in the syntax of {@link Pattern}
+     * @param flags The flags to compile the regular expression with. Each flag is one of {@code i} for case-insensitive
+     *        matching, {@code m} for multiline mode and {@code s} for dotall mode.
+     * @param linearTime Whether the regular expression must be evaluated in time linear in the length of the input
+     *
+     * @return The compiled regular expression
+     *
+     * @throws PatternSyntaxException if the regular expression or its flags are illegal, or if {@code linearTime} is
+     *         {@code true} and the regular expression cannot be evaluated in linear time
+     */
+    public static Regex compile(String source, String flags, boolean linearTime) {
+        int patternFlags = getPatternFlags(source, flags);
+
+        RegexNode node = null;
+        if (linearTime) {
+            node = new RegexParser(source, patternFlags).parse();
+        } else {
+            try {
+                node = new RegexParser(source, patternFlags).parse();
+            } catch (PatternSyntaxException e) {
+                // Syntax that cannot be evaluated in linear time is only used for pattern matching
+            }
+        }
+
+        Pattern pattern = linearTime ? null : Pattern.compile(source, patternFlags);
+        LinearMatcher linearMatcher = linearTime ? new LinearMatcher(source, node) : null;
+        List<RegexNode> nodes = getNodes(node);
+        String prefix = getPrefix(nodes);
+        String literal = getLongestLiteral(nodes);
+
+        return new Regex(source, flags, pattern, linearMatcher, prefix, prefix == null || !prefix.equals(literal) ? literal : null);
+    }
+
+    /**
+     * Returns whether the regular expression matches anywhere in the input
+     *
+     * @param input The input to search
+     *
+     * @return {@code true} if the regular expression matches, otherwise {@code false}
+     */
+    public boolean find(String input) {
+        if ((this.prefix != null) && !input.startsWith(this.prefix)) {
+            return false;
+        } else if ((this.literal != null) && !input.contains(this.literal)) {
+            return false;
+        } else if (this.linearMatcher != null) {
+            return this.linearMatcher.find(input);
+        }
+        return this.pattern.matcher(input).find();
+    }
+
+    @Override
+    public String toString() {
+        return "Regex [source=" + this.source + ", flags=" + this.flags + ", prefix=" + this.prefix + ", literal=" + this.literal
+            + ", linearTime=" + (this.linearMatcher != null) + "]";
+    }
+
+    private static int getPatternFlags(String source, String flags) {
+        int patternFlags = 0;
+        for (int i = 0; i < flags.length(); i++) {
+            char flag = flags.charAt(i);
+            if (flag == 'i') {
+                patternFlags |= Pattern.CASE_INSENSITIVE;
+            } else if (flag == 'm') {
+                patternFlags |= Pattern.MULTILINE;
+            } else if (flag == 's') {
+                patternFlags |= Pattern.DOTALL;
+            } else {
+                throw new PatternSyntaxException(String.format("Unknown flag '%c'", flag), source, -1);
+            }
+        }
+        return patternFlags;
+    }
+
+    private static List<RegexNode> getNodes(RegexNode node) {
+        if (node instanceof Concatenation) {
+            return ((Concatenation) node).getNodes();
+        } else if (node != null) {
+            return Collections.singletonList(node);
+        }
+        return Collections.emptyList();
+    }
+
+    private static String getPrefix(List<RegexNode> nodes) {
+        if (nodes.isEmpty() || !(nodes.get(0) instanceof Anchor)) {
+            return null;
+        }
+
+        Anchor anchor = (Anchor) nodes.get(0);
+        if (!anchor.isBegin() || anchor.isMultiline()) {
+            return null;
+        }
+
+        String prefix = getLiteral(nodes, 1);
+        return prefix.length() == 0 ? null : prefix;
+    }
+
+    private static String getLongestLiteral(List<RegexNode> nodes) {
+        String longest = "";
+        for (int i = 0; i < nodes.size(); i++) {
+            String literal = getLiteral(nodes, i);
+            if (literal.length() > longest.length()) {
+                longest = literal;
+            }
+        }
+        return longest.length() == 0 ? null : longest;
+    }
+
+    private static String getLiteral(List<RegexNode> nodes, int start) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = start; i < nodes.size(); i++) {
+            int codePoint = nodes.get(i) instanceof Chars ? ((Chars) nodes.get(i)).getCharSet().getSingle() : -1;
+            if (codePoint < 0) {
+                break;
+            }
+            sb.appendCodePoint(codePoint);
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.regex;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A node in the syntax tree of a regular expression
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+abstract class RegexNode {
+
+    /**
+     * A node that matches a single code point
+     */
+    static final class Chars extends RegexNode {
+
+        private final CharSet charSet;
+
+        Chars(CharSet charSet) {
+            this.charSet = charSet;
+        }
+
+        CharSet getCharSet() {
+            return this.charSet;
+        }
+
+        @Override
+        public String toString() {
+            return "Chars [charSet=" + this.charSet + "]";
+        }
+
+    }
+
+    /**
+     * A node that matches a sequence of nodes
+     */
+    static final class Concatenation extends RegexNode {
+
+        private final List<RegexNode> nodes;
+
+        Concatenation(List<RegexNode> nodes) {
+            this.nodes = Collections.unmodifiableList(nodes);
+        }
+
+        List<RegexNode> getNodes() {
+            return this.nodes;
+        }
+
+        @Override
+        public String toString() {
+            return "Concatenation [nodes=" + this.nodes + "]";
+        }
+
+    }
+
+    /**
+     * A node that matches any one of a number of nodes
+     */
+    static final class Alternation extends RegexNode {
+
+        private final List<RegexNode> nodes;
+
+        Alternation(List<RegexNode> nodes) {
+            this.nodes = Collections.unmodifiableList(nodes);
+        }
+
+        List<RegexNode> getNodes() {
+            return this.nodes;
+        }
+
+        @Override
+        public String toString() {
+            return "Alternation [nodes=" + this.nodes + "]";
+        }
+
+    }
+
+    /**
+     * A node that matches another node repeatedly
+     */
+    static final class Repetition extends RegexNode {
+
+        static final int UNBOUNDED = -1;
+
+        private final RegexNode node;
+
+        private final int min;
+
+        private final int max;
+
+        Repetition(RegexNode node, int min, int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+
+        RegexNode getNode() {
+            return this.node;
+        }
+
+        int getMin() {
+            return this.min;
+        }
+
+        int getMax() {
+            return this.max;
+        }
+
+        @Override
+        public String toString() {
+            return "Repetition [node=" + this.node + ", min=" + this.min + ", max=" + this.max + "]";
+        }
+
+    }
+
+    /**
+     * A node that matches the beginning or end of the input or of a line, without consuming any input
+     */
+    static final class Anchor extends RegexNode {
+
+        private final boolean begin;
+
+        private final boolean multiline;
+
+        Anchor(boolean begin, boolean multiline) {
+            this.begin = begin;
+            this.multiline = multiline;
+        }
+
+        boolean isBegin() {
+            return this.begin;
+        }
+
+        boolean isMultiline() {
+            return this.multiline;
+        }
+
+        @Override
+        public String toString() {
+            return "Anchor [begin=" + this.begin + ", multiline=" + this.multiline + "]";
+        }
+
+    }
+
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.regex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.nebhale.jsonpath.internal.regex.RegexNode.Alternation;
+import com.nebhale.jsonpath.internal.regex.RegexNode.Anchor;
+import com.nebhale.jsonpath.internal.regex.RegexNode.Chars;
+import com.nebhale.jsonpath.internal.regex.RegexNode.Concatenation;
+import com.nebhale.jsonpath.internal.regex.RegexNode.Repetition;
+
+/**
+ * A recursive-descent parser for the subset of the {@link Pattern} syntax that can be matched in linear time. Every
+ * construct that is accepted has the same meaning as it does in {@link Pattern}. Constructs that are not accepted,
+ * such as back references, look-around, possessive quantifiers and inline flags, are rejected with a
+ * {@link PatternSyntaxException}. The following syntax is accepted:
+ * <p />
+ *
+ * <pre>
+ * ALTERNATION:     CONCATENATION ( '|' CONCATENATION )*
+ * CONCATENATION:   REPETITION*
+ * REPETITION:      ATOM ( ( '*' | '+' | '?' | '{' n '}' | '{' n ',}' | '{' n ',' m '}' ) '?'? )?
+ * ATOM:            '(' ( '?:' )? ALTERNATION ')' | '[' '^'? CLASS_ITEM+ ']' | '.' | '^' | '$' | ESCAPE | character
+ * CLASS_ITEM:      ( character | ESCAPE ) ( '-' ( character | ESCAPE ) )?
+ * ESCAPE:          '\' ( 't' | 'n' | 'r' | 'f' | 'a' | 'e' | 'x' hh | 'u' hhhh | 'd' | 'D' | 's' | 'S' | 'w' | 'W' | non-alphanumeric )
+ * </pre>
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Not thread-safe
+ */
+final class RegexParser {
+
+    private final String pattern;
+
+    private final boolean caseInsensitive;
+
+    private final boolean dotAll;
+
+    private final boolean multiline;
+
+    private volatile int position = 0;
+
+    /**
+     * Creates a new instance
+     *
+     * @param pattern The regular expression to parse
+     * @param flags The {@link Pattern} flags to parse the regular expression with. Only
+     *        {@link Pattern#CASE_INSENSITIVE}, {@link Pattern#DOTALL} and {@link Pattern#MULTILINE} are supported.
+     */
+    RegexParser(String pattern, int flags) {
+        this.pattern = pattern;
+        this.caseInsensitive = (flags & Pattern.CASE_INSENSITIVE) != 0;
+        this.dotAll = (flags & Pattern.DOTALL) != 0;
+        this.multiline = (flags & Pattern.MULTILINE) != 0;
+    }
+
+    /**
+     * Parses the regular expression
+     *
+     * @return The syntax tree of the regular expression
+     *
+     * @throws PatternSyntaxException if the regular expression is illegal or uses unsupported syntax
+     */
+    RegexNode parse() {
+        RegexNode node = alternation();
+        if (this.position < this.pattern.length()) {
+            throw error("Unmatched closing ')'");
+        }
+        return node;
+    }
+
+    @Override
+    public String toString() {
+        return "RegexParser [pattern=" + this.pattern + ", caseInsensitive=" + this.caseInsensitive + ", dotAll=" + this.dotAll + ", multiline="
+            + this.multiline + ", position=" + this.position + "]";
+    }
+
+    private RegexNode alternation() {
+        List<RegexNode> nodes = new ArrayList<RegexNode>();
+        nodes.add(concatenation());
+        while (consume('|')) {
+            nodes.add(concatenation());
+        }
+        return nodes.size() == 1 ? nodes.get(0) : new Alternation(nodes);
+    }
+
+    private RegexNode concatenation() {
+        List<RegexNode> nodes = new ArrayList<RegexNode>();
+        while ((this.position < this.pattern.length()) && (peek() != '|') && (peek() != ')')) {
+            RegexNode node = repetition();
+            if (node instanceof Concatenation) {
+                nodes.addAll(((Concatenation) node).getNodes());
+            } else {
+                nodes.add(node);
+            }
+        }
+        return nodes.size() == 1 ? nodes.get(0) : new Concatenation(nodes);
+    }
+
+    private RegexNode repetition() {
+        RegexNode node = atom();
+
+        int min;
+        int max;
+        if (consume('*')) {
+            min = 0;
+            max = Repetition.UNBOUNDED;
+        } else if (consume('+')) {
+            min = 1;
+            max = Repetition.UNBOUNDED;
+        } else if (consume('?')) {
+            min = 0;
+            max = 1;
+        } else if (consume('{')) {
+            min = integer();
+            max = min;
+            if (consume(',')) {
+                max = peek() == '}' ? Repetition.UNBOUNDED : integer();
+            }
+            if (!consume('}')) {
+                throw error("Unclosed counted closure");
+            }
+            if ((max != Repetition.UNBOUNDED) && (max < min)) {
+                throw error("Illegal repetition range");
+            }
+        } else {
+            return node;
+        }
+
+        if (peek() == '+') {
+            throw error("Possessive quantifiers are not supported");
+        }
+        consume('?');
+        if (isQuantifier(peek())) {
+            throw error("Dangling meta character '%c'", peek());
+        }
+
+        return new Repetition(node, min, max);
+    }
+
+    private RegexNode atom() {
+        int c = next();
+
+        if (c == '(') {
+            if (consume('?') && !consume(':')) {
+                throw error("Only non-capturing groups are supported");
+            }
+            RegexNode node = alternation();
+            if (!consume(')')) {
+                throw error("Unclosed group");
+            }
+            return node;
+        } else if (c == '[') {
+            return new Chars(charClass());
+        } else if (c == '.') {
+            return new Chars(CharSet.dot(this.dotAll));
+        } else if (c == '^') {
+            return new Anchor(true, this.multiline);
+        } else if (c == '$') {
+            return new Anchor(false, this.multiline);
+        } else if (c == '\\') {
+            return new Chars(new CharSet(escape(), false, this.caseInsensitive));
+        } else if (isQuantifier(c)) {
+            this.position--;
+            throw error("Dangling meta character '%c'", c);
+        }
+
+        return new Chars(new CharSet(new int[] { c, c }, false, this.caseInsensitive));
+    }
+
+    private CharSet charClass() {
+        boolean negated = consume('^');
+        List<Integer> ranges = new ArrayList<Integer>();
+
+        do {
+            int c = next();
+            int[] item;
+            if ((c == ']') && ranges.isEmpty()) {
+                throw error("Empty character classes are not supported");
+            } else if (c == '[') {
+                throw error("Nested character classes are not supported");
+            } else if ((c == '&') && consume('&')) {
+                throw error("Character class intersections are not supported");
+            } else if (c == '\\') {
+                item = escape();
+            } else {
+                item = new int[] { c, c };
+            }
+
+            if ((peek() == '-') && (peekAt(1) != ']')) {
+                this.position++;
+                int upper = next();
+                if (upper == '[') {
+                    throw error("Illegal character range");
+                }
+                item = toRange(item, upper == '\\' ? escape() : single(upper));
+            }
+
+            for (int value : item) {
+                ranges.add(value);
+            }
+        } while (!consume(']'));
+
+        int[] result = new int[ranges.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ranges.get(i);
+        }
+        return new CharSet(result, negated, this.caseInsensitive);
+    }
+
+    private int[] toRange(int[] lower, int[] upper) {
+        if (!isSingle(lower) || !isSingle(upper)) {
+            throw error("Illegal character range");
+        } else if (upper[0] < lower[0]) {
+            throw error("Illegal character range");
+        }
+        return new int[] { lower[0], upper[0] };
+    }
+
+    private int[] escape() {
+        int c = next();
+
+        switch (c) {
+            case 't':
+                return single('\t');
+            case 'n':
+                return single('\n');
+            case 'r':
+                return single('\r');
+            case 'f':
+                return single('\f');
+            case 'a':
+                return single('\u0007');
+            case 'e':
+                return single('\u001B');
+            case 'x':
+                return single(hex(2));
+            case 'u':
+                int value = hex(4);
+                if (Character.isHighSurrogate((char) value) || Character.isLowSurrogate((char) value)) {
+                    throw error("Surrogate escape sequences are not supported");
+                }
+                return single(value);
+            case 'd':
+                return CharSet.DIGIT;
+            case 'D':
+                return CharSet.complement(CharSet.DIGIT);
+            case 's':
+                return CharSet.SPACE;
+            case 'S':
+                return CharSet.complement(CharSet.SPACE);
+            case 'w':
+                return CharSet.WORD;
+            case 'W':
+                return CharSet.complement(CharSet.WORD);
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    this.position--;
+                    throw error("Escape sequence '\\%c' is not supported", c);
+                }
+                return single(c);
+        }
+    }
+
+    private int hex(int length) {
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = Character.digit(next(), 16);
+            if (digit < 0) {
+                throw error("Illegal hexadecimal escape sequence");
+            }
+            value = (value * 16) + digit;
+        }
+        return value;
+    }
+
+    private int integer() {
+        int start = this.position;
+        long value = 0;
+        while (Character.isDigit(peek())) {
+            value = (value * 10) + Character.digit(next(), 10);
+            if (value > Integer.MAX_VALUE) {
+                throw error("Illegal repetition");
+            }
+        }
+        if (this.position == start) {
+            throw error("Illegal repetition");
+        }
+        return (int) value;
+    }
+
+    private int next() {
+        if (this.position >= this.pattern.length()) {
+            throw error("Unexpected end of regular expression");
+        }
+        int c = this.pattern.codePointAt(this.position);
+        this.position += Character.charCount(c);
+        return c;
+    }
+
+    private int peek() {
+        return peekAt(0);
+    }
+
+    private int peekAt(int offset) {
+        int index = this.position + offset;
+        return index < this.pattern.length() ? this.pattern.charAt(index) : -1;
+    }
+
+    private boolean consume(char c) {
+        if (peek() == c) {
+            this.position++;
+            return true;
+        }
+        return false;
+    }
+
+    private PatternSyntaxException error(String messageFormat, Object... args) {
+        return new PatternSyntaxException(String.format(messageFormat, args), this.pattern, this.position);
+    }
+
+    private static boolean isQuantifier(int c) {
+        return (c == '*') || (c == '+') || (c == '?') || (c == '{');
+    }
+
+    private static boolean isSingle(int[] ranges) {
+        return (ranges.length == 2) && (ranges[0] == ranges[1]);
+    }
+
+    private static int[] single(int c) {
+        return new int[] { c, c };
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Finds the boundaries between the elements of a top-level JSON array in a UTF-8 payload, so that the elements can be
+ * evaluated in parallel.
+ * <p />
+ * The payload is divided into chunks that are scanned in parallel. A chunk is scanned on the speculation that it
+ * does not start inside a string, recording the changes in nesting depth and the first comma at each depth. Once all
+ * chunks have been scanned, the state at the start of each chunk is known from the chunk before it. A chunk whose
+ * speculation was wrong is scanned again from its true state, so the boundaries found are always correct. The
+ * boundaries are commas at a nesting depth of one, outside any string, and at most one is found in each chunk after the
+ * first.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class ArraySplitter {
+
+    private static final int OUTSIDE_STRING = 0;
+
+    private static final int INSIDE_STRING = 1;
+
+    private static final int AFTER_ESCAPE = 2;
+
+    private ArraySplitter() {
+    }
+
+    /**
+     * Finds the offsets of commas that separate the elements of a top-level JSON array
+     *
+     * @param json The UTF-8 payload
+     * @param chunks The number of chunks to divide the payload into
+     * @param executor The {@link ExecutorService} to scan the chunks on
+     * @return The offsets of the commas in ascending order, or {@code null} if the payload is not an array or its
+     *         brackets and strings are not balanced
+     * @throws InterruptedException if the thread is interrupted while waiting for the chunks to be scanned
+     */
+    public static int[] split(byte[] json, int chunks, ExecutorService executor) throws InterruptedException {
+        int start = 0;
+        while ((start < json.length) && isWhitespace(json[start])) {
+            start++;
+        }
+        if ((start == json.length) || (json[start] != '[')) {
+            return null;
+        }
+
+        int chunkSize = Math.max(1, ((json.length - start) + chunks - 1) / chunks);
+        List<Future<Scan>> futures = new ArrayList<Future<Scan>>();
+        for (int from = start; from < json.length; from += chunkSize) {
+            futures.add(executor.submit(new Scan(json, from, Math.min(json.length, from + chunkSize), OUTSIDE_STRING)));
+        }
+
+        int[] commas = new int[futures.size()];
+        int count = 0;
+        int depth = 0;
+        int state = OUTSIDE_STRING;
+
+        for (int i = 0; i < futures.size(); i++) {
+            Scan scan = get(futures.get(i));
+            if (scan.startState != state) {
+                scan = new Scan(json, scan.from, scan.to, state).call();
+            }
+
+            if ((i > 0) && (depth > 0)) {
+                int comma = scan.getFirstComma(1 - depth);
+                if (comma != -1) {
+                    commas[count++] = comma;
+                }
+            }
+
+            depth += scan.depthChange;
+            state = scan.endState;
+        }
+
+        return (depth == 0) && (state == OUTSIDE_STRING) ? Arrays.copyOf(commas, count) : null;
+    }
+
+    private static Scan get(Future<Scan> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return (b == ' ') || (b == '\t') || (b == '\n') || (b == '\r');
+    }
+
+    private static final class Scan implements Callable<Scan> {
+
+        private final byte[] json;
+
+        private final int from;
+
+        private final int to;
+
+        private final int startState;
+
+        private volatile int endState;
+
+        private volatile int depthChange;
+
+        private volatile int[] firstCommas = new int[0];
+
+        private Scan(byte[] json, int from, int to, int startState) {
+            this.json = json;
+            this.from = from;
+            this.to = to;
+            this.startState = startState;
+        }
+
+        @Override
+        public Scan call() {
+            int state = this.startState;
+            int depth = 0;
+
+            for (int i = this.from; i < this.to; i++) {
+                byte b = this.json[i];
+
+                if (state == AFTER_ESCAPE) {
+                    state = INSIDE_STRING;
+                } else if (state == INSIDE_STRING) {
+                    if (b == '\\') {
+                        state = AFTER_ESCAPE;
+                    } else if (b == '"') {
+                        state = OUTSIDE_STRING;
+                    }
+                } else if (b == '"') {
+                    state = INSIDE_STRING;
+                } else if ((b == '[') || (b == '{')) {
+                    depth++;
+                } else if ((b == ']') || (b == '}')) {
+                    depth--;
+                } else if ((b == ',') && (depth <= 0)) {
+                    recordComma(-depth, i);
+                }
+            }
+
+            this.endState = state;
+            this.depthChange = depth;
+            return this;
+        }
+
+        private int getFirstComma(int depth) {
+            return (depth <= 0) && (-depth < this.firstCommas.length) ? this.firstCommas[-depth] : -1;
+        }
+
+        private void recordComma(int level, int offset) {
+            if (level >= this.firstCommas.length) {
+                int length = this.firstCommas.length;
+                this.firstCommas = Arrays.copyOf(this.firstCommas, level + 1);
+                Arrays.fill(this.firstCommas, length, level + 1, -1);
+            }
+
+            if (this.firstCommas[level] == -1) {
+                this.firstCommas[level] = offset;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Utilities for dealing with {@link InputStream}s
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class InputStreams {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private InputStreams() {
+    }
+
+    /**
+     * Returns whether a payload starts with the magic bytes of a gzip or zlib stream. The first byte of a JSON payload
+     * is never the first byte of a gzip stream and is only the first byte of a zlib stream if it is the digit
+     * {@code 8}, which is not treated as compressed.
+     *
+     * @param bytes The payload
+     * @return {@code true} if the payload is compressed, otherwise {@code false}
+     */
+    public static boolean isCompressed(byte[] bytes) {
+        return (bytes.length >= 2) && (isGzip(bytes[0], bytes[1]) || isZlib(bytes[0], bytes[1]));
+    }
+
+    /**
+     * Returns a stream of the decompressed content of a gzip or zlib stream, or a stream of the original content if it
+     * is not compressed. The content is decompressed as it is read, so it is never held in memory in full. Closing the
+     * returned stream closes {@code in}.
+     *
+     * @param in The stream to read from
+     * @return A stream of the decompressed content
+     * @throws IOException if the first bytes of the stream cannot be read
+     */
+    public static InputStream decompressing(InputStream in) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        byte[] magic = new byte[2];
+
+        int length = 0;
+        int read = 0;
+        while ((length < magic.length) && (read != -1)) {
+            read = pushback.read(magic, length, magic.length - length);
+            if (read > 0) {
+                length += read;
+            }
+        }
+        pushback.unread(magic, 0, length);
+
+        if ((length == 2) && isGzip(magic[0], magic[1])) {
+            return new GZIPInputStream(pushback, BUFFER_SIZE);
+        } else if ((length == 2) && isZlib(magic[0], magic[1])) {
+            return new ZlibInputStream(pushback);
+        }
+
+        return pushback;
+    }
+
+    private static boolean isGzip(byte b0, byte b1) {
+        return ((b0 & 0xFF) == 0x1F) && ((b1 & 0xFF) == 0x8B);
+    }
+
+    private static boolean isZlib(byte b0, byte b1) {
+        int header = ((b0 & 0xFF) << 8) | (b1 & 0xFF);
+        return ((b0 & 0x0F) == 8) && ((b0 & 0xF0) <= 0x70) && (b0 != '8') && ((header % 31) == 0);
+    }
+
+    private static final class ZlibInputStream extends InflaterInputStream {
+
+        private ZlibInputStream(InputStream in) {
+            super(in, new Inflater(), BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                this.inf.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+
+/**
+ * A pool of {@link JsonFactory}s that each recycle parser buffers through a {@link BufferRecycler} of their own rather
+ * than the per-thread recycler that Jackson shares between factories. A factory is taken from the pool for the
+ * duration of a read and returned once its parser has been closed, so it is only ever used by one read at a time and
+ * the buffers it recycles are reused by whichever thread takes it next. At most {@code capacity} idle factories are
+ * kept, and more are created when the pool is empty.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ *
+ * Thread-safe
+ */
+public final class JsonFactoryPool {
+
+    private final ObjectCodec codec;
+
+    private final int capacity;
+
+    private final Queue<JsonFactory> idle = new ConcurrentLinkedQueue<JsonFactory>();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * Creates a new instance
+     *
+     * @param codec The {@link ObjectCodec} that the parsers of the pooled factories read trees and values with
+     * @param capacity The maximum number of idle factories to keep
+     */
+    public JsonFactoryPool(ObjectCodec codec, int capacity) {
+        this.codec = codec;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Takes a factory from the pool, creating one if the pool is empty. The factory must be returned with
+     * {@link #release(JsonFactory)} once every parser created by it has been closed.
+     *
+     * @return a factory that is not in use by any other read
+     */
+    public JsonFactory acquire() {
+        JsonFactory factory = this.idle.poll();
+        if (factory == null) {
+            return new RecyclingJsonFactory(this.codec);
+        }
+
+        this.idleCount.decrementAndGet();
+        return factory;
+    }
+
+    /**
+     * Returns a factory to the pool. The factory is discarded if the pool already holds {@code capacity} idle factories.
+     *
+     * @param factory The factory to return
+     */
+    public void release(JsonFactory factory) {
+        if (this.idleCount.incrementAndGet() <= this.capacity) {
+            this.idle.offer(factory);
+        } else {
+            this.idleCount.decrementAndGet();
+        }
+    }
+
+    int getIdleCount() {
+        return this.idleCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "JsonFactoryPool [capacity=" + this.capacity + ", idle=" + this.idleCount + "]";
+    }
+
+    private static final class RecyclingJsonFactory extends JsonFactory {
+
+        private static final long serialVersionUID = -4061562785307329587L;
+
+        private final transient BufferRecycler bufferRecycler = new BufferRecycler();
+
+        private RecyclingJsonFactory(ObjectCodec codec) {
+            super(codec);
+        }
+
+        @Override
+        public BufferRecycler _getBufferRecycler() {
+            return this.bufferRecycler;
+        }
+    }
+
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import static com.nebhale.jsonpath.testutils.JsonUtils.BYTES_VALID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+public final class AsyncEvaluationTest {
+
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+    private final DeferredExecutor deferredExecutor = new DeferredExecutor();
+
+    private final RecordingMatchListener listener = new RecordingMatchListener();
+
+    @After
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
+
+    @Test
+    public void chunks() {
+        AsyncEvaluation evaluation = JsonPath.compile("$..book[*].title").evaluateAsync(this.deferredExecutor, this.listener);
+        for (int i = 0; i < BYTES_VALID.length; i += 7) {
+            evaluation.feed(ByteBuffer.wrap(BYTES_VALID, i, Math.min(7, BYTES_VALID.length - i)));
+        }
+        evaluation.end();
+
+        assertEquals(BYTES_VALID.length, evaluation.getBufferedBytes());
+        this.deferredExecutor.run();
+
+        assertEquals(Arrays.asList("Sayings of the Century", "Sword of Honour", "Moby Dick", "The Lord of the Rings"), this.listener.getTexts());
+        assertTrue(this.listener.completed);
+        assertNull(this.listener.exception);
+        assertEquals(0, evaluation.getBufferedBytes());
+        assertTrue(evaluation.isDone());
+    }
+
+    @Test
+    public void incremental() throws InterruptedException, UnsupportedEncodingException {
+        AsyncEvaluation evaluation = JsonPath.compile("$[*].a").evaluateAsync(this.executorService, this.listener);
+
+        evaluation.feed(utf8("[{\"a\":\"alpha\"},"));
+        assertTrue(this.listener.firstMatch.await(10, TimeUnit.SECONDS));
+        assertFalse(evaluation.isDone());
+
+        evaluation.feed(utf8("{\"a\":\"bravo\"}]"));
+        evaluation.end();
+
+        assertTrue(this.listener.finished.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("alpha", "bravo"), this.listener.getTexts());
+        assertTrue(this.listener.completed);
+    }
+
+    @Test
+    public void invalid() throws UnsupportedEncodingException {
+        AsyncEvaluation evaluation = JsonPath.compile("$[*]").evaluateAsync(this.deferredExecutor, this.listener);
+        evaluation.feed(utf8("[1,}"));
+        evaluation.end();
+        this.deferredExecutor.run();
+
+        assertEquals(Arrays.asList(JsonNodeFactory.instance.numberNode(1)), this.listener.values);
+        assertFalse(this.listener.completed);
+        assertTrue(this.listener.exception instanceof InvalidJsonException);
+    }
+
+    @Test
+    public void listenerFailure() throws UnsupportedEncodingException {
+        final IllegalStateException failure = new IllegalStateException();
+        RecordingMatchListener failingListener = new RecordingMatchListener() {
+
+            @Override
+            public void onMatch(JsonNode value) {
+                throw failure;
+            }
+        };
+
+        AsyncEvaluation evaluation = JsonPath.compile("$[*]").evaluateAsync(this.deferredExecutor, failingListener);
+        evaluation.feed(utf8("[1,2]"));
+        evaluation.end();
+        this.deferredExecutor.run();
+
+        assertEquals(failure, failingListener.exception);
+    }
+
+    @Test
+    public void limit() throws UnsupportedEncodingException {
+        AsyncEvaluation evaluation = JsonPath.compile("$[*]").limit(1).evaluateAsync(this.deferredExecutor, this.listener);
+        evaluation.feed(utf8("[1, "));
+        this.deferredExecutor.run();
+
+        assertEquals(Arrays.asList(JsonNodeFactory.instance.numberNode(1)), this.listener.values);
+        assertTrue(this.listener.completed);
+        assertTrue(evaluation.isDone());
+
+        evaluation.feed(utf8("2]"));
+        assertEquals(0, evaluation.getBufferedBytes());
+    }
+
+    @Test
+    public void cancel() throws UnsupportedEncodingException {
+        AsyncEvaluation evaluation = JsonPath.compile("$[*]").evaluateAsync(this.deferredExecutor, this.listener);
+        evaluation.feed(utf8("[1,2]"));
+        evaluation.cancel();
+        this.deferredExecutor.run();
+
+        assertTrue(this.listener.values.isEmpty());
+        assertFalse(this.listener.completed);
+        assertNull(this.listener.exception);
+        assertTrue(evaluation.isDone());
+        assertEquals(0, evaluation.getBufferedBytes());
+    }
+
+    @Test
+    public void highWaterMark() throws UnsupportedEncodingException {
+        final AtomicInteger drained = new AtomicInteger();
+        AsyncEvaluation evaluation = JsonPath.compile("$[*]").evaluateAsync(this.deferredExecutor, this.listener, 8, new Runnable() {
+
+            @Override
+            public void run() {
+                drained.incrementAndGet();
+            }
+        });
+
+        assertTrue(evaluation.feed(utf8("[1,2,3,")));
+        assertFalse(evaluation.feed(utf8("4,5]")));
+        assertFalse(evaluation.feed(utf8(" ")));
+        assertEquals(12, evaluation.getBufferedBytes());
+        evaluation.end();
+
+        assertEquals(0, drained.get());
+        this.deferredExecutor.run();
+
+        assertEquals(1, drained.get());
+        assertEquals(5, this.listener.values.size());
+        assertTrue(this.listener.completed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidHighWaterMark() {
+        JsonPath.compile("$").evaluateAsync(this.deferredExecutor, this.listener, 0, null);
+    }
+
+    @Test
+    public void drainedOnCompletion() throws UnsupportedEncodingException {
+        final AtomicInteger drained = new AtomicInteger();
+        AsyncEvaluation evaluation = JsonPath.compile("$[0]").evaluateAsync(this.deferredExecutor, this.listener, 4, new Runnable() {
+
+            @Override
+            public void run() {
+                drained.incrementAndGet();
+            }
+        });
+
+        assertFalse(evaluation.feed(utf8("[1,2,3,4,5,6,7,8,9")));
+        this.deferredExecutor.run();
+
+        assertEquals(1, drained.get());
+        assertTrue(evaluation.isDone());
+        assertEquals(0, evaluation.getBufferedBytes());
+        assertTrue(evaluation.feed(utf8(",10]")));
+    }
+
+    @Test
+    public void feedRacingCompletion() throws InterruptedException, UnsupportedEncodingException {
+        for (int i = 0; i < 200; i++) {
+            RecordingMatchListener listener = new RecordingMatchListener();
+            AsyncEvaluation evaluation = JsonPath.compile("$.a").evaluateAsync(this.executorService, listener);
+
+            evaluation.feed(utf8("{\"a\":1,"));
+            while (!evaluation.isDone()) {
+                evaluation.feed(utf8("\"b\":2,"));
+            }
+            evaluation.feed(utf8("\"c\":3}"));
+
+            assertTrue(listener.finished.await(10, TimeUnit.SECONDS));
+            assertTrue(listener.completed);
+            assertEquals(0, evaluation.getBufferedBytes());
+        }
+    }
+
+    @Test
+    public void cancelRacingRead() throws InterruptedException, UnsupportedEncodingException {
+        for (int i = 0; i < 200; i++) {
+            RecordingMatchListener listener = new RecordingMatchListener();
+            AsyncEvaluation evaluation = JsonPath.compile("$[*]").evaluateAsync(this.executorService, listener);
+
+            evaluation.feed(utf8("[1,"));
+            for (int j = 0; j < i % 20; j++) {
+                evaluation.feed(utf8("2,"));
+            }
+            evaluation.cancel();
+            evaluation.feed(utf8("3]"));
+
+            assertEquals(0, evaluation.getBufferedBytes());
+        }
+
+        this.executorService.shutdown();
+        assertTrue(this.executorService.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void feedAfterEnd() throws UnsupportedEncodingException {
+        AsyncEvaluation evaluation = JsonPath.compile("$").evaluateAsync(this.deferredExecutor, this.listener);
+        evaluation.end();
+        evaluation.feed(utf8("1"));
+    }
+
+    @Test
+    public void testToString() {
+        AsyncEvaluation evaluation = JsonPath.compile("$").evaluateAsync(this.deferredExecutor, this.listener);
+        assertEquals("AsyncEvaluation [jsonPath=JsonPath [expression=$], bufferedBytes=0, highWaterMark=1048576, ended=false, "
+            + "cancelled=false, done=false]", evaluation.toString());
+    }
+
+    private static ByteBuffer utf8(String s) throws UnsupportedEncodingException {
+        return ByteBuffer.wrap(s.getBytes("UTF-8"));
+    }
+
+    private static final class DeferredExecutor implements Executor {
+
+        private final List<Runnable> runnables = new ArrayList<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            this.runnables.add(command);
+        }
+
+        private void run() {
+            for (Runnable runnable : this.runnables) {
+                runnable.run();
+            }
+        }
+    }
+
+    private static class RecordingMatchListener implements MatchListener {
+
+        private final List<JsonNode> values = new ArrayList<JsonNode>();
+
+        private final CountDownLatch firstMatch = new CountDownLatch(1);
+
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        private volatile boolean completed = false;
+
+        private volatile RuntimeException exception;
+
+        @Override
+        public void onMatch(JsonNode value) {
+            synchronized (this.values) {
+                this.values.add(value);
+            }
+            this.firstMatch.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+            this.finished.countDown();
+        }
+
+        @Override
+        public void onError(RuntimeException exception) {
+            this.exception = exception;
+            this.finished.countDown();
+        }
+
+        private List<String> getTexts() {
+            List<String> texts = new ArrayList<String>();
+            synchronized (this.values) {
+                for (JsonNode value : this.values) {
+                    texts.add(value.textValue());
+                }
+            }
+            return texts;
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import static com.nebhale.jsonpath.testutils.JsonUtils.BYTES_VALID;
+import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
+import static com.nebhale.jsonpath.testutils.JsonUtils.STRING_INVALID;
+import static com.nebhale.jsonpath.testutils.JsonUtils.STRING_VALID;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.junit.Test;
+
+public final class ColumnExtractorTest {
+
+    private final ColumnExtractor extractor = new ColumnExtractor().longColumn("id", JsonPath.compile("$.id"))
+        .doubleColumn("price", JsonPath.compile("$.price")).stringColumn("color", JsonPath.compile("$.color"));
+
+    @Test
+    public void extract() {
+        this.extractor.add("{\"id\":1,\"price\":1.5,\"color\":\"red\"}");
+        this.extractor.add("{\"id\":\"2\",\"price\":3,\"color\":\"blue\"}");
+        this.extractor.add("{\"id\":null,\"color\":\"red\"}");
+        this.extractor.add("{\"id\":4,\"price\":4.5,\"color\":7}");
+
+        assertEquals(4, this.extractor.getRowCount());
+        assertArrayEquals(new long[] { 1, 2, 0, 4 }, this.extractor.getLongs("id"));
+        assertArrayEquals(new double[] { 1.5, 3, 0, 4.5 }, this.extractor.getDoubles("price"), 0);
+        assertArrayEquals(new int[] { 0, 1, 0, 2 }, this.extractor.getCodes("color"));
+        assertEquals(Arrays.asList("red", "blue", "7"), this.extractor.getDictionary("color"));
+        assertEquals(bits(2), this.extractor.getNulls("id"));
+        assertEquals(bits(2), this.extractor.getNulls("price"));
+        assertEquals(bits(), this.extractor.getNulls("color"));
+    }
+
+    @Test
+    public void inputs() {
+        ColumnExtractor extractor = new ColumnExtractor().doubleColumn("price", JsonPath.compile("$.store.book[3].price"))
+            .stringColumn("color", JsonPath.compile("$.store.bicycle[*].color"));
+        extractor.add(STRING_VALID);
+        extractor.add(BYTES_VALID);
+        extractor.add(NODE);
+
+        assertArrayEquals(new double[] { 22.99, 22.99, 22.99 }, extractor.getDoubles("price"), 0);
+        assertArrayEquals(new int[] { 0, 0, 0 }, extractor.getCodes("color"));
+        assertEquals(Arrays.asList("red"), extractor.getDictionary("color"));
+    }
+
+    @Test
+    public void grow() {
+        for (int i = 0; i < 3000; i++) {
+            this.extractor.add("{\"id\":" + i + ",\"color\":\"c" + (i % 10) + "\"}");
+        }
+
+        long[] ids = this.extractor.getLongs("id");
+        assertEquals(3000, ids.length);
+        assertEquals(2999, ids[2999]);
+        assertEquals(10, this.extractor.getDictionary("color").size());
+        assertEquals(3000, this.extractor.getNulls("price").cardinality());
+    }
+
+    @Test
+    public void failedRow() {
+        this.extractor.add("{\"id\":1}");
+
+        try {
+            this.extractor.add("{\"id\":\"x\",\"price\":1}");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        try {
+            this.extractor.add(STRING_INVALID);
+            fail();
+        } catch (InvalidJsonException e) {
+            // Expected
+        }
+
+        this.extractor.add("{\"id\":2,\"price\":2}");
+        assertArrayEquals(new long[] { 1, 2 }, this.extractor.getLongs("id"));
+        assertEquals(bits(0), this.extractor.getNulls("price"));
+        assertEquals(bits(0, 1), this.extractor.getNulls("color"));
+    }
+
+    @Test
+    public void failedRowDictionary() {
+        ColumnExtractor extractor = new ColumnExtractor().stringColumn("color", JsonPath.compile("$.color"))
+            .longColumn("id", JsonPath.compile("$.id"));
+        extractor.add("{\"color\":\"red\",\"id\":1}");
+
+        try {
+            extractor.add("{\"color\":\"green\",\"id\":\"x\"}");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        extractor.add("{\"color\":\"blue\",\"id\":2}");
+        assertEquals(Arrays.asList("red", "blue"), extractor.getDictionary("color"));
+        assertArrayEquals(new int[] { 0, 1 }, extractor.getCodes("color"));
+
+        extractor.add("{\"color\":\"green\",\"id\":3}");
+        assertEquals(Arrays.asList("red", "blue", "green"), extractor.getDictionary("color"));
+        assertArrayEquals(new int[] { 0, 1, 2 }, extractor.getCodes("color"));
+    }
+
+    @Test
+    public void sharedNames() {
+        ColumnExtractor extractor = new ColumnExtractor().doubleColumn("price", JsonPath.compile("$.store.bicycle.price"))
+            .stringColumn("color", JsonPath.compile("$.store.bicycle.color")).stringColumn("title", JsonPath.compile("$.store.book[1].title"))
+            .longColumn("books", JsonPath.compile("$.store.book.length()")).stringColumn("missing", JsonPath.compile("$.store.missing"));
+        extractor.add(STRING_VALID);
+        extractor.add(BYTES_VALID);
+        extractor.add(NODE);
+
+        assertArrayEquals(new double[] { 19.95, 19.95, 19.95 }, extractor.getDoubles("price"), 0);
+        assertEquals(Arrays.asList("red"), extractor.getDictionary("color"));
+        assertEquals(Arrays.asList("Sword of Honour"), extractor.getDictionary("title"));
+        assertArrayEquals(new long[] { 4, 4, 4 }, extractor.getLongs("books"));
+        assertEquals(bits(0, 1, 2), extractor.getNulls("missing"));
+    }
+
+    @Test
+    public void stopsReadingOnceComplete() {
+        this.extractor.add("{\"color\":\"red\",\"price\":1.5,\"id\":1,\"rest\":[");
+
+        assertArrayEquals(new long[] { 1 }, this.extractor.getLongs("id"));
+        assertEquals(Arrays.asList("red"), this.extractor.getDictionary("color"));
+    }
+
+    @Test
+    public void beyondLong() {
+        this.extractor.add("{\"id\":1,\"price\":12345678901234567890,\"color\":12345678901234567890}");
+
+        try {
+            this.extractor.add("{\"id\":12345678901234567890}");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        assertArrayEquals(new long[] { 1 }, this.extractor.getLongs("id"));
+        assertArrayEquals(new double[] { 1.2345678901234567e19 }, this.extractor.getDoubles("price"), 0);
+        assertEquals(Arrays.asList("12345678901234567890"), this.extractor.getDictionary("color"));
+    }
+
+    @Test
+    public void notIntegral() {
+        this.extractor.add("{\"id\":2.0}");
+        this.extractor.add("{\"id\":\"3.0\"}");
+
+        for (String json : Arrays.asList("{\"id\":1.5}", "{\"id\":1e30}", "{\"id\":\"1.5\"}")) {
+            try {
+                this.extractor.add(json);
+                fail(json);
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+
+        assertArrayEquals(new long[] { 2, 3 }, this.extractor.getLongs("id"));
+    }
+
+    @Test
+    public void clear() {
+        this.extractor.add("{\"id\":1,\"color\":\"red\"}");
+        this.extractor.clear();
+        this.extractor.add("{\"id\":2,\"price\":2,\"color\":\"blue\"}");
+
+        assertEquals(1, this.extractor.getRowCount());
+        assertArrayEquals(new long[] { 2 }, this.extractor.getLongs("id"));
+        assertEquals(bits(), this.extractor.getNulls("price"));
+        assertArrayEquals(new int[] { 1 }, this.extractor.getCodes("color"));
+    }
+
+    @Test
+    public void lateColumn() {
+        this.extractor.add("{\"id\":1,\"name\":\"alpha\"}");
+        this.extractor.stringColumn("name", JsonPath.compile("$.name"));
+        this.extractor.add("{\"id\":2,\"name\":\"beta\"}");
+
+        assertArrayEquals(new int[] { -1, 0 }, this.extractor.getCodes("name"));
+        assertEquals(bits(0), this.extractor.getNulls("name"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateColumn() {
+        this.extractor.longColumn("id", JsonPath.compile("$.other"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongColumnType() {
+        this.extractor.getDoubles("id");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownColumn() {
+        this.extractor.getNulls("alpha");
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("ColumnExtractor [columns=[id=JsonPath [expression=$.id]], rowCount=0]",
+            new ColumnExtractor().longColumn("id", JsonPath.compile("$.id")).toString());
+    }
+
+    private static BitSet bits(int... rows) {
+        BitSet bits = new BitSet();
+        for (int row : rows) {
+            bits.set(row);
+        }
+        return bits;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public final class JsonDocumentIndexTest {
+
+    private final ObjectNode document = createDocument();
+
+    private final JsonDocumentIndex index = new JsonDocumentIndex(this.document).hashIndex("$.products", "sku").sortedIndex("$.products",
+        "price").hashIndex("$.products", "active");
+
+    @Test
+    public void sameContent() {
+        String[] expressions = new String[] { "$.products[?(@.sku == 'SKU-42')]", "$.products[?(@.sku == 'missing')].sku",
+            "$.products[?(@.price < 10)].sku", "$.products[?(@.price >= 95.5)].sku", "$.products[?(@.price == 50)]",
+            "$.products[?(@.price > 20 && @.price <= 22.5)].sku", "$.products[?(@.sku == 'SKU-7' && @.price > 1000)]",
+            "$.products[?(@.active == true && @.price < 5)].sku", "$.products[?(@.price != 50)].sku", "$.products[?(@.sku < 'SKU-2')].sku",
+            "$.products[?(@.price < 10 || @.sku == 'SKU-99')].sku", "$.products[?(@.price == '50')]", "$.products[?(@.price == 45)].sku",
+            "$.products[?(@.price == 45.0)].sku", "$.products[?(@.missing == 1)]" };
+
+        for (String expression : expressions) {
+            JsonPath jsonPath = JsonPath.compile(expression);
+            assertEquals(expression, jsonPath.read(this.document, JsonNode.class), jsonPath.read(this.index, JsonNode.class));
+        }
+    }
+
+    @Test
+    public void usesIndex() {
+        ((ObjectNode) this.document.get("products").get(3)).put("sku", "changed");
+        JsonPath jsonPath = JsonPath.compile("$.products[?(@.sku == 'changed')].price");
+
+        assertEquals(Arrays.asList(3.5), jsonPath.read(this.document, List.class));
+        assertEquals(Arrays.asList(), jsonPath.read(this.index, List.class));
+
+        this.index.invalidate();
+        assertEquals(Arrays.asList(3.5), jsonPath.read(this.index, List.class));
+    }
+
+    @Test
+    public void staleIndex() {
+        ObjectNode product = ((ArrayNode) this.document.get("products")).addObject();
+        product.put("sku", "SKU-100");
+        product.put("price", 0.25);
+
+        assertEquals(Arrays.asList("SKU-0", "SKU-100"), JsonPath.compile("$.products[?(@.price < 0.5)].sku").read(this.index, List.class));
+        assertEquals(Arrays.asList(0.25), JsonPath.compile("$.products[?(@.sku == 'SKU-100')].price").read(this.index, List.class));
+    }
+
+    @Test
+    public void replacedArray() {
+        this.document.putArray("products").addObject().put("sku", "SKU-3");
+
+        assertEquals(1, JsonPath.compile("$.products[?(@.sku == 'SKU-3')]").read(this.index, List.class).size());
+        this.document.put("products", "not an array");
+        this.index.invalidate();
+        assertEquals(0, JsonPath.compile("$.products[?(@.sku == 'SKU-3')]").read(this.index, List.class).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notArray() {
+        this.index.hashIndex("$.name", "sku");
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("JsonDocumentIndex [definitions=[]]", new JsonDocumentIndex(this.document).toString());
+    }
+
+    private static ObjectNode createDocument() {
+        ObjectNode document = JsonNodeFactory.instance.objectNode();
+        document.put("name", "catalog");
+
+        ArrayNode products = document.putArray("products");
+        for (int i = 0; i < 100; i++) {
+            ObjectNode product = products.addObject();
+            product.put("sku", "SKU-" + i);
+            if (i % 10 == 0) {
+                product.put("price", i / 2);
+            } else {
+                product.put("price", i + 0.5);
+            }
+            product.put("active", i % 3 == 0);
+        }
+        products.add("not an object");
+        products.addObject();
+
+        return document;
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import static com.nebhale.jsonpath.testutils.JsonUtils.BYTES_VALID;
+import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
+import static com.nebhale.jsonpath.testutils.JsonUtils.STRING_INVALID;
+import static com.nebhale.jsonpath.testutils.JsonUtils.STRING_VALID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.type.SimpleType;
+
+public final class JsonPathReaderTest {
+
+    private final JsonPathReader<List<String>> titles = JsonPath.compile("$..book[*].title").reader(new TypeReference<List<String>>() {
+    });
+
+    private final List<String> expected = Arrays.asList("Sayings of the Century", "Sword of Honour", "Moby Dick", "The Lord of the Rings");
+
+    @Test
+    public void read() {
+        assertEquals(this.expected, this.titles.read(STRING_VALID));
+        assertEquals(this.expected, this.titles.read(BYTES_VALID));
+        assertEquals(this.expected, this.titles.read(new ByteArrayInputStream(BYTES_VALID)));
+        assertEquals(this.expected, this.titles.read(NODE));
+    }
+
+    @Test
+    public void readClass() {
+        JsonPathReader<Bicycle> reader = JsonPath.compile("$.store.bicycle[1]").reader(Bicycle.class);
+        assertEquals("blue", reader.read(STRING_VALID).color);
+        assertEquals(59.91, reader.read(NODE).price, 0);
+    }
+
+    @Test
+    public void readJavaType() {
+        JsonPathReader<JsonNode> reader = JsonPath.compile("$.store.bicycle[0].color").reader(SimpleType.construct(JsonNode.class));
+        assertEquals("red", reader.read(STRING_VALID).textValue());
+    }
+
+    @Test
+    public void readFirst() {
+        JsonPathReader<String> reader = JsonPath.compile("$..book[*].title").reader(String.class);
+        assertEquals("Sayings of the Century", reader.readFirst(STRING_VALID));
+        assertEquals("Sayings of the Century", reader.readFirst(NODE));
+        assertNull(JsonPath.compile("$.alpha").reader(String.class).readFirst(STRING_VALID));
+    }
+
+    @Test
+    public void forEach() {
+        JsonPathReader<Double> reader = JsonPath.compile("$..price").reader(Double.class);
+        final List<Double> prices = new ArrayList<Double>();
+        MatchCallback<Double> callback = new MatchCallback<Double>() {
+
+            @Override
+            public void onMatch(Double value) {
+                prices.add(value);
+            }
+        };
+
+        reader.forEach(STRING_VALID, callback);
+        reader.forEach(BYTES_VALID, callback);
+        reader.forEach(new ByteArrayInputStream(BYTES_VALID), callback);
+
+        assertEquals(18, prices.size());
+        assertEquals(Double.valueOf(59.91), prices.get(5));
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<Future<List<String>>>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executorService.submit(new Callable<List<String>>() {
+
+                    @Override
+                    public List<String> call() {
+                        return JsonPathReaderTest.this.titles.read(BYTES_VALID);
+                    }
+                }));
+            }
+
+            for (Future<List<String>> future : futures) {
+                assertEquals(this.expected, future.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readAll() throws InterruptedException {
+        List<Object> json = new ArrayList<Object>();
+        for (int i = 0; i < 50; i++) {
+            json.add(STRING_VALID);
+            json.add(BYTES_VALID);
+            json.add(new ByteArrayInputStream(BYTES_VALID));
+            json.add(NODE);
+        }
+        json.add(STRING_INVALID);
+        json.add(Integer.valueOf(1));
+
+        ExecutorService executorService = Executors.newCachedThreadPool();
+        try {
+            for (int parallelism : new int[] { 1, 3, 1000 }) {
+                List<ReadResult<List<String>>> results = this.titles.readAll(
+                    Arrays.asList(STRING_VALID, BYTES_VALID, new ByteArrayInputStream(BYTES_VALID), NODE), executorService, parallelism);
+                assertEquals(4, results.size());
+                for (ReadResult<List<String>> result : results) {
+                    assertEquals(this.expected, result.getValue());
+                }
+            }
+
+            List<ReadResult<List<String>>> results = this.titles.readAll(json, executorService, 4);
+            assertEquals(202, results.size());
+            assertEquals(this.expected, results.get(199).getValue());
+            assertTrue(results.get(200).getFailure() instanceof InvalidJsonException);
+            assertTrue(results.get(201).getFailure() instanceof IllegalArgumentException);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readAllRejected() {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        executorService.shutdown();
+
+        List<ReadResult<List<String>>> results = this.titles.readAll(Arrays.asList(STRING_VALID, STRING_VALID), executorService, 2);
+        assertEquals(this.expected, results.get(1).getValue());
+    }
+
+    @Test
+    public void readAllEmpty() {
+        assertTrue(this.titles.readAll(Collections.emptyList(), Executors.newSingleThreadExecutor(), 2).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readAllParallelism() {
+        this.titles.readAll(Arrays.asList(STRING_VALID), Executors.newSingleThreadExecutor(), 0);
+    }
+
+    @Test(expected = InvalidJsonException.class)
+    public void invalidJson() {
+        this.titles.read(STRING_INVALID);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("JsonPathReader [jsonPath=JsonPath [expression=$.alpha], type=[simple type, class java.lang.String]]",
+            JsonPath.compile("$.alpha").reader(String.class).toString());
+    }
+
+    public static final class Bicycle {
+
+        public String color;
+
+        public double price;
+
+        public List<String> style;
+    }
+
+}
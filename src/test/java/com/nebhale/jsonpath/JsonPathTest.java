@@ -16,28 +16,44 @@
 
 package com.nebhale.jsonpath;
 
+import static com.nebhale.jsonpath.testutils.JsonUtils.BYTES_VALID;
 import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
 import static com.nebhale.jsonpath.testutils.JsonUtils.STRING_INVALID;
 import static com.nebhale.jsonpath.testutils.JsonUtils.STRING_VALID;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.Test;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.TextNode;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.fasterxml.jackson.databind.type.SimpleType;
@@ -153,6 +169,186 @@ public final class JsonPathTest {
             JsonPath.read("$.store..style", STRING_VALID, CollectionType.construct(List.class, SimpleType.construct(String.class))));
     }
 
+    @Test
+    public void bytesInput() throws UnsupportedEncodingException {
+        JsonPath jsonPath = JsonPath.compile("$.store.book[*].title");
+        List<String> expected = Arrays.asList("Sayings of the Century", "Sword of Honour", "Moby Dick", "The Lord of the Rings");
+
+        assertEquals(expected, jsonPath.read(BYTES_VALID, List.class));
+        assertEquals(expected, jsonPath.read(BYTES_VALID, new TypeReference<List<String>>() {
+        }));
+        assertEquals(expected, jsonPath.read(BYTES_VALID, CollectionType.construct(List.class, SimpleType.construct(String.class))));
+        assertEquals(expected, jsonPath.read(STRING_VALID.getBytes("UTF-16"), List.class));
+        assertEquals(Integer.valueOf(2),
+            JsonPath.compile("$['\u00e9t\u00e9']").read("{\"\u00e9te\":1,\"\u00e9t\u00e9\":2}".getBytes("UTF-8"), Integer.class));
+    }
+
+    @Test(expected = InvalidJsonException.class)
+    public void readBytesInputInvalid() throws UnsupportedEncodingException {
+        JsonPath.compile("$.store").read(STRING_INVALID.getBytes("UTF-8"), Map.class);
+    }
+
+    @Test(expected = InvalidJsonException.class)
+    public void readBytesInputTruncated() throws UnsupportedEncodingException {
+        JsonPath.compile("$.bravo").read("{\"alpha\":1,\"bravo\":".getBytes("UTF-8"), Integer.class);
+    }
+
+    @Test
+    public void streamInput() {
+        JsonPath jsonPath = JsonPath.compile("$.store.book[*].title");
+        List<String> expected = Arrays.asList("Sayings of the Century", "Sword of Honour", "Moby Dick", "The Lord of the Rings");
+
+        assertEquals(expected, jsonPath.read(new ByteArrayInputStream(BYTES_VALID), List.class));
+        assertEquals(expected, jsonPath.read(new ByteArrayInputStream(BYTES_VALID), new TypeReference<List<String>>() {
+        }));
+        assertEquals(expected,
+            jsonPath.read(new ByteArrayInputStream(BYTES_VALID), CollectionType.construct(List.class, SimpleType.construct(String.class))));
+    }
+
+    @Test
+    public void compressedInput() throws IOException {
+        JsonPath jsonPath = JsonPath.compile("$..price");
+        List<Double> expected = Arrays.asList(8.95, 12.99, 8.99, 22.99, 19.95, 59.91);
+
+        assertEquals(expected, jsonPath.read(gzip(BYTES_VALID), List.class));
+        assertEquals(expected, jsonPath.read(new ByteArrayInputStream(gzip(BYTES_VALID)), List.class));
+        assertEquals(expected, jsonPath.read(deflate(BYTES_VALID), List.class));
+        assertEquals(expected, jsonPath.read(new ByteArrayInputStream(deflate(BYTES_VALID)), List.class));
+        assertEquals(expected, jsonPath.read(gzip(STRING_VALID.getBytes("UTF-16")), List.class));
+
+        RecordingMatchCallback<Double> callback = new RecordingMatchCallback<Double>();
+        jsonPath.forEach(new ByteArrayInputStream(gzip(BYTES_VALID)), Double.class, callback);
+        assertEquals(expected, callback.values);
+
+        assertEquals(Integer.valueOf(80), JsonPath.compile("$").read("80".getBytes("UTF-8"), Integer.class));
+    }
+
+    @Test(expected = InvalidJsonException.class)
+    public void compressedInputTruncated() throws IOException {
+        byte[] compressed = gzip(BYTES_VALID);
+        JsonPath.compile("$..price").read(Arrays.copyOf(compressed, compressed.length / 2), List.class);
+    }
+
+    @Test
+    public void readParallel() throws InterruptedException, UnsupportedEncodingException {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            sb.append(i == 0 ? "" : ",\n").append("{\"id\":").append(i).append(",\"name\":\"n,\\\"[").append(i).append("]\"");
+            sb.append(",\"tags\":[").append(i % 3).append(",{\"t\":\"}\"}]}");
+        }
+        byte[] json = sb.append("]").toString().getBytes("UTF-8");
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            for (String expression : Arrays.asList("$[*].id", "$[*]", "$[?(@.id > 250)].name", "$[*].tags[*]", "$[*].tags[0]", "$[*].id.sum()",
+                "$[3].name")) {
+                for (JsonPath jsonPath : Arrays.asList(JsonPath.compile(expression), JsonPath.compile(expression).limit(7))) {
+                    JsonNode expected = jsonPath.read(json, JsonNode.class);
+                    for (int slices : new int[] { 2, 3, 16, 97 }) {
+                        assertEquals(expression, expected, jsonPath.selectParallel(json, executorService, slices));
+                    }
+                }
+            }
+
+            assertEquals(Arrays.asList(0, 1, 2), JsonPath.compile("$[*]").readParallel("[0,1,2]".getBytes("UTF-8"), List.class,
+                executorService));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readParallelDeep() throws IOException {
+        StringBuilder sb = new StringBuilder("{\"catalog\":[");
+        for (int i = 0; i < 300; i++) {
+            sb.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"price\":").append(i % 17);
+            sb.append(",\"parts\":[{\"price\":").append(i).append("},{\"name\":\"p\"}]}");
+        }
+        JsonNode json = new ObjectMapper().readTree(sb.append("],\"price\":-1}").toString());
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            for (String expression : Arrays.asList("$..price", "$..parts[0]", "$..parts[*].name", "$..[?(@.price < 3)].id", "$..price.sum()",
+                "$..parts..price", "$.catalog[0]")) {
+                for (JsonPath jsonPath : Arrays.asList(JsonPath.compile(expression), JsonPath.compile(expression).limit(7))) {
+                    JsonNode expected = jsonPath.read(json, JsonNode.class);
+                    for (int forkSize : new int[] { 1, 2, 256, 1000 }) {
+                        for (int slices : new int[] { 2, 3, 16 }) {
+                            assertEquals(expression, expected, jsonPath.selectParallel(json, executorService, forkSize, slices));
+                        }
+                    }
+                }
+            }
+
+            assertEquals(Arrays.asList(8.95, 12.99, 8.99, 22.99, 19.95, 59.91),
+                JsonPath.compile("$..price").readParallel(NODE, List.class, executorService));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readParallelElements() throws IOException {
+        ArrayNode json = JsonNodeFactory.instance.arrayNode();
+        for (int i = 0; i < 500; i++) {
+            json.add(new ObjectMapper().readTree("{\"id\":" + i + ",\"tags\":[" + (i % 3) + ",{\"t\":\"}\"}]}"));
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            for (String expression : Arrays.asList("$[*].id", "$[*]", "$[?(@.id > 250)].tags", "$[*].tags[*]", "$[*].tags[0]", "$[*].id.sum()",
+                "$[3].id")) {
+                for (JsonPath jsonPath : Arrays.asList(JsonPath.compile(expression), JsonPath.compile(expression).limit(7))) {
+                    JsonNode expected = jsonPath.read(json, JsonNode.class);
+                    for (int forkSize : new int[] { 1, 256, 1000 }) {
+                        for (int slices : new int[] { 2, 3, 16, 997 }) {
+                            assertEquals(expression, expected, jsonPath.selectParallel(json, executorService, forkSize, slices));
+                        }
+                    }
+                }
+            }
+
+            assertEquals(Arrays.asList(0, 1, 2), JsonPath.compile("$[*]").readParallel(new ObjectMapper().readTree("[0,1,2]"), List.class,
+                executorService));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readAll() {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            List<ReadResult<String>> results = JsonPath.compile("$.store.bicycle[0].color").readAll(
+                Arrays.asList(STRING_VALID, STRING_INVALID, BYTES_VALID), String.class, executorService, 2);
+            assertEquals("red", results.get(0).getValue());
+            assertFalse(results.get(1).isSuccessful());
+            assertEquals("red", results.get(2).getValue());
+
+            List<ReadResult<List<String>>> styles = JsonPath.compile("$.store.bicycle[1].style").readAll(Arrays.asList(NODE),
+                new TypeReference<List<String>>() {
+                }, executorService, 1);
+            assertEquals(Arrays.asList("downhill", "freeride"), styles.get(0).getValue());
+
+            List<ReadResult<Double>> prices = JsonPath.compile("$.store.book[3].price").readAll(Arrays.asList(STRING_VALID),
+                SimpleType.construct(Double.class), executorService, 1);
+            assertEquals(Double.valueOf(22.99), prices.get(0).getValue());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test(expected = InvalidJsonException.class)
+    public void readParallelInvalid() throws UnsupportedEncodingException {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            JsonPath.compile("$[*].a").selectParallel("[{\"a\":1},{\"a\" 2},{\"a\":3}]".getBytes("UTF-8"),
+                executorService, 3);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     @Test
     public void jsonNodeInputClassOutput() {
         assertEquals("Sayings of the Century", JsonPath.read("$.store.book[0].title", NODE, String.class));
@@ -197,6 +393,392 @@ public final class JsonPathTest {
             JsonPath.read("$.store..style", NODE, CollectionType.construct(List.class, SimpleType.construct(String.class))));
     }
 
+    @Test
+    public void filter() {
+        assertEquals(Arrays.asList("Moby Dick", "The Lord of the Rings"), JsonPath.read("$..book[?(@.isbn)].title", STRING_VALID, List.class));
+        assertEquals(Arrays.asList("Sayings of the Century", "Moby Dick"),
+            JsonPath.read("$.store.book[?(@.price < 10)].title", STRING_VALID, List.class));
+        assertEquals(Arrays.asList("Sword of Honour"),
+            JsonPath.read("$.store.book[?(@.category == 'fiction' && !@.isbn)].title", NODE, List.class));
+        assertEquals(Arrays.asList("red"), JsonPath.read("$.store.bicycle[?(@.style[0] == 'city' || @.price > 100)].color", NODE, List.class));
+    }
+
+    @Test
+    public void filterMismatchedTypes() throws IOException {
+        String json = "{\"items\":[{\"x\":\"s\"},{\"x\":5},{\"x\":null},{}]}";
+        JsonNode node = new ObjectMapper().readTree(json);
+
+        assertEquals(Arrays.asList("s", 5, null), JsonPath.read("$.items[?(@.x != 5.5)].x", json, List.class));
+        assertEquals(Arrays.asList("s", null), JsonPath.read("$.items[?(@.x != 5)].x", json, List.class));
+        assertEquals(Arrays.asList("s", null), JsonPath.read("$.items[?(@.x + 1 != 6)].x", node, List.class));
+        assertEquals(Arrays.asList("s", 5, null), JsonPath.read("$.items[?(@.x + 1 != 'abc')].x", node, List.class));
+        assertEquals(0, JsonPath.compile("$.items[?(@.x == 5.5)]").count(json));
+        assertEquals(0, JsonPath.compile("$.items[?(@.x + 1 == 'abc')]").count(node));
+    }
+
+    @Test
+    public void filterBeyondLong() {
+        String json = "[{\"a\":12345678901234567890}]";
+        assertEquals(0, JsonPath.compile("$[?(@.a < 0)]").count(json));
+        assertEquals(0, JsonPath.compile("$[?(@.a == -6101065172474983726)]").count(json));
+        assertEquals(1, JsonPath.compile("$[?(@.a > 9223372036854775807)]").count(json));
+        assertEquals(1, JsonPath.compile("$[?(@.a > @.b)]").count("[{\"a\":12345678901234567890,\"b\":9223372036854775807}]"));
+    }
+
+    @Test
+    public void aggregate() {
+        assertEquals(Integer.valueOf(4), JsonPath.read("$.store.book.length()", STRING_VALID, Integer.class));
+        assertEquals(133.78, JsonPath.read("$..price.sum()", STRING_VALID, Double.class), 0.0001);
+        assertEquals(Double.valueOf(8.95), JsonPath.read("$..price.min()", NODE, Double.class));
+        assertEquals(Double.valueOf(59.91), JsonPath.read("$..price.max()", STRING_VALID, Double.class));
+        assertEquals(10.31, JsonPath.read("$.store.book[?(@.price < 20)].price.avg()", NODE, Double.class), 0.0001);
+        assertNull(JsonPath.read("$.store.book[?(@.price > 100)].price.max()", STRING_VALID, Double.class));
+    }
+
+    @Test
+    public void exists() {
+        assertTrue(JsonPath.compile("$..isbn").exists(STRING_VALID));
+        assertTrue(JsonPath.compile("$.store.book[?(@.price < 10)]").exists(NODE));
+        assertFalse(JsonPath.compile("$..missing").exists(STRING_VALID));
+        assertFalse(JsonPath.compile("$.store.book[?(@.price > 100)]").exists(NODE));
+        assertFalse(JsonPath.compile("$..price.max()").exists("[]"));
+    }
+
+    @Test
+    public void existsStopsReading() {
+        assertTrue(JsonPath.compile("$.alpha").exists("{\"alpha\":1,\"bravo\":"));
+    }
+
+    @Test(expected = InvalidJsonException.class)
+    public void existsInvalid() {
+        JsonPath.compile("$.missing").exists(STRING_INVALID);
+    }
+
+    @Test
+    public void count() {
+        assertEquals(4, JsonPath.compile("$.store.book[*]").count(STRING_VALID));
+        assertEquals(1, JsonPath.compile("$.store.book").count(NODE));
+        assertEquals(6, JsonPath.compile("$..price").count(STRING_VALID));
+        assertEquals(2, JsonPath.compile("$..book[?(@.isbn)]").count(NODE));
+        assertEquals(0, JsonPath.compile("$.missing").count(STRING_VALID));
+        assertEquals(0, JsonPath.compile("$.store.book[?(@.price > 100)]").count(NODE));
+    }
+
+    @Test(expected = InvalidJsonException.class)
+    public void countInvalid() {
+        JsonPath.compile("$..price").count(STRING_INVALID);
+    }
+
+    @Test
+    public void definiteStopsReading() {
+        String json = "{\"header\":{\"messageId\":\"alpha\",\"sent\":[1,2,3]},\"body\":";
+
+        assertEquals("alpha", JsonPath.read("$.header.messageId", json, String.class));
+        assertEquals(Integer.valueOf(2), JsonPath.read("$.header.sent[1]", json, Integer.class));
+        assertEquals(Arrays.asList("alpha", null), JsonPath.read("$.header['messageId, missing']", json, List.class));
+        assertNull(JsonPath.read("$.header.missing", json, String.class));
+        assertEquals(Integer.valueOf(3), JsonPath.read("$.header.sent.length()", json, Integer.class));
+    }
+
+    @Test
+    public void readFirst() {
+        assertEquals("Nigel Rees", JsonPath.compile("$..author").readFirst(STRING_VALID, String.class));
+        assertEquals(Arrays.asList("city", "hybrid"), JsonPath.compile("$.store.bicycle[*]").readFirst(NODE, Map.class).get("style"));
+        assertEquals(Integer.valueOf(4), JsonPath.compile("$.store.book.length()").readFirst(STRING_VALID, new TypeReference<Integer>() {
+        }));
+        assertEquals("Herman Melville",
+            JsonPath.compile("$.store.book[?(@.isbn)].author").readFirst(NODE, SimpleType.construct(String.class)));
+        assertNull(JsonPath.compile("$..missing").readFirst(STRING_VALID, String.class));
+        assertNull(JsonPath.compile("$.store.book[?(@.price > 100)]").readFirst(NODE, Map.class));
+    }
+
+    @Test
+    public void readFirstStopsReading() {
+        assertEquals("alpha", JsonPath.compile("$[*]").readFirst("[\"alpha\",", String.class));
+    }
+
+    @Test
+    public void forEach() throws UnsupportedEncodingException {
+        JsonPath jsonPath = JsonPath.compile("$.store.book[*].title");
+        List<String> expected = Arrays.asList("Sayings of the Century", "Sword of Honour", "Moby Dick", "The Lord of the Rings");
+
+        RecordingMatchCallback<String> callback = new RecordingMatchCallback<String>();
+        jsonPath.forEach(STRING_VALID, String.class, callback);
+        assertEquals(expected, callback.values);
+
+        callback = new RecordingMatchCallback<String>();
+        jsonPath.forEach(BYTES_VALID, new TypeReference<String>() {
+        }, callback);
+        assertEquals(expected, callback.values);
+
+        callback = new RecordingMatchCallback<String>();
+        jsonPath.forEach(new ByteArrayInputStream(BYTES_VALID), SimpleType.construct(String.class), callback);
+        assertEquals(expected, callback.values);
+
+        RecordingMatchCallback<JsonNode> nodes = new RecordingMatchCallback<JsonNode>();
+        JsonPath.compile("$.store.book[0].title").forEach(STRING_VALID, TextNode.class, nodes);
+        assertEquals(Arrays.asList(new TextNode("Sayings of the Century")), nodes.values);
+
+        RecordingMatchCallback<Object> maps = new RecordingMatchCallback<Object>();
+        JsonPath.compile("$.store.bicycle[1]").limit(1).forEach(STRING_VALID.getBytes("UTF-8"), Object.class, maps);
+        assertEquals("blue", ((Map<?, ?>) maps.values.get(0)).get("color"));
+
+        RecordingMatchCallback<Double> prices = new RecordingMatchCallback<Double>();
+        JsonPath.compile("$..price").limit(2).forEach(STRING_VALID, Double.class, prices);
+        assertEquals(Arrays.asList(8.95, 12.99), prices.values);
+    }
+
+    @Test
+    public void forEachLargeArray() {
+        final int count = 100000;
+        InputStream in = new InputStream() {
+
+            private final StringBuilder element = new StringBuilder("[");
+
+            private volatile int index = 0;
+
+            private volatile int position = 0;
+
+            @Override
+            public int read() {
+                if (this.position == this.element.length()) {
+                    if (this.index == count) {
+                        return -1;
+                    }
+                    this.element.setLength(0);
+                    this.element.append("{\"event\":").append(this.index).append(",\"padding\":\"xxxxxxxxxxxxxxxx\"}");
+                    this.element.append(++this.index == count ? "]" : ",");
+                    this.position = 0;
+                }
+                return this.element.charAt(this.position++);
+            }
+        };
+
+        final long[] sum = new long[1];
+        JsonPath.compile("$[*].event").forEach(in, Long.class, new MatchCallback<Long>() {
+
+            @Override
+            public void onMatch(Long value) {
+                sum[0] += value;
+            }
+        });
+
+        assertEquals(((long) count * (count - 1)) / 2, sum[0]);
+    }
+
+    @Test(expected = InvalidJsonException.class)
+    public void forEachInvalid() {
+        JsonPath.compile("$..price").forEach(STRING_INVALID, Double.class, new RecordingMatchCallback<Double>());
+    }
+
+    @Test
+    public void readBound() {
+        Book book = JsonPath.compile("$.store.book[2]").read(STRING_VALID, Book.class);
+        assertEquals("Moby Dick", book.title);
+        assertEquals("0-553-21311-3", book.isbn);
+
+        List<Book> books = JsonPath.compile("$.store.book[*]").read(BYTES_VALID, new TypeReference<List<Book>>() {
+        });
+        assertEquals(4, books.size());
+        assertEquals(22.99, books.get(3).price, 0);
+
+        Book[] limited = JsonPath.compile("$.store.book[*]").limit(2).read(new ByteArrayInputStream(BYTES_VALID), Book[].class);
+        assertEquals(2, limited.length);
+        assertEquals("Sword of Honour", limited[1].title);
+
+        assertEquals("Nigel Rees", JsonPath.compile("$.store.book[*]").readFirst(STRING_VALID, Book.class).author);
+
+        RecordingMatchCallback<Book> callback = new RecordingMatchCallback<Book>();
+        JsonPath.compile("$.store.book[?(@.price < 10)]").forEach(STRING_VALID, Book.class, callback);
+        assertEquals(2, callback.values.size());
+        assertEquals("Herman Melville", callback.values.get(1).author);
+
+        try {
+            JsonPath.compile("$.store.bicycle[0]").read(STRING_VALID, Book.class);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void readScalars() throws IOException {
+        String json = "{\"a\":1,\"b\":true,\"c\":\" 12 \",\"d\":null,\"e\":[1],\"f\":12345678901,\"g\":2.5,\"h\":\"x\",\"i\":3.0,\"j\":\"3.0\"}";
+        JsonNode node = new ObjectMapper().readTree(json);
+
+        assertEquals(1, JsonPath.compile("$.a").readInt(json));
+        assertEquals(1, JsonPath.compile("$.a").readInt(node));
+        assertEquals(12, JsonPath.compile("$.c").readInt(json));
+        assertEquals(3, JsonPath.compile("$.i").readInt(json));
+        assertEquals(3, JsonPath.compile("$.j").readInt(node));
+        assertEquals(7, JsonPath.compile("$.d").readInt(json, 7));
+        assertEquals(7, JsonPath.compile("$.z").readInt(node, 7));
+        assertEquals(12345678901L, JsonPath.compile("$.f").readLong(json));
+        assertEquals(12345678901L, JsonPath.compile("$.f").readLong(node, 0));
+        assertEquals(2.5, JsonPath.compile("$.g").readDouble(json), 0);
+        assertEquals(1.0, JsonPath.compile("$.a").readDouble(node), 0);
+        assertEquals(-1.0, JsonPath.compile("$.z").readDouble(json, -1), 0);
+        assertTrue(JsonPath.compile("$.b").readBoolean(json));
+        assertTrue(JsonPath.compile("$.a").readBoolean(node));
+        assertFalse(JsonPath.compile("$.d").readBoolean(json, false));
+        assertEquals("x", JsonPath.compile("$.h").readString(json));
+        assertEquals("1", JsonPath.compile("$.a").readString(node));
+        assertEquals("true", JsonPath.compile("$.b").readString(json));
+        assertEquals("none", JsonPath.compile("$.z").readString(node, "none"));
+        assertEquals(8.95, JsonPath.compile("$..price").readDouble(STRING_VALID), 0);
+        assertEquals("red", JsonPath.compile("$.store.bicycle[*].color").readString(NODE));
+
+        for (String expression : Arrays.asList("$.z", "$.d", "$.e", "$.h", "$.f", "$.g")) {
+            try {
+                JsonPath.compile(expression).readInt(json);
+                fail(expression);
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void readScalarsBeyondLong() throws IOException {
+        String json = "{\"a\":12345678901234567890,\"b\":18446744073709551616}";
+        JsonNode node = new ObjectMapper().readTree(json);
+
+        assertEquals("12345678901234567890", JsonPath.compile("$.a").readString(json));
+        assertEquals("12345678901234567890", JsonPath.compile("$.a").readString(node));
+        assertEquals(1.2345678901234567e19, JsonPath.compile("$.a").readDouble(json), 0);
+        assertTrue(JsonPath.compile("$.b").readBoolean(json));
+
+        try {
+            JsonPath.compile("$.a").readLong(json);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("'$.a' selects 12345678901234567890, which does not fit in a long", e.getMessage());
+        }
+
+        try {
+            JsonPath.compile("$.a").readInt(node);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("'$.a' selects 12345678901234567890, which does not fit in an int", e.getMessage());
+        }
+    }
+
+    @Test
+    public void readScalarsNotIntegral() throws IOException {
+        String json = "{\"a\":1e30,\"b\":1.5,\"c\":\"1.5\",\"d\":\"1e30\",\"e\":9.223372036854775807E18,\"f\":3000000000}";
+        JsonNode node = new ObjectMapper().readTree(json);
+
+        assertReadLongFails("'$.a' selects 1.0E30, which does not fit in a long", "$.a", json);
+        assertReadLongFails("'$.a' selects 1.0E30, which does not fit in a long", "$.a", node);
+        assertReadLongFails("'$.b' selects 1.5, which does not fit in a long", "$.b", json);
+        assertReadLongFails("'$.c' selects '1.5', which does not fit in a long", "$.c", json);
+        assertReadLongFails("'$.d' selects '1e30', which does not fit in a long", "$.d", node);
+        assertReadLongFails("'$.e' selects 9.223372036854776E18, which does not fit in a long", "$.e", json);
+        assertEquals(3000000000L, JsonPath.compile("$.f").readLong(json));
+
+        try {
+            JsonPath.compile("$.a").readInt(json);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("'$.a' selects 1.0E30, which does not fit in an int", e.getMessage());
+        }
+
+        try {
+            JsonPath.compile("$.f").readInt(node);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("'$.f' selects 3000000000, which does not fit in an int", e.getMessage());
+        }
+    }
+
+    @Test
+    public void limit() {
+        JsonPath jsonPath = JsonPath.compile("$..price").limit(2);
+
+        assertEquals(Arrays.asList(8.95, 12.99), jsonPath.read(STRING_VALID, List.class));
+        assertEquals(Arrays.asList(8.95, 12.99), jsonPath.read(NODE, List.class));
+        assertEquals(Arrays.asList(8.95, 12.99), jsonPath.read(new JsonDocumentIndex(NODE), List.class));
+        assertEquals(2, jsonPath.count(STRING_VALID));
+        assertEquals(Arrays.asList(8.95, 12.99, 8.99, 22.99, 19.95, 59.91), jsonPath.limit(10).read(NODE, List.class));
+        assertEquals(Arrays.asList("Nigel Rees"), JsonPath.compile("$.store.book[*].author").limit(1).read(STRING_VALID, List.class));
+        assertEquals("Evelyn Waugh", JsonPath.compile("$.store.book[1].author").limit(1).read(NODE, String.class));
+    }
+
+    @Test
+    public void limitStopsReading() {
+        assertEquals(Arrays.asList(1, 2), JsonPath.compile("$.alpha[*]").limit(2).read("{\"alpha\":[1,2,", List.class));
+    }
+
+    @Test
+    public void limitStopsReadingDeepWildcard() throws IOException {
+        final String json = "[{\"id\":1,\"error\":\"first\",\"detail\":{\"error\":\"nested\"}},{\"error\":\"unterminated";
+        InputStream in = new InputStream() {
+
+            private volatile int position = 0;
+
+            @Override
+            public int read() throws IOException {
+                if (this.position == json.length()) {
+                    throw new IOException("Read past the end of the matches");
+                }
+                return json.charAt(this.position++);
+            }
+        };
+
+        JsonPath jsonPath = JsonPath.compile("$..error");
+        assertEquals("first", jsonPath.readFirst(json, String.class));
+        assertEquals(Arrays.asList("first", "nested"), jsonPath.limit(2).read(json.getBytes("UTF-8"), List.class));
+        assertEquals(Arrays.asList("first", "nested"), jsonPath.limit(2).read(in, List.class));
+    }
+
+    @Test
+    public void deepWildcardStreamingOrder() throws IOException {
+        String json = "{\"a\":{\"n\":1,\"b\":[{\"n\":[2,3]}]},\"n\":{\"n\":4},\"c\":{\"d\":{\"n\":5},\"n\":6},\"e\":[{\"n\":7}]}";
+        JsonNode node = new ObjectMapper().readTree(json);
+        JsonPath jsonPath = JsonPath.compile("$..n");
+
+        List<?> expected = jsonPath.read(node, List.class);
+        assertEquals(8, expected.size());
+        assertEquals(expected, jsonPath.read(json, List.class));
+        assertEquals(expected, jsonPath.read(json.getBytes("UTF-8"), List.class));
+        assertEquals(expected.subList(0, 5), jsonPath.limit(5).read(json, List.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void limitInvalid() {
+        JsonPath.compile("$..price").limit(0);
+    }
+
+    @Test
+    public void script() {
+        assertEquals("The Lord of the Rings", JsonPath.read("$..book[(@.length-1)].title", STRING_VALID, String.class));
+        assertEquals("Moby Dick", JsonPath.read("$.store.book[(@.size() - 2)].title", NODE, String.class));
+        assertEquals("red", JsonPath.read("$.store.bicycle[0][('color')]", NODE, String.class));
+    }
+
+    @Test
+    public void streaming() {
+        String[] expressions = new String[] { "$", "$.store", "$.store.book", "$.store.book[*]", "$.store.book[0]", "$.store.book[0, 2]",
+            "$.store.book[2, 0, 9]", "$.store.book.title", "$.store.book[*].author", "$.store['book, bicycle']", "$.store.book['title, isbn']",
+            "$.store.*", "$.store.*[1]", "$.store.book[*][0]", "$..book", "$..price", "$..book[2]", "$..book[*].title", "$.missing",
+            "$.store.book[9]", "$.store.book.missing", "$.store.book[?(@.price < 10)]", "$.store.book[?(@.price < 10)][1]",
+            "$.store.book[?(@.isbn)].title", "$..book[?(@.isbn)]", "$.store.book[?(@.category == 'fiction' && !@.isbn)]",
+            "$.store.book[?(@.length > 4)]", "$.store.book[?(true)]", "$.store.book[?(false)].title", "$.store.bicycle[?(@.style[0] == 'city')].color",
+            "$.store[?(@[0].price < 10)]", "$.store.book[(@.length - 1)]", "$.store.book[0][('author')]",
+            "$.store.book[?(@.title =~ /^the/i)].price", "$..price.sum()", "$..book.length()", "$.store.*.length()", "$..price.avg()",
+            "$.store.book[*].isbn.length()", "$.store.book[0].price.max()", "$.missing.sum()", "$.store.book[?(@.price > 100)].price.sum()" };
+
+        for (String expression : expressions) {
+            JsonPath jsonPath = JsonPath.compile(expression);
+            assertEquals(expression, jsonPath.read(NODE, JsonNode.class), jsonPath.read(STRING_VALID, JsonNode.class));
+            assertEquals(expression, jsonPath.read(NODE, JsonNode.class), jsonPath.read(BYTES_VALID, JsonNode.class));
+            assertEquals(expression, jsonPath.count(NODE), jsonPath.count(STRING_VALID));
+            assertEquals(expression, jsonPath.count(NODE) != 0, jsonPath.exists(STRING_VALID));
+            assertEquals(expression, jsonPath.readFirst(NODE, JsonNode.class), jsonPath.readFirst(STRING_VALID, JsonNode.class));
+            assertEquals(expression, jsonPath.limit(2).read(NODE, JsonNode.class), jsonPath.limit(2).read(STRING_VALID, JsonNode.class));
+        }
+    }
+
     @Test
     public void serializable() throws IOException, ClassNotFoundException {
         assertTrue(Serializable.class.isAssignableFrom(JsonPath.class));
@@ -204,6 +786,99 @@ public final class JsonPathTest {
         JsonPath jsonPath = JsonPath.compile("$.store.book[0].title");
         assertEquals("Sayings of the Century", jsonPath.read(STRING_VALID, String.class));
 
+        JsonPath newJsonPath = roundTrip(jsonPath);
+
+        assertEquals("Sayings of the Century", newJsonPath.read(STRING_VALID, String.class));
+    }
+
+    @Test
+    public void serializableRegexMode() throws IOException, ClassNotFoundException {
+        JsonPath jsonPath = JsonPath.compile("$.store.book[?(@.title =~ /^S/)].price", RegexMode.LINEAR_TIME);
+
+        assertEquals(Arrays.asList(8.95, 12.99), roundTrip(jsonPath).read(NODE, List.class));
+    }
+
+    @Test
+    public void serializableLimit() throws IOException, ClassNotFoundException {
+        JsonPath jsonPath = JsonPath.compile("$..price").limit(3);
+
+        assertEquals(Arrays.asList(8.95, 12.99, 8.99), roundTrip(jsonPath).read(NODE, List.class));
+    }
+
+    @Test
+    public void regex() {
+        assertEquals(Arrays.asList("The Lord of the Rings"), JsonPath.read("$.store.book[?(@.author =~ /^J\\. R\\. R\\./)].title", NODE, List.class));
+        assertEquals(Arrays.asList("Sayings of the Century", "The Lord of the Rings"),
+            JsonPath.read("$.store.book[?(@.title =~ /OF THE/i)].title", STRING_VALID, List.class));
+        assertEquals(Arrays.asList("Moby Dick", "The Lord of the Rings"),
+            JsonPath.compile("$..book[?(@.isbn =~ /^0-\\d{3}-/)].title", RegexMode.LINEAR_TIME).read(STRING_VALID, List.class));
+    }
+
+    @Test(expected = InvalidJsonPathExpressionException.class)
+    public void regexLinearTimeInvalid() {
+        JsonPath.compile("$.store.book[?(@.title =~ /^(S)\\1/)]", RegexMode.LINEAR_TIME);
+    }
+
+    @Test
+    public void pooledBufferRecycling() throws InterruptedException {
+        assertEquals(BufferRecycling.THREAD_LOCAL, JsonPath.getBufferRecycling());
+
+        JsonPath.setBufferRecycling(BufferRecycling.POOLED);
+        try {
+            final JsonPath jsonPath = JsonPath.compile("$.store.book[*].price");
+            final List<Object> results = new CopyOnWriteArrayList<Object>();
+
+            Thread[] threads = new Thread[8];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        results.add(jsonPath.read(STRING_VALID, List.class));
+                        results.add(jsonPath.read(BYTES_VALID, List.class));
+                        results.add(jsonPath.read(new ByteArrayInputStream(BYTES_VALID), List.class));
+                        results.add(JsonPath.compile("$.store.bicycle.price").readDouble(STRING_VALID));
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            List<Double> prices = Arrays.asList(8.95, 12.99, 8.99, 22.99);
+            assertEquals(4 * threads.length, results.size());
+            assertEquals(3 * threads.length, Collections.frequency(results, prices));
+            assertEquals(threads.length, Collections.frequency(results, 19.95));
+        } finally {
+            JsonPath.setBufferRecycling(BufferRecycling.THREAD_LOCAL);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullBufferRecycling() {
+        JsonPath.setBufferRecycling(null);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("JsonPath [expression=$.store.book[0].title]", JsonPath.compile("$.store.book[0].title").toString());
+    }
+
+    private static void assertReadLongFails(String message, String expression, Object json) {
+        try {
+            if (json instanceof JsonNode) {
+                JsonPath.compile(expression).readLong((JsonNode) json);
+            } else {
+                JsonPath.compile(expression).readLong((String) json);
+            }
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+
+    private static JsonPath roundTrip(JsonPath jsonPath) throws IOException, ClassNotFoundException {
         byte[] serialized;
         ObjectOutputStream out = null;
         try {
@@ -223,23 +898,55 @@ public final class JsonPathTest {
             }
         }
 
-        JsonPath newJsonPath;
         ObjectInputStream in = null;
         try {
             in = new ObjectInputStream(new ByteArrayInputStream(serialized));
 
-            newJsonPath = (JsonPath) in.readObject();
+            return (JsonPath) in.readObject();
         } finally {
             if (in != null) {
                 in.close();
             }
         }
+    }
 
-        assertEquals("Sayings of the Century", newJsonPath.read(STRING_VALID, String.class));
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(bytes);
+        gzip.close();
+        return out.toByteArray();
     }
 
-    @Test
-    public void testToString() {
-        assertEquals("JsonPath [expression=$.store.book[0].title]", JsonPath.compile("$.store.book[0].title").toString());
+    private static byte[] deflate(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DeflaterOutputStream deflate = new DeflaterOutputStream(out);
+        deflate.write(bytes);
+        deflate.close();
+        return out.toByteArray();
+    }
+
+    private static final class RecordingMatchCallback<T> implements MatchCallback<T> {
+
+        private final List<T> values = new ArrayList<T>();
+
+        @Override
+        public void onMatch(T value) {
+            this.values.add(value);
+        }
     }
+
+    public static final class Book {
+
+        public String category;
+
+        public String author;
+
+        public String title;
+
+        public String isbn;
+
+        public double price;
+    }
+
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+public final class LiveQuerySetTest {
+
+    private final JsonPath firstPrice = JsonPath.compile("$.store.book[0].price");
+
+    private final JsonPath prices = JsonPath.compile("$.store.book[*].price");
+
+    private final JsonPath secondTitle = JsonPath.compile("$.store.book[1].title");
+
+    private final JsonPath cheapTitles = JsonPath.compile("$.store.book[?(@.price < 10)].title");
+
+    private final JsonPath color = JsonPath.compile("$.store.bicycle[0].color");
+
+    private final LiveQuerySet liveQuerySet = new LiveQuerySet(NODE.deepCopy()).add(this.firstPrice).add(this.prices).add(
+        this.secondTitle).add(this.cheapTitles).add(this.color);
+
+    @Test
+    public void getResult() {
+        assertEquals(JsonNodeFactory.instance.numberNode(8.95), this.liveQuerySet.getResult(this.firstPrice));
+        assertEquals(JsonNodeFactory.instance.textNode("red"), this.liveQuerySet.getResult(this.color));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getResultNotAdded() {
+        this.liveQuerySet.getResult(JsonPath.compile("$"));
+    }
+
+    @Test
+    public void replace() throws IOException {
+        assertEquals(Arrays.asList(this.firstPrice, this.prices),
+            this.liveQuerySet.apply(patch("[{'op':'replace','path':'/store/book/0/price','value':1}]")));
+        assertEquals(JsonNodeFactory.instance.numberNode(1), this.liveQuerySet.getResult(this.firstPrice));
+        assertEquals(1, this.liveQuerySet.getDocument().get("store").get("book").get(0).get("price").intValue());
+    }
+
+    @Test
+    public void replaceUnchanged() throws IOException {
+        assertEquals(Collections.emptyList(), this.liveQuerySet.apply(patch("[{'op':'replace','path':'/store/bicycle/0/color','value':'red'}]")));
+    }
+
+    @Test
+    public void replaceFilterField() throws IOException {
+        assertEquals(Arrays.asList(this.prices, this.cheapTitles),
+            this.liveQuerySet.apply(patch("[{'op':'replace','path':'/store/book/1/price','value':5}]")));
+        assertEquals(3, this.liveQuerySet.getResult(this.cheapTitles).size());
+    }
+
+    @Test
+    public void addShiftsElements() throws IOException {
+        assertEquals(Arrays.asList(this.firstPrice, this.prices, this.secondTitle, this.cheapTitles),
+            this.liveQuerySet.apply(patch("[{'op':'add','path':'/store/book/0','value':{'title':'New','price':1}}]")));
+        assertEquals(JsonNodeFactory.instance.textNode("Sayings of the Century"), this.liveQuerySet.getResult(this.secondTitle));
+    }
+
+    @Test
+    public void remove() throws IOException {
+        assertEquals(Arrays.asList(this.color), this.liveQuerySet.apply(patch("[{'op':'remove','path':'/store/bicycle/0/color'}]")));
+        assertNull(this.liveQuerySet.getResult(this.color));
+    }
+
+    @Test
+    public void moveAndCopy() throws IOException {
+        assertEquals(Arrays.asList(this.color), this.liveQuerySet.apply(patch("[{'op':'copy','from':'/store/bicycle/1/color',"
+            + "'path':'/store/bicycle/0/color'},{'op':'move','from':'/store/bicycle/1/color','path':'/store/tint'}]")));
+        assertEquals(JsonNodeFactory.instance.textNode("blue"), this.liveQuerySet.getResult(this.color));
+        assertEquals("blue", this.liveQuerySet.getDocument().get("store").get("tint").textValue());
+        assertNull(this.liveQuerySet.getDocument().get("store").get("bicycle").get(1).get("color"));
+    }
+
+    @Test
+    public void replaceRoot() throws IOException {
+        JsonPath root = JsonPath.compile("$.a");
+        LiveQuerySet document = new LiveQuerySet(NODE.deepCopy()).add(root);
+
+        assertEquals(Arrays.asList(root), document.apply(patch("[{'op':'replace','path':'','value':{'a/b':{'~':1},'a':2}}]")));
+        assertEquals(JsonNodeFactory.instance.numberNode(2), document.getResult(root));
+        document.apply(patch("[{'op':'test','path':'/a~1b/~0','value':1}]"));
+    }
+
+    @Test
+    public void indexAfterWildcard() throws IOException {
+        JsonPath wildcard = JsonPath.compile("$.a[*][1]");
+        JsonPath values = JsonPath.compile("$.a.*[0]");
+        LiveQuerySet document = new LiveQuerySet(new ObjectMapper().readTree("{\"a\":[[2,2,4],{\"b\":4,\"c\":0}]}")).add(wildcard).add(
+            values);
+
+        assertEquals(Arrays.asList(wildcard), document.apply(patch("[{'op':'remove','path':'/a/1/c'}]")));
+        assertEquals(new ObjectMapper().readTree("{\"b\":4}"), document.getResult(wildcard));
+
+        assertEquals(Arrays.asList(values), document.apply(patch("[{'op':'replace','path':'/a/0/2','value':5}]")));
+        assertEquals(new ObjectMapper().readTree("[2,2,5]"), document.getResult(values));
+    }
+
+    @Test
+    public void failedTest() throws IOException {
+        try {
+            this.liveQuerySet.apply(patch("[{'op':'remove','path':'/store/bicycle/0/color'},{'op':'test','path':'/store','value':1}]"));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertNull(this.liveQuerySet.getResult(this.color));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingLocation() throws IOException {
+        this.liveQuerySet.apply(patch("[{'op':'replace','path':'/store/book/7/price','value':1}]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void moveIntoChild() throws IOException {
+        this.liveQuerySet.apply(patch("[{'op':'move','from':'/store','path':'/store/book'}]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownOperation() throws IOException {
+        this.liveQuerySet.apply(patch("[{'op':'merge','path':'/store'}]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notAnArray() throws IOException {
+        this.liveQuerySet.apply(patch("{'op':'remove','path':'/store'}"));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("LiveQuerySet [jsonPaths=[JsonPath [expression=$]]]", new LiveQuerySet(NODE).add(JsonPath.compile("$")).toString());
+    }
+
+    private static JsonNode patch(String json) throws IOException {
+        return new ObjectMapper().readTree(json.replace('\'', '"'));
+    }
+
+}
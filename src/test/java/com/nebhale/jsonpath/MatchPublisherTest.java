@@ -0,0 +1,223 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import static com.nebhale.jsonpath.testutils.JsonUtils.BYTES_VALID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+
+public final class MatchPublisherTest {
+
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+    private final RecordingMatchSubscriber<Object> subscriber = new RecordingMatchSubscriber<Object>();
+
+    @After
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
+
+    @Test
+    public void requestAll() throws InterruptedException {
+        MatchPublisher<String> publisher = JsonPath.compile("$..book[*].title").publish(new ByteArrayInputStream(BYTES_VALID),
+            String.class, this.executorService);
+        RecordingMatchSubscriber<String> titles = new RecordingMatchSubscriber<String>();
+        publisher.subscribe(titles);
+        titles.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(titles.finished.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("Sayings of the Century", "Sword of Honour", "Moby Dick", "The Lord of the Rings"), titles.getValues());
+        assertTrue(titles.completed);
+        assertNull(titles.exception);
+    }
+
+    @Test
+    public void backpressure() throws InterruptedException, UnsupportedEncodingException {
+        byte[] payload = largeArray(100000);
+        CountingInputStream in = new CountingInputStream(new ByteArrayInputStream(payload));
+        JsonPath.compile("$[*]").publish(in, Integer.class, this.executorService).subscribe(this.subscriber);
+
+        this.subscriber.subscription.request(1);
+        assertTrue(this.subscriber.firstValue.await(10, TimeUnit.SECONDS));
+        Thread.sleep(100);
+
+        assertEquals(1, this.subscriber.getValues().size());
+        assertTrue(in.count.get() < payload.length);
+        assertFalse(this.subscriber.completed);
+
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue(this.subscriber.finished.await(10, TimeUnit.SECONDS));
+        assertEquals(100000, this.subscriber.getValues().size());
+        assertEquals(99999, this.subscriber.getValues().get(99999));
+        assertTrue(this.subscriber.completed);
+    }
+
+    @Test
+    public void cancel() throws InterruptedException, UnsupportedEncodingException {
+        JsonPath.compile("$[*]").publish(new ByteArrayInputStream(largeArray(1000)), Integer.class, this.executorService).subscribe(
+            this.subscriber);
+
+        this.subscriber.subscription.request(1);
+        assertTrue(this.subscriber.firstValue.await(10, TimeUnit.SECONDS));
+        this.subscriber.subscription.cancel();
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+
+        this.executorService.shutdown();
+        assertTrue(this.executorService.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(0), this.subscriber.getValues());
+        assertFalse(this.subscriber.completed);
+        assertNull(this.subscriber.exception);
+    }
+
+    @Test
+    public void invalidRequest() throws InterruptedException, UnsupportedEncodingException {
+        JsonPath.compile("$[*]").publish(new ByteArrayInputStream(largeArray(10)), Integer.class, this.executorService).subscribe(
+            this.subscriber);
+        this.subscriber.subscription.request(0);
+
+        assertTrue(this.subscriber.finished.await(10, TimeUnit.SECONDS));
+        assertTrue(this.subscriber.exception instanceof IllegalArgumentException);
+        assertFalse(this.subscriber.completed);
+    }
+
+    @Test
+    public void invalid() throws InterruptedException, UnsupportedEncodingException {
+        JsonPath.compile("$[*]").publish(new ByteArrayInputStream("[1,}".getBytes("UTF-8")), Integer.class, this.executorService).subscribe(
+            this.subscriber);
+        this.subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(this.subscriber.finished.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1), this.subscriber.getValues());
+        assertTrue(this.subscriber.exception instanceof InvalidJsonException);
+    }
+
+    @Test
+    public void secondSubscriber() throws UnsupportedEncodingException {
+        MatchPublisher<Integer> publisher = JsonPath.compile("$[*]").publish(new ByteArrayInputStream(largeArray(10)), Integer.class,
+            this.executorService);
+        publisher.subscribe(this.subscriber);
+
+        RecordingMatchSubscriber<Integer> second = new RecordingMatchSubscriber<Integer>();
+        publisher.subscribe(second);
+
+        assertTrue(second.exception instanceof IllegalStateException);
+        this.subscriber.subscription.cancel();
+    }
+
+    @Test
+    public void testToString() {
+        MatchPublisher<String> publisher = JsonPath.compile("$").publish(new ByteArrayInputStream(BYTES_VALID), String.class,
+            this.executorService);
+        assertEquals("MatchPublisher [jsonPath=JsonPath [expression=$], expectedType=[simple type, class java.lang.String], subscribed=false]",
+            publisher.toString());
+    }
+
+    private static byte[] largeArray(int size) throws UnsupportedEncodingException {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(i);
+        }
+        return sb.append(']').toString().getBytes("UTF-8");
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count = new AtomicLong();
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                this.count.addAndGet(read);
+            }
+            return read;
+        }
+    }
+
+    private static final class RecordingMatchSubscriber<T> implements MatchSubscriber<T> {
+
+        private final List<T> values = new ArrayList<T>();
+
+        private final CountDownLatch firstValue = new CountDownLatch(1);
+
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        private volatile MatchSubscription subscription;
+
+        private volatile boolean completed = false;
+
+        private volatile RuntimeException exception;
+
+        @Override
+        public void onSubscribe(MatchSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T value) {
+            synchronized (this.values) {
+                this.values.add(value);
+            }
+            this.firstValue.countDown();
+        }
+
+        @Override
+        public void onError(RuntimeException exception) {
+            this.exception = exception;
+            this.finished.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+            this.finished.countDown();
+        }
+
+        private List<T> getValues() {
+            synchronized (this.values) {
+                return new ArrayList<T>(this.values);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public final class ReadResultTest {
+
+    @Test
+    public void success() {
+        ReadResult<String> result = ReadResult.success("alpha");
+
+        assertTrue(result.isSuccessful());
+        assertEquals("alpha", result.getValue());
+        assertNull(result.getFailure());
+    }
+
+    @Test
+    public void failure() {
+        IllegalArgumentException failure = new IllegalArgumentException("alpha");
+        ReadResult<String> result = ReadResult.failure(failure);
+
+        assertFalse(result.isSuccessful());
+        assertSame(failure, result.getFailure());
+
+        try {
+            result.getValue();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("ReadResult [value=alpha, failure=null]", ReadResult.success("alpha").toString());
+        assertEquals("ReadResult [value=null, failure=java.lang.IllegalArgumentException: alpha]",
+            ReadResult.failure(new IllegalArgumentException("alpha")).toString());
+    }
+
+}
@@ -58,6 +58,11 @@ public final class AbstractChainedPathComponentTest {
             return input;
         }
 
+        @Override
+        protected MatchHandler createChainedMatchHandler(MatchHandler next) {
+            return next;
+        }
+
     }
 
 }
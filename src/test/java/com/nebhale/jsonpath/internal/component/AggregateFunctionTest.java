@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public final class AggregateFunctionTest {
+
+    @Test
+    public void forName() {
+        assertEquals(AggregateFunction.AVG, AggregateFunction.forName("avg"));
+        assertEquals(AggregateFunction.LENGTH, AggregateFunction.forName("length"));
+        assertEquals(AggregateFunction.MAX, AggregateFunction.forName("max"));
+        assertEquals(AggregateFunction.MIN, AggregateFunction.forName("min"));
+        assertEquals(AggregateFunction.SUM, AggregateFunction.forName("sum"));
+        assertNull(AggregateFunction.forName("SUM"));
+        assertNull(AggregateFunction.forName("count"));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("sum", AggregateFunction.SUM.toString());
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
+import static com.nebhale.jsonpath.testutils.JsonUtils.stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+public final class AggregatePathComponentTest {
+
+    private static final String JSON = "[3, 1.5, \"a\", [4], {\"b\":5}, -2]";
+
+    @Test
+    public void selectArray() {
+        JsonNode nodeBook = NODE.get("store").get("book");
+
+        assertEquals(JsonNodeFactory.instance.numberNode(4), new AggregatePathComponent(null, AggregateFunction.LENGTH).select(nodeBook));
+    }
+
+    @Test
+    public void selectScalar() {
+        JsonNode price = NODE.get("store").get("book").get(0).get("price");
+
+        assertEquals(JsonNodeFactory.instance.numberNode(8.95), new AggregatePathComponent(null, AggregateFunction.SUM).select(price));
+        assertEquals(JsonNodeFactory.instance.numberNode(1), new AggregatePathComponent(null, AggregateFunction.LENGTH).select(NODE));
+        assertNull(new AggregatePathComponent(null, AggregateFunction.MAX).select(NODE));
+    }
+
+    @Test
+    public void streamArray() throws IOException {
+        assertEquals(JsonNodeFactory.instance.numberNode(6), stream(new AggregatePathComponent(null, AggregateFunction.LENGTH), JSON));
+        assertEquals(JsonNodeFactory.instance.numberNode(2.5), stream(new AggregatePathComponent(null, AggregateFunction.SUM), JSON));
+        assertEquals(JsonNodeFactory.instance.numberNode(-2.0), stream(new AggregatePathComponent(null, AggregateFunction.MIN), JSON));
+        assertEquals(JsonNodeFactory.instance.numberNode(3.0), stream(new AggregatePathComponent(null, AggregateFunction.MAX), JSON));
+        assertEquals(JsonNodeFactory.instance.numberNode(2.5 / 3), stream(new AggregatePathComponent(null, AggregateFunction.AVG), JSON));
+    }
+
+    @Test
+    public void streamSet() throws IOException {
+        AggregatePathComponent pathComponent = new AggregatePathComponent(null, AggregateFunction.SUM);
+
+        assertEquals(JsonNodeFactory.instance.numberNode(7), stream(new WildcardPathComponent(new ChildPathComponent(pathComponent, "a")),
+            "[{\"a\":3},{\"a\":4},{\"b\":5}]"));
+        assertEquals(JsonNodeFactory.instance.numberNode(0), stream(new WildcardPathComponent(pathComponent), "{}"));
+    }
+
+    @Test
+    public void streamScalar() throws IOException {
+        assertEquals(JsonNodeFactory.instance.numberNode(1), stream(new AggregatePathComponent(null, AggregateFunction.LENGTH), "{\"a\":[1]}"));
+        assertNull(stream(new AggregatePathComponent(null, AggregateFunction.AVG), "\"a\""));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("AggregatePathComponent [function=sum]", new AggregatePathComponent(null, AggregateFunction.SUM).toString());
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+public final class AggregatorTest {
+
+    private final Aggregator aggregator = new Aggregator();
+
+    @Test
+    public void empty() {
+        assertEquals(JsonNodeFactory.instance.numberNode(0), this.aggregator.getResult(AggregateFunction.LENGTH));
+        assertEquals(JsonNodeFactory.instance.numberNode(0), this.aggregator.getResult(AggregateFunction.SUM));
+        assertNull(this.aggregator.getResult(AggregateFunction.MIN));
+        assertNull(this.aggregator.getResult(AggregateFunction.MAX));
+        assertNull(this.aggregator.getResult(AggregateFunction.AVG));
+    }
+
+    @Test
+    public void integral() {
+        this.aggregator.add(JsonNodeFactory.instance.numberNode(Long.MAX_VALUE - 1));
+        this.aggregator.add(JsonNodeFactory.instance.numberNode(1));
+        this.aggregator.add(JsonNodeFactory.instance.numberNode(-1L));
+
+        assertEquals(JsonNodeFactory.instance.numberNode(Long.MAX_VALUE - 1), this.aggregator.getResult(AggregateFunction.SUM));
+        assertEquals(JsonNodeFactory.instance.numberNode(-1), this.aggregator.getResult(AggregateFunction.MIN));
+        assertEquals(JsonNodeFactory.instance.numberNode(Long.MAX_VALUE - 1), this.aggregator.getResult(AggregateFunction.MAX));
+        assertEquals(JsonNodeFactory.instance.numberNode((Long.MAX_VALUE - 1) / 3.0), this.aggregator.getResult(AggregateFunction.AVG));
+    }
+
+    @Test
+    public void overflow() {
+        this.aggregator.add(JsonNodeFactory.instance.numberNode(Long.MAX_VALUE));
+        this.aggregator.add(JsonNodeFactory.instance.numberNode(1));
+
+        assertEquals(JsonNodeFactory.instance.numberNode((double) Long.MAX_VALUE + 1), this.aggregator.getResult(AggregateFunction.SUM));
+    }
+
+    @Test
+    public void mixed() {
+        this.aggregator.add(JsonNodeFactory.instance.numberNode(2));
+        this.aggregator.add(JsonNodeFactory.instance.numberNode(0.5));
+        this.aggregator.add(JsonNodeFactory.instance.numberNode(BigInteger.TEN.pow(20)));
+        this.aggregator.add(JsonNodeFactory.instance.textNode("3"));
+
+        assertEquals(JsonNodeFactory.instance.numberNode(4), this.aggregator.getResult(AggregateFunction.LENGTH));
+        assertEquals(JsonNodeFactory.instance.numberNode(2.5 + 1e20), this.aggregator.getResult(AggregateFunction.SUM));
+        assertEquals(JsonNodeFactory.instance.numberNode(0.5), this.aggregator.getResult(AggregateFunction.MIN));
+        assertEquals(JsonNodeFactory.instance.numberNode(1e20), this.aggregator.getResult(AggregateFunction.MAX));
+    }
+
+    @Test
+    public void parser() throws IOException {
+        JsonParser parser = new ObjectMapper().getFactory().createParser("[1, 100000000000000000000, 2.5, {\"a\":1}, [1, 2], null]");
+        try {
+            parser.nextToken();
+            for (int i = 0; i < 6; i++) {
+                parser.nextToken();
+                this.aggregator.add(parser);
+            }
+        } finally {
+            parser.close();
+        }
+
+        assertEquals(JsonNodeFactory.instance.numberNode(6), this.aggregator.getResult(AggregateFunction.LENGTH));
+        assertEquals(JsonNodeFactory.instance.numberNode(3.5 + 1e20), this.aggregator.getResult(AggregateFunction.SUM));
+        assertEquals(JsonNodeFactory.instance.numberNode(1.0), this.aggregator.getResult(AggregateFunction.MIN));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("Aggregator [count=0, numbers=0, integral=true, longSum=0, longMin=9223372036854775807, longMax=-9223372036854775808, "
+            + "doubleSum=0.0, doubleMin=Infinity, doubleMax=-Infinity]", this.aggregator.toString());
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public final class BindingMatchHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void none() {
+        assertNull(create(String.class, Integer.MAX_VALUE).getResult());
+    }
+
+    @Test
+    public void single() throws IOException {
+        BindingMatchHandler handler = create(Item.class, Integer.MAX_VALUE);
+        handler.match(parser("{\"name\":\"alpha\",\"count\":1}"));
+
+        Item item = (Item) handler.getResult();
+        assertEquals("alpha", item.name);
+        assertEquals(1, item.count);
+    }
+
+    @Test
+    public void singleNode() {
+        ObjectNode value = JsonNodeFactory.instance.objectNode();
+        value.put("name", "alpha");
+
+        BindingMatchHandler handler = create(Item.class, Integer.MAX_VALUE);
+        handler.match(value);
+
+        assertEquals("alpha", ((Item) handler.getResult()).name);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void setList() throws IOException {
+        BindingMatchHandler handler = create(new TypeReference<List<Item>>() {
+        }, Integer.MAX_VALUE);
+        handler.startSet();
+        handler.match(parser("{\"name\":\"alpha\"}"));
+        handler.match(this.objectMapper.readTree("{\"name\":\"beta\"}"));
+        handler.endSet();
+
+        List<Item> items = (List<Item>) handler.getResult();
+        assertEquals(2, items.size());
+        assertEquals("alpha", items.get(0).name);
+        assertEquals("beta", items.get(1).name);
+    }
+
+    @Test
+    public void setArray() throws IOException {
+        BindingMatchHandler handler = create(int[].class, Integer.MAX_VALUE);
+        handler.startSet();
+        handler.match(parser("1"));
+        handler.match(parser("null"));
+        handler.match(JsonNodeFactory.instance.numberNode(3));
+        handler.endSet();
+
+        assertArrayEquals(new int[] { 1, 0, 3 }, (int[]) handler.getResult());
+    }
+
+    @Test
+    public void setObject() throws IOException {
+        BindingMatchHandler handler = create(Object.class, Integer.MAX_VALUE);
+        handler.startSet();
+        handler.match(parser("\"alpha\""));
+        handler.match(parser("2"));
+        handler.endSet();
+
+        assertEquals(Arrays.<Object> asList("alpha", 2), handler.getResult());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void setOther() throws IOException {
+        BindingMatchHandler handler = create(new TypeReference<Map<String, Object>>() {
+        }, Integer.MAX_VALUE);
+        handler.startSet();
+        handler.match(parser("{\"alpha\":1}"));
+
+        try {
+            handler.endSet();
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        handler = create(new TypeReference<Map<String, Object>>() {
+        }, Integer.MAX_VALUE);
+        handler.match(parser("{\"alpha\":1}"));
+        assertEquals(1, ((Map<String, Object>) handler.getResult()).get("alpha"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void limit() throws IOException {
+        BindingMatchHandler handler = create(new TypeReference<List<String>>() {
+        }, 2);
+        handler.startSet();
+        handler.match(parser("\"alpha\""));
+
+        try {
+            handler.match(parser("\"beta\""));
+            fail();
+        } catch (SelectionCompleteException e) {
+            // Expected
+        }
+
+        assertEquals(Arrays.asList("alpha", "beta"), (List<String>) handler.getResult());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatch() throws IOException {
+        create(Item.class, Integer.MAX_VALUE).match(parser("[1]"));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("BindingMatchHandler [type=[simple type, class java.lang.String], limit=1]", create(String.class, 1).toString());
+    }
+
+    private BindingMatchHandler create(Class<?> type, int limit) {
+        return create(this.objectMapper.constructType(type), limit);
+    }
+
+    private BindingMatchHandler create(TypeReference<?> type, int limit) {
+        return create(this.objectMapper.getTypeFactory().constructType(type), limit);
+    }
+
+    private BindingMatchHandler create(JavaType type, int limit) {
+        return new BindingMatchHandler(this.objectMapper.reader(type), type, limit);
+    }
+
+    private JsonParser parser(String json) throws IOException {
+        JsonParser parser = this.objectMapper.getFactory().createParser(json);
+        parser.nextToken();
+        return parser;
+    }
+
+    public static final class Item {
+
+        public String name;
+
+        public int count;
+    }
+
+}
@@ -17,8 +17,16 @@
 package com.nebhale.jsonpath.internal.component;
 
 import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
+import static com.nebhale.jsonpath.testutils.JsonUtils.STRING_VALID;
+import static com.nebhale.jsonpath.testutils.JsonUtils.stream;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
 
 import org.junit.Test;
 
@@ -85,6 +93,88 @@ public final class ChildPathComponentTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void streamSingle() throws IOException {
+        assertEquals(NODE.get("store"), stream(new ChildPathComponent(null, "store"), STRING_VALID));
+    }
+
+    @Test
+    public void streamDuplicate() throws IOException {
+        assertEquals(JsonNodeFactory.instance.numberNode(1), stream(new ChildPathComponent(null, "a"), "{\"a\":1,\"b\":{\"a\":3},\"a\":2}"));
+    }
+
+    @Test
+    public void streamArray() throws IOException {
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(1);
+        expected.add(2);
+        expected.add(3);
+
+        assertEquals(expected, stream(new ChildPathComponent(new ChildPathComponent(null, "a"), "b"), "{\"b\":[{\"a\":1},{\"a\":[2,3]},[{\"a\":4}],5]}"));
+    }
+
+    @Test
+    public void streamMultipleArray() throws IOException {
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(1);
+        expected.add(2);
+        expected.add(3);
+        expected.addNull();
+
+        assertEquals(expected, stream(new ChildPathComponent(null, "a, b"), "[{\"a\":1,\"b\":2},{\"a\":3}]"));
+    }
+
+    @Test
+    public void streamMultiple() throws IOException {
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(2);
+        expected.addNull();
+        expected.add(1);
+
+        assertEquals(expected, stream(new ChildPathComponent(null, "b, c, a"), "{\"a\":1,\"b\":2}"));
+    }
+
+    @Test
+    public void streamStopsReading() throws IOException {
+        assertEquals(JsonNodeFactory.instance.numberNode(1), stream(new ChildPathComponent(null, "a"), "{\"a\":1,\"b\":"));
+
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(2);
+        expected.add(1);
+        assertEquals(expected, stream(new ChildPathComponent(null, "b, a"), "{\"a\":1,\"b\":2,\"c\":"));
+    }
+
+    @Test
+    public void streamInMemory() throws IOException {
+        assertEquals(JsonNodeFactory.instance.numberNode(2), stream(new ChildPathComponent(null, "b"), "{\"a\":1,\"b\":2}".getBytes("UTF-8")));
+        assertEquals(JsonNodeFactory.instance.numberNode(1), stream(new ChildPathComponent(null, "a"), "{\"a\":1,\"b\":".getBytes("UTF-8")));
+    }
+
+    @Test
+    public void streamColonAtEndOfBuffer() throws IOException {
+        // Jackson 2.1 reads a stream in buffers of 8000 bytes
+        StringBuilder json = new StringBuilder("{\"x\":\"");
+        while (json.length() < 8000 - "\",\"a\":".length()) {
+            json.append(' ');
+        }
+        json.append("\",\"a\":1}");
+
+        assertEquals(':', json.charAt(7999));
+        assertEquals(JsonNodeFactory.instance.numberNode(1),
+            stream(new ChildPathComponent(null, "a"), new ByteArrayInputStream(json.toString().getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void dependsOn() {
+        ChildPathComponent pathComponent = new ChildPathComponent(new ChildPathComponent(null, "c"), "a, b");
+
+        assertTrue(pathComponent.dependsOn(Arrays.asList("b"), 0));
+        assertTrue(pathComponent.dependsOn(Arrays.asList("a", "c", "d"), 0));
+        assertTrue(pathComponent.dependsOn(Arrays.asList("3", "a", "c"), 0));
+        assertFalse(pathComponent.dependsOn(Arrays.asList("a", "d"), 0));
+        assertFalse(pathComponent.dependsOn(Arrays.asList("d", "c"), 0));
+    }
+
     @Test
     public void testToString() {
         assertEquals("ChildPathComponent [names=[name-1, name-2]]", new ChildPathComponent(null, "name-1,name-2").toString());
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+public final class CollectingMatchHandlerTest {
+
+    private final CollectingMatchHandler handler = new CollectingMatchHandler();
+
+    @Test
+    public void none() {
+        assertNull(this.handler.getResult());
+        assertNull(this.handler.getFirst());
+    }
+
+    @Test
+    public void single() {
+        this.handler.match(JsonNodeFactory.instance.textNode("alpha"));
+        assertEquals(JsonNodeFactory.instance.textNode("alpha"), this.handler.getResult());
+        assertEquals(JsonNodeFactory.instance.textNode("alpha"), this.handler.getFirst());
+    }
+
+    @Test
+    public void set() throws IOException {
+        JsonParser parser = new ObjectMapper().getFactory().createParser("{\"beta\":2}");
+        parser.nextToken();
+
+        this.handler.startSet();
+        this.handler.match(JsonNodeFactory.instance.numberNode(1));
+        this.handler.match(parser);
+        this.handler.endSet();
+
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(1);
+        expected.add(JsonNodeFactory.instance.objectNode().put("beta", 2));
+        assertEquals(expected, this.handler.getResult());
+        assertEquals(JsonNodeFactory.instance.numberNode(1), this.handler.getFirst());
+    }
+
+    @Test
+    public void limit() {
+        CollectingMatchHandler limited = new CollectingMatchHandler(2);
+        limited.startSet();
+        limited.match(JsonNodeFactory.instance.numberNode(1));
+
+        try {
+            limited.match(JsonNodeFactory.instance.numberNode(2));
+            fail();
+        } catch (SelectionCompleteException e) {
+            ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+            expected.add(1);
+            expected.add(2);
+            assertEquals(expected, limited.getResult());
+        }
+    }
+
+    @Test
+    public void emptySet() {
+        this.handler.startSet();
+        this.handler.endSet();
+        assertEquals(JsonNodeFactory.instance.arrayNode(), this.handler.getResult());
+        assertNull(this.handler.getFirst());
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("CollectingMatchHandler [limit=2147483647, result=null]", this.handler.toString());
+    }
+
+}
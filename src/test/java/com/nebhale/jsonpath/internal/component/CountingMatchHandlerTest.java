@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+public final class CountingMatchHandlerTest {
+
+    @Test
+    public void none() {
+        assertEquals(0, new CountingMatchHandler().getCount());
+    }
+
+    @Test
+    public void single() {
+        CountingMatchHandler handler = new CountingMatchHandler();
+        handler.match(JsonNodeFactory.instance.textNode("alpha"));
+        assertEquals(1, handler.getCount());
+    }
+
+    @Test
+    public void set() throws IOException {
+        JsonParser parser = new ObjectMapper().getFactory().createParser("[{\"beta\":[2]},3]");
+        parser.nextToken();
+        parser.nextToken();
+
+        CountingMatchHandler handler = new CountingMatchHandler();
+        handler.startSet();
+        handler.match(JsonNodeFactory.instance.numberNode(1));
+        handler.match(parser);
+        handler.endSet();
+
+        assertEquals(2, handler.getCount());
+        assertEquals(JsonToken.END_OBJECT, parser.getCurrentToken());
+    }
+
+    @Test
+    public void limit() {
+        CountingMatchHandler handler = new CountingMatchHandler(2);
+        handler.startSet();
+        handler.match(JsonNodeFactory.instance.numberNode(1));
+
+        try {
+            handler.match(JsonNodeFactory.instance.numberNode(2));
+            fail();
+        } catch (SelectionCompleteException e) {
+            assertEquals(2, handler.getCount());
+        }
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("CountingMatchHandler [limit=1, count=0]", new CountingMatchHandler(1).toString());
+    }
+
+}
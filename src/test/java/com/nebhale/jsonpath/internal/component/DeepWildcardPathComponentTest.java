@@ -18,6 +18,11 @@ package com.nebhale.jsonpath.internal.component;
 
 import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 
@@ -32,6 +37,31 @@ public final class DeepWildcardPathComponentTest {
         assertEquals(38, result.size());
     }
 
+    @Test
+    public void parallel() throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            DeepWildcardPathComponent pathComponent = new DeepWildcardPathComponent(new ChildPathComponent(null, "price"));
+            CollectingMatchHandler handler = new CollectingMatchHandler();
+            pathComponent.createMatchHandler(handler).match(NODE);
+
+            for (int forkSize : new int[] { 1, 2, 4, 100 }) {
+                for (int slices : new int[] { 2, 3, 8 }) {
+                    assertEquals(handler.getResult(), pathComponent.get(NODE, executorService, forkSize, slices));
+                }
+            }
+
+            assertEquals(38, new DeepWildcardPathComponent(null).get(NODE, executorService, 2, 2).size());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void dependsOn() {
+        assertTrue(new DeepWildcardPathComponent(new ChildPathComponent(null, "a")).dependsOn(Arrays.asList("x", "y"), 0));
+    }
+
     @Test
     public void testToString() {
         assertEquals("DeepWildcardPathComponent []", new DeepWildcardPathComponent(null).toString());
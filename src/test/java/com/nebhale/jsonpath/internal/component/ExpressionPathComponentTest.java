@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.nebhale.jsonpath.internal.expression.ArithmeticExpression;
+import com.nebhale.jsonpath.internal.expression.ArithmeticOperator;
+import com.nebhale.jsonpath.internal.expression.LengthExpression;
+import com.nebhale.jsonpath.internal.expression.LiteralOperand;
+import com.nebhale.jsonpath.internal.expression.NumericLiteral;
+import com.nebhale.jsonpath.internal.expression.PathOperand;
+
+public final class ExpressionPathComponentTest {
+
+    private static final JsonNode NODE_BOOK = NODE.get("store").get("book");
+
+    @Test
+    public void selectNumeric() {
+        JsonNode result = new ExpressionPathComponent(null, new ArithmeticExpression(new LengthExpression(new PathOperand(new String[0], new int[0])),
+            ArithmeticOperator.SUBTRACT, new NumericLiteral(1))).select(NODE_BOOK);
+
+        assertEquals(NODE_BOOK.get(3), result);
+    }
+
+    @Test
+    public void selectNumericFractional() {
+        assertNull(new ExpressionPathComponent(null, new NumericLiteral(1.5)).select(NODE_BOOK));
+    }
+
+    @Test
+    public void selectNumericOutOfRange() {
+        assertNull(new ExpressionPathComponent(null, new NumericLiteral(-1)).select(NODE_BOOK));
+        assertNull(new ExpressionPathComponent(null, new NumericLiteral(Double.NaN)).select(NODE_BOOK));
+    }
+
+    @Test
+    public void selectName() {
+        JsonNode result = new ExpressionPathComponent(null, new LiteralOperand(JsonNodeFactory.instance.textNode("author"))).select(NODE_BOOK.get(0));
+
+        assertEquals(NODE_BOOK.get(0).get("author"), result);
+    }
+
+    @Test
+    public void selectOperandIndex() {
+        JsonNode result = new ExpressionPathComponent(null, new LiteralOperand(JsonNodeFactory.instance.numberNode(2))).select(NODE_BOOK);
+
+        assertEquals(NODE_BOOK.get(2), result);
+    }
+
+    @Test
+    public void selectOperandOther() {
+        assertNull(new ExpressionPathComponent(null, new LiteralOperand(JsonNodeFactory.instance.booleanNode(true))).select(NODE_BOOK));
+        assertNull(new ExpressionPathComponent(null, new PathOperand(new String[] { "missing" }, new int[1])).select(NODE_BOOK.get(0)));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("ExpressionPathComponent [expression=NumericLiteral [value=1]]", new ExpressionPathComponent(null, new NumericLiteral(1)).toString());
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
+import static com.nebhale.jsonpath.testutils.JsonUtils.stream;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.nebhale.jsonpath.internal.expression.ComparisonOperator;
+import com.nebhale.jsonpath.internal.expression.ConstantPredicate;
+import com.nebhale.jsonpath.internal.expression.ExistsPredicate;
+import com.nebhale.jsonpath.internal.expression.PathOperand;
+import com.nebhale.jsonpath.internal.expression.Predicate;
+import com.nebhale.jsonpath.internal.expression.StringComparisonPredicate;
+
+public final class FilterPathComponentTest {
+
+    private static final JsonNode NODE_BOOK = NODE.get("store").get("book");
+
+    @Test
+    public void selectArray() {
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(NODE_BOOK.get(0));
+
+        JsonNode result = new FilterPathComponent(null, new StringComparisonPredicate(new PathOperand(new String[] { "category" }, new int[1]),
+            ComparisonOperator.EQUAL, "reference")).select(NODE_BOOK);
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void selectObject() {
+        JsonNode nodeStore = NODE.get("store");
+
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(nodeStore.get("book"));
+        expected.add(nodeStore.get("bicycle"));
+
+        JsonNode result = new FilterPathComponent(null, ConstantPredicate.TRUE).select(nodeStore);
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void selectScalar() {
+        JsonNode result = new FilterPathComponent(null, ConstantPredicate.TRUE).select(NODE_BOOK.get(0).get("title"));
+
+        assertEquals(0, result.size());
+    }
+
+    @Test
+    public void streamFields() throws IOException {
+        FilterPathComponent pathComponent = new FilterPathComponent(null, new StringComparisonPredicate(new PathOperand(new String[] { "b" },
+            new int[1]), ComparisonOperator.EQUAL, "x"), new String[] { "b" });
+
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(JsonNodeFactory.instance.objectNode().put("a", 1).put("b", "x").put("c", 3));
+        expected.add(JsonNodeFactory.instance.objectNode().put("b", "x"));
+
+        assertEquals(expected, stream(pathComponent, "[{\"a\":1,\"b\":\"x\",\"c\":3},{\"b\":\"y\",\"c\":[1,{}]},{\"a\":1},{\"b\":\"x\"},[\"x\"],\"x\"]"));
+    }
+
+    @Test
+    public void streamReplay() throws IOException {
+        FilterPathComponent pathComponent = new FilterPathComponent(new ChildPathComponent(null, "c"), new ExistsPredicate(new PathOperand(
+            new String[] { "b" }, new int[1])), new String[] { "b" });
+
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(JsonNodeFactory.instance.objectNode().put("d", 2));
+
+        assertEquals(expected, stream(pathComponent, "{\"x\":{\"c\":{\"d\":1}},\"y\":{\"a\":[true],\"b\":true,\"c\":{\"d\":2}}}"));
+    }
+
+    @Test
+    public void streamRest() throws IOException {
+        String json = "[{\"x\":[1,{\"y\":2}],\"a\":1,\"b\":{\"c\":[1,2]},\"d\":\"x\"},{\"a\":2,\"d\":\"y\"},{\"a\":1,\"d\":\"z\"}]";
+        ExistsPredicate predicate = new ExistsPredicate(new PathOperand(new String[] { "b" }, new int[1]));
+
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add("x");
+        assertEquals(expected, stream(new FilterPathComponent(new ChildPathComponent(null, "d"), predicate, new String[] { "b" }), json));
+
+        expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(new ObjectMapper().readTree(json).get(0));
+        assertEquals(expected, stream(new FilterPathComponent(null, predicate, new String[] { "b" }), json));
+    }
+
+    @Test
+    public void streamNoFields() throws IOException {
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(JsonNodeFactory.instance.objectNode().put("a", 1));
+
+        assertEquals(expected, stream(new FilterPathComponent(null, ConstantPredicate.TRUE, new String[0]), "[{\"a\":1}]"));
+        assertEquals(0, stream(new FilterPathComponent(null, ConstantPredicate.FALSE, new String[0]), "[{\"a\":1}]").size());
+    }
+
+    @Test
+    public void streamScalar() throws IOException {
+        assertEquals(0, stream(new FilterPathComponent(null, ConstantPredicate.TRUE, new String[0]), "1").size());
+    }
+
+    @Test
+    public void elementIndex() {
+        ElementIndex elementIndex = new ElementIndex() {
+
+            @Override
+            public int[] find(JsonNode array, Predicate predicate) {
+                return array == NODE_BOOK ? new int[] { 1, 3 } : null;
+            }
+        };
+
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(NODE_BOOK.get(3));
+
+        CollectingMatchHandler handler = new CollectingMatchHandler();
+        new FilterPathComponent(null, new ExistsPredicate(new PathOperand(new String[] { "isbn" }, new int[1])), new String[] { "isbn" })
+            .createMatchHandler(handler, elementIndex).match(NODE_BOOK);
+
+        assertEquals(expected, handler.getResult());
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("FilterPathComponent [fields=null, predicate=ConstantPredicate [value=true]]", new FilterPathComponent(null, ConstantPredicate.TRUE).toString());
+    }
+
+}
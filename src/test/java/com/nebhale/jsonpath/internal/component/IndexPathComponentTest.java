@@ -17,7 +17,13 @@
 package com.nebhale.jsonpath.internal.component;
 
 import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
+import static com.nebhale.jsonpath.testutils.JsonUtils.stream;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
 
 import org.junit.Test;
 
@@ -49,6 +55,49 @@ public final class IndexPathComponentTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void streamSingle() throws IOException {
+        assertEquals(JsonNodeFactory.instance.numberNode(3), stream(new IndexPathComponent(null, "2"), "[1,{\"a\":2},3,4]"));
+    }
+
+    @Test
+    public void streamMultiple() throws IOException {
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(3);
+        expected.addNull();
+        expected.add(1);
+
+        assertEquals(expected, stream(new IndexPathComponent(null, "2, 7, 0"), "[1,[2],3,4]"));
+    }
+
+    @Test
+    public void streamSet() throws IOException {
+        assertEquals(JsonNodeFactory.instance.numberNode(4),
+            stream(new WildcardPathComponent(new IndexPathComponent(null, "1")), "{\"a\":[1,2],\"b\":4,\"c\":5}"));
+    }
+
+    @Test
+    public void streamStopsReading() throws IOException {
+        assertEquals(JsonNodeFactory.instance.numberNode(2), stream(new IndexPathComponent(null, "1"), "[1,2,"));
+
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(2);
+        expected.add(1);
+        assertEquals(expected, stream(new IndexPathComponent(null, "1, 0"), "[1,2,"));
+    }
+
+    @Test
+    public void dependsOn() {
+        IndexPathComponent pathComponent = new IndexPathComponent(null, "1, 10");
+
+        assertTrue(pathComponent.dependsOn(Arrays.asList("10", "a"), 0));
+        assertTrue(pathComponent.dependsOn(Arrays.asList("x", "1"), 1));
+        assertFalse(pathComponent.dependsOn(Arrays.asList("0"), 0));
+        assertFalse(pathComponent.dependsOn(Arrays.asList("01"), 0));
+        assertTrue(new IndexPathComponent(new IndexPathComponent(null, "0"), "1, 2").dependsOn(Arrays.asList("1", "3"), 0));
+        assertFalse(new IndexPathComponent(new IndexPathComponent(null, "0"), "1").dependsOn(Arrays.asList("1", "3"), 0));
+    }
+
     @Test
     public void testToString() {
         assertEquals("IndexPathComponent [indexes=[0, 1]]", new IndexPathComponent(null, "0,1").toString());
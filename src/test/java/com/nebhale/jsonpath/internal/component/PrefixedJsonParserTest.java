@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+public final class PrefixedJsonParserTest {
+
+    private static final String JSON = "{\"a\":1,\"b\":[2,{\"c\":3}],\"d\":4}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile JsonParser rest;
+
+    private volatile JsonParser parser;
+
+    @Before
+    public void parsers() throws IOException {
+        this.rest = this.objectMapper.getFactory().createParser(JSON);
+        this.rest.nextToken();
+        this.rest.nextToken();
+        this.rest.nextToken();
+
+        TokenBuffer prefix = new TokenBuffer(this.objectMapper);
+        prefix.writeStartObject();
+        prefix.writeFieldName("a");
+        prefix.writeNumber(1);
+
+        this.parser = new PrefixedJsonParser(prefix.asParser(this.objectMapper), this.rest);
+        this.parser.nextToken();
+    }
+
+    @Test
+    public void nextToken() throws IOException {
+        assertEquals(JsonToken.FIELD_NAME, this.parser.nextToken());
+        assertEquals(JsonToken.VALUE_NUMBER_INT, this.parser.nextToken());
+        assertEquals(JsonToken.FIELD_NAME, this.parser.nextToken());
+        assertEquals("b", this.parser.getCurrentName());
+        assertEquals(JsonToken.FIELD_NAME, this.rest.getCurrentToken());
+    }
+
+    @Test
+    public void nextValue() throws IOException {
+        assertEquals(JsonToken.VALUE_NUMBER_INT, this.parser.nextValue());
+        assertEquals(JsonToken.START_ARRAY, this.parser.nextValue());
+    }
+
+    @Test
+    public void readValueAsTree() throws IOException {
+        JsonNode expected = this.objectMapper.readTree(JSON);
+        assertEquals(expected, this.parser.readValueAsTree());
+    }
+
+    @Test
+    public void skipChildren() throws IOException {
+        this.parser.skipChildren();
+
+        assertEquals(JsonToken.END_OBJECT, this.parser.getCurrentToken());
+        assertEquals(JsonToken.END_OBJECT, this.rest.getCurrentToken());
+        assertEquals(null, this.rest.nextToken());
+    }
+
+    @Test
+    public void skipChildrenInRest() throws IOException {
+        this.parser.nextToken();
+        this.parser.nextToken();
+        this.parser.nextToken();
+        this.parser.nextToken();
+        this.parser.skipChildren();
+
+        assertEquals(JsonToken.END_ARRAY, this.rest.getCurrentToken());
+        assertEquals(JsonToken.FIELD_NAME, this.parser.nextToken());
+        assertEquals("d", this.parser.getCurrentName());
+    }
+
+    @Test
+    public void close() throws IOException {
+        this.parser.close();
+
+        assertTrue(this.parser.isClosed());
+        assertFalse(this.rest.isClosed());
+    }
+
+    @Test
+    public void testToString() {
+        assertTrue(this.parser.toString().startsWith("PrefixedJsonParser [prefix="));
+    }
+
+}
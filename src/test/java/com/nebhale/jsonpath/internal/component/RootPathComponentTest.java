@@ -18,7 +18,12 @@ package com.nebhale.jsonpath.internal.component;
 
 import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.junit.Test;
 
@@ -31,6 +36,36 @@ public final class RootPathComponentTest {
         assertSame(NODE, this.pathComponent.select(NODE));
     }
 
+    @Test
+    public void dependsOn() {
+        RootPathComponent pathComponent = new RootPathComponent(new ChildPathComponent(null, "a"));
+
+        assertTrue(pathComponent.dependsOn(Collections.<String> emptyList(), 0));
+        assertTrue(pathComponent.dependsOn(Arrays.asList("a"), 0));
+        assertFalse(pathComponent.dependsOn(Arrays.asList("b"), 0));
+    }
+
+    @Test
+    public void isElementWise() {
+        assertTrue(new RootPathComponent(new WildcardPathComponent(new ChildPathComponent(null, "a"))).isElementWise());
+        assertTrue(new RootPathComponent(new FilterPathComponent(null, null)).isElementWise());
+        assertFalse(new RootPathComponent(new ChildPathComponent(new WildcardPathComponent(null), "a")).isElementWise());
+        assertFalse(new RootPathComponent(new WildcardPathComponent(new AggregatePathComponent(null, null))).isElementWise());
+        assertFalse(new RootPathComponent(new WildcardPathComponent(new DeepWildcardPathComponent(null))).isElementWise());
+        assertFalse(new RootPathComponent(new WildcardPathComponent(new IndexPathComponent(null, "0"))).isElementWise());
+        assertFalse(this.pathComponent.isElementWise());
+    }
+
+    @Test
+    public void isDeepElementWise() {
+        assertTrue(new RootPathComponent(new DeepWildcardPathComponent(new ChildPathComponent(null, "a"))).isDeepElementWise());
+        assertTrue(new RootPathComponent(new DeepWildcardPathComponent(null)).isDeepElementWise());
+        assertFalse(new RootPathComponent(new DeepWildcardPathComponent(new AggregatePathComponent(null, null))).isDeepElementWise());
+        assertFalse(new RootPathComponent(new DeepWildcardPathComponent(new DeepWildcardPathComponent(null))).isDeepElementWise());
+        assertFalse(new RootPathComponent(new WildcardPathComponent(null)).isDeepElementWise());
+        assertFalse(this.pathComponent.isDeepElementWise());
+    }
+
     @Test
     public void testToString() {
         assertEquals("RootPathComponent []", new RootPathComponent(null).toString());
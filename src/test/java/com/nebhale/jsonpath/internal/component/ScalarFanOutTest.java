@@ -0,0 +1,193 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public final class ScalarFanOutTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    public void sharedNames() throws IOException {
+        ScalarMatchHandler[] handlers = match("{\"x\":true,\"a\":{\"c\":\"two\",\"b\":1}}", path("a", "b"), path("a", "c"), path("x"));
+
+        assertEquals(1, handlers[0].getLongValue());
+        assertEquals("two", handlers[1].getText());
+        assertEquals(JsonToken.VALUE_TRUE, handlers[2].getToken());
+    }
+
+    @Test
+    public void sameAsSingleSelections() throws IOException {
+        List<PathComponent> pathComponents = Arrays.<PathComponent> asList(path("a"), path("a", "b"), path("a", "c"),
+            new RootPathComponent(new ChildPathComponent(new WildcardPathComponent(null), "d")), path("d", "e"), path(), path("f"));
+
+        for (String json : Arrays.asList("{\"a\":{\"b\":1,\"c\":[2,3]},\"d\":{\"e\":4,\"f\":5}}", "{\"a\":[{\"b\":1},{\"b\":2}]}",
+            "{\"a\":7,\"d\":[{\"e\":8}],\"f\":null}", "[1,2]", "\"alpha\"", "{}")) {
+            ScalarMatchHandler[] handlers = match(json, pathComponents.toArray(new PathComponent[pathComponents.size()]));
+
+            for (int i = 0; i < handlers.length; i++) {
+                ScalarMatchHandler expected = matchSingle(json, pathComponents.get(i));
+                assertEquals(json + " " + i, expected.getToken(), handlers[i].getToken());
+                assertEquals(json + " " + i, expected.getLongValue(), handlers[i].getLongValue());
+                assertEquals(json + " " + i, expected.getText(), handlers[i].getText());
+            }
+        }
+    }
+
+    @Test
+    public void inMemory() throws IOException {
+        JsonParser parser = OBJECT_MAPPER.getFactory().createParser("{\"x\":true,\"a\":{\"p\":{\"c\":\"two\",\"b\":1}}}".getBytes("UTF-8"));
+        parser.nextToken();
+
+        ScalarMatchHandler[] handlers = handlers(2);
+        try {
+            new ScalarFanOut(Arrays.<PathComponent> asList(new RootPathComponent(new ChildPathComponent(new WildcardPathComponent(
+                new ChildPathComponent(null, "b")), "a")), path("x"))).createMatchHandler(handlers, true).match(parser);
+            fail();
+        } catch (SelectionCompleteException e) {
+            // Expected
+        }
+
+        assertEquals(1, handlers[0].getLongValue());
+        assertEquals(JsonToken.VALUE_TRUE, handlers[1].getToken());
+    }
+
+    @Test
+    public void node() throws IOException {
+        ScalarMatchHandler[] handlers = handlers(2);
+        new ScalarFanOut(Arrays.<PathComponent> asList(path("a", "b"), path("c"))).createMatchHandler(handlers, false).match(
+            OBJECT_MAPPER.readTree("{\"a\":{\"b\":1},\"c\":\"two\"}"));
+
+        assertEquals(1, handlers[0].getLongValue());
+        assertEquals("two", handlers[1].getText());
+    }
+
+    @Test
+    public void duplicateNames() throws IOException {
+        ScalarMatchHandler[] handlers = match("{\"a\":{\"c\":1},\"a\":{\"b\":2,\"c\":3}}", path("a", "b"), path("a", "c"));
+
+        assertNull(handlers[0].getToken());
+        assertEquals(1, handlers[1].getLongValue());
+    }
+
+    @Test
+    public void stopsOnceComplete() throws IOException {
+        JsonParser parser = OBJECT_MAPPER.getFactory().createParser("{\"a\":1,\"b\":2,\"rest\":[");
+        parser.nextToken();
+
+        ScalarMatchHandler[] handlers = handlers(2);
+        try {
+            new ScalarFanOut(Arrays.<PathComponent> asList(path("b"), path("a"))).createMatchHandler(handlers, false).match(parser);
+            fail();
+        } catch (SelectionCompleteException e) {
+            // Expected
+        }
+
+        assertEquals(2, handlers[0].getLongValue());
+        assertEquals(1, handlers[1].getLongValue());
+    }
+
+    @Test
+    public void skipsRestOfStoppedSelection() throws IOException {
+        JsonParser parser = OBJECT_MAPPER.getFactory().createParser("{\"a\":{\"p\":[1,{\"q\":2}],\"r\":3},\"z\":4}");
+        parser.nextToken();
+
+        ScalarMatchHandler[] handlers = handlers(3);
+        new ScalarFanOut(Arrays.<PathComponent> asList(new RootPathComponent(new ChildPathComponent(new WildcardPathComponent(null), "a")),
+            path("z"), path("missing"))).createMatchHandler(handlers, false).match(parser);
+
+        assertEquals(JsonToken.START_ARRAY, handlers[0].getToken());
+        assertEquals(4, handlers[1].getLongValue());
+        assertNull(handlers[2].getToken());
+        assertEquals(JsonToken.END_OBJECT, parser.getCurrentToken());
+        assertNull(parser.nextToken());
+    }
+
+    @Test
+    public void noSelections() throws IOException {
+        JsonParser parser = OBJECT_MAPPER.getFactory().createParser("{\"a\":[1,2]}");
+        parser.nextToken();
+
+        new ScalarFanOut(Arrays.<PathComponent> asList()).createMatchHandler(handlers(0), false).match(parser);
+
+        assertEquals(JsonToken.END_OBJECT, parser.getCurrentToken());
+        assertTrue(parser.getParsingContext().inRoot());
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("ScalarFanOut [selections=2, nodes=3]",
+            new ScalarFanOut(Arrays.<PathComponent> asList(path("a", "b"), path("a"))).toString());
+    }
+
+    private static PathComponent path(String... names) {
+        PathComponent pathComponent = null;
+        for (int i = names.length - 1; i >= 0; i--) {
+            pathComponent = new ChildPathComponent(pathComponent, names[i]);
+        }
+        return new RootPathComponent(pathComponent);
+    }
+
+    private static ScalarMatchHandler[] handlers(int count) {
+        ScalarMatchHandler[] handlers = new ScalarMatchHandler[count];
+        for (int i = 0; i < count; i++) {
+            handlers[i] = new ScalarMatchHandler();
+        }
+        return handlers;
+    }
+
+    private static ScalarMatchHandler[] match(String json, PathComponent... pathComponents) throws IOException {
+        JsonParser parser = OBJECT_MAPPER.getFactory().createParser(json);
+        parser.nextToken();
+
+        ScalarMatchHandler[] handlers = handlers(pathComponents.length);
+        try {
+            new ScalarFanOut(Arrays.asList(pathComponents)).createMatchHandler(handlers, false).match(parser);
+        } catch (SelectionCompleteException e) {
+            // Every selection has kept its value
+        }
+        return handlers;
+    }
+
+    private static ScalarMatchHandler matchSingle(String json, PathComponent pathComponent) throws IOException {
+        JsonParser parser = OBJECT_MAPPER.getFactory().createParser(json);
+        parser.nextToken();
+
+        ScalarMatchHandler handler = new ScalarMatchHandler();
+        try {
+            pathComponent.createMatchHandler(handler).match(parser);
+        } catch (SelectionCompleteException e) {
+            // The selection has kept its value
+        }
+        return handler;
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+public final class ScalarMatchHandlerTest {
+
+    @Test
+    public void none() {
+        assertNull(new ScalarMatchHandler().getToken());
+    }
+
+    @Test
+    public void node() {
+        ScalarMatchHandler handler = match(JsonNodeFactory.instance.numberNode(8.95));
+        assertEquals(JsonToken.VALUE_NUMBER_FLOAT, handler.getToken());
+        assertEquals(8.95, handler.getDoubleValue(), 0);
+
+        assertEquals(42, match(JsonNodeFactory.instance.numberNode(42L)).getLongValue());
+        assertNull(match(JsonNodeFactory.instance.numberNode(42L)).getBigIntegerValue());
+        assertEquals(new BigInteger("12345678901234567890"),
+            match(JsonNodeFactory.instance.numberNode(new BigInteger("12345678901234567890"))).getBigIntegerValue());
+        assertEquals("alpha", match(JsonNodeFactory.instance.textNode("alpha")).getText());
+        assertEquals(JsonToken.VALUE_TRUE, match(JsonNodeFactory.instance.booleanNode(true)).getToken());
+        assertEquals(JsonToken.VALUE_NULL, match(JsonNodeFactory.instance.nullNode()).getToken());
+        assertEquals(JsonToken.START_ARRAY, match(JsonNodeFactory.instance.arrayNode()).getToken());
+        assertEquals(JsonToken.START_OBJECT, match(JsonNodeFactory.instance.objectNode()).getToken());
+    }
+
+    @Test
+    public void parser() throws IOException {
+        ScalarMatchHandler handler = match("12345678901");
+        assertEquals(JsonToken.VALUE_NUMBER_INT, handler.getToken());
+        assertEquals(12345678901L, handler.getLongValue());
+        assertEquals(12345678901.0, handler.getDoubleValue(), 0);
+        assertNull(handler.getBigIntegerValue());
+
+        assertEquals(1.5, match("1.5").getDoubleValue(), 0);
+        assertEquals(new BigInteger("9223372036854775808"), match("9223372036854775808").getBigIntegerValue());
+        assertEquals("alpha", match("\"alpha\"").getText());
+        assertEquals(JsonToken.VALUE_FALSE, match("false").getToken());
+        assertEquals(JsonToken.START_OBJECT, match("{\"a\":1}").getToken());
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("ScalarMatchHandler [token=null]", new ScalarMatchHandler().toString());
+    }
+
+    private static ScalarMatchHandler match(JsonNode value) {
+        ScalarMatchHandler handler = new ScalarMatchHandler();
+        try {
+            handler.match(value);
+            fail();
+        } catch (SelectionCompleteException e) {
+            // Expected
+        }
+        return handler;
+    }
+
+    private static ScalarMatchHandler match(String json) throws IOException {
+        JsonParser parser = new ObjectMapper().getFactory().createParser(json);
+        parser.nextToken();
+
+        ScalarMatchHandler handler = new ScalarMatchHandler();
+        try {
+            handler.match(parser);
+            fail();
+        } catch (SelectionCompleteException e) {
+            // Expected
+        }
+        return handler;
+    }
+
+}
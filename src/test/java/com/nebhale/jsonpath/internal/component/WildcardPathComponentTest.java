@@ -18,6 +18,10 @@ package com.nebhale.jsonpath.internal.component;
 
 import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
 
 import org.junit.Test;
 
@@ -55,6 +59,16 @@ public final class WildcardPathComponentTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    public void dependsOn() {
+        WildcardPathComponent pathComponent = new WildcardPathComponent(new ChildPathComponent(null, "a"));
+
+        assertTrue(pathComponent.dependsOn(Arrays.asList("x", "a"), 0));
+        assertTrue(pathComponent.dependsOn(Arrays.asList("x"), 0));
+        assertFalse(pathComponent.dependsOn(Arrays.asList("x", "b"), 0));
+        assertTrue(new WildcardPathComponent(new IndexPathComponent(null, "1")).dependsOn(Arrays.asList("x", "c"), 0));
+    }
+
     @Test
     public void testToString() {
         assertEquals("WildcardPathComponent []", new WildcardPathComponent(null).toString());
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.BigIntegerNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+public final class ComparisonOperatorTest {
+
+    @Test
+    public void reverse() {
+        assertEquals(ComparisonOperator.GREATER_THAN, ComparisonOperator.LESS_THAN.reverse());
+        assertEquals(ComparisonOperator.LESS_THAN_OR_EQUAL, ComparisonOperator.GREATER_THAN_OR_EQUAL.reverse());
+        assertEquals(ComparisonOperator.EQUAL, ComparisonOperator.EQUAL.reverse());
+    }
+
+    @Test
+    public void applyLong() {
+        assertTrue(ComparisonOperator.EQUAL.apply(Long.MAX_VALUE, Long.MAX_VALUE));
+        assertFalse(ComparisonOperator.EQUAL.apply(Long.MAX_VALUE, Long.MAX_VALUE - 1));
+        assertTrue(ComparisonOperator.LESS_THAN.apply(1L, 2L));
+    }
+
+    @Test
+    public void applyDouble() {
+        assertTrue(ComparisonOperator.GREATER_THAN_OR_EQUAL.apply(2.5, 2.5));
+        assertFalse(ComparisonOperator.NOT_EQUAL.apply(Double.NaN, 1.0));
+        assertFalse(ComparisonOperator.EQUAL.apply(Double.NaN, Double.NaN));
+    }
+
+    @Test
+    public void applyNode() {
+        assertTrue(ComparisonOperator.EQUAL.apply(IntNode.valueOf(1), LongNode.valueOf(1)));
+        assertTrue(ComparisonOperator.LESS_THAN.apply(IntNode.valueOf(1), DoubleNode.valueOf(1.5)));
+        assertTrue(ComparisonOperator.LESS_THAN.apply(new TextNode("a"), new TextNode("b")));
+        assertTrue(ComparisonOperator.EQUAL.apply(BooleanNode.TRUE, BooleanNode.TRUE));
+        assertFalse(ComparisonOperator.LESS_THAN.apply(BooleanNode.FALSE, BooleanNode.TRUE));
+        assertTrue(ComparisonOperator.NOT_EQUAL.apply(new TextNode("1"), IntNode.valueOf(1)));
+        assertFalse(ComparisonOperator.NOT_EQUAL.apply(null, IntNode.valueOf(1)));
+    }
+
+    @Test
+    public void applyNodeBeyondLong() {
+        BigIntegerNode big = BigIntegerNode.valueOf(new BigInteger("12345678901234567890"));
+        assertTrue(ComparisonOperator.GREATER_THAN.apply(big, LongNode.valueOf(Long.MAX_VALUE)));
+        assertFalse(ComparisonOperator.EQUAL.apply(big, LongNode.valueOf(-6101065172474983726L)));
+        assertTrue(ComparisonOperator.EQUAL.apply(big, BigIntegerNode.valueOf(new BigInteger("12345678901234567890"))));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("<=", ComparisonOperator.LESS_THAN_OR_EQUAL.toString());
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.expression;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+public final class FieldConditionTest {
+
+    private static final PathOperand PATH_A = new PathOperand(new String[] { "a" }, new int[1]);
+
+    private static final PathOperand PATH_A_B = new PathOperand(new String[] { "a", "b" }, new int[2]);
+
+    @Test
+    public void extract() {
+        Predicate predicate = new AndPredicate(new AndPredicate(new LongComparisonPredicate(PATH_A, ComparisonOperator.LESS_THAN, 1),
+            new StringComparisonPredicate(PATH_A, ComparisonOperator.EQUAL, "x")), new AndPredicate(new DoubleComparisonPredicate(
+            new NumericPathExpression(PATH_A), ComparisonOperator.GREATER_THAN, new NumericLiteral(1.5)), new NodeComparisonPredicate(PATH_A,
+            ComparisonOperator.EQUAL, new LiteralOperand(JsonNodeFactory.instance.booleanNode(true)))));
+
+        List<FieldCondition> conditions = FieldCondition.extract(predicate);
+
+        assertEquals(4, conditions.size());
+        assertEquals("FieldCondition [field=a, operator=<, value=1]", conditions.get(0).toString());
+        assertEquals("FieldCondition [field=a, operator===, value=\"x\"]", conditions.get(1).toString());
+        assertEquals("FieldCondition [field=a, operator=>, value=1.5]", conditions.get(2).toString());
+        assertEquals("FieldCondition [field=a, operator===, value=true]", conditions.get(3).toString());
+    }
+
+    @Test
+    public void extractNone() {
+        assertEquals(0, FieldCondition.extract(new OrPredicate(new LongComparisonPredicate(PATH_A, ComparisonOperator.EQUAL, 1),
+            ConstantPredicate.TRUE)).size());
+        assertEquals(0, FieldCondition.extract(new LongComparisonPredicate(PATH_A_B, ComparisonOperator.EQUAL, 1)).size());
+        assertEquals(0, FieldCondition.extract(new NodeComparisonPredicate(PATH_A, ComparisonOperator.EQUAL, PATH_A_B)).size());
+        assertEquals(0, FieldCondition.extract(new DoubleComparisonPredicate(new LengthExpression(PATH_A), ComparisonOperator.EQUAL,
+            new NumericLiteral(1))).size());
+        assertEquals(0, FieldCondition.extract(new ExistsPredicate(PATH_A)).size());
+    }
+
+    @Test
+    public void getters() {
+        FieldCondition condition = new FieldCondition("a", ComparisonOperator.EQUAL, JsonNodeFactory.instance.numberNode(1));
+
+        assertEquals("a", condition.getField());
+        assertEquals(ComparisonOperator.EQUAL, condition.getOperator());
+        assertEquals(JsonNodeFactory.instance.numberNode(1), condition.getValue());
+    }
+
+}
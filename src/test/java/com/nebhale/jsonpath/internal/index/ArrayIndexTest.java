@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.nebhale.jsonpath.internal.expression.AndPredicate;
+import com.nebhale.jsonpath.internal.expression.ComparisonOperator;
+import com.nebhale.jsonpath.internal.expression.ConstantPredicate;
+import com.nebhale.jsonpath.internal.expression.LongComparisonPredicate;
+import com.nebhale.jsonpath.internal.expression.PathOperand;
+import com.nebhale.jsonpath.internal.expression.StringComparisonPredicate;
+
+public final class ArrayIndexTest {
+
+    private final ArrayNode array = createArray();
+
+    private final ArrayIndex index = createIndex(this.array);
+
+    @Test
+    public void findSmallest() {
+        AndPredicate predicate = new AndPredicate(new LongComparisonPredicate(new PathOperand(new String[] { "a" }, new int[1]),
+            ComparisonOperator.LESS_THAN, 10), new StringComparisonPredicate(new PathOperand(new String[] { "b" }, new int[1]),
+            ComparisonOperator.EQUAL, "y"));
+
+        assertArrayEquals(new int[] { 1 }, this.index.find(predicate));
+    }
+
+    @Test
+    public void findNotIndexed() {
+        assertNull(this.index.find(ConstantPredicate.TRUE));
+        assertNull(this.index.find(new LongComparisonPredicate(new PathOperand(new String[] { "c" }, new int[1]), ComparisonOperator.EQUAL, 1)));
+        assertNull(this.index.find(new StringComparisonPredicate(new PathOperand(new String[] { "b" }, new int[1]), ComparisonOperator.LESS_THAN,
+            "y")));
+    }
+
+    @Test
+    public void stale() {
+        assertFalse(this.index.isStale());
+        this.array.addObject();
+        assertTrue(this.index.isStale());
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("ArrayIndex [fieldIndexes={}, size=0]", new ArrayIndex(JsonNodeFactory.instance.arrayNode()).toString());
+    }
+
+    private static ArrayNode createArray() {
+        ArrayNode array = JsonNodeFactory.instance.arrayNode();
+        for (int i = 0; i < 3; i++) {
+            array.addObject().put("a", i).put("b", i == 1 ? "y" : "x");
+        }
+        return array;
+    }
+
+    private static ArrayIndex createIndex(ArrayNode array) {
+        ArrayIndex index = new ArrayIndex(array);
+        index.add("a", new SortedFieldIndex(array, "a"));
+        index.add("b", new HashFieldIndex(array, "b"));
+        return index;
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.nebhale.jsonpath.internal.expression.ComparisonOperator;
+
+public final class HashFieldIndexTest {
+
+    private final HashFieldIndex index = new HashFieldIndex(createArray(), "key");
+
+    @Test
+    public void findNumber() {
+        assertArrayEquals(new int[] { 0, 2, 3 }, this.index.find(ComparisonOperator.EQUAL, JsonNodeFactory.instance.numberNode(1)));
+        assertArrayEquals(new int[] { 0, 2, 3 }, this.index.find(ComparisonOperator.EQUAL, JsonNodeFactory.instance.numberNode(1.0)));
+        assertArrayEquals(new int[] { 5 }, this.index.find(ComparisonOperator.EQUAL, JsonNodeFactory.instance.numberNode(0)));
+    }
+
+    @Test
+    public void findString() {
+        assertArrayEquals(new int[] { 1 }, this.index.find(ComparisonOperator.EQUAL, JsonNodeFactory.instance.textNode("1")));
+    }
+
+    @Test
+    public void findOther() {
+        assertArrayEquals(new int[] { 4 }, this.index.find(ComparisonOperator.EQUAL, JsonNodeFactory.instance.booleanNode(true)));
+        assertArrayEquals(new int[0], this.index.find(ComparisonOperator.EQUAL, JsonNodeFactory.instance.nullNode()));
+    }
+
+    @Test
+    public void findUnsupported() {
+        assertNull(this.index.find(ComparisonOperator.LESS_THAN, JsonNodeFactory.instance.numberNode(1)));
+        assertNull(this.index.find(ComparisonOperator.NOT_EQUAL, JsonNodeFactory.instance.numberNode(1)));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("HashFieldIndex [field=key, keys=4]", this.index.toString());
+    }
+
+    private static ArrayNode createArray() {
+        ArrayNode array = JsonNodeFactory.instance.arrayNode();
+        array.addObject().put("key", 1);
+        array.addObject().put("key", "1");
+        array.addObject().put("key", 1.0);
+        array.addObject().put("key", 1L);
+        array.addObject().put("key", true);
+        array.addObject().put("key", -0.0);
+        array.addObject();
+        array.add(1);
+        return array;
+    }
+
+}
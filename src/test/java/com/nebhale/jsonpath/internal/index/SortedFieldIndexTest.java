@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.nebhale.jsonpath.internal.expression.ComparisonOperator;
+
+public final class SortedFieldIndexTest {
+
+    private final SortedFieldIndex index = new SortedFieldIndex(createArray(), "key");
+
+    @Test
+    public void findNumber() {
+        assertArrayEquals(new int[] { 0, 5 }, this.index.find(ComparisonOperator.EQUAL, JsonNodeFactory.instance.numberNode(3)));
+        assertArrayEquals(new int[] { 2, 3, 6 }, this.index.find(ComparisonOperator.LESS_THAN, JsonNodeFactory.instance.numberNode(2.5)));
+        assertArrayEquals(new int[] { 0, 2, 3, 5, 6 }, this.index.find(ComparisonOperator.LESS_THAN_OR_EQUAL,
+            JsonNodeFactory.instance.numberNode(3)));
+        assertArrayEquals(new int[] { 0, 3, 5, 7 }, this.index.find(ComparisonOperator.GREATER_THAN, JsonNodeFactory.instance.numberNode(2)));
+        assertArrayEquals(new int[] { 7 }, this.index.find(ComparisonOperator.GREATER_THAN_OR_EQUAL, JsonNodeFactory.instance.numberNode(10)));
+        assertArrayEquals(new int[] { 6 }, this.index.find(ComparisonOperator.EQUAL, JsonNodeFactory.instance.numberNode(-0.0)));
+        assertArrayEquals(new int[0], this.index.find(ComparisonOperator.GREATER_THAN, JsonNodeFactory.instance.numberNode(100)));
+    }
+
+    @Test
+    public void findString() {
+        assertArrayEquals(new int[] { 1 }, this.index.find(ComparisonOperator.EQUAL, JsonNodeFactory.instance.textNode("b")));
+        assertArrayEquals(new int[] { 1, 4 }, this.index.find(ComparisonOperator.GREATER_THAN_OR_EQUAL, JsonNodeFactory.instance.textNode("b")));
+        assertArrayEquals(new int[0], this.index.find(ComparisonOperator.LESS_THAN, JsonNodeFactory.instance.textNode("a")));
+    }
+
+    @Test
+    public void findUnsupported() {
+        assertNull(this.index.find(ComparisonOperator.NOT_EQUAL, JsonNodeFactory.instance.numberNode(1)));
+        assertNull(this.index.find(ComparisonOperator.EQUAL, JsonNodeFactory.instance.booleanNode(true)));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("SortedFieldIndex [field=key, numbers=6, strings=2]", this.index.toString());
+    }
+
+    private static ArrayNode createArray() {
+        ArrayNode array = JsonNodeFactory.instance.arrayNode();
+        array.addObject().put("key", 3);
+        array.addObject().put("key", "b");
+        array.addObject().put("key", 1.5);
+        array.addObject().put("key", 2);
+        array.addObject().put("key", "c");
+        array.addObject().put("key", 3.0);
+        array.addObject().put("key", 0.0);
+        array.addObject().put("key", 10L);
+        array.addObject().put("key", true);
+        array.addObject();
+        return array;
+    }
+
+}
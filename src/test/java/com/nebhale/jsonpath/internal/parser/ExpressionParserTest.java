@@ -0,0 +1,252 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.parser;
+
+import static com.nebhale.jsonpath.testutils.AssertUtils.assertProblemCount;
+import static com.nebhale.jsonpath.testutils.JsonUtils.NODE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nebhale.jsonpath.internal.expression.ConstantPredicate;
+import com.nebhale.jsonpath.internal.expression.NumericExpression;
+import com.nebhale.jsonpath.internal.expression.Operand;
+import com.nebhale.jsonpath.internal.expression.Predicate;
+import com.nebhale.jsonpath.internal.parser.Token.TokenType;
+
+public final class ExpressionParserTest {
+
+    private static final JsonNode NODE_BOOK_0 = NODE.get("store").get("book").get(0);
+
+    private static final JsonNode NODE_BOOK_2 = NODE.get("store").get("book").get(2);
+
+    private final ExpressionParser parser = new ExpressionParser();
+
+    private final Set<String> fields = new LinkedHashSet<String>();
+
+    private final List<ExpressionProblem> problems = new ArrayList<ExpressionProblem>();
+
+    @Test
+    public void exists() {
+        assertFalse(parse("@.isbn").test(NODE_BOOK_0));
+        assertTrue(parse("@.isbn").test(NODE_BOOK_2));
+        assertTrue(parse("@['isbn']").test(NODE_BOOK_2));
+        assertTrue(parse("!@.isbn").test(NODE_BOOK_0));
+    }
+
+    @Test
+    public void numericComparison() {
+        assertTrue(parse("@.price < 10").test(NODE_BOOK_0));
+        assertTrue(parse("@.price <= 8.95").test(NODE_BOOK_0));
+        assertFalse(parse("@.price > 8.95").test(NODE_BOOK_0));
+        assertTrue(parse("@.price >= 8").test(NODE_BOOK_0));
+        assertTrue(parse("10 > @.price").test(NODE_BOOK_0));
+        assertTrue(parse("@.price == 8.95").test(NODE_BOOK_0));
+        assertTrue(parse("@.price != 9").test(NODE_BOOK_0));
+        assertFalse(parse("@.missing != 9").test(NODE_BOOK_0));
+    }
+
+    @Test
+    public void stringComparison() {
+        assertTrue(parse("@.category == 'reference'").test(NODE_BOOK_0));
+        assertTrue(parse("@.category != \"fiction\"").test(NODE_BOOK_0));
+        assertTrue(parse("@.author < 'O'").test(NODE_BOOK_0));
+        assertTrue(parse("@.title == 'Sayings of the Century'").test(NODE_BOOK_0));
+        assertFalse(parse("@.price == '8.95'").test(NODE_BOOK_0));
+    }
+
+    @Test
+    public void nodeComparison() {
+        assertTrue(parse("@.category == @['category']").test(NODE_BOOK_0));
+        assertFalse(parse("@.category == @.author").test(NODE_BOOK_0));
+
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        node.putNull("isbn");
+        assertTrue(parse("@.isbn == null").test(node));
+    }
+
+    @Test
+    public void arithmetic() {
+        assertTrue(parse("@.price * 2 > 17").test(NODE_BOOK_0));
+        assertTrue(parse("@.price - -1 > 9.9").test(NODE_BOOK_0));
+        assertTrue(parse("(@.price + 1) % 2 > 1").test(NODE_BOOK_0));
+        assertFalse(parse("@.title + 1 > 0").test(NODE_BOOK_0));
+    }
+
+    @Test
+    public void length() {
+        assertTrue(parse("@.length == 4").test(NODE_BOOK_0));
+        assertTrue(parse("@.size() == 4").test(NODE_BOOK_0));
+        assertTrue(parse("@.category.length == 9").test(NODE_BOOK_0));
+        assertTrue(parse("@.style[0].length == 4").test(NODE.get("store").get("bicycle").get(0)));
+    }
+
+    @Test
+    public void logical() {
+        assertTrue(parse("@.price < 10 && @.category == 'reference'").test(NODE_BOOK_0));
+        assertFalse(parse("@.price < 10 && @.isbn").test(NODE_BOOK_0));
+        assertTrue(parse("@.isbn || @.price < 10").test(NODE_BOOK_0));
+        assertTrue(parse("!(@.isbn || @.price > 10)").test(NODE_BOOK_0));
+    }
+
+    @Test
+    public void constantFolding() {
+        assertSame(ConstantPredicate.TRUE, parse("1 + 2 * 3 == 7"));
+        assertSame(ConstantPredicate.FALSE, parse("'a' == 'b'"));
+        assertSame(ConstantPredicate.FALSE, parse("@.price < 10 && false"));
+        assertSame(ConstantPredicate.TRUE, parse("true || @.price < 10"));
+        assertEquals("LongComparisonPredicate [left=PathOperand [names=[price], indexes=[0]], operator=<, right=20]",
+            parse("@.price < 10 * 2").toString());
+        assertEquals("LongComparisonPredicate [left=PathOperand [names=[price], indexes=[0]], operator=>, right=10]", parse("10 < @.price").toString());
+    }
+
+    @Test
+    public void problems() {
+        assertProblem("@.price <");
+        assertProblem("@.price + 1");
+        assertProblem("@.price < 10 &&");
+        assertProblem("(@.price < 10");
+        assertProblem("@.price < 10)");
+        assertProblem("@.title == 'Sayings");
+        assertProblem("@.");
+        assertProblem("@[foo]");
+        assertProblem("unknown");
+        assertProblem("'a' + 1 > 0");
+        assertProblem("(@.a < 1) < 2");
+        assertProblem("#");
+    }
+
+    @Test
+    public void regex() {
+        assertTrue(parse("@.category =~ /^ref/").test(NODE_BOOK_0));
+        assertFalse(parse("@.category =~ /^REF/").test(NODE_BOOK_0));
+        assertTrue(parse("@.category =~ /^REF/i").test(NODE_BOOK_0));
+        assertTrue(parse("@.isbn =~ /^\\d-\\d{3}-\\d{5}-\\d$/").test(NODE_BOOK_2));
+        assertFalse(parse("@.isbn =~ /x/").test(NODE_BOOK_0));
+        assertFalse(parse("@.price =~ /8/").test(NODE_BOOK_0));
+        assertTrue(parse("'a/b' =~ /a\\/b/ && @.category =~/e(?=f)/").test(NODE_BOOK_0));
+        assertSame(ConstantPredicate.FALSE, parse("'abc' =~ /d/"));
+        assertEquals(Arrays.asList("category", "isbn", "price"), new ArrayList<String>(this.fields));
+    }
+
+    @Test
+    public void regexLinearTime() {
+        ExpressionParser linearTimeParser = new ExpressionParser(true);
+        Token token = new Token(TokenType.FILTER, "@.category =~ /^ref(?=e)/", 0, 24);
+
+        assertNull(linearTimeParser.parsePredicate(token.getValue(), token, this.fields, this.problems));
+        assertProblemCount(new StubProblemContainer(this.problems), 1);
+        assertTrue(this.parser.parsePredicate(token.getValue(), token, this.fields, new ArrayList<ExpressionProblem>()).test(NODE_BOOK_0));
+    }
+
+    @Test
+    public void regexProblems() {
+        assertProblem("@.category =~ 'ref'");
+        assertProblem("@.category =~ /ref");
+        assertProblem("@.category =~ /(ref/");
+        assertProblem("@.category =~ /ref/x");
+        assertProblem("@.price + 1 =~ /ref/");
+    }
+
+    @Test
+    public void fields() {
+        parse("@.price < 10 && (@.isbn || @['category'] == @.author.name)");
+        assertEquals(Arrays.asList("price", "isbn", "category", "author"), new ArrayList<String>(this.fields));
+
+        this.fields.clear();
+        parse("@.length > 2 || @[0]");
+        assertEquals(Arrays.asList((String) null), new ArrayList<String>(this.fields));
+    }
+
+    @Test
+    public void script() {
+        JsonNode nodeBook = NODE.get("store").get("book");
+
+        assertEquals(3.0, ((NumericExpression) parseScript("@.length - 1")).evaluate(nodeBook), 0.0);
+        assertEquals(2.0, ((NumericExpression) parseScript(" @.size() / 2 ")).evaluate(nodeBook), 0.0);
+        assertEquals(JsonNodeFactory.instance.textNode("title"), ((Operand) parseScript("'title'")).evaluate(null));
+        assertEquals(NODE_BOOK_0.get("category"), ((Operand) parseScript("@.category")).evaluate(NODE_BOOK_0));
+    }
+
+    @Test
+    public void scriptProblems() {
+        assertScriptProblem("@.length -");
+        assertScriptProblem("@.length > 1");
+        assertScriptProblem("true");
+        assertScriptProblem("null");
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("ExpressionParser [linearTimeRegex=false]", this.parser.toString());
+    }
+
+    private Predicate parse(String expression) {
+        Predicate predicate = this.parser.parsePredicate(expression, new Token(TokenType.FILTER, expression, 0, expression.length() - 1), this.fields,
+            this.problems);
+        assertProblemCount(new StubProblemContainer(this.problems), 0);
+        return predicate;
+    }
+
+    private void assertProblem(String expression) {
+        this.problems.clear();
+        assertNull(this.parser.parsePredicate(expression, new Token(TokenType.FILTER, expression, 0, expression.length() - 1), this.fields,
+            this.problems));
+        assertProblemCount(new StubProblemContainer(this.problems), 1);
+    }
+
+    private Object parseScript(String expression) {
+        Object script = this.parser.parseScript(expression, new Token(TokenType.SCRIPT, expression, 0, expression.length() - 1), this.problems);
+        assertProblemCount(new StubProblemContainer(this.problems), 0);
+        return script;
+    }
+
+    private void assertScriptProblem(String expression) {
+        this.problems.clear();
+        assertNull(this.parser.parseScript(expression, new Token(TokenType.SCRIPT, expression, 0, expression.length() - 1), this.problems));
+        assertProblemCount(new StubProblemContainer(this.problems), 1);
+    }
+
+    private static final class StubProblemContainer implements ProblemContainer {
+
+        private final List<ExpressionProblem> problems;
+
+        private StubProblemContainer(List<ExpressionProblem> problems) {
+            this.problems = problems;
+        }
+
+        @Override
+        public List<ExpressionProblem> getProblems() {
+            return this.problems;
+        }
+
+    }
+
+}
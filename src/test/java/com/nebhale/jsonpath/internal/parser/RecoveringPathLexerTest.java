@@ -193,6 +193,80 @@ public class RecoveringPathLexerTest {
         assertEquals(new Token(TokenType.WILDCARD, 2), result.getTokenStream().remove());
     }
 
+    @Test
+    public void illegalFilterOpen() {
+        LexerResult result = this.lexer.lex("[?@]");
+        assertProblemCount(result, 1);
+    }
+
+    @Test
+    public void emptyFilter() {
+        LexerResult result = this.lexer.lex("[?()]");
+        assertProblemCount(result, 1);
+    }
+
+    @Test
+    public void unterminatedFilter() {
+        LexerResult result = this.lexer.lex("[?(@.price < 10]");
+        assertProblemCount(result, 1);
+    }
+
+    @Test
+    public void filter() {
+        LexerResult result = this.lexer.lex("[?(@.price < 10)]");
+        assertNoProblems(result);
+        assertEquals(new Token(TokenType.FILTER, "@.price < 10", 3, 14), result.getTokenStream().remove());
+    }
+
+    @Test
+    public void filterNested() {
+        LexerResult result = this.lexer.lex("[?((@.a == ')]') && (@.b))]");
+        assertNoProblems(result);
+        assertEquals(new Token(TokenType.FILTER, "(@.a == ')]') && (@.b)", 3, 24), result.getTokenStream().remove());
+    }
+
+    @Test
+    public void filterRegex() {
+        LexerResult result = this.lexer.lex("[?(@.a =~ /[)\\/]'/i && @.b / 2 > 1)]");
+        assertNoProblems(result);
+        assertEquals(new Token(TokenType.FILTER, "@.a =~ /[)\\/]'/i && @.b / 2 > 1", 3, 33), result.getTokenStream().remove());
+    }
+
+    @Test
+    public void emptyScript() {
+        LexerResult result = this.lexer.lex("[()]");
+        assertProblemCount(result, 1);
+    }
+
+    @Test
+    public void unterminatedScript() {
+        LexerResult result = this.lexer.lex("[(@.length - 1]");
+        assertProblemCount(result, 1);
+    }
+
+    @Test
+    public void script() {
+        LexerResult result = this.lexer.lex("[(@.length - 1)]");
+        assertNoProblems(result);
+        assertEquals(new Token(TokenType.SCRIPT, "@.length - 1", 2, 13), result.getTokenStream().remove());
+    }
+
+    @Test
+    public void function() {
+        LexerResult result = this.lexer.lex("$..price.sum()");
+        assertNoProblems(result);
+        result.getTokenStream().remove();
+        result.getTokenStream().remove();
+        assertEquals(new Token(TokenType.CHILD, "price", 3, 7), result.getTokenStream().remove());
+        assertEquals(new Token(TokenType.FUNCTION, "sum", 9, 11), result.getTokenStream().remove());
+    }
+
+    @Test
+    public void unterminatedFunction() {
+        LexerResult result = this.lexer.lex("$.sum(");
+        assertProblemCount(result, 1);
+    }
+
     @Test
     public void testToString() {
         assertEquals("RecoveringPathLexer []", this.lexer.toString());
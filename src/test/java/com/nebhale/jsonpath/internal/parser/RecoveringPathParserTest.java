@@ -131,6 +131,55 @@ public final class RecoveringPathParserTest {
         assertEquals(expected, result.getPathComponent().get(NODE));
     }
 
+    @Test
+    public void filter() {
+        JsonNode nodeBook = NODE.get("store").get("book");
+
+        ArrayNode expected = JsonNodeFactory.instance.arrayNode();
+        expected.add(nodeBook.get(0));
+        expected.add(nodeBook.get(2));
+
+        ParserResult result = this.parser.parse("$.store.book[?(@.price < 10)]");
+        assertNoProblems(result);
+        assertEquals(expected, result.getPathComponent().get(NODE));
+    }
+
+    @Test
+    public void filterProblems() {
+        assertProblemCount(this.parser.parse("$.store.book[?(@.price <)]"), 1);
+        assertProblemCount(this.parser.parse("$.store.book[?(@.price + 1)]"), 1);
+    }
+
+    @Test
+    public void script() {
+        JsonNode nodeBook = NODE.get("store").get("book");
+
+        ParserResult result = this.parser.parse("$.store.book[(@.length - 1)]");
+        assertNoProblems(result);
+        assertEquals(nodeBook.get(3), result.getPathComponent().get(NODE));
+
+        assertEquals(nodeBook, this.parser.parse("$.store[('book')]").getPathComponent().get(NODE));
+    }
+
+    @Test
+    public void scriptProblems() {
+        assertProblemCount(this.parser.parse("$.store.book[(@.length -)]"), 1);
+        assertProblemCount(this.parser.parse("$.store.book[(@.length > 1)]"), 1);
+    }
+
+    @Test
+    public void function() {
+        ParserResult result = this.parser.parse("$.store.book.length()");
+        assertNoProblems(result);
+        assertEquals(JsonNodeFactory.instance.numberNode(4), result.getPathComponent().get(NODE));
+    }
+
+    @Test
+    public void functionProblems() {
+        assertProblemCount(this.parser.parse("$.store.book.count()"), 1);
+        assertProblemCount(this.parser.parse("$.store.book.length().title"), 1);
+    }
+
     @Test
     public void chain() {
         assertEquals(NODE.get("store").get("book").get(0).get("title"), this.parser.parse("$.store.book[0].title").getPathComponent().get(NODE));
@@ -154,6 +203,6 @@ public final class RecoveringPathParserTest {
 
     @Test
     public void testToString() {
-        assertEquals("RecoveringPathParser []", this.parser.toString());
+        assertEquals("RecoveringPathParser [linearTimeRegex=false]", this.parser.toString());
     }
 }
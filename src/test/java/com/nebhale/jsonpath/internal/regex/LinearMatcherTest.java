@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.regex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+
+public final class LinearMatcherTest {
+
+    private static final String[] PATTERNS = { "", "a", "abc", "^abc$", "a|b|c", "(?:ab)+c", "a*b", "a+?", "colou?r", "x{2,3}", "x{2}", "x{2,}",
+        "x{0}y", "[a-c]+", "[^a-c]", "[\\d_-]", "[a-]", "[-a]", "[\\x41-\\u005A]", "\\w+@\\w+\\.com", "\\s", "\\S+", "\\D", "\\W", ".", "^.$",
+        "a.c", "^$", "$", "^", "a$", "^a", "b$", "(a|ab)(c|bcd)(d*)", "[A-Z]", "\\x41", "\\u00e9", "\\.", "(?:)", "a||b", "\\t", "\\(", "(a*)*b",
+        "^acct-\\d+$", "[&]", "[^\\s\\d]", "(?:a|b)*abb" };
+
+    private static final String[] INPUTS = { "", "a", "abc", "ABC", "xabcx", "ab\n", "ab\r\n", "ab\r", "\nab", "a\nb", "a\r\nb", "b\u2028",
+        "colour", "color", "xxx", "x", "y", "abcbcd", "foo@bar.com", " ", "\u00E9", "\u00C9", "a.c", "abd", "\u2028", "acct-12", "acct-12\n",
+        "aaab", "\uD83D\uDE00", "_-", "(", "\t", "&", "babb" };
+
+    @Test
+    public void sameAsPattern() {
+        int[] flags = { 0, Pattern.CASE_INSENSITIVE, Pattern.MULTILINE, Pattern.DOTALL };
+
+        for (int flag : flags) {
+            for (String pattern : PATTERNS) {
+                LinearMatcher matcher = new LinearMatcher(pattern, new RegexParser(pattern, flag).parse());
+                Pattern expected = Pattern.compile(pattern, flag);
+
+                for (String input : INPUTS) {
+                    assertEquals(String.format("/%s/ (%d) on '%s'", pattern, flag, input), expected.matcher(input).find(), matcher.find(input));
+                }
+            }
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void linearTime() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            sb.append('a');
+        }
+
+        assertFalse(new LinearMatcher("(a*)*b", new RegexParser("(a*)*b", 0).parse()).find(sb.toString()));
+        assertFalse(new LinearMatcher("(a|aa)+$x", new RegexParser("(a|aa)+$x", 0).parse()).find(sb.toString()));
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void tooLarge() {
+        new LinearMatcher("(a{100}){100}", new RegexParser("(a{100}){100}", 0).parse());
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("LinearMatcher [anchored=true, instructions=3]", new LinearMatcher("^a", new RegexParser("^a", 0).parse()).toString());
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.regex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+
+public final class RegexTest {
+
+    @Test
+    public void prefix() {
+        Regex regex = Regex.compile("^acct-\\d+$", "", false);
+
+        assertEquals("Regex [source=^acct-\\d+$, flags=, prefix=acct-, literal=null, linearTime=false]", regex.toString());
+        assertTrue(regex.find("acct-123"));
+        assertFalse(regex.find("acct-"));
+        assertFalse(regex.find("xacct-123"));
+    }
+
+    @Test
+    public void literal() {
+        Regex regex = Regex.compile("^a\\d+-[a-z]+@example\\.com$", "", true);
+
+        assertEquals("Regex [source=^a\\d+-[a-z]+@example\\.com$, flags=, prefix=a, literal=@example.com, linearTime=true]", regex.toString());
+        assertTrue(regex.find("a1-foo@example.com"));
+        assertFalse(regex.find("a1-foo@example.org"));
+        assertFalse(regex.find("b1-foo@example.com"));
+    }
+
+    @Test
+    public void noLiteral() {
+        assertEquals("Regex [source=^ab, flags=i, prefix=null, literal=null, linearTime=false]", Regex.compile("^ab", "i", false).toString());
+        assertEquals("Regex [source=^ab, flags=m, prefix=null, literal=ab, linearTime=false]", Regex.compile("^ab", "m", false).toString());
+        assertEquals("Regex [source=ab|cd, flags=, prefix=null, literal=null, linearTime=false]", Regex.compile("ab|cd", "", false).toString());
+        assertEquals("Regex [source=(a)\\1, flags=, prefix=null, literal=null, linearTime=false]", Regex.compile("(a)\\1", "", false).toString());
+    }
+
+    @Test
+    public void flags() {
+        assertTrue(Regex.compile("^B$", "mi", false).find("a\nb\nc"));
+        assertTrue(Regex.compile("^B$", "mi", true).find("a\nb\nc"));
+        assertTrue(Regex.compile("a.b", "s", true).find("a\nb"));
+        assertFalse(Regex.compile("a.b", "", true).find("a\nb"));
+    }
+
+    @Test
+    public void standardSyntax() {
+        assertTrue(Regex.compile("(a)\\1", "", false).find("aa"));
+        assertTrue(Regex.compile("a(?=b)", "", false).find("ab"));
+        assertTrue(Regex.compile("\\bword\\b", "", false).find("a word"));
+    }
+
+    @Test
+    public void linearTimeSyntax() {
+        assertIllegal("(a)\\1", "", true);
+        assertIllegal("a(?=b)", "", true);
+        assertIllegal("\\bword\\b", "", true);
+        assertIllegal("a*+", "", true);
+        assertIllegal("(?i)a", "", true);
+        assertIllegal("[a[b]]", "", true);
+        assertIllegal("[a&&b]", "", true);
+        assertIllegal("[]a]", "", true);
+        assertIllegal("[z-a]", "", true);
+        assertIllegal("\\p{L}", "", true);
+        assertIllegal("\\uD83D", "", true);
+    }
+
+    @Test
+    public void illegal() {
+        assertIllegal("(a", "", false);
+        assertIllegal("a)", "", true);
+        assertIllegal("*a", "", true);
+        assertIllegal("a**", "", true);
+        assertIllegal("a{2", "", true);
+        assertIllegal("a{3,2}", "", true);
+        assertIllegal("[a", "", true);
+        assertIllegal("\\x4", "", true);
+        assertIllegal("a", "x", false);
+    }
+
+    private static void assertIllegal(String source, String flags, boolean linearTime) {
+        try {
+            Regex.compile(source, flags, linearTime);
+            fail(String.format("/%s/%s compiled", source, flags));
+        } catch (PatternSyntaxException e) {
+            // Expected
+        }
+    }
+
+}
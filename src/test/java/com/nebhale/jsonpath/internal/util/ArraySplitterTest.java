@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+
+public final class ArraySplitterTest {
+
+    private static final String JSON = " [{\"a\":\"x,\\\"],[\"},[1,[2,3]],\"\\\\\",{\"b\":{\"c\":[4,5]}},6]";
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
+
+    @Test
+    public void split() throws InterruptedException, UnsupportedEncodingException {
+        byte[] json = JSON.getBytes("UTF-8");
+        int[] separators = { JSON.indexOf("},[") + 1, JSON.indexOf("]],") + 2, JSON.indexOf("\",{") + 1, JSON.lastIndexOf(",6") };
+
+        assertArrayEquals(new int[0], ArraySplitter.split(json, 1, this.executorService));
+        assertArrayEquals(separators, ArraySplitter.split(json, json.length, this.executorService));
+
+        for (int chunks = 2; chunks < json.length; chunks++) {
+            int[] commas = ArraySplitter.split(json, chunks, this.executorService);
+            assertTrue(commas.length < chunks);
+            for (int comma : commas) {
+                assertTrue(contains(separators, comma));
+            }
+        }
+    }
+
+    @Test
+    public void notAnArray() throws InterruptedException, UnsupportedEncodingException {
+        assertNull(ArraySplitter.split("{\"a\":[1,2]}".getBytes("UTF-8"), 4, this.executorService));
+        assertNull(ArraySplitter.split("   ".getBytes("UTF-8"), 4, this.executorService));
+    }
+
+    @Test
+    public void unbalanced() throws InterruptedException, UnsupportedEncodingException {
+        assertNull(ArraySplitter.split("[1,[2,3]".getBytes("UTF-8"), 4, this.executorService));
+        assertNull(ArraySplitter.split("[1,\"2,3]".getBytes("UTF-8"), 4, this.executorService));
+        assertEquals(2, ArraySplitter.split("[1,2,3]".getBytes("UTF-8"), 7, this.executorService).length);
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nebhale.jsonpath.internal.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public final class JsonFactoryPoolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JsonFactoryPool pool = new JsonFactoryPool(this.objectMapper, 2);
+
+    @Test
+    public void acquireReleased() {
+        JsonFactory factory = this.pool.acquire();
+        this.pool.release(factory);
+
+        assertEquals(1, this.pool.getIdleCount());
+        assertSame(factory, this.pool.acquire());
+        assertEquals(0, this.pool.getIdleCount());
+    }
+
+    @Test
+    public void acquireEmpty() {
+        JsonFactory first = this.pool.acquire();
+        JsonFactory second = this.pool.acquire();
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void ownBufferRecycler() {
+        JsonFactory first = this.pool.acquire();
+        JsonFactory second = this.pool.acquire();
+
+        assertSame(first._getBufferRecycler(), first._getBufferRecycler());
+        assertNotSame(first._getBufferRecycler(), second._getBufferRecycler());
+        assertNotSame(this.objectMapper.getFactory()._getBufferRecycler(), first._getBufferRecycler());
+    }
+
+    @Test
+    public void releaseBeyondCapacity() {
+        JsonFactory first = this.pool.acquire();
+        JsonFactory second = this.pool.acquire();
+        JsonFactory third = this.pool.acquire();
+
+        this.pool.release(first);
+        this.pool.release(second);
+        this.pool.release(third);
+
+        assertEquals(2, this.pool.getIdleCount());
+        assertSame(first, this.pool.acquire());
+        assertSame(second, this.pool.acquire());
+        assertNotSame(third, this.pool.acquire());
+    }
+
+    @Test
+    public void readTree() throws IOException {
+        JsonFactory factory = this.pool.acquire();
+        JsonParser parser = factory.createParser("{\"a\":[1,2]}");
+        try {
+            JsonNode tree = parser.readValueAsTree();
+            assertEquals(2, tree.get("a").size());
+        } finally {
+            parser.close();
+        }
+    }
+
+    @Test
+    public void testToString() {
+        this.pool.release(this.pool.acquire());
+
+        assertEquals("JsonFactoryPool [capacity=2, idle=1]", this.pool.toString());
+    }
+
+}
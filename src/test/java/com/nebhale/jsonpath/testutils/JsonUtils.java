@@ -18,10 +18,16 @@ package com.nebhale.jsonpath.testutils;
 
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nebhale.jsonpath.internal.component.CollectingMatchHandler;
+import com.nebhale.jsonpath.internal.component.MatchHandler;
+import com.nebhale.jsonpath.internal.component.PathComponent;
+import com.nebhale.jsonpath.internal.component.SelectionCompleteException;
 
 public final class JsonUtils {
 
@@ -31,16 +37,55 @@ public final class JsonUtils {
 
     public static final JsonNode NODE;
 
+    public static final byte[] BYTES_VALID;
+
     static {
         try {
             STRING_INVALID = readFile("src/test/resources/invalid.json");
             STRING_VALID = readFile("src/test/resources/valid.json");
             NODE = new ObjectMapper().readTree(STRING_VALID);
+            BYTES_VALID = STRING_VALID.getBytes("UTF-8");
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
     }
 
+    /**
+     * Selects content from a JSON payload by passing it as a token stream through the {@link MatchHandler}s created by
+     * a {@link PathComponent}
+     *
+     * @param pathComponent The {@link PathComponent} to select content with
+     * @param json The JSON payload to select content from
+     * @return The selected content
+     * @throws IOException if the JSON payload cannot be read
+     */
+    public static JsonNode stream(PathComponent pathComponent, String json) throws IOException {
+        return stream(pathComponent, new ObjectMapper().getFactory().createParser(json), false);
+    }
+
+    public static JsonNode stream(PathComponent pathComponent, byte[] json) throws IOException {
+        return stream(pathComponent, new ObjectMapper().getFactory().createParser(json), true);
+    }
+
+    public static JsonNode stream(PathComponent pathComponent, InputStream json) throws IOException {
+        return stream(pathComponent, new ObjectMapper().getFactory().createParser(json), false);
+    }
+
+    private static JsonNode stream(PathComponent pathComponent, JsonParser parser, boolean inMemory) throws IOException {
+        try {
+            parser.nextToken();
+            CollectingMatchHandler handler = new CollectingMatchHandler();
+            try {
+                pathComponent.createMatchHandler(handler, null, inMemory).match(parser);
+            } catch (SelectionCompleteException e) {
+                // Nothing more to select
+            }
+            return handler.getResult();
+        } finally {
+            parser.close();
+        }
+    }
+
     private static String readFile(String file) throws IOException {
         StringBuilder sb = new StringBuilder();
 